@@ -0,0 +1,46 @@
+package com.p6ebs.integration.bench;
+
+import com.p6ebs.integration.standin.PortfolioGenerator;
+import com.p6ebs.integration.standin.StandInDatabase;
+
+import java.io.File;
+import java.sql.SQLException;
+
+/**
+ * Stand-in databases for the benchmarks, one per size under
+ * target/benchmark-data, generated once and reused by later forks and runs.
+ *
+ * <p>For a size of N rows: N tasks and N task assignments spread over
+ * N / 1000 projects, N / 100 resources and N / 10 log entries, all already
+ * synced to EBS.
+ */
+public final class BenchmarkDatabase {
+    private static final String DATA_DIR = "target/benchmark-data";
+
+    private final StandInDatabase standIn;
+    private final PortfolioGenerator portfolio;
+
+    private BenchmarkDatabase(int rows) {
+        int projects = Math.max(1, rows / 1000);
+        this.portfolio = new PortfolioGenerator(projects, rows / projects, Math.max(10, rows / 100));
+        portfolio.setSyncedFraction(1.0);
+        portfolio.setLogEntries(Math.max(1, rows / 10));
+        this.standIn = StandInDatabase.inDirectory(new File(DATA_DIR, String.valueOf(rows)));
+    }
+
+    /**
+     * Generate the stand-in for a size if needed and point DatabaseManager at it
+     */
+    public static BenchmarkDatabase start(int rows) throws SQLException {
+        BenchmarkDatabase db = new BenchmarkDatabase(rows);
+        db.standIn.createIfNeeded(db.portfolio);
+        db.standIn.start();
+        return db;
+    }
+
+    public void stop() {
+        standIn.stop();
+    }
+
+    public int getResourceCount() { return portfolio.getResources(); }
+}
@@ -0,0 +1,47 @@
+package com.p6ebs.integration.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Entry point of target/benchmarks.jar. Accepts the standard JMH command line
+ * and always adds the GC profiler, so every result carries the allocation rate
+ * next to throughput and latency percentiles, and writes JSON results to
+ * target/jmh-result.json unless told otherwise, creating the directory if the
+ * jar is run from somewhere else.
+ */
+public final class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT = "target/jmh-result.json";
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        builder.addProfiler(GCProfiler.class);
+        if (!commandLine.getResult().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+            builder.result(DEFAULT_RESULT);
+        }
+        Options options = builder.build();
+        // JMH writes the results only after the last benchmark, and fails there if the directory is missing
+        Path parent = Paths.get(options.getResult().orElse(DEFAULT_RESULT)).toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new Runner(options).run();
+    }
+}
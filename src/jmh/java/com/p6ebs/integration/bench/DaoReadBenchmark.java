@@ -0,0 +1,165 @@
+package com.p6ebs.integration.bench;
+
+import com.p6ebs.integration.dao.LogDAO;
+import com.p6ebs.integration.dao.ProjectDAO;
+import com.p6ebs.integration.dao.ResourceDAO;
+import com.p6ebs.integration.dao.TaskDAO;
+import com.p6ebs.integration.model.LogEntry;
+import com.p6ebs.integration.model.Project;
+import com.p6ebs.integration.model.Resource;
+import com.p6ebs.integration.model.ResourceAssignment;
+import com.p6ebs.integration.model.ResourceRecord;
+import com.p6ebs.integration.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths of the DAOs against seeded P6, EBS and integration databases.
+ * Per-project reads target the first project, which holds rows / projects tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class DaoReadBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"200"})
+    public int pageSize;
+
+    private BenchmarkDatabase database;
+    private final ProjectDAO projectDAO = new ProjectDAO();
+    private final TaskDAO taskDAO = new TaskDAO();
+    private final ResourceDAO resourceDAO = new ResourceDAO();
+    private final LogDAO logDAO = new LogDAO();
+    private final long projectId = 1L;
+    private Timestamp recentChanges;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = BenchmarkDatabase.start(rows);
+        // Roughly the newest 1% of task updates, as an incremental sync would see them
+        recentChanges = new Timestamp(Timestamp.valueOf("2024-01-01 00:00:00").getTime() + rows * 990L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.stop();
+    }
+
+    @Benchmark
+    public List<Project> p6Projects() {
+        return projectDAO.getP6Projects();
+    }
+
+    @Benchmark
+    public List<Project> ebsProjects() {
+        return projectDAO.getEBSProjects();
+    }
+
+    @Benchmark
+    public List<Project> stagingProjects() {
+        return projectDAO.getStagingProjects();
+    }
+
+    @Benchmark
+    public List<Task> p6Tasks() {
+        return taskDAO.getP6Tasks(projectId);
+    }
+
+    @Benchmark
+    public int streamP6Tasks(Blackhole blackhole) {
+        return taskDAO.streamP6Tasks(projectId, blackhole::consume);
+    }
+
+    @Benchmark
+    public int countP6Tasks() {
+        return taskDAO.countP6Tasks(projectId);
+    }
+
+    @Benchmark
+    public List<Task> p6TasksFirstPage() {
+        return taskDAO.getP6TasksPage(projectId, null, 0, pageSize);
+    }
+
+    @Benchmark
+    public int p6TasksChangedSince(Blackhole blackhole) {
+        return taskDAO.streamP6TasksChangedSince(recentChanges, blackhole::consume);
+    }
+
+    @Benchmark
+    public List<Task> ebsTasks() {
+        return taskDAO.getEBSTasks(projectId);
+    }
+
+    @Benchmark
+    public List<Task> ebsTasksFirstPage() {
+        return taskDAO.getEBSTasksPage(projectId, null, 0, pageSize);
+    }
+
+    @Benchmark
+    public List<Task> stagingTasks() {
+        return taskDAO.getStagingTasks(projectId);
+    }
+
+    @Benchmark
+    public List<Resource> p6Resources() {
+        return resourceDAO.getP6Resources();
+    }
+
+    @Benchmark
+    public List<Resource> ebsResources() {
+        return resourceDAO.getEBSResources();
+    }
+
+    @Benchmark
+    public List<Resource> resourceAssignments() {
+        return resourceDAO.getResourceAssignments(projectId);
+    }
+
+    @Benchmark
+    public List<Resource> resourceAssignmentsFirstPage() {
+        return resourceDAO.getResourceAssignmentsPage(projectId, null, null, 0, pageSize);
+    }
+
+    @Benchmark
+    public List<ResourceRecord> p6ResourceRecords() {
+        return resourceDAO.getP6ResourceRecords();
+    }
+
+    @Benchmark
+    public List<ResourceAssignment> assignmentRecords() {
+        return resourceDAO.getAssignments(projectId);
+    }
+
+    @Benchmark
+    public List<LogEntry> newestLogPage() throws SQLException {
+        return logDAO.getLogsBefore(LogDAO.Filter.ALL, null, 0, pageSize);
+    }
+
+    @Benchmark
+    public List<LogEntry> newestErrorLogPage() throws SQLException {
+        return logDAO.getLogsBefore(LogDAO.Filter.ERRORS, null, 0, pageSize);
+    }
+}
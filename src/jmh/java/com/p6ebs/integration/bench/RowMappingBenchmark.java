@@ -0,0 +1,107 @@
+package com.p6ebs.integration.bench;
+
+import com.p6ebs.integration.dao.TaskDAO;
+import com.p6ebs.integration.util.DatabaseManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Separates the cost of mapping rows into model objects from the cost of the
+ * query itself: the same incremental task query is read once with raw column
+ * access and once through the DAO's mapper. The query touches every task
+ * changed in the seeded window, so rows scales the mapped volume directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class RowMappingBenchmark {
+    private static final String CHANGED_TASKS_SQL =
+            "SELECT task_id, proj_id, task_code, task_name, parent_task_id, " +
+            "target_start_date, target_end_date, target_drtn_hr_cnt, " +
+            "phys_complete_pct, status_code, update_date, delete_date " +
+            "FROM task " +
+            "WHERE task_type <> 'WBS' " +
+            "AND (update_date > ? OR delete_date > ?) " +
+            "ORDER BY update_date";
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private BenchmarkDatabase database;
+    private final TaskDAO taskDAO = new TaskDAO();
+    private Timestamp since;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = BenchmarkDatabase.start(rows);
+        // Every seeded task was updated after this
+        since = Timestamp.valueOf("2023-12-31 00:00:00");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.stop();
+    }
+
+    /**
+     * Iterate the result set reading each column, without building objects
+     */
+    @Benchmark
+    public int rawColumns(Blackhole blackhole) throws SQLException {
+        int count = 0;
+        try (Connection conn = DatabaseManager.getP6Connection();
+             PreparedStatement stmt = conn.prepareStatement(CHANGED_TASKS_SQL)) {
+            stmt.setTimestamp(1, since);
+            stmt.setTimestamp(2, since);
+            stmt.setFetchSize(DatabaseManager.getFetchSize());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    blackhole.consume(rs.getLong(1));
+                    blackhole.consume(rs.getLong(2));
+                    blackhole.consume(rs.getString(3));
+                    blackhole.consume(rs.getString(4));
+                    blackhole.consume(rs.getLong(5));
+                    blackhole.consume(rs.getDate(6));
+                    blackhole.consume(rs.getDate(7));
+                    blackhole.consume(rs.getDouble(8));
+                    blackhole.consume(rs.getDouble(9));
+                    blackhole.consume(rs.getString(10));
+                    blackhole.consume(rs.getTimestamp(11));
+                    blackhole.consume(rs.getTimestamp(12));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The same query mapped into Task objects by the DAO
+     */
+    @Benchmark
+    public int daoMapped(Blackhole blackhole) {
+        return taskDAO.streamP6TasksChangedSince(since, blackhole::consume);
+    }
+}
@@ -0,0 +1,121 @@
+package com.p6ebs.integration.bench;
+
+import com.p6ebs.integration.dao.ProjectDAO;
+import com.p6ebs.integration.dao.ResourceDAO;
+import com.p6ebs.integration.dao.TaskDAO;
+import com.p6ebs.integration.sync.SyncJobExecutor;
+import com.p6ebs.integration.sync.SyncRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sync procedure call paths against the stand-in procedures in
+ * {@link com.p6ebs.integration.standin.StandInProcedures}:
+ * one call per ID, one batched statement for all IDs, and a round trip through
+ * the {@link SyncJobExecutor}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class SyncTriggerBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"100"})
+    public int idsPerCall;
+
+    private BenchmarkDatabase database;
+    private final ProjectDAO projectDAO = new ProjectDAO();
+    private final TaskDAO taskDAO = new TaskDAO();
+    private final ResourceDAO resourceDAO = new ResourceDAO();
+    private List<Long> taskIds;
+    private List<Long> resourceIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = BenchmarkDatabase.start(rows);
+        taskIds = ids(Math.min(idsPerCall, rows));
+        resourceIds = ids(Math.min(idsPerCall, database.getResourceCount()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SyncJobExecutor.getInstance().shutdown();
+        database.stop();
+    }
+
+    @Benchmark
+    public boolean projectSync() {
+        return projectDAO.triggerProjectSync(1L);
+    }
+
+    @Benchmark
+    public boolean projectTasksSync() {
+        return taskDAO.triggerTasksSync(1L);
+    }
+
+    @Benchmark
+    public boolean taskSyncOneCallPerId() {
+        boolean success = true;
+        for (Long id : taskIds) {
+            success &= taskDAO.triggerTaskSync(id);
+        }
+        return success;
+    }
+
+    @Benchmark
+    public boolean taskSyncBatched() {
+        return taskDAO.triggerTaskSync(taskIds);
+    }
+
+    @Benchmark
+    public boolean resourceSyncOneCallPerId() {
+        boolean success = true;
+        for (Long id : resourceIds) {
+            success &= resourceDAO.triggerResourceSync(id);
+        }
+        return success;
+    }
+
+    @Benchmark
+    public boolean resourceSyncBatched() {
+        return resourceDAO.triggerResourceSync(resourceIds);
+    }
+
+    /**
+     * Submit a batched task request and wait for it, including queueing,
+     * dispatch and completion listeners
+     */
+    @Benchmark
+    public Boolean taskSyncThroughExecutor() {
+        return SyncJobExecutor.getInstance().submit(SyncRequest.tasks(taskIds)).getFuture().join();
+    }
+
+    private static List<Long> ids(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            ids.add(id);
+        }
+        return ids;
+    }
+}
@@ -1,17 +1,42 @@
 package com.p6ebs.integration;
 
+import com.p6ebs.integration.daemon.SyncDaemon;
+import com.p6ebs.integration.standin.StandInDatabase;
 import com.p6ebs.integration.ui.MainFrame;
 
 import javax.swing.*;
+import java.sql.SQLException;
+import java.util.Arrays;
 
 /**
  * Main application class
  */
 public class Application {
     /**
-     * Application entry point
+     * Application entry point. Pass --daemon to run the scheduled sync service
+     * without a user interface, and --standin to work against the embedded
+     * stand-in database instead of the configured servers.
      */
     public static void main(String[] args) {
+        // Checked before any Swing class is touched so that daemon mode never loads AWT
+        for (String arg : args) {
+            if ("--daemon".equals(arg)) {
+                SyncDaemon.main(args);
+                return;
+            }
+        }
+
+        StandInDatabase standIn = null;
+        if (Arrays.asList(args).contains("--standin")) {
+            try {
+                standIn = StandInDatabase.startFromConfig();
+            } catch (SQLException e) {
+                System.err.println("Error starting the stand-in database: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        StandInDatabase connectedStandIn = standIn;
+
         // Set system look and feel
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -23,6 +48,9 @@ public class Application {
         SwingUtilities.invokeLater(() -> {
             // Create and show main frame
             MainFrame mainFrame = new MainFrame();
+            if (connectedStandIn != null) {
+                mainFrame.showConnected("Connected to stand-in database " + connectedStandIn);
+            }
             mainFrame.setVisible(true);
         });
     }
@@ -4,13 +4,20 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.Arrays;
 
+/**
+ * Step-by-step check of the application's components. Pass --standin to run
+ * the database and DAO steps against the embedded stand-in database.
+ */
 public class DiagnosticApp {
 
     private static JTextArea logArea;
     private static int step = 0;
+    private static boolean useStandIn = false;
 
     public static void main(String[] args) {
+        useStandIn = Arrays.asList(args).contains("--standin");
         SwingUtilities.invokeLater(() -> {
             JFrame frame = new JFrame("P6-EBS Integration Diagnostic");
             frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -157,6 +164,14 @@ public class DiagnosticApp {
             log("Loading DatabaseManager class");
             Class.forName("com.p6ebs.integration.util.DatabaseManager");
             log("DatabaseManager class loaded successfully");
+
+            if (useStandIn) {
+                log("Starting stand-in database");
+                Class<?> standInClass = Class.forName("com.p6ebs.integration.standin.StandInDatabase");
+                Object standIn = standInClass.getMethod("startFromConfig").invoke(null);
+                log("Stand-in database started: " + standIn);
+                log("Portfolio: " + standInClass.getMethod("getDescription").invoke(standIn));
+            }
         } catch (ClassNotFoundException e) {
             log("DatabaseManager class not found. Make sure it's in the correct package.");
             throw new RuntimeException(e);
@@ -0,0 +1,57 @@
+package com.p6ebs.integration.cache;
+
+/**
+ * Immutable snapshot of a cache's counters
+ */
+public class CacheStats {
+    private final String cacheName;
+    private final long hits;
+    private final long misses;
+    private final long loads;
+    private final long evictions;
+    private final long expirations;
+    private final int size;
+    private final int maxEntries;
+
+    public CacheStats(String cacheName, long hits, long misses, long loads, long evictions,
+                      long expirations, int size, int maxEntries) {
+        this.cacheName = cacheName;
+        this.hits = hits;
+        this.misses = misses;
+        this.loads = loads;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.size = size;
+        this.maxEntries = maxEntries;
+    }
+
+    public String getCacheName() { return cacheName; }
+
+    public long getHits() { return hits; }
+
+    public long getMisses() { return misses; }
+
+    /** Number of times the loader actually ran; concurrent misses for one key share a load */
+    public long getLoads() { return loads; }
+
+    /** Entries removed to stay within the size bound */
+    public long getEvictions() { return evictions; }
+
+    /** Entries found past their time to live */
+    public long getExpirations() { return expirations; }
+
+    public int getSize() { return size; }
+
+    public int getMaxEntries() { return maxEntries; }
+
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d/%d entries, %d hits, %d misses (%.0f%% hit), %d loads, %d evicted, %d expired",
+                cacheName, size, maxEntries, hits, misses, getHitRatio() * 100, loads, evictions, expirations);
+    }
+}
@@ -0,0 +1,187 @@
+package com.p6ebs.integration.cache;
+
+import com.p6ebs.integration.dao.DaoFailures;
+import com.p6ebs.integration.dao.ProjectDAO;
+import com.p6ebs.integration.dao.ResourceDAO;
+import com.p6ebs.integration.dao.StatisticsDAO;
+import com.p6ebs.integration.dao.TaskDAO;
+import com.p6ebs.integration.model.Project;
+import com.p6ebs.integration.model.Resource;
+import com.p6ebs.integration.model.SyncStatistics;
+import com.p6ebs.integration.snapshot.AssignmentSnapshot;
+import com.p6ebs.integration.snapshot.TaskSnapshot;
+import com.p6ebs.integration.sync.SyncJob;
+import com.p6ebs.integration.sync.SyncJobExecutor;
+import com.p6ebs.integration.util.ConfigManager;
+import com.p6ebs.integration.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shared cache of the project list, resource catalog and per-project task and
+ * assignment snapshots used by the UI panels. Entries expire after {@code cache.reference.ttl.seconds} and are dropped as
+ * soon as a project or resource sync job finishes. Dashboard statistics live for
+ * {@code cache.statistics.ttl.seconds} and are dropped when any sync job finishes.
+ * A read that fails is thrown to the caller rather than cached as an empty result.
+ */
+public class ReferenceDataCache {
+    private static final Logger logger = LoggerUtil.getLogger(ReferenceDataCache.class);
+
+    private static final String P6 = "P6";
+    private static final String EBS = "EBS";
+    private static final String STAGING = "STAGING";
+
+    private static ReferenceDataCache instance;
+
+    private final TtlLruCache<String, List<Project>> projects;
+    private final TtlLruCache<String, List<Resource>> resources;
+    private final TtlLruCache<Long, TaskSnapshot> tasks;
+    private final TtlLruCache<Long, AssignmentSnapshot> assignments;
+    private final TtlLruCache<String, SyncStatistics> statistics;
+
+    ReferenceDataCache(int maxEntries, long ttlMillis, long statisticsTtlMillis) {
+        this.projects = new TtlLruCache<>("projects", maxEntries, ttlMillis);
+        this.resources = new TtlLruCache<>("resources", maxEntries, ttlMillis);
+        this.tasks = new TtlLruCache<>("tasks", maxEntries, ttlMillis);
+        this.assignments = new TtlLruCache<>("assignments", maxEntries, ttlMillis);
+        this.statistics = new TtlLruCache<>("statistics", 1, statisticsTtlMillis);
+    }
+
+    /**
+     * Get the shared cache, creating it from application properties on first use
+     */
+    public static synchronized ReferenceDataCache getInstance() {
+        if (instance == null) {
+            int maxEntries = ConfigManager.getIntProperty("cache.reference.max.entries", 16);
+            int ttlSeconds = ConfigManager.getIntProperty("cache.reference.ttl.seconds", 300);
+            int statisticsTtlSeconds = ConfigManager.getIntProperty("cache.statistics.ttl.seconds", 15);
+            instance = new ReferenceDataCache(maxEntries, ttlSeconds * 1000L, statisticsTtlSeconds * 1000L);
+            SyncJobExecutor.addCompletionListener(instance::onSyncFinished);
+            logger.info("Reference data cache created with TTL {} s and {} entries per cache", ttlSeconds, maxEntries);
+        }
+        return instance;
+    }
+
+    /**
+     * Get the P6 project list
+     */
+    public List<Project> getP6Projects() {
+        return projects.get(P6, () -> Collections.unmodifiableList(
+                DaoFailures.require("P6 projects", () -> new ProjectDAO().getP6Projects())));
+    }
+
+    /**
+     * Get the EBS project list
+     */
+    public List<Project> getEBSProjects() {
+        return projects.get(EBS, () -> Collections.unmodifiableList(
+                DaoFailures.require("EBS projects", () -> new ProjectDAO().getEBSProjects())));
+    }
+
+    /**
+     * Get the P6 resource catalog
+     */
+    public List<Resource> getP6Resources() {
+        return resources.get(P6, () -> Collections.unmodifiableList(
+                DaoFailures.require("P6 resources", () -> new ResourceDAO().getP6Resources())));
+    }
+
+    /**
+     * Get the EBS resource catalog
+     */
+    public List<Resource> getEBSResources() {
+        return resources.get(EBS, () -> Collections.unmodifiableList(
+                DaoFailures.require("EBS resources", () -> new ResourceDAO().getEBSResources())));
+    }
+
+    /**
+     * Get the P6 tasks of a project as a columnar snapshot
+     */
+    public TaskSnapshot getP6Tasks(long projectId) {
+        return tasks.get(projectId, () -> DaoFailures.require("P6 tasks of project " + projectId, () -> {
+            TaskSnapshot.Builder builder = TaskSnapshot.builder();
+            new TaskDAO().streamP6Tasks(projectId, builder);
+            return builder.build();
+        }));
+    }
+
+    /**
+     * Get the P6 resource assignments of a project as a columnar snapshot
+     */
+    public AssignmentSnapshot getResourceAssignments(long projectId) {
+        return assignments.get(projectId, () -> DaoFailures.require("assignments of project " + projectId, () -> {
+            AssignmentSnapshot.Builder builder = AssignmentSnapshot.builder();
+            new ResourceDAO().streamAssignments(projectId, builder);
+            return builder.build();
+        }));
+    }
+
+    /**
+     * Get the staging table counters shown on the dashboard
+     */
+    public SyncStatistics getSyncStatistics() {
+        return statistics.get(STAGING, () -> DaoFailures.require("sync statistics",
+                () -> new StatisticsDAO().getSyncStatistics()));
+    }
+
+    public void invalidateProjects() {
+        projects.invalidateAll();
+    }
+
+    public void invalidateResources() {
+        resources.invalidateAll();
+    }
+
+    public void invalidateTasks() {
+        tasks.invalidateAll();
+    }
+
+    public void invalidateAssignments() {
+        assignments.invalidateAll();
+    }
+
+    public void invalidateStatistics() {
+        statistics.invalidateAll();
+    }
+
+    public void invalidateAll() {
+        statistics.invalidateAll();
+        projects.invalidateAll();
+        resources.invalidateAll();
+        tasks.invalidateAll();
+        assignments.invalidateAll();
+    }
+
+    public List<CacheStats> getStats() {
+        return Arrays.asList(projects.getStats(), resources.getStats(), tasks.getStats(), assignments.getStats(),
+                statistics.getStats());
+    }
+
+    /**
+     * Drop whatever a finished sync job may have changed, whether or not it succeeded
+     */
+    private void onSyncFinished(SyncJob job) {
+        invalidateStatistics();
+        switch (job.getRequest().getTarget()) {
+            case PROJECT:
+                invalidateProjects();
+                invalidateTasks();
+                break;
+            case TASK:
+                invalidateTasks();
+                break;
+            case RESOURCE:
+                invalidateResources();
+                invalidateAssignments();
+                break;
+            case ASSIGNMENT:
+                invalidateAssignments();
+                break;
+            default:
+                break;
+        }
+    }
+}
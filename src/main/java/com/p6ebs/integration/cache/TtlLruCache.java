@@ -0,0 +1,155 @@
+package com.p6ebs.integration.cache;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded, least-recently-used cache whose entries expire after a fixed
+ * time to live. Concurrent misses for the same key wait for a single load
+ * instead of each running the loader.
+ */
+public class TtlLruCache<K, V> {
+    private final String name;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final LinkedHashMap<K, CachedValue<V>> entries;
+    private final Map<K, CompletableFuture<V>> loading = new HashMap<>();
+
+    private long hits;
+    private long misses;
+    private long loads;
+    private long evictions;
+    private long expirations;
+
+    private static class CachedValue<V> {
+        final V value;
+        final long expiresAt;
+
+        CachedValue(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public TtlLruCache(String name, int maxEntries, long ttlMillis) {
+        this.name = name;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = ttlMillis;
+        // Access order makes iteration start at the least recently used entry
+        this.entries = new LinkedHashMap<K, CachedValue<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CachedValue<V>> eldest) {
+                if (size() > TtlLruCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get the cached value for a key, running the loader on a miss. A loader
+     * failure is rethrown to every caller waiting on that load and nothing is cached.
+     */
+    public V get(K key, Supplier<V> loader) {
+        CompletableFuture<V> load;
+        boolean owner = false;
+
+        synchronized (this) {
+            CachedValue<V> entry = entries.get(key);
+            if (entry != null) {
+                if (System.currentTimeMillis() < entry.expiresAt) {
+                    hits++;
+                    return entry.value;
+                }
+                entries.remove(key);
+                expirations++;
+            }
+            misses++;
+
+            load = loading.get(key);
+            if (load == null) {
+                load = new CompletableFuture<>();
+                loading.put(key, load);
+                loads++;
+                owner = true;
+            }
+        }
+
+        if (owner) {
+            try {
+                V value = loader.get();
+                synchronized (this) {
+                    // An invalidation during the load drops the pending future, so do not cache stale data
+                    if (loading.get(key) == load) {
+                        entries.put(key, new CachedValue<>(value, System.currentTimeMillis() + ttlMillis));
+                        loading.remove(key);
+                    }
+                }
+                load.complete(value);
+            } catch (Throwable e) {
+                // Errors too, or callers waiting on this load would block forever
+                synchronized (this) {
+                    if (loading.get(key) == load) {
+                        loading.remove(key);
+                    }
+                }
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Remove one key
+     */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        loading.remove(key);
+    }
+
+    /**
+     * Remove every key matching the predicate
+     */
+    public synchronized void invalidateIf(Predicate<K> predicate) {
+        Iterator<K> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            if (predicate.test(it.next())) {
+                it.remove();
+            }
+        }
+        loading.keySet().removeIf(predicate);
+    }
+
+    /**
+     * Remove everything
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        loading.clear();
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(name, hits, misses, loads, evictions, expirations, entries.size(), maxEntries);
+    }
+}
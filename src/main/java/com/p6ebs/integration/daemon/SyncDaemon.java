@@ -0,0 +1,285 @@
+package com.p6ebs.integration.daemon;
+
+import com.p6ebs.integration.metrics.MetricsHttpServer;
+import com.p6ebs.integration.metrics.MetricsRegistry;
+import com.p6ebs.integration.model.ConnectionSettings;
+import com.p6ebs.integration.standin.StandInDatabase;
+import com.p6ebs.integration.sync.IncrementalSyncService;
+import com.p6ebs.integration.sync.SyncJob;
+import com.p6ebs.integration.sync.SyncJobExecutor;
+import com.p6ebs.integration.sync.SyncOperation;
+import com.p6ebs.integration.sync.SyncPlanner;
+import com.p6ebs.integration.sync.SyncRequest;
+import com.p6ebs.integration.util.ConfigManager;
+import com.p6ebs.integration.util.ConnectionSettingsManager;
+import com.p6ebs.integration.util.DatabaseManager;
+import com.p6ebs.integration.util.LoggerUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Headless entry point that runs the sync procedures on a schedule as a
+ * long-running service. It never touches Swing or AWT, so it starts quickly
+ * and runs in a small heap.
+ *
+ * <p>Jobs are listed in {@code daemon.jobs} and configured with
+ * {@code daemon.job.<name>.*} properties, for example:
+ * <pre>
+ * daemon.jobs=incremental,resources
+ * daemon.job.incremental.operation=INCREMENTAL
+ * daemon.job.incremental.interval=15m
+ * daemon.job.resources.operation=ALL_RESOURCES
+ * daemon.job.resources.interval=1d
+ * daemon.job.resources.at=02:00
+ * daemon.job.resources.jitter=0.05
+ * </pre>
+ * The operation is {@code INCREMENTAL}, {@code PLANNED} for a dependency-ordered
+ * sync of the whole portfolio (see {@link SyncPlanner}), or a {@link SyncOperation} name; operations
+ * that need IDs take them from {@code ids} as a comma separated list. Intervals
+ * accept s, m, h and d suffixes. Properties are read from application.properties,
+ * overridden by {@code config/daemon.properties} or the file given with
+ * {@code --config=path}; connection settings come from the same file the UI saves,
+ * or with {@code --standin} from the embedded stand-in database.
+ *
+ * <p>When {@code metrics.http.port} is set, the metrics registry is served at
+ * {@code /metrics} on that port in the Prometheus text format.
+ */
+public class SyncDaemon {
+    static {
+        // The daemon stops logging itself once its own shutdown hook has finished
+        System.setProperty("log4j.shutdownHookEnabled", "false");
+    }
+
+    private static final Logger logger = LoggerUtil.getLogger(SyncDaemon.class);
+
+    static final String INCREMENTAL = "INCREMENTAL";
+    static final String PLANNED = "PLANNED";
+    static final String DEFAULT_CONFIG_FILE = "config/daemon.properties";
+
+    private final SyncScheduler scheduler;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private MetricsHttpServer metricsServer;
+
+    SyncDaemon(SyncScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        String configFile = DEFAULT_CONFIG_FILE;
+        for (String arg : args) {
+            if (arg.startsWith("--config=")) {
+                configFile = arg.substring("--config=".length());
+            }
+        }
+        ConfigManager.loadOverrides(configFile);
+
+        if (Arrays.asList(args).contains("--standin")) {
+            try {
+                StandInDatabase.startFromConfig();
+            } catch (SQLException e) {
+                logger.error("Could not start the stand-in database", e);
+                System.exit(1);
+            }
+        } else {
+            ConnectionSettings settings = ConnectionSettingsManager.loadSettings();
+            DatabaseManager.initialize(settings);
+        }
+
+        SyncDaemon daemon = new SyncDaemon(new SyncScheduler(ConfigManager.getIntProperty("daemon.threads", 2)));
+        int jobCount = daemon.scheduleJobs();
+        if (jobCount == 0) {
+            logger.error("No jobs configured in daemon.jobs, exiting");
+            DatabaseManager.shutdown();
+            System.exit(1);
+        }
+
+        daemon.startMetricsServer();
+        Runtime.getRuntime().addShutdownHook(new Thread(daemon::stop, "sync-daemon-shutdown"));
+        logger.info("Sync daemon started with {} jobs", jobCount);
+        daemon.awaitStop();
+    }
+
+    /**
+     * Schedule every job listed in daemon.jobs
+     *
+     * @return number of jobs scheduled
+     */
+    int scheduleJobs() {
+        int count = 0;
+        for (String name : ConfigManager.getProperty("daemon.jobs", "").split(",")) {
+            name = name.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            try {
+                scheduleJob(name);
+                count++;
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                logger.error("Skipping daemon job {}: {}", name, e.getMessage());
+            }
+        }
+        return count;
+    }
+
+    private void scheduleJob(String name) {
+        String prefix = "daemon.job." + name + ".";
+        String operation = ConfigManager.getProperty(prefix + "operation", "").trim().toUpperCase();
+        if (operation.isEmpty()) {
+            throw new IllegalArgumentException("missing " + prefix + "operation");
+        }
+        long intervalMillis = parseInterval(ConfigManager.getProperty(prefix + "interval", "1h"));
+        double jitter = doubleProperty(prefix + "jitter", 0.1);
+        String at = ConfigManager.getProperty(prefix + "at", "").trim();
+        // An at= job is planned in local time, so it keeps its time of day however its runs are jittered
+        LocalDateTime firstRun = at.isEmpty()
+                ? LocalDateTime.now().plus(Duration.ofMillis(
+                        parseInterval(ConfigManager.getProperty(prefix + "initial.delay", "0s"))))
+                : nextOccurrence(LocalTime.parse(at));
+
+        Callable<Boolean> task;
+        if (INCREMENTAL.equals(operation)) {
+            IncrementalSyncService service = new IncrementalSyncService();
+            task = () -> service.runIncrementalSync().isSuccess();
+        } else if (PLANNED.equals(operation)) {
+            task = () -> {
+                SyncPlanner planner = new SyncPlanner();
+                return planner.run(planner.planPortfolio()).isSuccess();
+            };
+        } else {
+            SyncRequest request = new SyncRequest(SyncOperation.valueOf(operation),
+                    parseIds(ConfigManager.getProperty(prefix + "ids", "")));
+            task = () -> runAndWait(request);
+        }
+
+        scheduler.schedule(name, intervalMillis, jitter, firstRun, task);
+    }
+
+    /**
+     * Serve metrics for scraping if a port is configured; a failure to bind is
+     * logged but does not stop the daemon
+     */
+    void startMetricsServer() {
+        int port = ConfigManager.getIntProperty("metrics.http.port", 0);
+        if (port <= 0) {
+            return;
+        }
+        try {
+            metricsServer = MetricsHttpServer.start(port, MetricsRegistry.getInstance());
+        } catch (IOException e) {
+            logger.error("Could not serve metrics on port " + port, e);
+        }
+    }
+
+    /**
+     * Submit a request to the shared executor and wait for the procedure to finish
+     */
+    static boolean runAndWait(SyncRequest request) {
+        SyncJob job = SyncJobExecutor.getInstance().submit(request);
+        try {
+            return Boolean.TRUE.equals(job.getFuture().join());
+        } catch (CompletionException | CancellationException e) {
+            logger.error("Sync job " + job.getJobId() + " did not complete", e);
+            return false;
+        }
+    }
+
+    /**
+     * Let running jobs finish, then release the executor and the connection pools
+     */
+    void stop() {
+        logger.info("Sync daemon stopping");
+        long timeoutMillis = ConfigManager.getIntProperty("daemon.shutdown.timeout.seconds", 120) * 1000L;
+        if (!scheduler.shutdown(timeoutMillis)) {
+            logger.warn("Scheduled jobs still running after {} ms", timeoutMillis);
+        }
+        logger.info("Job summary:\n{}", scheduler.describe());
+        SyncJobExecutor.shutdownInstance();
+        DatabaseManager.shutdown();
+        if (metricsServer != null) {
+            metricsServer.stop();
+        }
+        logger.info("Sync daemon stopped");
+        LogManager.shutdown();
+        stopped.countDown();
+    }
+
+    private void awaitStop() {
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Parse an interval such as 90s, 15m, 2h or 1d; a bare number is seconds
+     */
+    static long parseInterval(String value) {
+        String text = value.trim().toLowerCase();
+        if (text.isEmpty()) {
+            throw new IllegalArgumentException("empty interval");
+        }
+        char unit = text.charAt(text.length() - 1);
+        long multiplier;
+        switch (unit) {
+            case 's': multiplier = 1000L; break;
+            case 'm': multiplier = 60_000L; break;
+            case 'h': multiplier = 3_600_000L; break;
+            case 'd': multiplier = 86_400_000L; break;
+            default: multiplier = 0L;
+        }
+        try {
+            return multiplier == 0L
+                    ? Long.parseLong(text) * 1000L
+                    : Long.parseLong(text.substring(0, text.length() - 1).trim()) * multiplier;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid interval '" + value + "'");
+        }
+    }
+
+    static List<Long> parseIds(String value) {
+        if (value.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = new ArrayList<>();
+        for (String id : value.split(",")) {
+            ids.add(Long.parseLong(id.trim()));
+        }
+        return ids;
+    }
+
+    /**
+     * The next occurrence of a time of day
+     */
+    static LocalDateTime nextOccurrence(LocalTime time) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().atTime(time);
+        return next.isAfter(now) ? next : next.plusDays(1);
+    }
+
+    private static double doubleProperty(String key, double defaultValue) {
+        try {
+            return Double.parseDouble(ConfigManager.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value for {}, using {}", key, defaultValue);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.p6ebs.integration.daemon;
+
+import com.p6ebs.integration.metrics.MetricsRegistry;
+import com.p6ebs.integration.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks on fixed intervals with random jitter. Planned starts advance by
+ * whole intervals of local time from the first one, which runs exactly when
+ * asked; jitter moves each run away from its planned start without moving the
+ * plan, so it never accumulates. A daily job planned for 02:00 stays at 02:00,
+ * across DST changes too. Each task is rescheduled only after its previous run
+ * has finished, so runs of one task never overlap; a run that takes longer
+ * than its interval is followed immediately by the next, and planned starts
+ * missed meanwhile are skipped.
+ */
+public class SyncScheduler {
+    private static final Logger logger = LoggerUtil.getLogger(SyncScheduler.class);
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final List<Entry> entries = new ArrayList<>();
+    private volatile boolean shutdown;
+
+    /**
+     * State of one scheduled task
+     */
+    private class Entry implements Runnable {
+        final String name;
+        final long intervalMillis;
+        final double jitter;
+        final Callable<Boolean> task;
+        final AtomicBoolean running = new AtomicBoolean();
+        // Local time the next run is planned for, before jitter
+        LocalDateTime nextPlanned;
+        volatile long runs;
+        volatile long failures;
+
+        Entry(String name, long intervalMillis, double jitter, LocalDateTime firstRun, Callable<Boolean> task) {
+            this.name = name;
+            this.intervalMillis = intervalMillis;
+            this.jitter = jitter;
+            this.nextPlanned = firstRun;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (shutdown) {
+                return;
+            }
+            if (!running.compareAndSet(false, true)) {
+                logger.warn("Skipping {}, the previous run is still in progress", name);
+                return;
+            }
+
+            long start = System.currentTimeMillis();
+            boolean success = false;
+            try {
+                logger.info("Starting scheduled {}", name);
+                success = Boolean.TRUE.equals(task.call());
+            } catch (Exception e) {
+                logger.error("Scheduled " + name + " failed", e);
+            } finally {
+                long elapsed = System.currentTimeMillis() - start;
+                runs++;
+                if (!success) {
+                    failures++;
+                }
+                running.set(false);
+                MetricsRegistry.getInstance().timer("daemon.job", "job", name, "outcome", success ? "success" : "error")
+                        .record(elapsed, TimeUnit.MILLISECONDS);
+                logger.info("Scheduled {} {} in {} ms", name, success ? "succeeded" : "failed", elapsed);
+                planNext();
+            }
+        }
+
+        /**
+         * Move the plan to the next interval that has not passed yet, or to the
+         * last one that has, and schedule a run there with fresh jitter
+         */
+        private void planNext() {
+            LocalDateTime now = LocalDateTime.now();
+            Duration interval = Duration.ofMillis(intervalMillis);
+            do {
+                nextPlanned = nextPlanned.plus(interval);
+            } while (!nextPlanned.plus(interval).isAfter(now));
+            scheduleNext(Math.max(0L, millisUntil(nextPlanned) + jitterMillis(intervalMillis, jitter)));
+        }
+
+        void scheduleNext(long delay) {
+            if (shutdown) {
+                return;
+            }
+            try {
+                executor.schedule(this, delay, TimeUnit.MILLISECONDS);
+                logger.debug("Next {} in {} ms", name, delay);
+            } catch (RejectedExecutionException e) {
+                // Shut down while this run was finishing
+            }
+        }
+    }
+
+    /**
+     * @param threads number of tasks that may run at the same time
+     */
+    public SyncScheduler(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "sync-scheduler-" + threadCount.incrementAndGet());
+            thread.setDaemon(false);
+            return thread;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Schedule a task to run repeatedly
+     *
+     * @param intervalMillis     time between the start of one run and the next
+     * @param jitter             fraction of the interval, 0 to 1, added to or subtracted from
+     *                           each interval at random to spread load when several hosts
+     *                           share a schedule
+     * @param initialDelayMillis delay before the first run, applied exactly
+     * @param task               returns true on success
+     */
+    public void schedule(String name, long intervalMillis, double jitter,
+                         long initialDelayMillis, Callable<Boolean> task) {
+        schedule(name, intervalMillis, jitter,
+                LocalDateTime.now().plus(Duration.ofMillis(Math.max(0L, initialDelayMillis))), task);
+    }
+
+    /**
+     * Schedule a task to run repeatedly, first at a given local time and then
+     * at whole intervals of local time after it
+     *
+     * @param firstRun local time of the first run, applied exactly; a time
+     *                 already passed runs at once
+     * @see #schedule(String, long, double, long, Callable)
+     */
+    public synchronized void schedule(String name, long intervalMillis, double jitter,
+                                      LocalDateTime firstRun, Callable<Boolean> task) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Interval for " + name + " must be positive");
+        }
+        Entry entry = new Entry(name, intervalMillis, Math.max(0.0, Math.min(1.0, jitter)), firstRun, task);
+        entries.add(entry);
+        entry.scheduleNext(Math.max(0L, millisUntil(firstRun)));
+        logger.info("Scheduled {} every {} ms from {} (jitter {}%)", name, intervalMillis, firstRun,
+                Math.round(entry.jitter * 100));
+    }
+
+    /**
+     * Stop scheduling new runs and wait for running tasks to finish
+     *
+     * @return true if every running task finished within the timeout
+     */
+    public boolean shutdown(long timeoutMillis) {
+        shutdown = true;
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * One line per task with its run and failure counts
+     */
+    public synchronized String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (Entry entry : entries) {
+            sb.append(entry.name).append(": ").append(entry.runs).append(" runs, ")
+                    .append(entry.failures).append(" failed")
+                    .append(entry.running.get() ? ", running" : "").append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Milliseconds from now until a local time, negative if it has passed
+     */
+    static long millisUntil(LocalDateTime time) {
+        ZoneId zone = ZoneId.systemDefault();
+        return Duration.between(ZonedDateTime.now(zone), time.atZone(zone)).toMillis();
+    }
+
+    /**
+     * Random offset in [-jitter * interval, +jitter * interval]
+     */
+    static long jitterMillis(long intervalMillis, double jitter) {
+        long range = (long) (intervalMillis * jitter);
+        return range <= 0 ? 0L : ThreadLocalRandom.current().nextLong(-range, range + 1);
+    }
+}
@@ -0,0 +1,156 @@
+package com.p6ebs.integration.dao;
+
+import com.p6ebs.integration.util.DatabaseManager;
+
+import java.sql.BatchUpdateException;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs a single-ID sync procedure for many IDs over one connection and one
+ * batched CallableStatement. Each flushed batch is committed on its own and a
+ * failing call does not undo the others, as with the separate calls it replaces.
+ */
+final class BatchCalls {
+    // Flush the batch periodically so very large ID sets do not buffer unbounded
+    static final int MAX_BATCH_SIZE = 500;
+    // Failed IDs listed in the error message, beyond which only the count is given
+    private static final int MAX_REPORTED_IDS = 50;
+
+    private BatchCalls() {}
+
+    /**
+     * Call the procedure once per ID in batches, committing after every batch.
+     * IDs whose call failed are reported in the error log.
+     *
+     * @param procedure package and procedure name within the integration schema
+     * @return true if every call succeeded
+     */
+    static boolean callForEach(String procedure, Collection<Long> ids, String description) {
+        if (ids == null || ids.isEmpty()) {
+            return true;
+        }
+
+        long start = System.nanoTime();
+        String sql = "{call " + DatabaseManager.integrationObject(procedure) + "(?)}";
+        Connection conn = null;
+        CallableStatement cstmt = null;
+        boolean autoCommit = true;
+        Set<Long> failedIds = new LinkedHashSet<>();
+        List<Long> batch = new ArrayList<>(Math.min(ids.size(), MAX_BATCH_SIZE));
+        int done = 0;
+
+        try {
+            if (!DatabaseManager.isInitialized()) {
+                throw new SQLException("Database connection not initialized. Please set up connection settings first.");
+            }
+
+            conn = DatabaseManager.getIntegrationConnection();
+            autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            cstmt = conn.prepareCall(sql);
+            for (Long id : ids) {
+                batch.add(id);
+                if (batch.size() == MAX_BATCH_SIZE) {
+                    executeBatch(conn, cstmt, batch, failedIds);
+                    done += batch.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                executeBatch(conn, cstmt, batch, failedIds);
+                done += batch.size();
+            }
+        } catch (SQLException e) {
+            // Earlier batches stay committed; the rest count as failed, whether or not they ran
+            System.err.println("Error triggering " + description + " after " + done + " of " + ids.size()
+                    + " IDs: " + e.getMessage());
+            e.printStackTrace();
+            rollback(conn);
+            failedIds.addAll(new ArrayList<>(ids).subList(done, ids.size()));
+        } finally {
+            DaoMetrics.recordProcedure(procedure, start, ids.size(), !failedIds.isEmpty());
+            restoreAutoCommit(conn, autoCommit);
+            DatabaseManager.closeResources(cstmt, conn);
+        }
+
+        if (!failedIds.isEmpty()) {
+            System.err.println("Error triggering " + description + " for " + failedIds.size() + " of "
+                    + ids.size() + " IDs: " + describe(failedIds));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Run one batch and commit what succeeded. A driver that stops at the first
+     * failed call reports only the calls before it; the calls after it are run
+     * again as a new batch.
+     */
+    private static void executeBatch(Connection conn, CallableStatement cstmt, List<Long> batch,
+                                     Set<Long> failedIds) throws SQLException {
+        int from = 0;
+        while (from < batch.size()) {
+            for (int i = from; i < batch.size(); i++) {
+                cstmt.setLong(1, batch.get(i));
+                cstmt.addBatch();
+            }
+            try {
+                cstmt.executeBatch();
+                conn.commit();
+                return;
+            } catch (BatchUpdateException e) {
+                int[] counts = e.getUpdateCounts() != null ? e.getUpdateCounts() : new int[0];
+                for (int i = 0; i < counts.length && from + i < batch.size(); i++) {
+                    if (counts[i] == Statement.EXECUTE_FAILED) {
+                        failedIds.add(batch.get(from + i));
+                    }
+                }
+                conn.commit();
+                cstmt.clearBatch();
+                if (from + counts.length >= batch.size()) {
+                    return;
+                }
+                // The driver stopped at this call
+                failedIds.add(batch.get(from + counts.length));
+                from += counts.length + 1;
+            }
+        }
+    }
+
+    private static String describe(Set<Long> ids) {
+        if (ids.size() <= MAX_REPORTED_IDS) {
+            return ids.toString();
+        }
+        List<Long> first = new ArrayList<>(ids).subList(0, MAX_REPORTED_IDS);
+        return first + " and " + (ids.size() - MAX_REPORTED_IDS) + " more";
+    }
+
+    private static void rollback(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+            } catch (SQLException e) {
+                System.err.println("Error rolling back batch: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void restoreAutoCommit(Connection conn, boolean autoCommit) {
+        if (conn != null) {
+            try {
+                conn.setAutoCommit(autoCommit);
+            } catch (SQLException e) {
+                System.err.println("Error restoring auto-commit: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.p6ebs.integration.dao;
+
+import java.util.function.Supplier;
+
+/**
+ * Tells callers whether the DAO reads they just made failed. The DAOs log and
+ * swallow SQL errors and return what they have, usually nothing, which callers
+ * that keep results around, such as caches, must not mistake for an empty result.
+ */
+public final class DaoFailures {
+    private static final ThreadLocal<int[]> failures = ThreadLocal.withInitial(() -> new int[1]);
+
+    private DaoFailures() {}
+
+    static void record() {
+        failures.get()[0]++;
+    }
+
+    /**
+     * Run DAO reads on the current thread and return their result, or throw if
+     * any of them failed
+     *
+     * @param what names the data read, for the exception message
+     */
+    public static <T> T require(String what, Supplier<T> reads) {
+        int before = failures.get()[0];
+        T result = reads.get();
+        if (failures.get()[0] != before) {
+            throw new IllegalStateException("Error reading " + what + ", see the log for details");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,45 @@
+package com.p6ebs.integration.dao;
+
+import com.p6ebs.integration.metrics.MetricsRegistry;
+
+/**
+ * Records DAO reads and sync procedure calls in the shared {@link MetricsRegistry}
+ */
+final class DaoMetrics {
+
+    private DaoMetrics() {}
+
+    /**
+     * Record the duration and outcome of a read, and the rows it returned
+     */
+    static void recordQuery(String dao, String method, long startNanos, int rows, boolean failed) {
+        if (failed) {
+            DaoFailures.record();
+        }
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        registry.timer("dao.query", "dao", dao, "method", method, "outcome", outcome(failed))
+                .recordSince(startNanos);
+        if (rows > 0) {
+            registry.counter("dao.rows.fetched", "dao", dao, "method", method).increment(rows);
+        }
+    }
+
+    /**
+     * Record the duration and outcome of one or more calls of a sync procedure
+     *
+     * @param calls number of procedure invocations, more than one for a batch
+     */
+    static void recordProcedure(String procedure, long startNanos, int calls, boolean failed) {
+        if (failed) {
+            DaoFailures.record();
+        }
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        registry.timer("sync.procedure", "procedure", procedure, "outcome", outcome(failed))
+                .recordSince(startNanos);
+        registry.counter("sync.procedure.calls", "procedure", procedure).increment(calls);
+    }
+
+    private static String outcome(boolean failed) {
+        return failed ? "error" : "success";
+    }
+}
@@ -0,0 +1,192 @@
+package com.p6ebs.integration.dao;
+
+import com.p6ebs.integration.model.LogEntry;
+import com.p6ebs.integration.util.DatabaseManager;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the integration log with keyset pagination on (log_date, log_id)
+ */
+public class LogDAO {
+
+    /**
+     * Log filters offered by the log viewer
+     */
+    public enum Filter {
+        ALL("All Logs", null, null),
+        ERRORS("Errors Only", "status = ?", "ERROR"),
+        PROJECTS("Projects", "operation LIKE ?", "%PROJECT%"),
+        TASKS("Tasks", "operation LIKE ?", "%TASK%"),
+        RESOURCES("Resources", "operation LIKE ?", "%RESOURCE%");
+
+        private final String label;
+        private final String condition;
+        private final String parameter;
+
+        Filter(String label, String condition, String parameter) {
+            this.label = label;
+            this.condition = condition;
+            this.parameter = parameter;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static final String COLUMNS = "SELECT log_id, log_date, operation, status, message, user_id ";
+
+    /**
+     * Check if database is initialized
+     */
+    private void checkDatabaseConnection() throws SQLException {
+        if (!DatabaseManager.isInitialized()) {
+            throw new SQLException("Database connection not initialized. Please set up connection settings first.");
+        }
+    }
+
+    /**
+     * Get a page of log entries, newest first, older than the given key.
+     * Pass a null date to get the newest entries.
+     */
+    public List<LogEntry> getLogsBefore(Filter filter, Timestamp beforeDate, long beforeId, int limit) throws SQLException {
+        String keyset = beforeDate != null ? "(log_date < ? OR (log_date = ? AND log_id < ?))" : null;
+        String sql = COLUMNS + "FROM " + DatabaseManager.integrationObject("integration_log") + " " +
+                where(filter, keyset) +
+                "ORDER BY log_date DESC, log_id DESC " +
+                "FETCH FIRST ? ROWS ONLY";
+        return query("getLogsBefore", sql, filter, beforeDate, beforeId, limit);
+    }
+
+    /**
+     * Get log entries newer than the given key, oldest first
+     */
+    public List<LogEntry> getLogsAfter(Filter filter, Timestamp afterDate, long afterId, int limit) throws SQLException {
+        String keyset = afterDate != null ? "(log_date > ? OR (log_date = ? AND log_id > ?))" : null;
+        String sql = COLUMNS + "FROM " + DatabaseManager.integrationObject("integration_log") + " " +
+                where(filter, keyset) +
+                "ORDER BY log_date, log_id " +
+                "FETCH FIRST ? ROWS ONLY";
+        return query("getLogsAfter", sql, filter, afterDate, afterId, limit);
+    }
+
+    /**
+     * Get a key at or after every logged entry, (MAX(log_date), MAX(log_id)),
+     * or null if the log is empty. Only the ID and date of the result are set.
+     */
+    public LogEntry getNewestKey() throws SQLException {
+        long start = System.nanoTime();
+        boolean completed = false;
+        LogEntry key = null;
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getIntegrationConnection();
+
+            String sql = "SELECT MAX(log_date) AS max_log_date, MAX(log_id) AS max_log_id " +
+                    "FROM " + DatabaseManager.integrationObject("integration_log");
+            stmt = conn.prepareStatement(sql);
+            rs = stmt.executeQuery();
+
+            if (rs.next() && rs.getTimestamp("max_log_date") != null) {
+                key = new LogEntry();
+                key.setLogDate(rs.getTimestamp("max_log_date"));
+                key.setId(rs.getLong("max_log_id"));
+            }
+            completed = true;
+        } finally {
+            DaoMetrics.recordQuery("LogDAO", "getNewestKey", start, key != null ? 1 : 0, !completed);
+            DatabaseManager.closeResources(rs, stmt, conn);
+        }
+
+        return key;
+    }
+
+    /**
+     * Delete every log entry
+     */
+    public void clearLogs() throws SQLException {
+        Connection conn = null;
+        PreparedStatement stmt = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getIntegrationConnection();
+
+            String sql = "TRUNCATE TABLE " + DatabaseManager.integrationObject("integration_log");
+            stmt = conn.prepareStatement(sql);
+            stmt.executeUpdate();
+        } finally {
+            DatabaseManager.closeResources(stmt, conn);
+        }
+    }
+
+    private static String where(Filter filter, String keyset) {
+        if (filter.condition == null && keyset == null) {
+            return "";
+        }
+        if (filter.condition == null) {
+            return "WHERE " + keyset + " ";
+        }
+        if (keyset == null) {
+            return "WHERE " + filter.condition + " ";
+        }
+        return "WHERE " + filter.condition + " AND " + keyset + " ";
+    }
+
+    private List<LogEntry> query(String method, String sql, Filter filter, Timestamp keyDate, long keyId, int limit)
+            throws SQLException {
+        long start = System.nanoTime();
+        boolean completed = false;
+        List<LogEntry> entries = new ArrayList<>();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getIntegrationConnection();
+
+            stmt = conn.prepareStatement(sql);
+            int index = 1;
+            if (filter.parameter != null) {
+                stmt.setString(index++, filter.parameter);
+            }
+            if (keyDate != null) {
+                stmt.setTimestamp(index++, keyDate);
+                stmt.setTimestamp(index++, keyDate);
+                stmt.setLong(index++, keyId);
+            }
+            stmt.setInt(index, limit);
+            stmt.setFetchSize(limit);
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                LogEntry entry = new LogEntry();
+                entry.setId(rs.getLong("log_id"));
+                entry.setLogDate(rs.getTimestamp("log_date"));
+                entry.setOperation(rs.getString("operation"));
+                entry.setStatus(rs.getString("status"));
+                entry.setMessage(rs.getString("message"));
+                entry.setUserId(rs.getString("user_id"));
+                entries.add(entry);
+            }
+            completed = true;
+        } finally {
+            DaoMetrics.recordQuery("LogDAO", method, start, entries.size(), !completed);
+            DatabaseManager.closeResources(rs, stmt, conn);
+        }
+
+        return entries;
+    }
+}
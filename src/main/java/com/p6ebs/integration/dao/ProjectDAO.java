@@ -5,7 +5,9 @@ import com.p6ebs.integration.util.DatabaseManager;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class ProjectDAO {
 
@@ -23,6 +25,19 @@ public class ProjectDAO {
      */
     public List<Project> getP6Projects() {
         List<Project> projects = new ArrayList<>();
+        streamP6Projects(projects::add);
+        return projects;
+    }
+
+    /**
+     * Stream all projects from Primavera P6 to the consumer, one row at a time
+     *
+     * @return number of rows delivered to the consumer
+     */
+    public int streamP6Projects(Consumer<Project> consumer) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        int count = 0;
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -41,26 +56,89 @@ public class ProjectDAO {
                     "ORDER BY wb.proj_short_name";
 
             stmt = conn.prepareStatement(sql);
+            stmt.setFetchSize(DatabaseManager.getFetchSize());
             rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Project project = new Project();
-                project.setId(rs.getLong("proj_id"));
-                project.setName(rs.getString("proj_short_name"));
-                project.setStartDate(rs.getDate("anticipated_start_date"));
-                project.setEndDate(rs.getDate("anticipated_finish_date"));
-                project.setStatus(rs.getString("status_code"));
-                project.setSource("P6");
-                projects.add(project);
+                consumer.accept(mapP6Project(rs));
+                count++;
             }
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error getting P6 projects: " + e.getMessage());
             e.printStackTrace();
         } finally {
+            DaoMetrics.recordQuery("ProjectDAO", "streamP6Projects", start, count, failed);
             DatabaseManager.closeResources(rs, stmt, conn);
         }
 
-        return projects;
+        return count;
+    }
+
+    /**
+     * Map a row of the P6 project query
+     */
+    private Project mapP6Project(ResultSet rs) throws SQLException {
+        Project project = new Project();
+        project.setId(rs.getLong("proj_id"));
+        project.setName(rs.getString("proj_short_name"));
+        project.setStartDate(rs.getDate("anticipated_start_date"));
+        project.setEndDate(rs.getDate("anticipated_finish_date"));
+        project.setStatus(rs.getString("status_code"));
+        project.setSource("P6");
+        return project;
+    }
+
+    /**
+     * Stream P6 projects inserted, updated or soft-deleted after the given time,
+     * oldest change first. Deleted projects are delivered with a delete date set.
+     *
+     * @return number of rows delivered to the consumer
+     */
+    public int streamP6ProjectsChangedSince(Timestamp since, Consumer<Project> consumer) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        int count = 0;
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getP6Connection();
+
+            String sql = "SELECT proj.proj_id, wb.proj_short_name, proj.anticipated_start_date, " +
+                    "proj.anticipated_finish_date, proj.status_code, proj.update_date, proj.delete_date " +
+                    "FROM project proj " +
+                    "JOIN projwbs wb ON proj.proj_id = wb.proj_id " +
+                    "WHERE wb.proj_node_flag = 'Y' " +
+                    "AND (proj.update_date > ? OR proj.delete_date > ?) " +
+                    "ORDER BY proj.update_date";
+
+            stmt = conn.prepareStatement(sql);
+            stmt.setTimestamp(1, since);
+            stmt.setTimestamp(2, since);
+            stmt.setFetchSize(DatabaseManager.getFetchSize());
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                Project project = mapP6Project(rs);
+                project.setUpdateDate(rs.getTimestamp("update_date"));
+                project.setDeleteDate(rs.getTimestamp("delete_date"));
+                consumer.accept(project);
+                count++;
+            }
+        } catch (SQLException e) {
+            failed = true;
+            System.err.println("Error getting changed P6 projects: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DaoMetrics.recordQuery("ProjectDAO", "streamP6ProjectsChangedSince", start, count, failed);
+            DatabaseManager.closeResources(rs, stmt, conn);
+        }
+
+        return count;
     }
 
     /**
@@ -68,6 +146,19 @@ public class ProjectDAO {
      */
     public List<Project> getEBSProjects() {
         List<Project> projects = new ArrayList<>();
+        streamEBSProjects(projects::add);
+        return projects;
+    }
+
+    /**
+     * Stream all projects from Oracle EBS to the consumer, one row at a time
+     *
+     * @return number of rows delivered to the consumer
+     */
+    public int streamEBSProjects(Consumer<Project> consumer) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        int count = 0;
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -85,27 +176,38 @@ public class ProjectDAO {
                     "ORDER BY name";
 
             stmt = conn.prepareStatement(sql);
+            stmt.setFetchSize(DatabaseManager.getFetchSize());
             rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Project project = new Project();
-                project.setId(rs.getLong("project_id"));
-                project.setName(rs.getString("name"));
-                project.setDescription(rs.getString("description"));
-                project.setStartDate(rs.getDate("start_date"));
-                project.setEndDate(rs.getDate("completion_date"));
-                project.setStatus(rs.getString("project_status_code"));
-                project.setSource("EBS");
-                projects.add(project);
+                consumer.accept(mapEBSProject(rs));
+                count++;
             }
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error getting EBS projects: " + e.getMessage());
             e.printStackTrace();
         } finally {
+            DaoMetrics.recordQuery("ProjectDAO", "streamEBSProjects", start, count, failed);
             DatabaseManager.closeResources(rs, stmt, conn);
         }
 
-        return projects;
+        return count;
+    }
+
+    /**
+     * Map a row of the EBS project query
+     */
+    private Project mapEBSProject(ResultSet rs) throws SQLException {
+        Project project = new Project();
+        project.setId(rs.getLong("project_id"));
+        project.setName(rs.getString("name"));
+        project.setDescription(rs.getString("description"));
+        project.setStartDate(rs.getDate("start_date"));
+        project.setEndDate(rs.getDate("completion_date"));
+        project.setStatus(rs.getString("project_status_code"));
+        project.setSource("EBS");
+        return project;
     }
 
     /**
@@ -113,6 +215,19 @@ public class ProjectDAO {
      */
     public List<Project> getStagingProjects() {
         List<Project> projects = new ArrayList<>();
+        streamStagingProjects(projects::add);
+        return projects;
+    }
+
+    /**
+     * Stream projects from the staging table to the consumer, one row at a time
+     *
+     * @return number of rows delivered to the consumer
+     */
+    public int streamStagingProjects(Consumer<Project> consumer) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        int count = 0;
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -120,86 +235,255 @@ public class ProjectDAO {
         try {
             checkDatabaseConnection();
 
-            conn = DatabaseManager.getP6Connection();  // Assuming integration schema is in P6 database
+            conn = DatabaseManager.getIntegrationConnection();
 
             String sql = "SELECT p6_project_id, p6_project_name, p6_start_date, " +
                     "p6_finish_date, ebs_project_id, sync_status, error_message, last_sync_date " +
-                    "FROM p6_ebs_integration.project_staging " +
+                    "FROM " + DatabaseManager.integrationObject("project_staging") + " " +
                     "ORDER BY last_sync_date DESC";
 
             stmt = conn.prepareStatement(sql);
+            stmt.setFetchSize(DatabaseManager.getFetchSize());
             rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Project project = new Project();
-                project.setId(rs.getLong("p6_project_id"));
-                project.setName(rs.getString("p6_project_name"));
-                project.setStartDate(rs.getDate("p6_start_date"));
-                project.setEndDate(rs.getDate("p6_finish_date"));
-                project.setSyncStatus(rs.getString("sync_status"));
-                project.setErrorMessage(rs.getString("error_message"));
-                project.setLastSyncDate(rs.getTimestamp("last_sync_date"));
-                projects.add(project);
+                consumer.accept(mapStagingProject(rs));
+                count++;
             }
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error getting staging projects: " + e.getMessage());
             e.printStackTrace();
         } finally {
+            DaoMetrics.recordQuery("ProjectDAO", "streamStagingProjects", start, count, failed);
+            DatabaseManager.closeResources(rs, stmt, conn);
+        }
+
+        return count;
+    }
+
+    /**
+     * Get the most recently synced projects from the staging table
+     */
+    public List<Project> getRecentStagingProjects(int limit) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        List<Project> projects = new ArrayList<>();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getIntegrationConnection();
+
+            String sql = "SELECT p6_project_id, p6_project_name, p6_start_date, " +
+                    "p6_finish_date, ebs_project_id, sync_status, error_message, last_sync_date " +
+                    "FROM " + DatabaseManager.integrationObject("project_staging") + " " +
+                    "ORDER BY last_sync_date DESC NULLS LAST, p6_project_id " +
+                    "FETCH FIRST ? ROWS ONLY";
+
+            stmt = conn.prepareStatement(sql);
+            stmt.setInt(1, limit);
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                projects.add(mapStagingProject(rs));
+            }
+        } catch (SQLException e) {
+            failed = true;
+            System.err.println("Error getting recent staging projects: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DaoMetrics.recordQuery("ProjectDAO", "getRecentStagingProjects", start, projects.size(), failed);
             DatabaseManager.closeResources(rs, stmt, conn);
         }
 
         return projects;
     }
 
+    /**
+     * Get staging projects synced between two times, oldest or newest sync first
+     *
+     * @param since lower bound on last_sync_date, inclusive; null for no lower bound
+     * @param until upper bound on last_sync_date, inclusive; null for no upper bound
+     */
+    public List<Project> getStagingProjectsSyncedBetween(Timestamp since, Timestamp until, boolean newestFirst,
+                                                         int limit) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        List<Project> projects = new ArrayList<>();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getIntegrationConnection();
+
+            String sql = "SELECT p6_project_id, p6_project_name, p6_start_date, " +
+                    "p6_finish_date, ebs_project_id, sync_status, error_message, last_sync_date " +
+                    "FROM " + DatabaseManager.integrationObject("project_staging") + " " +
+                    "WHERE last_sync_date IS NOT NULL " +
+                    (since != null ? "AND last_sync_date >= ? " : "") +
+                    (until != null ? "AND last_sync_date <= ? " : "") +
+                    (newestFirst ? "ORDER BY last_sync_date DESC, p6_project_id DESC "
+                            : "ORDER BY last_sync_date, p6_project_id ") +
+                    "FETCH FIRST ? ROWS ONLY";
+
+            stmt = conn.prepareStatement(sql);
+            int index = 1;
+            if (since != null) {
+                stmt.setTimestamp(index++, since);
+            }
+            if (until != null) {
+                stmt.setTimestamp(index++, until);
+            }
+            stmt.setInt(index, limit);
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                projects.add(mapStagingProject(rs));
+            }
+        } catch (SQLException e) {
+            failed = true;
+            System.err.println("Error getting recently synced staging projects: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DaoMetrics.recordQuery("ProjectDAO", "getStagingProjectsSyncedBetween", start, projects.size(), failed);
+            DatabaseManager.closeResources(rs, stmt, conn);
+        }
+
+        return projects;
+    }
+
+    /**
+     * Look up the EBS project a P6 project was synced to
+     *
+     * @return the EBS project ID, or null if the project has not been synced
+     */
+    public Long getEbsProjectId(long p6ProjectId) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        Long ebsProjectId = null;
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getIntegrationConnection();
+
+            String sql = "SELECT ebs_project_id " +
+                    "FROM " + DatabaseManager.integrationObject("project_staging") + " " +
+                    "WHERE p6_project_id = ?";
+
+            stmt = conn.prepareStatement(sql);
+            stmt.setLong(1, p6ProjectId);
+            rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                long id = rs.getLong("ebs_project_id");
+                // NULL maps to 0, which means the project has not been synced yet
+                if (!rs.wasNull() && id != 0) {
+                    ebsProjectId = id;
+                }
+            }
+        } catch (SQLException e) {
+            failed = true;
+            System.err.println("Error getting EBS project ID: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DaoMetrics.recordQuery("ProjectDAO", "getEbsProjectId", start, ebsProjectId != null ? 1 : 0, failed);
+            DatabaseManager.closeResources(rs, stmt, conn);
+        }
+
+        return ebsProjectId;
+    }
+
+    /**
+     * Map a row of the project staging query
+     */
+    private Project mapStagingProject(ResultSet rs) throws SQLException {
+        Project project = new Project();
+        project.setId(rs.getLong("p6_project_id"));
+        project.setName(rs.getString("p6_project_name"));
+        project.setStartDate(rs.getDate("p6_start_date"));
+        project.setEndDate(rs.getDate("p6_finish_date"));
+        project.setEbsId(rs.getLong("ebs_project_id"));
+        project.setSyncStatus(rs.getString("sync_status"));
+        project.setErrorMessage(rs.getString("error_message"));
+        project.setLastSyncDate(rs.getTimestamp("last_sync_date"));
+        return project;
+    }
+
     /**
      * Trigger synchronization for a specific project
      */
     public boolean triggerProjectSync(long projectId) {
+        long start = System.nanoTime();
+        boolean failed = false;
         Connection conn = null;
         CallableStatement cstmt = null;
 
         try {
             checkDatabaseConnection();
 
-            conn = DatabaseManager.getP6Connection();  // Assuming integration schema is in P6 database
+            conn = DatabaseManager.getIntegrationConnection();
 
-            String sql = "{call p6_ebs_integration.project_sync.sync_project(?)}";
+            String sql = "{call " + DatabaseManager.integrationObject("project_sync.sync_project") + "(?)}";
             cstmt = conn.prepareCall(sql);
             cstmt.setLong(1, projectId);
             cstmt.execute();
 
             return true;
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error triggering project sync: " + e.getMessage());
             e.printStackTrace();
             return false;
         } finally {
+            DaoMetrics.recordProcedure("project_sync.sync_project", start, 1, failed);
             DatabaseManager.closeResources(cstmt, conn);
         }
     }
 
+    /**
+     * Trigger synchronization for several projects in one batched round trip
+     */
+    public boolean triggerProjectSync(Collection<Long> projectIds) {
+        return BatchCalls.callForEach("project_sync.sync_project", projectIds, "project sync");
+    }
+
     /**
      * Trigger synchronization for all projects
      */
     public boolean triggerAllProjectsSync() {
+        long start = System.nanoTime();
+        boolean failed = false;
         Connection conn = null;
         CallableStatement cstmt = null;
 
         try {
             checkDatabaseConnection();
 
-            conn = DatabaseManager.getP6Connection();  // Assuming integration schema is in P6 database
+            conn = DatabaseManager.getIntegrationConnection();
 
-            String sql = "{call p6_ebs_integration.project_sync.sync_projects_p6_to_ebs}";
+            String sql = "{call " + DatabaseManager.integrationObject("project_sync.sync_projects_p6_to_ebs") + "()}";
             cstmt = conn.prepareCall(sql);
             cstmt.execute();
 
             return true;
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error triggering all projects sync: " + e.getMessage());
             e.printStackTrace();
             return false;
         } finally {
+            DaoMetrics.recordProcedure("project_sync.sync_projects_p6_to_ebs", start, 1, failed);
             DatabaseManager.closeResources(cstmt, conn);
         }
     }
@@ -208,24 +492,28 @@ public class ProjectDAO {
      * Trigger reverse synchronization (EBS to P6)
      */
     public boolean triggerReverseProjectSync() {
+        long start = System.nanoTime();
+        boolean failed = false;
         Connection conn = null;
         CallableStatement cstmt = null;
 
         try {
             checkDatabaseConnection();
 
-            conn = DatabaseManager.getP6Connection();  // Assuming integration schema is in P6 database
+            conn = DatabaseManager.getIntegrationConnection();
 
-            String sql = "{call p6_ebs_integration.project_sync.sync_projects_ebs_to_p6}";
+            String sql = "{call " + DatabaseManager.integrationObject("project_sync.sync_projects_ebs_to_p6") + "()}";
             cstmt = conn.prepareCall(sql);
             cstmt.execute();
 
             return true;
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error triggering reverse project sync: " + e.getMessage());
             e.printStackTrace();
             return false;
         } finally {
+            DaoMetrics.recordProcedure("project_sync.sync_projects_ebs_to_p6", start, 1, failed);
             DatabaseManager.closeResources(cstmt, conn);
         }
     }
@@ -1,11 +1,16 @@
 package com.p6ebs.integration.dao;
 
 import com.p6ebs.integration.model.Resource;
+import com.p6ebs.integration.model.ResourceAssignment;
+import com.p6ebs.integration.model.ResourceRecord;
+import com.p6ebs.integration.model.ResourceStagingRecord;
 import com.p6ebs.integration.util.DatabaseManager;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class ResourceDAO {
 
@@ -23,6 +28,37 @@ public class ResourceDAO {
      */
     public List<Resource> getP6Resources() {
         List<Resource> resources = new ArrayList<>();
+        streamP6Resources(resources::add);
+        return resources;
+    }
+
+    /**
+     * Stream all resources from Primavera P6 to the consumer, one row at a time, adapted to the {@link Resource} model
+     *
+     * @return number of rows delivered to the consumer
+     */
+    public int streamP6Resources(Consumer<Resource> consumer) {
+        return streamP6ResourceRecords(row -> consumer.accept(row.toResource()));
+    }
+
+    /**
+     * Get all resources from Primavera P6
+     */
+    public List<ResourceRecord> getP6ResourceRecords() {
+        List<ResourceRecord> rows = new ArrayList<>();
+        streamP6ResourceRecords(rows::add);
+        return rows;
+    }
+
+    /**
+     * Stream all resources from Primavera P6 to the consumer, one row at a time
+     *
+     * @return number of rows delivered to the consumer
+     */
+    public int streamP6ResourceRecords(Consumer<ResourceRecord> consumer) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        int count = 0;
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -39,27 +75,40 @@ public class ResourceDAO {
                     "ORDER BY rsrc_name";
 
             stmt = conn.prepareStatement(sql);
+            stmt.setFetchSize(DatabaseManager.getFetchSize());
             rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Resource resource = new Resource();
-                resource.setId(rs.getLong("rsrc_id"));
-                resource.setName(rs.getString("rsrc_name"));
-                resource.setShortName(rs.getString("rsrc_short_name"));
-                resource.setType(rs.getString("rsrc_type"));
-                resource.setEmail(rs.getString("email_addr"));
-                resource.setParentId(rs.getLong("parent_rsrc_id"));
-                resource.setSource("P6");
-                resources.add(resource);
+                consumer.accept(mapP6Resource(rs));
+                count++;
             }
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error getting P6 resources: " + e.getMessage());
             e.printStackTrace();
         } finally {
+            DaoMetrics.recordQuery("ResourceDAO", "streamP6ResourceRecords", start, count, failed);
             DatabaseManager.closeResources(rs, stmt, conn);
         }
 
-        return resources;
+        return count;
+    }
+
+    /**
+     * Map a row of the P6 resource query
+     */
+    private ResourceRecord mapP6Resource(ResultSet rs) throws SQLException {
+        return new ResourceRecord(
+                rs.getLong("rsrc_id"),
+                rs.getString("rsrc_name"),
+                rs.getString("rsrc_short_name"),
+                rs.getString("rsrc_type"),
+                rs.getString("email_addr"),
+                rs.getLong("parent_rsrc_id"),
+                false,
+                ResourceRecord.NO_DATE,
+                ResourceRecord.NO_DATE,
+                "P6");
     }
 
     /**
@@ -67,6 +116,37 @@ public class ResourceDAO {
      */
     public List<Resource> getEBSResources() {
         List<Resource> resources = new ArrayList<>();
+        streamEBSResources(resources::add);
+        return resources;
+    }
+
+    /**
+     * Stream all resources from Oracle EBS to the consumer, one row at a time, adapted to the {@link Resource} model
+     *
+     * @return number of rows delivered to the consumer
+     */
+    public int streamEBSResources(Consumer<Resource> consumer) {
+        return streamEBSResourceRecords(row -> consumer.accept(row.toResource()));
+    }
+
+    /**
+     * Get all resources from Oracle EBS
+     */
+    public List<ResourceRecord> getEBSResourceRecords() {
+        List<ResourceRecord> rows = new ArrayList<>();
+        streamEBSResourceRecords(rows::add);
+        return rows;
+    }
+
+    /**
+     * Stream all resources from Oracle EBS to the consumer, one row at a time
+     *
+     * @return number of rows delivered to the consumer
+     */
+    public int streamEBSResourceRecords(Consumer<ResourceRecord> consumer) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        int count = 0;
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -83,27 +163,40 @@ public class ResourceDAO {
                     "ORDER BY name";
 
             stmt = conn.prepareStatement(sql);
+            stmt.setFetchSize(DatabaseManager.getFetchSize());
             rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Resource resource = new Resource();
-                resource.setId(rs.getLong("organization_id"));
-                resource.setName(rs.getString("name"));
-                resource.setType(rs.getString("type"));
-                resource.setInternal("I".equals(rs.getString("internal_external_flag")));
-                resource.setStartDate(rs.getDate("date_from"));
-                resource.setEndDate(rs.getDate("date_to"));
-                resource.setSource("EBS");
-                resources.add(resource);
+                consumer.accept(mapEBSResource(rs));
+                count++;
             }
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error getting EBS resources: " + e.getMessage());
             e.printStackTrace();
         } finally {
+            DaoMetrics.recordQuery("ResourceDAO", "streamEBSResourceRecords", start, count, failed);
             DatabaseManager.closeResources(rs, stmt, conn);
         }
 
-        return resources;
+        return count;
+    }
+
+    /**
+     * Map a row of the EBS resource query
+     */
+    private ResourceRecord mapEBSResource(ResultSet rs) throws SQLException {
+        return new ResourceRecord(
+                rs.getLong("organization_id"),
+                rs.getString("name"),
+                null,
+                rs.getString("type"),
+                null,
+                0L,
+                "I".equals(rs.getString("internal_external_flag")),
+                millis(rs.getDate("date_from")),
+                millis(rs.getDate("date_to")),
+                "EBS");
     }
 
     /**
@@ -111,6 +204,37 @@ public class ResourceDAO {
      */
     public List<Resource> getStagingResources() {
         List<Resource> resources = new ArrayList<>();
+        streamStagingResources(resources::add);
+        return resources;
+    }
+
+    /**
+     * Stream resources from the staging table to the consumer, one row at a time, adapted to the {@link Resource} model
+     *
+     * @return number of rows delivered to the consumer
+     */
+    public int streamStagingResources(Consumer<Resource> consumer) {
+        return streamStagingResourceRecords(row -> consumer.accept(row.toResource()));
+    }
+
+    /**
+     * Get resources from the staging table
+     */
+    public List<ResourceStagingRecord> getStagingResourceRecords() {
+        List<ResourceStagingRecord> rows = new ArrayList<>();
+        streamStagingResourceRecords(rows::add);
+        return rows;
+    }
+
+    /**
+     * Stream resources from the staging table to the consumer, one row at a time
+     *
+     * @return number of rows delivered to the consumer
+     */
+    public int streamStagingResourceRecords(Consumer<ResourceStagingRecord> consumer) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        int count = 0;
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -118,39 +242,49 @@ public class ResourceDAO {
         try {
             checkDatabaseConnection();
 
-            conn = DatabaseManager.getP6Connection();  // Assuming integration schema is in P6 database
+            conn = DatabaseManager.getIntegrationConnection();
 
             String sql = "SELECT p6_resource_id, p6_resource_name, p6_resource_short_name, " +
                     "p6_resource_type, p6_email, ebs_organization_id, ebs_person_id, " +
                     "sync_status, error_message, last_sync_date " +
-                    "FROM p6_ebs_integration.resource_staging " +
+                    "FROM " + DatabaseManager.integrationObject("resource_staging") + " " +
                     "ORDER BY last_sync_date DESC";
 
             stmt = conn.prepareStatement(sql);
+            stmt.setFetchSize(DatabaseManager.getFetchSize());
             rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Resource resource = new Resource();
-                resource.setId(rs.getLong("p6_resource_id"));
-                resource.setName(rs.getString("p6_resource_name"));
-                resource.setShortName(rs.getString("p6_resource_short_name"));
-                resource.setType(rs.getString("p6_resource_type"));
-                resource.setEmail(rs.getString("p6_email"));
-                resource.setEbsOrgId(rs.getLong("ebs_organization_id"));
-                resource.setEbsPersonId(rs.getLong("ebs_person_id"));
-                resource.setSyncStatus(rs.getString("sync_status"));
-                resource.setErrorMessage(rs.getString("error_message"));
-                resource.setLastSyncDate(rs.getTimestamp("last_sync_date"));
-                resources.add(resource);
+                consumer.accept(mapStagingResource(rs));
+                count++;
             }
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error getting staging resources: " + e.getMessage());
             e.printStackTrace();
         } finally {
+            DaoMetrics.recordQuery("ResourceDAO", "streamStagingResourceRecords", start, count, failed);
             DatabaseManager.closeResources(rs, stmt, conn);
         }
 
-        return resources;
+        return count;
+    }
+
+    /**
+     * Map a row of the resource staging query
+     */
+    private ResourceStagingRecord mapStagingResource(ResultSet rs) throws SQLException {
+        return new ResourceStagingRecord(
+                rs.getLong("p6_resource_id"),
+                rs.getString("p6_resource_name"),
+                rs.getString("p6_resource_short_name"),
+                rs.getString("p6_resource_type"),
+                rs.getString("p6_email"),
+                rs.getLong("ebs_organization_id"),
+                rs.getLong("ebs_person_id"),
+                rs.getString("sync_status"),
+                rs.getString("error_message"),
+                millis(rs.getTimestamp("last_sync_date")));
     }
 
     /**
@@ -158,6 +292,37 @@ public class ResourceDAO {
      */
     public List<Resource> getResourceAssignments(long projectId) {
         List<Resource> resources = new ArrayList<>();
+        streamResourceAssignments(projectId, resources::add);
+        return resources;
+    }
+
+    /**
+     * Stream resource assignments for a project to the consumer, one row at a time, adapted to the {@link Resource} model
+     *
+     * @return number of rows delivered to the consumer
+     */
+    public int streamResourceAssignments(long projectId, Consumer<Resource> consumer) {
+        return streamAssignments(projectId, row -> consumer.accept(row.toResource()));
+    }
+
+    /**
+     * Get resource assignments for a project
+     */
+    public List<ResourceAssignment> getAssignments(long projectId) {
+        List<ResourceAssignment> rows = new ArrayList<>();
+        streamAssignments(projectId, rows::add);
+        return rows;
+    }
+
+    /**
+     * Stream resource assignments for a project to the consumer, one row at a time
+     *
+     * @return number of rows delivered to the consumer
+     */
+    public int streamAssignments(long projectId, Consumer<ResourceAssignment> consumer) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        int count = 0;
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -180,56 +345,214 @@ public class ResourceDAO {
 
             stmt = conn.prepareStatement(sql);
             stmt.setLong(1, projectId);
+            stmt.setFetchSize(DatabaseManager.getFetchSize());
             rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Resource resource = new Resource();
-                resource.setId(rs.getLong("rsrc_id"));
-                resource.setName(rs.getString("rsrc_name"));
-                resource.setAssignmentId(rs.getLong("taskrsrc_id"));
-                resource.setTaskId(rs.getLong("task_id"));
-                resource.setTaskName(rs.getString("task_name"));
-                resource.setPlannedCost(rs.getDouble("target_cost"));
-                resource.setActualCost(rs.getDouble("act_cost"));
-                resource.setRemainingCost(rs.getDouble("remain_cost"));
-                resource.setPlannedQuantity(rs.getDouble("target_qty"));
-                resource.setActualQuantity(rs.getDouble("act_qty"));
-                resource.setRemainingQuantity(rs.getDouble("remain_qty"));
-                resource.setSource("P6");
-                resources.add(resource);
+                consumer.accept(mapResourceAssignment(rs));
+                count++;
             }
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error getting resource assignments: " + e.getMessage());
             e.printStackTrace();
         } finally {
+            DaoMetrics.recordQuery("ResourceDAO", "streamAssignments", start, count, failed);
+            DatabaseManager.closeResources(rs, stmt, conn);
+        }
+
+        return count;
+    }
+
+    /**
+     * Count the resource assignments of a project
+     */
+    public int countResourceAssignments(long projectId) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getP6Connection();
+
+            String sql = "SELECT COUNT(*) " +
+                    "FROM taskrsrc tr " +
+                    "JOIN task t ON tr.task_id = t.task_id " +
+                    "JOIN rsrc r ON tr.rsrc_id = r.rsrc_id " +
+                    "WHERE t.proj_id = ? " +
+                    "AND tr.delete_date IS NULL";
+
+            stmt = conn.prepareStatement(sql);
+            stmt.setLong(1, projectId);
+            rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            failed = true;
+            System.err.println("Error counting resource assignments: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DaoMetrics.recordQuery("ResourceDAO", "countResourceAssignments", start, 0, failed);
+            DatabaseManager.closeResources(rs, stmt, conn);
+        }
+
+        return 0;
+    }
+
+    /**
+     * Get one page of a project's resource assignments in (task name, resource name,
+     * assignment ID) order, starting after the given key. Pass a null task name to
+     * get the first page.
+     */
+    public List<Resource> getResourceAssignmentsPage(long projectId, String afterTaskName,
+                                                     String afterResourceName, long afterAssignmentId, int limit) {
+        return toResources(getAssignmentsPage(projectId, afterTaskName, afterResourceName, afterAssignmentId,
+                0, limit));
+    }
+
+    /**
+     * Get the page of a project's resource assignments that starts {@code offset}
+     * rows in, for jumping to a page whose predecessor has not been read. Later
+     * pages should continue from its last row with {@link #getResourceAssignmentsPage}.
+     */
+    public List<Resource> getResourceAssignmentsPageAt(long projectId, int offset, int limit) {
+        return toResources(getAssignmentsPage(projectId, null, null, 0, offset, limit));
+    }
+
+    /**
+     * Get one page of a project's resource assignments, as for
+     * {@link #getResourceAssignmentsPage}
+     */
+    public List<ResourceAssignment> getAssignmentsPage(long projectId, String afterTaskName,
+                                                       String afterResourceName, long afterAssignmentId, int limit) {
+        return getAssignmentsPage(projectId, afterTaskName, afterResourceName, afterAssignmentId, 0, limit);
+    }
+
+    private static List<Resource> toResources(List<ResourceAssignment> page) {
+        List<Resource> resources = new ArrayList<>(page.size());
+        for (ResourceAssignment assignment : page) {
+            resources.add(assignment.toResource());
+        }
+        return resources;
+    }
+
+    private List<ResourceAssignment> getAssignmentsPage(long projectId, String afterTaskName,
+                                                        String afterResourceName, long afterAssignmentId,
+                                                        int offset, int limit) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        List<ResourceAssignment> resources = new ArrayList<>();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getP6Connection();
+
+            String sql = "SELECT tr.taskrsrc_id, tr.task_id, tr.rsrc_id, " +
+                    "t.task_name, r.rsrc_name, " +
+                    "tr.target_cost, tr.act_cost, tr.remain_cost, " +
+                    "tr.target_qty, tr.act_qty, tr.remain_qty " +
+                    "FROM taskrsrc tr " +
+                    "JOIN task t ON tr.task_id = t.task_id " +
+                    "JOIN rsrc r ON tr.rsrc_id = r.rsrc_id " +
+                    "WHERE t.proj_id = ? " +
+                    "AND tr.delete_date IS NULL " +
+                    (afterTaskName != null
+                            ? "AND (t.task_name > ? OR (t.task_name = ? AND (r.rsrc_name > ? " +
+                              "OR (r.rsrc_name = ? AND tr.taskrsrc_id > ?)))) "
+                            : "") +
+                    "ORDER BY t.task_name, r.rsrc_name, tr.taskrsrc_id " +
+                    (offset > 0 ? "OFFSET ? ROWS FETCH NEXT ? ROWS ONLY" : "FETCH FIRST ? ROWS ONLY");
+
+            stmt = conn.prepareStatement(sql);
+            int index = 1;
+            stmt.setLong(index++, projectId);
+            if (afterTaskName != null) {
+                stmt.setString(index++, afterTaskName);
+                stmt.setString(index++, afterTaskName);
+                stmt.setString(index++, afterResourceName);
+                stmt.setString(index++, afterResourceName);
+                stmt.setLong(index++, afterAssignmentId);
+            }
+            if (offset > 0) {
+                stmt.setInt(index++, offset);
+            }
+            stmt.setInt(index, limit);
+            stmt.setFetchSize(limit);
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                resources.add(mapResourceAssignment(rs));
+            }
+        } catch (SQLException e) {
+            failed = true;
+            System.err.println("Error getting resource assignment page: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DaoMetrics.recordQuery("ResourceDAO", "getAssignmentsPage", start, resources.size(), failed);
             DatabaseManager.closeResources(rs, stmt, conn);
         }
 
         return resources;
     }
 
+    /**
+     * Map a row of the resource assignment query
+     */
+    private ResourceAssignment mapResourceAssignment(ResultSet rs) throws SQLException {
+        return new ResourceAssignment(
+                rs.getLong("taskrsrc_id"),
+                rs.getLong("task_id"),
+                rs.getLong("rsrc_id"),
+                rs.getString("task_name"),
+                rs.getString("rsrc_name"),
+                rs.getDouble("target_cost"),
+                rs.getDouble("act_cost"),
+                rs.getDouble("remain_cost"),
+                rs.getDouble("target_qty"),
+                rs.getDouble("act_qty"),
+                rs.getDouble("remain_qty"));
+    }
+
+    private static long millis(java.util.Date date) {
+        return date == null ? ResourceRecord.NO_DATE : date.getTime();
+    }
+
     /**
      * Trigger synchronization for all resources
      */
     public boolean triggerResourcesSync() {
+        long start = System.nanoTime();
+        boolean failed = false;
         Connection conn = null;
         CallableStatement cstmt = null;
 
         try {
             checkDatabaseConnection();
 
-            conn = DatabaseManager.getP6Connection();  // Assuming integration schema is in P6 database
+            conn = DatabaseManager.getIntegrationConnection();
 
-            String sql = "{call p6_ebs_integration.resource_sync.sync_resources}";
+            String sql = "{call " + DatabaseManager.integrationObject("resource_sync.sync_resources") + "()}";
             cstmt = conn.prepareCall(sql);
             cstmt.execute();
 
             return true;
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error triggering resources sync: " + e.getMessage());
             e.printStackTrace();
             return false;
         } finally {
+            DaoMetrics.recordProcedure("resource_sync.sync_resources", start, 1, failed);
             DatabaseManager.closeResources(cstmt, conn);
         }
     }
@@ -238,53 +561,75 @@ public class ResourceDAO {
      * Trigger synchronization for a specific resource
      */
     public boolean triggerResourceSync(long resourceId) {
+        long start = System.nanoTime();
+        boolean failed = false;
         Connection conn = null;
         CallableStatement cstmt = null;
 
         try {
             checkDatabaseConnection();
 
-            conn = DatabaseManager.getP6Connection();  // Assuming integration schema is in P6 database
+            conn = DatabaseManager.getIntegrationConnection();
 
-            String sql = "{call p6_ebs_integration.resource_sync.sync_resource(?)}";
+            String sql = "{call " + DatabaseManager.integrationObject("resource_sync.sync_resource") + "(?)}";
             cstmt = conn.prepareCall(sql);
             cstmt.setLong(1, resourceId);
             cstmt.execute();
 
             return true;
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error triggering resource sync: " + e.getMessage());
             e.printStackTrace();
             return false;
         } finally {
+            DaoMetrics.recordProcedure("resource_sync.sync_resource", start, 1, failed);
             DatabaseManager.closeResources(cstmt, conn);
         }
     }
 
+    /**
+     * Trigger synchronization for several resources in one batched round trip
+     */
+    public boolean triggerResourceSync(Collection<Long> resourceIds) {
+        return BatchCalls.callForEach("resource_sync.sync_resource", resourceIds, "resource sync");
+    }
+
     /**
      * Trigger synchronization for resource assignments in a project
      */
     public boolean triggerResourceAssignmentsSync(long projectId) {
+        long start = System.nanoTime();
+        boolean failed = false;
         Connection conn = null;
         CallableStatement cstmt = null;
 
         try {
             checkDatabaseConnection();
 
-            conn = DatabaseManager.getP6Connection();  // Assuming integration schema is in P6 database
+            conn = DatabaseManager.getIntegrationConnection();
 
-            String sql = "{call p6_ebs_integration.resource_sync.sync_resource_assignments(?)}";
+            String sql = "{call " + DatabaseManager.integrationObject("resource_sync.sync_resource_assignments") + "(?)}";
             cstmt = conn.prepareCall(sql);
             cstmt.setLong(1, projectId);
             cstmt.execute();
 
             return true;
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error triggering resource assignments sync: " + e.getMessage());
             e.printStackTrace();
             return false;
         } finally {
+            DaoMetrics.recordProcedure("resource_sync.sync_resource_assignments", start, 1, failed);
             DatabaseManager.closeResources(cstmt, conn);
         }
     }
+
+    /**
+     * Trigger synchronization for resource assignments in several projects in one batched round trip
+     */
+    public boolean triggerResourceAssignmentsSync(Collection<Long> projectIds) {
+        return BatchCalls.callForEach("resource_sync.sync_resource_assignments", projectIds, "resource assignments sync");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.p6ebs.integration.dao;
+
+import com.p6ebs.integration.model.HighWaterMarks;
+import com.p6ebs.integration.model.SyncStatistics;
+import com.p6ebs.integration.util.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Aggregates the staging tables on the database side for the dashboard
+ */
+public class StatisticsDAO {
+
+    /**
+     * Check if database connection is initialized
+     */
+    private void checkDatabaseConnection() throws SQLException {
+        if (!DatabaseManager.isInitialized()) {
+            throw new SQLException("Database connection not initialized. Please set up connection settings first.");
+        }
+    }
+
+    /**
+     * Count the project, task and resource staging rows by sync status in one
+     * round trip. Each staging table is reduced to a few rows by its own
+     * GROUP BY, so the cost does not grow with what is sent to the client.
+     */
+    public SyncStatistics getSyncStatistics() {
+        long start = System.nanoTime();
+        boolean failed = false;
+        int groups = 0;
+        SyncStatistics statistics = new SyncStatistics();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getIntegrationConnection();
+
+            String sql = groupedQuery(SyncStatistics.EntityType.PROJECT, "project_staging") +
+                    " UNION ALL " +
+                    groupedQuery(SyncStatistics.EntityType.TASK, "task_staging") +
+                    " UNION ALL " +
+                    groupedQuery(SyncStatistics.EntityType.RESOURCE, "resource_staging");
+
+            stmt = conn.prepareStatement(sql);
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                SyncStatistics.EntityType type = SyncStatistics.EntityType.valueOf(rs.getString("entity_type"));
+                statistics.get(type).addGroup(
+                        rs.getString("sync_status"),
+                        rs.getInt("row_count"),
+                        rs.getInt("error_count"),
+                        rs.getTimestamp("last_sync_date"));
+                groups++;
+            }
+        } catch (SQLException e) {
+            failed = true;
+            System.err.println("Error getting sync statistics: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DaoMetrics.recordQuery("StatisticsDAO", "getSyncStatistics", start, groups, failed);
+            DatabaseManager.closeResources(rs, stmt, conn);
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Read the newest log ID and the newest sync time of each staging table in
+     * one single-row query. This is cheap enough to poll only if each MAX is an
+     * index range end, so the integration schema must have these indexes (the
+     * stand-in database creates them):
+     *
+     * <pre>
+     * CREATE INDEX project_staging_sync_date ON project_staging (last_sync_date);
+     * CREATE INDEX task_staging_sync_date ON task_staging (last_sync_date);
+     * CREATE INDEX resource_staging_sync_date ON resource_staging (last_sync_date);
+     * </pre>
+     *
+     * integration_log is read by its primary key. The project_staging index also
+     * serves {@link ProjectDAO#getStagingProjectsSyncedBetween}.
+     *
+     * @return the marks, or null if they could not be read
+     */
+    public HighWaterMarks getHighWaterMarks() {
+        long start = System.nanoTime();
+        boolean failed = false;
+        HighWaterMarks marks = null;
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getIntegrationConnection();
+
+            String sql = "SELECT " +
+                    "(SELECT MAX(log_id) FROM " + DatabaseManager.integrationObject("integration_log") + ") AS max_log_id, " +
+                    "(SELECT MAX(last_sync_date) FROM " + DatabaseManager.integrationObject("project_staging") + ") AS project_sync, " +
+                    "(SELECT MAX(last_sync_date) FROM " + DatabaseManager.integrationObject("task_staging") + ") AS task_sync, " +
+                    "(SELECT MAX(last_sync_date) FROM " + DatabaseManager.integrationObject("resource_staging") + ") AS resource_sync " +
+                    "FROM dual";
+
+            stmt = conn.prepareStatement(sql);
+            rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                marks = new HighWaterMarks(
+                        rs.getLong("max_log_id"),
+                        rs.getTimestamp("project_sync"),
+                        rs.getTimestamp("task_sync"),
+                        rs.getTimestamp("resource_sync"));
+            }
+        } catch (SQLException e) {
+            failed = true;
+            System.err.println("Error getting high-water marks: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DaoMetrics.recordQuery("StatisticsDAO", "getHighWaterMarks", start, marks != null ? 1 : 0, failed);
+            DatabaseManager.closeResources(rs, stmt, conn);
+        }
+
+        return marks;
+    }
+
+    private static String groupedQuery(SyncStatistics.EntityType type, String table) {
+        return "SELECT '" + type.name() + "' AS entity_type, sync_status, COUNT(*) AS row_count, " +
+                "SUM(CASE WHEN error_message IS NOT NULL THEN 1 ELSE 0 END) AS error_count, " +
+                "MAX(last_sync_date) AS last_sync_date " +
+                "FROM " + DatabaseManager.integrationObject(table) + " " +
+                "GROUP BY sync_status";
+    }
+}
@@ -5,7 +5,9 @@ import com.p6ebs.integration.util.DatabaseManager;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class TaskDAO {
 
@@ -23,6 +25,19 @@ public class TaskDAO {
      */
     public List<Task> getP6Tasks(long projectId) {
         List<Task> tasks = new ArrayList<>();
+        streamP6Tasks(projectId, tasks::add);
+        return tasks;
+    }
+
+    /**
+     * Stream all tasks for a project from Primavera P6 to the consumer, one row at a time
+     *
+     * @return number of rows delivered to the consumer
+     */
+    public int streamP6Tasks(long projectId, Consumer<Task> consumer) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        int count = 0;
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -43,38 +58,224 @@ public class TaskDAO {
 
             stmt = conn.prepareStatement(sql);
             stmt.setLong(1, projectId);
+            stmt.setFetchSize(DatabaseManager.getFetchSize());
             rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Task task = new Task();
-                task.setId(rs.getLong("task_id"));
-                task.setCode(rs.getString("task_code"));
-                task.setName(rs.getString("task_name"));
-                task.setParentTaskId(rs.getLong("parent_task_id"));
-                task.setStartDate(rs.getDate("target_start_date"));
-                task.setEndDate(rs.getDate("target_end_date"));
-                task.setDuration(rs.getDouble("target_drtn_hr_cnt") / 8.0); // Convert hours to days
-                task.setPercentComplete(rs.getDouble("phys_complete_pct"));
-                task.setStatus(rs.getString("status_code"));
-                task.setProjectId(projectId);
-                task.setSource("P6");
-                tasks.add(task);
+                consumer.accept(mapP6Task(rs, projectId));
+                count++;
             }
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error getting P6 tasks: " + e.getMessage());
             e.printStackTrace();
         } finally {
+            DaoMetrics.recordQuery("TaskDAO", "streamP6Tasks", start, count, failed);
+            DatabaseManager.closeResources(rs, stmt, conn);
+        }
+
+        return count;
+    }
+
+    /**
+     * Map a row of the P6 task query
+     */
+    private Task mapP6Task(ResultSet rs, long projectId) throws SQLException {
+        Task task = new Task();
+        task.setId(rs.getLong("task_id"));
+        task.setCode(rs.getString("task_code"));
+        task.setName(rs.getString("task_name"));
+        task.setParentTaskId(rs.getLong("parent_task_id"));
+        task.setStartDate(rs.getDate("target_start_date"));
+        task.setEndDate(rs.getDate("target_end_date"));
+        task.setDuration(rs.getDouble("target_drtn_hr_cnt") / 8.0); // Convert hours to days
+        task.setPercentComplete(rs.getDouble("phys_complete_pct"));
+        task.setStatus(rs.getString("status_code"));
+        task.setProjectId(projectId);
+        task.setSource("P6");
+        return task;
+    }
+
+    /**
+     * Count the tasks of a project in Primavera P6
+     */
+    public int countP6Tasks(long projectId) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getP6Connection();
+
+            String sql = "SELECT COUNT(*) FROM task " +
+                    "WHERE proj_id = ? " +
+                    "AND task_type <> 'WBS' " +
+                    "AND delete_date IS NULL";
+
+            stmt = conn.prepareStatement(sql);
+            stmt.setLong(1, projectId);
+            rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            failed = true;
+            System.err.println("Error counting P6 tasks: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DaoMetrics.recordQuery("TaskDAO", "countP6Tasks", start, 0, failed);
+            DatabaseManager.closeResources(rs, stmt, conn);
+        }
+
+        return 0;
+    }
+
+    /**
+     * Get one page of a project's P6 tasks in (task_code, task_id) order, starting
+     * after the given key. Pass a null code to get the first page.
+     */
+    public List<Task> getP6TasksPage(long projectId, String afterCode, long afterId, int limit) {
+        return getP6TasksPage(projectId, afterCode, afterId, 0, limit);
+    }
+
+    /**
+     * Get the page of a project's P6 tasks that starts {@code offset} rows in, for
+     * jumping to a page whose predecessor has not been read. Later pages should
+     * continue from its last row with {@link #getP6TasksPage(long, String, long, int)}.
+     */
+    public List<Task> getP6TasksPageAt(long projectId, int offset, int limit) {
+        return getP6TasksPage(projectId, null, 0, offset, limit);
+    }
+
+    private List<Task> getP6TasksPage(long projectId, String afterCode, long afterId, int offset, int limit) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        List<Task> tasks = new ArrayList<>();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getP6Connection();
+
+            String sql = "SELECT task_id, task_code, task_name, parent_task_id, " +
+                    "target_start_date, target_end_date, target_drtn_hr_cnt, " +
+                    "phys_complete_pct, status_code " +
+                    "FROM task " +
+                    "WHERE proj_id = ? " +
+                    "AND task_type <> 'WBS' " +
+                    "AND delete_date IS NULL " +
+                    (afterCode != null ? "AND (task_code > ? OR (task_code = ? AND task_id > ?)) " : "") +
+                    "ORDER BY task_code, task_id " +
+                    (offset > 0 ? "OFFSET ? ROWS FETCH NEXT ? ROWS ONLY" : "FETCH FIRST ? ROWS ONLY");
+
+            stmt = conn.prepareStatement(sql);
+            int index = 1;
+            stmt.setLong(index++, projectId);
+            if (afterCode != null) {
+                stmt.setString(index++, afterCode);
+                stmt.setString(index++, afterCode);
+                stmt.setLong(index++, afterId);
+            }
+            if (offset > 0) {
+                stmt.setInt(index++, offset);
+            }
+            stmt.setInt(index, limit);
+            stmt.setFetchSize(limit);
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                tasks.add(mapP6Task(rs, projectId));
+            }
+        } catch (SQLException e) {
+            failed = true;
+            System.err.println("Error getting P6 task page: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DaoMetrics.recordQuery("TaskDAO", "getP6TasksPage", start, tasks.size(), failed);
             DatabaseManager.closeResources(rs, stmt, conn);
         }
 
         return tasks;
     }
 
+    /**
+     * Stream P6 tasks in any project inserted, updated or soft-deleted after the
+     * given time, oldest change first. Deleted tasks are delivered with a delete date set.
+     *
+     * @return number of rows delivered to the consumer
+     */
+    public int streamP6TasksChangedSince(Timestamp since, Consumer<Task> consumer) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        int count = 0;
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getP6Connection();
+
+            String sql = "SELECT task_id, proj_id, task_code, task_name, parent_task_id, " +
+                    "target_start_date, target_end_date, target_drtn_hr_cnt, " +
+                    "phys_complete_pct, status_code, update_date, delete_date " +
+                    "FROM task " +
+                    "WHERE task_type <> 'WBS' " +
+                    "AND (update_date > ? OR delete_date > ?) " +
+                    "ORDER BY update_date";
+
+            stmt = conn.prepareStatement(sql);
+            stmt.setTimestamp(1, since);
+            stmt.setTimestamp(2, since);
+            stmt.setFetchSize(DatabaseManager.getFetchSize());
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                Task task = mapP6Task(rs, rs.getLong("proj_id"));
+                task.setUpdateDate(rs.getTimestamp("update_date"));
+                task.setDeleteDate(rs.getTimestamp("delete_date"));
+                consumer.accept(task);
+                count++;
+            }
+        } catch (SQLException e) {
+            failed = true;
+            System.err.println("Error getting changed P6 tasks: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DaoMetrics.recordQuery("TaskDAO", "streamP6TasksChangedSince", start, count, failed);
+            DatabaseManager.closeResources(rs, stmt, conn);
+        }
+
+        return count;
+    }
+
     /**
      * Get all tasks for a project from Oracle EBS
      */
     public List<Task> getEBSTasks(long projectId) {
         List<Task> tasks = new ArrayList<>();
+        streamEBSTasks(projectId, tasks::add);
+        return tasks;
+    }
+
+    /**
+     * Stream all tasks for a project from Oracle EBS to the consumer, one row at a time
+     *
+     * @return number of rows delivered to the consumer
+     */
+    public int streamEBSTasks(long projectId, Consumer<Task> consumer) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        int count = 0;
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -93,27 +294,142 @@ public class TaskDAO {
 
             stmt = conn.prepareStatement(sql);
             stmt.setLong(1, projectId);
+            stmt.setFetchSize(DatabaseManager.getFetchSize());
             rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Task task = new Task();
-                task.setId(rs.getLong("task_id"));
-                task.setCode(rs.getString("task_number"));
-                task.setName(rs.getString("task_name"));
-                task.setParentTaskId(rs.getLong("parent_task_id"));
-                task.setStartDate(rs.getDate("start_date"));
-                task.setEndDate(rs.getDate("finish_date"));
-                task.setDuration(rs.getDouble("planned_duration"));
-                task.setPercentComplete(rs.getDouble("actual_percent_complete"));
-                task.setStatus(rs.getString("task_status_code"));
-                task.setProjectId(projectId);
-                task.setSource("EBS");
-                tasks.add(task);
+                consumer.accept(mapEBSTask(rs, projectId));
+                count++;
             }
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error getting EBS tasks: " + e.getMessage());
             e.printStackTrace();
         } finally {
+            DaoMetrics.recordQuery("TaskDAO", "streamEBSTasks", start, count, failed);
+            DatabaseManager.closeResources(rs, stmt, conn);
+        }
+
+        return count;
+    }
+
+    /**
+     * Map a row of the EBS task query
+     */
+    private Task mapEBSTask(ResultSet rs, long projectId) throws SQLException {
+        Task task = new Task();
+        task.setId(rs.getLong("task_id"));
+        task.setCode(rs.getString("task_number"));
+        task.setName(rs.getString("task_name"));
+        task.setParentTaskId(rs.getLong("parent_task_id"));
+        task.setStartDate(rs.getDate("start_date"));
+        task.setEndDate(rs.getDate("finish_date"));
+        task.setDuration(rs.getDouble("planned_duration"));
+        task.setPercentComplete(rs.getDouble("actual_percent_complete"));
+        task.setStatus(rs.getString("task_status_code"));
+        task.setProjectId(projectId);
+        task.setSource("EBS");
+        return task;
+    }
+
+    /**
+     * Count the tasks of a project in Oracle EBS
+     */
+    public int countEBSTasks(long projectId) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getEBSConnection();
+
+            String sql = "SELECT COUNT(*) FROM pa_tasks WHERE project_id = ?";
+
+            stmt = conn.prepareStatement(sql);
+            stmt.setLong(1, projectId);
+            rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            failed = true;
+            System.err.println("Error counting EBS tasks: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DaoMetrics.recordQuery("TaskDAO", "countEBSTasks", start, 0, failed);
+            DatabaseManager.closeResources(rs, stmt, conn);
+        }
+
+        return 0;
+    }
+
+    /**
+     * Get one page of a project's EBS tasks in (task_number, task_id) order, starting
+     * after the given key. Pass a null number to get the first page.
+     */
+    public List<Task> getEBSTasksPage(long projectId, String afterNumber, long afterId, int limit) {
+        return getEBSTasksPage(projectId, afterNumber, afterId, 0, limit);
+    }
+
+    /**
+     * Get the page of a project's EBS tasks that starts {@code offset} rows in, as
+     * for {@link #getP6TasksPageAt}
+     */
+    public List<Task> getEBSTasksPageAt(long projectId, int offset, int limit) {
+        return getEBSTasksPage(projectId, null, 0, offset, limit);
+    }
+
+    private List<Task> getEBSTasksPage(long projectId, String afterNumber, long afterId, int offset, int limit) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        List<Task> tasks = new ArrayList<>();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getEBSConnection();
+
+            String sql = "SELECT task_id, task_number, task_name, parent_task_id, " +
+                    "start_date, finish_date, planned_duration, " +
+                    "actual_percent_complete, task_status_code " +
+                    "FROM pa_tasks " +
+                    "WHERE project_id = ? " +
+                    (afterNumber != null ? "AND (task_number > ? OR (task_number = ? AND task_id > ?)) " : "") +
+                    "ORDER BY task_number, task_id " +
+                    (offset > 0 ? "OFFSET ? ROWS FETCH NEXT ? ROWS ONLY" : "FETCH FIRST ? ROWS ONLY");
+
+            stmt = conn.prepareStatement(sql);
+            int index = 1;
+            stmt.setLong(index++, projectId);
+            if (afterNumber != null) {
+                stmt.setString(index++, afterNumber);
+                stmt.setString(index++, afterNumber);
+                stmt.setLong(index++, afterId);
+            }
+            if (offset > 0) {
+                stmt.setInt(index++, offset);
+            }
+            stmt.setInt(index, limit);
+            stmt.setFetchSize(limit);
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                tasks.add(mapEBSTask(rs, projectId));
+            }
+        } catch (SQLException e) {
+            failed = true;
+            System.err.println("Error getting EBS task page: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DaoMetrics.recordQuery("TaskDAO", "getEBSTasksPage", start, tasks.size(), failed);
             DatabaseManager.closeResources(rs, stmt, conn);
         }
 
@@ -125,6 +441,19 @@ public class TaskDAO {
      */
     public List<Task> getStagingTasks(long projectId) {
         List<Task> tasks = new ArrayList<>();
+        streamStagingTasks(projectId, tasks::add);
+        return tasks;
+    }
+
+    /**
+     * Stream staging tasks for a project to the consumer, one row at a time
+     *
+     * @return number of rows delivered to the consumer
+     */
+    public int streamStagingTasks(long projectId, Consumer<Task> consumer) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        int count = 0;
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -132,125 +461,169 @@ public class TaskDAO {
         try {
             checkDatabaseConnection();
 
-            conn = DatabaseManager.getP6Connection();  // Assuming integration schema is in P6 database
+            conn = DatabaseManager.getIntegrationConnection();
 
             String sql = "SELECT p6_task_id, p6_task_code, p6_task_name, " +
                     "p6_parent_task_id, p6_start_date, p6_finish_date, " +
                     "p6_duration, p6_percent_complete, ebs_task_id, " +
                     "sync_status, error_message, last_sync_date " +
-                    "FROM p6_ebs_integration.task_staging " +
+                    "FROM " + DatabaseManager.integrationObject("task_staging") + " " +
                     "WHERE p6_project_id = ? " +
                     "ORDER BY last_sync_date DESC";
 
             stmt = conn.prepareStatement(sql);
             stmt.setLong(1, projectId);
+            stmt.setFetchSize(DatabaseManager.getFetchSize());
             rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Task task = new Task();
-                task.setId(rs.getLong("p6_task_id"));
-                task.setCode(rs.getString("p6_task_code"));
-                task.setName(rs.getString("p6_task_name"));
-                task.setParentTaskId(rs.getLong("p6_parent_task_id"));
-                task.setStartDate(rs.getDate("p6_start_date"));
-                task.setEndDate(rs.getDate("p6_finish_date"));
-                task.setDuration(rs.getDouble("p6_duration"));
-                task.setPercentComplete(rs.getDouble("p6_percent_complete"));
-                task.setEbsId(rs.getLong("ebs_task_id"));
-                task.setSyncStatus(rs.getString("sync_status"));
-                task.setErrorMessage(rs.getString("error_message"));
-                task.setLastSyncDate(rs.getTimestamp("last_sync_date"));
-                task.setProjectId(projectId);
-                tasks.add(task);
+                consumer.accept(mapStagingTask(rs, projectId));
+                count++;
             }
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error getting staging tasks: " + e.getMessage());
             e.printStackTrace();
         } finally {
+            DaoMetrics.recordQuery("TaskDAO", "streamStagingTasks", start, count, failed);
             DatabaseManager.closeResources(rs, stmt, conn);
         }
 
-        return tasks;
+        return count;
+    }
+
+    /**
+     * Map a row of the task staging query
+     */
+    private Task mapStagingTask(ResultSet rs, long projectId) throws SQLException {
+        Task task = new Task();
+        task.setId(rs.getLong("p6_task_id"));
+        task.setCode(rs.getString("p6_task_code"));
+        task.setName(rs.getString("p6_task_name"));
+        task.setParentTaskId(rs.getLong("p6_parent_task_id"));
+        task.setStartDate(rs.getDate("p6_start_date"));
+        task.setEndDate(rs.getDate("p6_finish_date"));
+        task.setDuration(rs.getDouble("p6_duration"));
+        task.setPercentComplete(rs.getDouble("p6_percent_complete"));
+        task.setEbsId(rs.getLong("ebs_task_id"));
+        task.setSyncStatus(rs.getString("sync_status"));
+        task.setErrorMessage(rs.getString("error_message"));
+        task.setLastSyncDate(rs.getTimestamp("last_sync_date"));
+        task.setProjectId(projectId);
+        return task;
     }
 
     /**
      * Trigger synchronization for all tasks in a project
      */
     public boolean triggerTasksSync(long projectId) {
+        long start = System.nanoTime();
+        boolean failed = false;
         Connection conn = null;
         CallableStatement cstmt = null;
 
         try {
             checkDatabaseConnection();
 
-            conn = DatabaseManager.getP6Connection();  // Assuming integration schema is in P6 database
+            conn = DatabaseManager.getIntegrationConnection();
 
-            String sql = "{call p6_ebs_integration.task_sync.sync_tasks_p6_to_ebs(?)}";
+            String sql = "{call " + DatabaseManager.integrationObject("task_sync.sync_tasks_p6_to_ebs") + "(?)}";
             cstmt = conn.prepareCall(sql);
             cstmt.setLong(1, projectId);
             cstmt.execute();
 
             return true;
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error triggering tasks sync: " + e.getMessage());
             e.printStackTrace();
             return false;
         } finally {
+            DaoMetrics.recordProcedure("task_sync.sync_tasks_p6_to_ebs", start, 1, failed);
             DatabaseManager.closeResources(cstmt, conn);
         }
     }
 
+    /**
+     * Trigger synchronization for all tasks in several projects in one batched round trip
+     */
+    public boolean triggerTasksSync(Collection<Long> projectIds) {
+        return BatchCalls.callForEach("task_sync.sync_tasks_p6_to_ebs", projectIds, "tasks sync");
+    }
+
     /**
      * Trigger synchronization for a specific task
      */
     public boolean triggerTaskSync(long taskId) {
+        long start = System.nanoTime();
+        boolean failed = false;
         Connection conn = null;
         CallableStatement cstmt = null;
 
         try {
             checkDatabaseConnection();
 
-            conn = DatabaseManager.getP6Connection();  // Assuming integration schema is in P6 database
+            conn = DatabaseManager.getIntegrationConnection();
 
-            String sql = "{call p6_ebs_integration.task_sync.sync_task(?)}";
+            String sql = "{call " + DatabaseManager.integrationObject("task_sync.sync_task") + "(?)}";
             cstmt = conn.prepareCall(sql);
             cstmt.setLong(1, taskId);
             cstmt.execute();
 
             return true;
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error triggering task sync: " + e.getMessage());
             e.printStackTrace();
             return false;
         } finally {
+            DaoMetrics.recordProcedure("task_sync.sync_task", start, 1, failed);
             DatabaseManager.closeResources(cstmt, conn);
         }
     }
 
+    /**
+     * Trigger synchronization for several tasks in one batched round trip
+     */
+    public boolean triggerTaskSync(Collection<Long> taskIds) {
+        return BatchCalls.callForEach("task_sync.sync_task", taskIds, "task sync");
+    }
+
     /**
      * Trigger synchronization for task dependencies
      */
     public boolean triggerTaskDependenciesSync(long projectId) {
+        long start = System.nanoTime();
+        boolean failed = false;
         Connection conn = null;
         CallableStatement cstmt = null;
 
         try {
             checkDatabaseConnection();
 
-            conn = DatabaseManager.getP6Connection();  // Assuming integration schema is in P6 database
+            conn = DatabaseManager.getIntegrationConnection();
 
-            String sql = "{call p6_ebs_integration.task_sync.sync_task_dependencies(?)}";
+            String sql = "{call " + DatabaseManager.integrationObject("task_sync.sync_task_dependencies") + "(?)}";
             cstmt = conn.prepareCall(sql);
             cstmt.setLong(1, projectId);
             cstmt.execute();
 
             return true;
         } catch (SQLException e) {
+            failed = true;
             System.err.println("Error triggering task dependencies sync: " + e.getMessage());
             e.printStackTrace();
             return false;
         } finally {
+            DaoMetrics.recordProcedure("task_sync.sync_task_dependencies", start, 1, failed);
             DatabaseManager.closeResources(cstmt, conn);
         }
     }
+
+    /**
+     * Trigger synchronization for task dependencies in several projects in one batched round trip
+     */
+    public boolean triggerTaskDependenciesSync(Collection<Long> projectIds) {
+        return BatchCalls.callForEach("task_sync.sync_task_dependencies", projectIds, "task dependencies sync");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,238 @@
+package com.p6ebs.integration.dao;
+
+import com.p6ebs.integration.model.TaskSyncChunk;
+import com.p6ebs.integration.util.DatabaseManager;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Syncs chunks of a project's tasks, each in its own transaction, and keeps the
+ * progress of chunked syncs in the integration schema table:
+ *
+ * <pre>
+ * CREATE TABLE task_sync_progress (
+ *     p6_project_id  NUMBER NOT NULL,
+ *     chunk_no       NUMBER NOT NULL,
+ *     first_task_id  NUMBER,
+ *     last_task_id   NUMBER,
+ *     task_count     NUMBER,
+ *     task_ids_hash  NUMBER(19),
+ *     sync_status    VARCHAR2(20),
+ *     error_message  VARCHAR2(4000),
+ *     last_sync_date TIMESTAMP,
+ *     CONSTRAINT task_sync_progress_pk PRIMARY KEY (p6_project_id, chunk_no)
+ * );
+ * </pre>
+ */
+public class TaskSyncProgressDAO {
+    private static final int MAX_ERROR_LENGTH = 4000;
+
+    /**
+     * Check if database connection is initialized
+     */
+    private void checkDatabaseConnection() throws SQLException {
+        if (!DatabaseManager.isInitialized()) {
+            throw new SQLException("Database connection not initialized. Please set up connection settings first.");
+        }
+    }
+
+    /**
+     * Get the recorded chunks of a project's unfinished chunked sync, by chunk number
+     */
+    public List<TaskSyncChunk> getChunks(long projectId) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        List<TaskSyncChunk> chunks = new ArrayList<>();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getIntegrationConnection();
+
+            String sql = "SELECT chunk_no, first_task_id, last_task_id, task_count, task_ids_hash, " +
+                    "sync_status, error_message, last_sync_date " +
+                    "FROM " + DatabaseManager.integrationObject("task_sync_progress") + " " +
+                    "WHERE p6_project_id = ? " +
+                    "ORDER BY chunk_no";
+
+            stmt = conn.prepareStatement(sql);
+            stmt.setLong(1, projectId);
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                chunks.add(new TaskSyncChunk(
+                        projectId,
+                        rs.getInt("chunk_no"),
+                        rs.getLong("first_task_id"),
+                        rs.getLong("last_task_id"),
+                        rs.getInt("task_count"),
+                        rs.getLong("task_ids_hash"),
+                        rs.getString("sync_status"),
+                        rs.getString("error_message"),
+                        rs.getTimestamp("last_sync_date")));
+            }
+        } catch (SQLException e) {
+            failed = true;
+            System.err.println("Error getting task sync progress: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DaoMetrics.recordQuery("TaskSyncProgressDAO", "getChunks", start, chunks.size(), failed);
+            DatabaseManager.closeResources(rs, stmt, conn);
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Call task_sync.sync_task for each task of a chunk, in order, and record
+     * the chunk as completed in the same transaction. If any call fails the
+     * chunk is rolled back and recorded as failed instead.
+     *
+     * @param taskIds the chunk's tasks, parents before their children
+     * @return true if the chunk was synced and committed
+     */
+    public boolean syncChunk(long projectId, int chunkNo, long[] taskIds) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        String sql = "{call " + DatabaseManager.integrationObject("task_sync.sync_task") + "(?)}";
+        Connection conn = null;
+        CallableStatement cstmt = null;
+        boolean autoCommit = true;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getIntegrationConnection();
+            autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            cstmt = conn.prepareCall(sql);
+            int pending = 0;
+            for (long taskId : taskIds) {
+                cstmt.setLong(1, taskId);
+                cstmt.addBatch();
+                if (++pending == BatchCalls.MAX_BATCH_SIZE) {
+                    cstmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                cstmt.executeBatch();
+            }
+
+            recordChunk(conn, projectId, chunkNo, taskIds, TaskSyncChunk.COMPLETED, null);
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            failed = true;
+            System.err.println("Error syncing chunk " + chunkNo + " of project " + projectId + " ("
+                    + taskIds.length + " tasks): " + e.getMessage());
+            e.printStackTrace();
+            recordFailure(conn, projectId, chunkNo, taskIds, e);
+            return false;
+        } finally {
+            DaoMetrics.recordProcedure("task_sync.sync_task", start, taskIds.length, failed);
+            restoreAutoCommit(conn, autoCommit);
+            DatabaseManager.closeResources(cstmt, conn);
+        }
+    }
+
+    /**
+     * Forget the recorded chunks of a project, so its next chunked sync starts from the beginning
+     */
+    public boolean clearProgress(long projectId) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        int rows = 0;
+        Connection conn = null;
+        PreparedStatement stmt = null;
+
+        try {
+            checkDatabaseConnection();
+
+            conn = DatabaseManager.getIntegrationConnection();
+
+            String sql = "DELETE FROM " + DatabaseManager.integrationObject("task_sync_progress") +
+                    " WHERE p6_project_id = ?";
+
+            stmt = conn.prepareStatement(sql);
+            stmt.setLong(1, projectId);
+            rows = stmt.executeUpdate();
+
+            return true;
+        } catch (SQLException e) {
+            failed = true;
+            System.err.println("Error clearing task sync progress: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        } finally {
+            DaoMetrics.recordQuery("TaskSyncProgressDAO", "clearProgress", start, rows, failed);
+            DatabaseManager.closeResources(stmt, conn);
+        }
+    }
+
+    /**
+     * Replace the progress row of a chunk on the caller's connection
+     */
+    private static void recordChunk(Connection conn, long projectId, int chunkNo, long[] taskIds, String status,
+                                    String errorMessage) throws SQLException {
+        String table = DatabaseManager.integrationObject("task_sync_progress");
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM " + table + " WHERE p6_project_id = ? AND chunk_no = ?")) {
+            stmt.setLong(1, projectId);
+            stmt.setInt(2, chunkNo);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO " + table + " (p6_project_id, chunk_no, " +
+                "first_task_id, last_task_id, task_count, task_ids_hash, sync_status, error_message, last_sync_date) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)")) {
+            stmt.setLong(1, projectId);
+            stmt.setInt(2, chunkNo);
+            stmt.setLong(3, taskIds.length > 0 ? taskIds[0] : 0L);
+            stmt.setLong(4, taskIds.length > 0 ? taskIds[taskIds.length - 1] : 0L);
+            stmt.setInt(5, taskIds.length);
+            stmt.setLong(6, TaskSyncChunk.hashTaskIds(taskIds));
+            stmt.setString(7, status);
+            stmt.setString(8, errorMessage);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Roll back a failed chunk and record the failure in its own transaction
+     */
+    private static void recordFailure(Connection conn, long projectId, int chunkNo, long[] taskIds,
+                                      SQLException error) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.rollback();
+            String message = String.valueOf(error.getMessage());
+            recordChunk(conn, projectId, chunkNo, taskIds, TaskSyncChunk.FAILED,
+                    message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+            conn.commit();
+        } catch (SQLException e) {
+            System.err.println("Error recording failed chunk " + chunkNo + ": " + e.getMessage());
+        }
+    }
+
+    private static void restoreAutoCommit(Connection conn, boolean autoCommit) {
+        if (conn != null) {
+            try {
+                conn.setAutoCommit(autoCommit);
+            } catch (SQLException e) {
+                System.err.println("Error restoring auto-commit: " + e.getMessage());
+            }
+        }
+    }
+}
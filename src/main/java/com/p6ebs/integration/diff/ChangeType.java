@@ -0,0 +1,13 @@
+package com.p6ebs.integration.diff;
+
+/**
+ * What a sync would do to the EBS side of an entity
+ */
+public enum ChangeType {
+    /** Present in P6 but not yet in EBS */
+    INSERT,
+    /** Present on both sides with differing fields */
+    UPDATE,
+    /** Present in EBS with no P6 counterpart */
+    DELETE
+}
@@ -0,0 +1,65 @@
+package com.p6ebs.integration.diff;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of comparing the P6 and EBS sides of one entity type
+ */
+public class Changeset {
+    private final String entityType;
+    private final List<EntityChange> changes;
+    private final int unchangedCount;
+    private final long elapsedMillis;
+
+    public Changeset(String entityType, List<EntityChange> changes, int unchangedCount, long elapsedMillis) {
+        this.entityType = entityType;
+        this.changes = Collections.unmodifiableList(changes);
+        this.unchangedCount = unchangedCount;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getEntityType() { return entityType; }
+
+    public List<EntityChange> getChanges() { return changes; }
+
+    public int getUnchangedCount() { return unchangedCount; }
+
+    /** Time taken to compute the diff, excluding the database reads */
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public int count(ChangeType type) {
+        int count = 0;
+        for (EntityChange change : changes) {
+            if (change.getType() == type) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * P6 IDs of inserted and updated entities, i.e. the ones a P6 to EBS sync needs to push
+     */
+    public List<Long> getP6IdsToSync() {
+        List<Long> ids = new ArrayList<>();
+        for (EntityChange change : changes) {
+            if (change.getType() != ChangeType.DELETE) {
+                ids.add(change.getP6Id());
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public String toString() {
+        return entityType + " changes: " + count(ChangeType.INSERT) + " inserts, "
+                + count(ChangeType.UPDATE) + " updates, " + count(ChangeType.DELETE) + " deletes, "
+                + unchangedCount + " unchanged (" + elapsedMillis + " ms)";
+    }
+}
@@ -0,0 +1,65 @@
+package com.p6ebs.integration.diff;
+
+/**
+ * One row of a side-by-side comparison: a P6 row, the EBS row it maps to and
+ * the state of its staging record. Either side may be missing.
+ */
+public class ComparedRow {
+    private final Long p6Id;
+    private final Long ebsId;
+    private final String label;
+    private final String[] p6Values;
+    private final String[] ebsValues;
+    private final boolean[] mismatches;
+    private final String syncStatus;
+
+    ComparedRow(Long p6Id, Long ebsId, String label, String[] p6Values, String[] ebsValues,
+                boolean[] mismatches, String syncStatus) {
+        this.p6Id = p6Id;
+        this.ebsId = ebsId;
+        this.label = label;
+        this.p6Values = p6Values;
+        this.ebsValues = ebsValues;
+        this.mismatches = mismatches;
+        this.syncStatus = syncStatus;
+    }
+
+    public Long getP6Id() { return p6Id; }
+
+    public Long getEbsId() { return ebsId; }
+
+    public String getLabel() { return label; }
+
+    /** Display value of a compared field on the P6 side, or null if there is no P6 row */
+    public String getP6Value(int field) { return p6Values == null ? null : p6Values[field]; }
+
+    /** Display value of a compared field on the EBS side, or null if there is no EBS row */
+    public String getEbsValue(int field) { return ebsValues == null ? null : ebsValues[field]; }
+
+    /**
+     * Whether a compared field differs between two matched rows
+     */
+    public boolean isMismatch(int field) { return mismatches != null && mismatches[field]; }
+
+    /** Sync status of the staging record, or null if the row has never been staged */
+    public String getSyncStatus() { return syncStatus; }
+
+    public boolean isP6Only() { return ebsValues == null; }
+
+    public boolean isEbsOnly() { return p6Values == null; }
+
+    /**
+     * Whether the row is missing on one side or has at least one differing field
+     */
+    public boolean hasMismatch() {
+        if (isP6Only() || isEbsOnly()) {
+            return true;
+        }
+        for (boolean mismatch : mismatches) {
+            if (mismatch) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
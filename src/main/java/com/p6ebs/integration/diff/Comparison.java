@@ -0,0 +1,62 @@
+package com.p6ebs.integration.diff;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * P6, EBS and staging rows of one entity type joined side by side, with the
+ * time each source took to load
+ */
+public class Comparison {
+    private final String entityType;
+    private final String[] fieldNames;
+    private final List<ComparedRow> rows;
+    private final long p6Millis;
+    private final long ebsMillis;
+    private final long stagingMillis;
+    private final long elapsedMillis;
+
+    Comparison(String entityType, String[] fieldNames, List<ComparedRow> rows,
+               long p6Millis, long ebsMillis, long stagingMillis, long elapsedMillis) {
+        this.entityType = entityType;
+        this.fieldNames = fieldNames;
+        this.rows = Collections.unmodifiableList(rows);
+        this.p6Millis = p6Millis;
+        this.ebsMillis = ebsMillis;
+        this.stagingMillis = stagingMillis;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getEntityType() { return entityType; }
+
+    /** Names of the compared fields, indexing {@link ComparedRow#getP6Value} and friends */
+    public String[] getFieldNames() { return fieldNames.clone(); }
+
+    public List<ComparedRow> getRows() { return rows; }
+
+    public long getP6Millis() { return p6Millis; }
+
+    public long getEbsMillis() { return ebsMillis; }
+
+    public long getStagingMillis() { return stagingMillis; }
+
+    /** Wall-clock time of the whole comparison, loads and join included */
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public int getMismatchCount() {
+        int count = 0;
+        for (ComparedRow row : rows) {
+            if (row.hasMismatch()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return entityType + ": " + rows.size() + " rows, " + getMismatchCount() + " differ; loaded in "
+                + elapsedMillis + " ms (P6 " + p6Millis + " ms, EBS " + ebsMillis + " ms, staging "
+                + stagingMillis + " ms)";
+    }
+}
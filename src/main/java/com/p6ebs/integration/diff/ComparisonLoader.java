@@ -0,0 +1,182 @@
+package com.p6ebs.integration.diff;
+
+import com.p6ebs.integration.dao.DaoFailures;
+import com.p6ebs.integration.dao.ProjectDAO;
+import com.p6ebs.integration.dao.TaskDAO;
+import com.p6ebs.integration.exec.BackgroundExecutor;
+import com.p6ebs.integration.model.Project;
+import com.p6ebs.integration.snapshot.TaskRow;
+import com.p6ebs.integration.snapshot.TaskSnapshot;
+import com.p6ebs.integration.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Loads the P6, EBS and staging sides of an entity type concurrently, each on
+ * its own pooled connection, and joins them for side-by-side display. The
+ * total load time is that of the slowest source rather than the sum of all three.
+ * No thread waits for the loads: the join runs once the last of them completes.
+ */
+public class ComparisonLoader {
+    private static final Logger logger = LoggerUtil.getLogger(ComparisonLoader.class);
+
+    private static final String STATUS = "Status";
+
+    private final ProjectDAO projectDAO;
+    private final TaskDAO taskDAO;
+    private final StatusMapping projectStatuses;
+    private final StatusMapping taskStatuses;
+
+    public ComparisonLoader() {
+        this(new ProjectDAO(), new TaskDAO());
+    }
+
+    public ComparisonLoader(ProjectDAO projectDAO, TaskDAO taskDAO) {
+        this.projectDAO = projectDAO;
+        this.taskDAO = taskDAO;
+        this.projectStatuses = StatusMapping.fromConfig("compare.status.project", "Active=APPROVED");
+        this.taskStatuses = StatusMapping.fromConfig("compare.status.task",
+                "TK_NotStart=NOT_STARTED,TK_Active=ACTIVE,TK_Complete=COMPLETED");
+    }
+
+    /**
+     * Compare all P6 projects with EBS projects
+     */
+    public CompletableFuture<Comparison> compareProjects() {
+        long start = System.nanoTime();
+        CompletableFuture<Loaded<Project>> p6 = load(BackgroundExecutor.Pool.P6, "P6 projects",
+                projectDAO::getP6Projects);
+        CompletableFuture<Loaded<Project>> ebs = load(BackgroundExecutor.Pool.EBS, "EBS projects",
+                projectDAO::getEBSProjects);
+        CompletableFuture<Loaded<Project>> staging = load(BackgroundExecutor.Pool.INTEGRATION, "staging projects",
+                projectDAO::getStagingProjects);
+        return CompletableFuture.allOf(p6, ebs, staging).thenApply(loaded ->
+                join(DiffEngine.PROJECTS, p6.join(), ebs.join(), staging.join(), new ProjectFields(),
+                        Project::getStatus, Project::getEbsId, Project::getSyncStatus, projectStatuses, start));
+    }
+
+    /**
+     * Compare the tasks of one P6 project with the tasks of its EBS counterpart
+     */
+    public CompletableFuture<Comparison> compareTasks(long p6ProjectId) {
+        long start = System.nanoTime();
+        CompletableFuture<Loaded<TaskRow>> p6 = load(BackgroundExecutor.Pool.P6, "P6 tasks",
+                () -> snapshot(builder -> taskDAO.streamP6Tasks(p6ProjectId, builder)));
+        // The EBS side needs the mapped project first, which is a single-row read of the integration schema
+        CompletableFuture<Loaded<TaskRow>> ebs = BackgroundExecutor.getInstance()
+                .supply(BackgroundExecutor.Pool.INTEGRATION, () -> DaoFailures.require("the mapped EBS project",
+                        () -> projectDAO.getEbsProjectId(p6ProjectId)))
+                .thenCompose(ebsProjectId -> load(BackgroundExecutor.Pool.EBS, "EBS tasks", () -> snapshot(builder -> {
+                    if (ebsProjectId != null) {
+                        taskDAO.streamEBSTasks(ebsProjectId, builder);
+                    }
+                })));
+        CompletableFuture<Loaded<TaskRow>> staging = load(BackgroundExecutor.Pool.INTEGRATION, "staging tasks",
+                () -> snapshot(builder -> taskDAO.streamStagingTasks(p6ProjectId, builder)));
+        return CompletableFuture.allOf(p6, ebs, staging).thenApply(loaded ->
+                join(DiffEngine.TASKS, p6.join(), ebs.join(), staging.join(), new TaskRowFields(),
+                        TaskRow::getStatus, TaskRow::getEbsId, TaskRow::getSyncStatus, taskStatuses, start));
+    }
+
+    private static List<TaskRow> snapshot(Consumer<TaskSnapshot.Builder> loader) {
+        TaskSnapshot.Builder builder = TaskSnapshot.builder();
+        loader.accept(builder);
+        return builder.build().rows();
+    }
+
+    private <T> Comparison join(String entityType, Loaded<T> p6, Loaded<T> ebs, Loaded<T> staging,
+                                EntityFields<T> fields, Function<T, String> status, Function<T, Long> stagingEbsId,
+                                Function<T, String> syncStatus, StatusMapping statuses, long startNanos) {
+        int fieldCount = fields.getFieldNames().length;
+        String[] fieldNames = Arrays.copyOf(fields.getFieldNames(), fieldCount + 1);
+        fieldNames[fieldCount] = STATUS;
+
+        // Staging rows are keyed by P6 ID and carry the EBS ID the row was synced to
+        Map<Long, T> stagingByP6Id = new HashMap<>(staging.rows.size() * 2);
+        for (T row : staging.rows) {
+            Long id = fields.getId(row);
+            if (id != null) {
+                stagingByP6Id.put(id, row);
+            }
+        }
+
+        RowMatcher<T> matcher = new RowMatcher<>(ebs.rows, fields);
+        List<ComparedRow> rows = new ArrayList<>(Math.max(p6.rows.size(), ebs.rows.size()));
+
+        for (T p6Row : p6.rows) {
+            Long p6Id = fields.getId(p6Row);
+            T stagingRow = p6Id != null ? stagingByP6Id.get(p6Id) : null;
+            T ebsRow = matcher.match(p6Row, stagingRow != null ? stagingEbsId.apply(stagingRow) : null);
+            String stagingStatus = stagingRow != null ? syncStatus.apply(stagingRow) : null;
+
+            if (ebsRow == null) {
+                rows.add(new ComparedRow(p6Id, null, fields.getLabel(p6Row),
+                        values(fields, status, p6Row), null, null, stagingStatus));
+                continue;
+            }
+
+            boolean[] mismatches = new boolean[fieldCount + 1];
+            matcher.compare(p6Row, ebsRow, mismatches);
+            mismatches[fieldCount] = !statuses.matches(status.apply(p6Row), status.apply(ebsRow));
+            rows.add(new ComparedRow(p6Id, fields.getId(ebsRow), fields.getLabel(p6Row),
+                    values(fields, status, p6Row), values(fields, status, ebsRow), mismatches, stagingStatus));
+        }
+
+        for (T ebsRow : matcher.unmatched()) {
+            rows.add(new ComparedRow(null, fields.getId(ebsRow), fields.getLabel(ebsRow),
+                    null, values(fields, status, ebsRow), null, null));
+        }
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        Comparison comparison = new Comparison(entityType, fieldNames, rows,
+                p6.millis, ebs.millis, staging.millis, elapsedMillis);
+        logger.info("Compared {}", comparison);
+        return comparison;
+    }
+
+    private static <T> String[] values(EntityFields<T> fields, Function<T, String> status, T row) {
+        int fieldCount = fields.getFieldNames().length;
+        String[] values = new String[fieldCount + 1];
+        for (int f = 0; f < fieldCount; f++) {
+            values[f] = fields.formatField(row, f);
+        }
+        values[fieldCount] = status.apply(row);
+        return values;
+    }
+
+    /**
+     * Read one source on the background executor, once a connection of its pool
+     * is free. A failed read fails the future rather than showing an empty side,
+     * which would list every row of the other side as missing.
+     */
+    private static <T> CompletableFuture<Loaded<T>> load(BackgroundExecutor.Pool pool, String what,
+                                                          Supplier<List<T>> query) {
+        return BackgroundExecutor.getInstance().supply(pool, () -> {
+            long start = System.nanoTime();
+            List<T> rows = DaoFailures.require(what, query);
+            return new Loaded<>(rows, (System.nanoTime() - start) / 1_000_000);
+        });
+    }
+
+    /**
+     * Rows of one source and how long they took to read
+     */
+    private static class Loaded<T> {
+        final List<T> rows;
+        final long millis;
+
+        Loaded(List<T> rows, long millis) {
+            this.rows = rows;
+            this.millis = millis;
+        }
+    }
+}
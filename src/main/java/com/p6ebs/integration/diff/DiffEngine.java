@@ -0,0 +1,173 @@
+package com.p6ebs.integration.diff;
+
+import com.p6ebs.integration.dao.DaoFailures;
+import com.p6ebs.integration.dao.ProjectDAO;
+import com.p6ebs.integration.dao.TaskDAO;
+import com.p6ebs.integration.exec.BackgroundExecutor;
+import com.p6ebs.integration.model.Project;
+import com.p6ebs.integration.snapshot.TaskSnapshot;
+import com.p6ebs.integration.sync.SyncJob;
+import com.p6ebs.integration.sync.SyncJobExecutor;
+import com.p6ebs.integration.sync.SyncRequest;
+import com.p6ebs.integration.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes what a P6 to EBS sync would change before it runs. Rows are matched
+ * through the staging table mappings (falling back to code or name), reduced to
+ * hashes of their normalized fields, and compared hash by hash so that only
+ * rows that actually differ are examined field by field.
+ */
+public class DiffEngine {
+    private static final Logger logger = LoggerUtil.getLogger(DiffEngine.class);
+
+    public static final String PROJECTS = "Projects";
+    public static final String TASKS = "Tasks";
+
+    private final ProjectDAO projectDAO;
+    private final TaskDAO taskDAO;
+
+    public DiffEngine() {
+        this(new ProjectDAO(), new TaskDAO());
+    }
+
+    public DiffEngine(ProjectDAO projectDAO, TaskDAO taskDAO) {
+        this.projectDAO = projectDAO;
+        this.taskDAO = taskDAO;
+    }
+
+    /**
+     * Compare all P6 projects with EBS projects
+     *
+     * @throws IllegalStateException if any of the three sides cannot be read
+     */
+    public Changeset diffProjects() {
+        BackgroundExecutor executor = BackgroundExecutor.getInstance();
+        List<Project> p6Projects = executor.getGated(BackgroundExecutor.Pool.P6,
+                () -> DaoFailures.require("P6 projects", projectDAO::getP6Projects));
+        List<Project> ebsProjects = executor.getGated(BackgroundExecutor.Pool.EBS,
+                () -> DaoFailures.require("EBS projects", projectDAO::getEBSProjects));
+        Map<Long, Long> mappings = new HashMap<>();
+        executor.runGated(BackgroundExecutor.Pool.INTEGRATION, () -> DaoFailures.require("staging projects", () -> {
+            projectDAO.streamStagingProjects(staging -> addMapping(mappings, staging.getId(), staging.getEbsId()));
+            return null;
+        }));
+        return diff(PROJECTS, p6Projects, ebsProjects, mappings, new ProjectFields());
+    }
+
+    /**
+     * Compare the tasks of one P6 project with the tasks of its EBS counterpart
+     *
+     * @throws IllegalStateException if any of the three sides cannot be read
+     */
+    public Changeset diffTasks(long p6ProjectId) {
+        // Both sides are read into columnar snapshots, which keep large projects compact
+        BackgroundExecutor executor = BackgroundExecutor.getInstance();
+        TaskSnapshot.Builder p6Tasks = TaskSnapshot.builder();
+        executor.runGated(BackgroundExecutor.Pool.P6, () -> DaoFailures.require("P6 tasks", () -> {
+            taskDAO.streamP6Tasks(p6ProjectId, p6Tasks);
+            return null;
+        }));
+
+        // A project that has never been synced has no EBS tasks yet, so everything is an insert
+        TaskSnapshot.Builder ebsTasks = TaskSnapshot.builder();
+        Long ebsProjectId = executor.getGated(BackgroundExecutor.Pool.INTEGRATION,
+                () -> DaoFailures.require("the mapped EBS project", () -> projectDAO.getEbsProjectId(p6ProjectId)));
+        if (ebsProjectId != null) {
+            executor.runGated(BackgroundExecutor.Pool.EBS, () -> DaoFailures.require("EBS tasks", () -> {
+                taskDAO.streamEBSTasks(ebsProjectId, ebsTasks);
+                return null;
+            }));
+        }
+
+        Map<Long, Long> mappings = new HashMap<>();
+        executor.runGated(BackgroundExecutor.Pool.INTEGRATION, () -> DaoFailures.require("staging tasks", () -> {
+            taskDAO.streamStagingTasks(p6ProjectId,
+                    staging -> addMapping(mappings, staging.getId(), staging.getEbsId()));
+            return null;
+        }));
+        return diff(TASKS, p6Tasks.build().rows(), ebsTasks.build().rows(), mappings, new TaskRowFields());
+    }
+
+    /**
+     * Compare two sides of an entity type
+     *
+     * @param p6ToEbs staging mappings from P6 ID to EBS ID
+     */
+    public <T> Changeset diff(String entityType, List<T> p6Rows, List<T> ebsRows,
+                              Map<Long, Long> p6ToEbs, EntityFields<T> fields) {
+        long start = System.nanoTime();
+        int fieldCount = fields.getFieldNames().length;
+
+        RowMatcher<T> matcher = new RowMatcher<>(ebsRows, fields);
+        boolean[] mismatches = new boolean[fieldCount];
+        List<EntityChange> changes = new ArrayList<>();
+        int unchanged = 0;
+
+        for (T p6Row : p6Rows) {
+            Long p6Id = fields.getId(p6Row);
+            T ebsRow = matcher.match(p6Row, p6Id != null ? p6ToEbs.get(p6Id) : null);
+            if (ebsRow == null) {
+                changes.add(new EntityChange(ChangeType.INSERT, p6Id, null, fields.getLabel(p6Row), null));
+                continue;
+            }
+            if (!matcher.compare(p6Row, ebsRow, mismatches)) {
+                unchanged++;
+                continue;
+            }
+
+            List<FieldChange> fieldChanges = new ArrayList<>();
+            for (int f = 0; f < fieldCount; f++) {
+                if (mismatches[f]) {
+                    fieldChanges.add(new FieldChange(fields.getFieldNames()[f],
+                            fields.formatField(p6Row, f), fields.formatField(ebsRow, f)));
+                }
+            }
+            changes.add(new EntityChange(ChangeType.UPDATE, p6Id, fields.getId(ebsRow),
+                    fields.getLabel(p6Row), fieldChanges));
+        }
+
+        for (T ebsRow : matcher.unmatched()) {
+            changes.add(new EntityChange(ChangeType.DELETE, null, fields.getId(ebsRow), fields.getLabel(ebsRow), null));
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        Changeset changeset = new Changeset(entityType, changes, unchanged, elapsedMillis);
+        logger.info("Computed {}", changeset);
+        return changeset;
+    }
+
+    /**
+     * Submit only the inserted and updated entities of a changeset to the sync procedures.
+     * Deletes are reported but not pushed, since the sync procedures work from P6 IDs.
+     *
+     * @return the submitted job, or null if there was nothing to push
+     */
+    public SyncJob pushChanges(Changeset changeset) {
+        List<Long> ids = changeset.getP6IdsToSync();
+        if (ids.isEmpty()) {
+            return null;
+        }
+        SyncRequest request;
+        if (PROJECTS.equals(changeset.getEntityType())) {
+            request = SyncRequest.projects(ids);
+        } else if (TASKS.equals(changeset.getEntityType())) {
+            request = SyncRequest.tasks(ids);
+        } else {
+            throw new IllegalArgumentException("Cannot push changes for " + changeset.getEntityType());
+        }
+        return SyncJobExecutor.getInstance().submit(request);
+    }
+
+    private static void addMapping(Map<Long, Long> mappings, Long p6Id, Long ebsId) {
+        // getLong() maps NULL to 0, which means the row has not been synced yet
+        if (p6Id != null && ebsId != null && ebsId != 0) {
+            mappings.put(p6Id, ebsId);
+        }
+    }
+}
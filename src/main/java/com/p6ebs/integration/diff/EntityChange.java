@@ -0,0 +1,40 @@
+package com.p6ebs.integration.diff;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One entity in a changeset together with the fields that differ
+ */
+public class EntityChange {
+    private final ChangeType type;
+    private final Long p6Id;
+    private final Long ebsId;
+    private final String label;
+    private final List<FieldChange> fieldChanges;
+
+    public EntityChange(ChangeType type, Long p6Id, Long ebsId, String label, List<FieldChange> fieldChanges) {
+        this.type = type;
+        this.p6Id = p6Id;
+        this.ebsId = ebsId;
+        this.label = label;
+        this.fieldChanges = fieldChanges == null ? Collections.emptyList() : Collections.unmodifiableList(fieldChanges);
+    }
+
+    public ChangeType getType() { return type; }
+
+    /** P6 ID, or null for deletes */
+    public Long getP6Id() { return p6Id; }
+
+    /** EBS ID, or null for inserts */
+    public Long getEbsId() { return ebsId; }
+
+    public String getLabel() { return label; }
+
+    public List<FieldChange> getFieldChanges() { return fieldChanges; }
+
+    @Override
+    public String toString() {
+        return type + " " + label + (fieldChanges.isEmpty() ? "" : " " + fieldChanges);
+    }
+}
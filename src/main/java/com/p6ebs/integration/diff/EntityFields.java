@@ -0,0 +1,39 @@
+package com.p6ebs.integration.diff;
+
+/**
+ * Describes how to identify, normalize and compare one entity type
+ *
+ * @param <T> the model class being compared
+ */
+public interface EntityFields<T> {
+
+    /**
+     * Names of the compared fields, in the order used by {@link #hashFields}
+     */
+    String[] getFieldNames();
+
+    /**
+     * Primary key of the row on its own side
+     */
+    Long getId(T row);
+
+    /**
+     * Natural key used to match rows that have no staging mapping, such as a task code
+     */
+    String getMatchKey(T row);
+
+    /**
+     * Short human-readable description of the row
+     */
+    String getLabel(T row);
+
+    /**
+     * Write a hash of each normalized field value into {@code hashes}
+     */
+    void hashFields(T row, long[] hashes);
+
+    /**
+     * Normalized display value of a field, used only for rows that differ
+     */
+    String formatField(T row, int index);
+}
@@ -0,0 +1,27 @@
+package com.p6ebs.integration.diff;
+
+/**
+ * A single field that differs between the P6 and EBS sides
+ */
+public class FieldChange {
+    private final String field;
+    private final String p6Value;
+    private final String ebsValue;
+
+    public FieldChange(String field, String p6Value, String ebsValue) {
+        this.field = field;
+        this.p6Value = p6Value;
+        this.ebsValue = ebsValue;
+    }
+
+    public String getField() { return field; }
+
+    public String getP6Value() { return p6Value; }
+
+    public String getEbsValue() { return ebsValue; }
+
+    @Override
+    public String toString() {
+        return field + ": " + ebsValue + " -> " + p6Value;
+    }
+}
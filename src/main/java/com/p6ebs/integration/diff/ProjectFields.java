@@ -0,0 +1,51 @@
+package com.p6ebs.integration.diff;
+
+import com.p6ebs.integration.model.Project;
+
+/**
+ * Compared fields for projects: name and planned dates
+ */
+public class ProjectFields implements EntityFields<Project> {
+    private static final String[] FIELD_NAMES = {"Name", "Start Date", "End Date"};
+
+    @Override
+    public String[] getFieldNames() {
+        return FIELD_NAMES;
+    }
+
+    @Override
+    public Long getId(Project row) {
+        return row.getId();
+    }
+
+    @Override
+    public String getMatchKey(Project row) {
+        return row.getName() == null ? null : row.getName().trim();
+    }
+
+    @Override
+    public String getLabel(Project row) {
+        return row.toString();
+    }
+
+    @Override
+    public void hashFields(Project row, long[] hashes) {
+        hashes[0] = RowHasher.hash(row.getName());
+        hashes[1] = RowHasher.hash(row.getStartDate());
+        hashes[2] = RowHasher.hash(row.getEndDate());
+    }
+
+    @Override
+    public String formatField(Project row, int index) {
+        switch (index) {
+            case 0:
+                return row.getName();
+            case 1:
+                return RowHasher.formatDay(row.getStartDate());
+            case 2:
+                return RowHasher.formatDay(row.getEndDate());
+            default:
+                throw new IndexOutOfBoundsException("No project field " + index);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.p6ebs.integration.diff;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Normalizing 64-bit hashes for field values. Strings are trimmed, dates are
+ * reduced to the calendar day and numbers are rounded to two decimals so that
+ * representation differences between P6 and EBS do not show up as changes.
+ */
+public final class RowHasher {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long NULL_HASH = 0x9e3779b97f4a7c15L;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private RowHasher() {}
+
+    public static long hash(String value) {
+        if (value == null) {
+            return NULL_HASH;
+        }
+        int start = 0;
+        int end = value.length();
+        while (start < end && Character.isWhitespace(value.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            // Blank and null are equivalent
+            return NULL_HASH;
+        }
+        long hash = FNV_OFFSET;
+        for (int i = start; i < end; i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    public static long hash(Date value) {
+        return value == null ? NULL_HASH : mix(toEpochDay(value));
+    }
+
+    public static long hash(Double value) {
+        return value == null ? NULL_HASH : mix(Math.round(value * 100.0));
+    }
+
+    /**
+     * Hash of a primitive number, where NaN stands for null
+     */
+    public static long hash(double value) {
+        return Double.isNaN(value) ? NULL_HASH : mix(Math.round(value * 100.0));
+    }
+
+    /**
+     * Same as {@link #hash(Date)} for a date already reduced to its epoch day
+     */
+    public static long hashEpochDay(long epochDay) {
+        return mix(epochDay);
+    }
+
+    public static long hashNull() {
+        return NULL_HASH;
+    }
+
+    /**
+     * Combine per-field hashes into a single row hash
+     */
+    public static long combine(long[] hashes) {
+        long hash = FNV_OFFSET;
+        for (long fieldHash : hashes) {
+            hash = mix(hash ^ fieldHash) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Local calendar day of a date, counted from 1970-01-01
+     */
+    public static long toEpochDay(Date value) {
+        long millis = value.getTime();
+        return Math.floorDiv(millis + TimeZone.getDefault().getOffset(millis), MILLIS_PER_DAY);
+    }
+
+    /**
+     * Calendar day of a date as yyyy-MM-dd, the same day {@link #hash(Date)} compares
+     */
+    public static String formatDay(Date value) {
+        return value == null ? null : formatEpochDay(toEpochDay(value));
+    }
+
+    public static String formatEpochDay(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).toString();
+    }
+
+    // SplitMix64 finalizer to spread bits before combining
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,93 @@
+package com.p6ebs.integration.diff;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pairs P6 rows with EBS rows of the same entity type: through the EBS ID the
+ * staging table maps a P6 row to, falling back to the natural key. Each EBS
+ * row is matched at most once; a P6 row whose match is already claimed by
+ * another has none. Matched pairs are compared hash by hash.
+ */
+class RowMatcher<T> {
+    private final List<T> ebsRows;
+    private final EntityFields<T> fields;
+    private final Map<Long, Integer> ebsById;
+    private final Map<String, Integer> ebsByKey;
+    private final boolean[] ebsMatched;
+    private final long[] p6Hashes;
+    private final long[] ebsHashes;
+
+    RowMatcher(List<T> ebsRows, EntityFields<T> fields) {
+        this.ebsRows = ebsRows;
+        this.fields = fields;
+        this.ebsById = new HashMap<>(ebsRows.size() * 2);
+        this.ebsByKey = new HashMap<>(ebsRows.size() * 2);
+        for (int i = 0; i < ebsRows.size(); i++) {
+            T row = ebsRows.get(i);
+            Long id = fields.getId(row);
+            if (id != null) {
+                ebsById.put(id, i);
+            }
+            String key = fields.getMatchKey(row);
+            if (key != null) {
+                ebsByKey.putIfAbsent(key, i);
+            }
+        }
+        this.ebsMatched = new boolean[ebsRows.size()];
+        this.p6Hashes = new long[fields.getFieldNames().length];
+        this.ebsHashes = new long[fields.getFieldNames().length];
+    }
+
+    /**
+     * Claim the EBS row matching a P6 row
+     *
+     * @param mappedEbsId EBS ID from the staging table, null or 0 if the row has not been synced
+     * @return the EBS row, or null if there is none or it is already claimed
+     */
+    T match(T p6Row, Long mappedEbsId) {
+        Integer ebsIndex = mappedEbsId != null && mappedEbsId != 0 ? ebsById.get(mappedEbsId) : null;
+        if (ebsIndex == null) {
+            String key = fields.getMatchKey(p6Row);
+            if (key != null) {
+                ebsIndex = ebsByKey.get(key);
+            }
+        }
+        if (ebsIndex == null || ebsMatched[ebsIndex]) {
+            return null;
+        }
+        ebsMatched[ebsIndex] = true;
+        return ebsRows.get(ebsIndex);
+    }
+
+    /**
+     * Compare a matched pair field by field
+     *
+     * @param mismatches set to whether each field differs; may be longer than the field count
+     * @return true if any field differs
+     */
+    boolean compare(T p6Row, T ebsRow, boolean[] mismatches) {
+        fields.hashFields(p6Row, p6Hashes);
+        fields.hashFields(ebsRow, ebsHashes);
+        boolean differs = RowHasher.combine(p6Hashes) != RowHasher.combine(ebsHashes);
+        for (int f = 0; f < p6Hashes.length; f++) {
+            mismatches[f] = differs && p6Hashes[f] != ebsHashes[f];
+        }
+        return differs;
+    }
+
+    /**
+     * EBS rows no P6 row matched, in their original order
+     */
+    List<T> unmatched() {
+        List<T> rows = new ArrayList<>();
+        for (int i = 0; i < ebsRows.size(); i++) {
+            if (!ebsMatched[i]) {
+                rows.add(ebsRows.get(i));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,41 @@
+package com.p6ebs.integration.diff;
+
+import com.p6ebs.integration.util.ConfigManager;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Equivalences between P6 and EBS status codes, read from a property of the form
+ * {@code P6_CODE=EBS_CODE,...}. Codes without an entry are compared as they are,
+ * ignoring case.
+ */
+final class StatusMapping {
+    private final Map<String, String> p6ToEbs = new HashMap<>();
+
+    private StatusMapping(String pairs) {
+        for (String pair : pairs.split(",")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                p6ToEbs.put(normalize(pair.substring(0, separator)), normalize(pair.substring(separator + 1)));
+            }
+        }
+    }
+
+    static StatusMapping fromConfig(String key, String defaultPairs) {
+        return new StatusMapping(ConfigManager.getProperty(key, defaultPairs));
+    }
+
+    /**
+     * Whether a P6 status and an EBS status mean the same thing
+     */
+    boolean matches(String p6Status, String ebsStatus) {
+        String p6 = normalize(p6Status);
+        return p6ToEbs.getOrDefault(p6, p6).equals(normalize(ebsStatus));
+    }
+
+    private static String normalize(String status) {
+        return status == null ? "" : status.trim().toUpperCase(Locale.ROOT);
+    }
+}
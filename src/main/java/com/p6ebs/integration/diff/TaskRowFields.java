@@ -0,0 +1,59 @@
+package com.p6ebs.integration.diff;
+
+import com.p6ebs.integration.snapshot.TaskRow;
+
+/**
+ * Compared fields for tasks, read from task snapshot rows. Status codes are not
+ * compared because P6 and EBS use different code sets for them.
+ */
+public class TaskRowFields implements EntityFields<TaskRow> {
+    private static final String[] FIELD_NAMES = {"Code", "Name", "Start Date", "End Date", "% Complete"};
+
+    @Override
+    public String[] getFieldNames() {
+        return FIELD_NAMES;
+    }
+
+    @Override
+    public Long getId(TaskRow row) {
+        return row.getId();
+    }
+
+    @Override
+    public String getMatchKey(TaskRow row) {
+        String code = row.getCode();
+        return code == null ? null : code.trim();
+    }
+
+    @Override
+    public String getLabel(TaskRow row) {
+        return row.toString();
+    }
+
+    @Override
+    public void hashFields(TaskRow row, long[] hashes) {
+        hashes[0] = RowHasher.hash(row.getCode());
+        hashes[1] = RowHasher.hash(row.getName());
+        hashes[2] = row.hasStartDate() ? RowHasher.hashEpochDay(row.getStartDay()) : RowHasher.hashNull();
+        hashes[3] = row.hasEndDate() ? RowHasher.hashEpochDay(row.getEndDay()) : RowHasher.hashNull();
+        hashes[4] = RowHasher.hash(row.getPercentComplete());
+    }
+
+    @Override
+    public String formatField(TaskRow row, int index) {
+        switch (index) {
+            case 0:
+                return row.getCode();
+            case 1:
+                return row.getName();
+            case 2:
+                return row.hasStartDate() ? RowHasher.formatEpochDay(row.getStartDay()) : null;
+            case 3:
+                return row.hasEndDate() ? RowHasher.formatEpochDay(row.getEndDay()) : null;
+            case 4:
+                return Double.isNaN(row.getPercentComplete()) ? null : String.format("%.2f", row.getPercentComplete());
+            default:
+                throw new IndexOutOfBoundsException("No task field " + index);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.p6ebs.integration.exec;
+
+import com.p6ebs.integration.metrics.MetricsRegistry;
+import com.p6ebs.integration.model.ConnectionSettings;
+import com.p6ebs.integration.model.PoolSettings;
+import com.p6ebs.integration.util.ConfigManager;
+import com.p6ebs.integration.util.DatabaseManager;
+import com.p6ebs.integration.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking background work for the panels and the sync engine. On a JDK
+ * with virtual threads (21+) each task gets its own virtual thread, so
+ * refreshes in different panels never queue behind each other; otherwise tasks
+ * share a bounded pool of platform threads. Either way, a task that needs a
+ * database connection first takes a permit from a semaphore sized to that
+ * connection pool, so waiting happens here, cheaply and in order, rather than
+ * as borrow timeouts inside the pool.
+ *
+ * <p>The build targets Java 11, so virtual threads are looked up reflectively
+ * at startup. {@code exec.mode} forces {@code virtual} or {@code platform}.
+ */
+public class BackgroundExecutor {
+    private static final Logger logger = LoggerUtil.getLogger(BackgroundExecutor.class);
+
+    /**
+     * Connection pool a task draws on, NONE for work that holds no connection
+     * itself, such as waiting on tasks that are gated on their own pools
+     */
+    public enum Pool {
+        P6, EBS, INTEGRATION, NONE;
+
+        /** Connections the pool allows, 0 if it is not configured */
+        int maxConnections() {
+            ConnectionSettings settings = DatabaseManager.getConnectionSettings();
+            if (settings == null || this == NONE) {
+                return 0;
+            }
+            PoolSettings pool = this == P6 ? settings.getP6Pool()
+                    : this == EBS ? settings.getEbsPool() : settings.getIntegrationPool();
+            return pool != null ? pool.getMaxTotal() : 0;
+        }
+
+        /**
+         * Pool behind a panel's "P6" / "EBS" / "Staging" source choice; staging
+         * tables live in the integration schema
+         */
+        public static Pool ofSource(String source) {
+            if ("P6".equals(source)) {
+                return P6;
+            }
+            return "EBS".equals(source) ? EBS : INTEGRATION;
+        }
+    }
+
+    /**
+     * Semaphore sized to a pool; replaced when the pool is resized on reconnect
+     */
+    private static class Gate {
+        final int size;
+        final Semaphore permits;
+
+        Gate(int size) {
+            this.size = size;
+            this.permits = new Semaphore(size, true);
+        }
+    }
+
+    private static BackgroundExecutor instance;
+
+    private final boolean virtual;
+    private final int platformThreads;
+    private final ExecutorService executor;
+    private final Map<Pool, Gate> gates = new EnumMap<>(Pool.class);
+
+    BackgroundExecutor(boolean preferVirtual, int platformThreads) {
+        this.platformThreads = Math.max(1, platformThreads);
+        ExecutorService virtualExecutor = preferVirtual ? newVirtualExecutor("background") : null;
+        this.virtual = virtualExecutor != null;
+        this.executor = virtual ? virtualExecutor : newPlatformExecutor("background", this.platformThreads);
+        for (Pool pool : Pool.values()) {
+            if (pool != Pool.NONE) {
+                MetricsRegistry.getInstance().gauge("exec.gate.waiting", () -> waiting(pool), "pool", pool.name());
+            }
+        }
+    }
+
+    /**
+     * Get the shared executor, creating it from application properties on first use
+     */
+    public static synchronized BackgroundExecutor getInstance() {
+        if (instance == null) {
+            String mode = ConfigManager.getProperty("exec.mode", "auto").trim().toLowerCase();
+            int threads = ConfigManager.getIntProperty("exec.platform.threads", 16);
+            instance = new BackgroundExecutor(!"platform".equals(mode), threads);
+            if ("virtual".equals(mode) && !instance.virtual) {
+                logger.warn("exec.mode=virtual but this JDK has no virtual threads, using platform threads");
+            }
+            logger.info("Background work runs on {}", instance.virtual
+                    ? "virtual threads" : instance.platformThreads + " platform threads");
+        }
+        return instance;
+    }
+
+    /** Whether tasks run on virtual threads */
+    public boolean isVirtual() { return virtual; }
+
+    /**
+     * Run a task once a connection of the pool is free. Also takes a
+     * {@code SwingWorker}, whose {@code done()} still runs on the EDT.
+     */
+    public void execute(Pool pool, Runnable task) {
+        executor.execute(() -> {
+            try {
+                callGated(pool, () -> {
+                    task.run();
+                    return null;
+                });
+            } catch (Exception e) {
+                logger.error("Background task failed", e);
+            }
+        });
+    }
+
+    /**
+     * Run a task once a connection of the pool is free and complete the future
+     * with its result, or exceptionally with what it threw
+     */
+    public <T> CompletableFuture<T> supply(Pool pool, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                future.complete(callGated(pool, task));
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Call a task on the current thread while holding a permit of the pool
+     */
+    public <T> T callGated(Pool pool, Callable<T> task) throws Exception {
+        Semaphore permits = permits(pool);
+        if (permits == null) {
+            return task.call();
+        }
+        permits.acquire();
+        try {
+            return task.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Like {@link #callGated} for tasks that throw no checked exceptions
+     */
+    public void runGated(Pool pool, Runnable task) {
+        getGated(pool, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Like {@link #callGated} for tasks that throw no checked exceptions and
+     * return a result
+     */
+    public <T> T getGated(Pool pool, Supplier<T> task) {
+        try {
+            return callGated(pool, task::get);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * A dedicated executor for a component that manages its own lifecycle, such
+     * as the sync workers: thread per task when virtual threads are in use,
+     * otherwise a fixed pool of {@code platformThreads}
+     */
+    public ExecutorService newExecutor(String name, int platformThreads) {
+        if (virtual) {
+            ExecutorService virtualExecutor = newVirtualExecutor(name);
+            if (virtualExecutor != null) {
+                return virtualExecutor;
+            }
+        }
+        return newPlatformExecutor(name, Math.max(1, platformThreads));
+    }
+
+    /** Tasks waiting for a connection of the pool */
+    public int waiting(Pool pool) {
+        Semaphore permits = permits(pool);
+        return permits != null ? permits.getQueueLength() : 0;
+    }
+
+    private Semaphore permits(Pool pool) {
+        int size = pool.maxConnections();
+        if (size <= 0) {
+            return null;
+        }
+        synchronized (gates) {
+            Gate gate = gates.get(pool);
+            if (gate == null || gate.size != size) {
+                // Tasks holding permits of the old gate release them there
+                gate = new Gate(size);
+                gates.put(pool, gate);
+            }
+            return gate.permits;
+        }
+    }
+
+    /**
+     * Stop accepting work; tasks already running finish
+     */
+    public void shutdown() {
+        executor.shutdown();
+        synchronized (BackgroundExecutor.class) {
+            if (instance == this) {
+                instance = null;
+            }
+        }
+    }
+
+    /**
+     * Executors.newThreadPerTaskExecutor over named virtual threads, or null
+     * if the running JDK has none
+     */
+    private static ExecutorService newVirtualExecutor(String name) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Before JDK 21, or a preview build without --enable-preview
+            return null;
+        }
+    }
+
+    private static ExecutorService newPlatformExecutor(String name, int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
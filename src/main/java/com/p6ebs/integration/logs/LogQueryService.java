@@ -0,0 +1,190 @@
+package com.p6ebs.integration.logs;
+
+import com.p6ebs.integration.dao.LogDAO;
+import com.p6ebs.integration.exec.BackgroundExecutor;
+import com.p6ebs.integration.model.LogEntry;
+import com.p6ebs.integration.notify.ChangeListener;
+import com.p6ebs.integration.notify.ChangeNotifier;
+import com.p6ebs.integration.notify.IntegrationChanges;
+import com.p6ebs.integration.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Runs integration log queries on the {@link BackgroundExecutor}. Pages are read with
+ * keyset pagination so that scrolling deeper never rescans earlier rows, and a
+ * tail reads entries newer than the newest one already shown whenever the
+ * shared {@link ChangeNotifier} reports that the log has grown.
+ */
+public class LogQueryService {
+    private static final Logger logger = LoggerUtil.getLogger(LogQueryService.class);
+
+    // Upper bound on rows read by one tail fetch, a full batch is followed by another fetch
+    private static final int TAIL_BATCH_SIZE = 500;
+
+    private static LogQueryService instance;
+
+    private final LogDAO logDAO;
+    private final Set<TailTask> tails = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Handle for a running tail
+     */
+    public interface Tail {
+        void stop();
+    }
+
+    LogQueryService(LogDAO logDAO) {
+        this.logDAO = logDAO;
+    }
+
+    public static synchronized LogQueryService getInstance() {
+        if (instance == null) {
+            instance = new LogQueryService(new LogDAO());
+        }
+        return instance;
+    }
+
+    /**
+     * Fetch the page of entries older than {@code oldest}, newest first, or the
+     * newest page if {@code oldest} is null
+     */
+    public CompletableFuture<List<LogEntry>> fetchOlder(LogDAO.Filter filter, LogEntry oldest, int limit) {
+        Timestamp date = oldest != null ? oldest.getLogDate() : null;
+        long id = oldest != null ? oldest.getId() : 0L;
+        return supply(() -> logDAO.getLogsBefore(filter, date, id, limit));
+    }
+
+    /**
+     * Delete every log entry
+     */
+    public CompletableFuture<Void> clearLogs() {
+        return supply(() -> {
+            logDAO.clearLogs();
+            return null;
+        });
+    }
+
+    /**
+     * Read entries newer than {@code newest} once now and again each time the
+     * change notifier sees new log IDs. Without {@code newest}, only entries
+     * logged after the newest one in the database when the tail starts are read. Each non-empty batch is passed to
+     * {@code onEntries} oldest first, on a service thread. The tail stops after
+     * the first error, which is passed to {@code onError}.
+     */
+    public Tail tail(LogDAO.Filter filter, LogEntry newest,
+                     Consumer<List<LogEntry>> onEntries, Consumer<Throwable> onError) {
+        TailTask task = new TailTask(filter, newest, onEntries, onError);
+        tails.add(task);
+        ChangeNotifier.getInstance().subscribe(task);
+        // Catch up on entries logged between the page load and the subscription
+        task.request();
+        return task;
+    }
+
+    private class TailTask implements Runnable, Tail, ChangeListener {
+        private final LogDAO.Filter filter;
+        private final Consumer<List<LogEntry>> onEntries;
+        private final Consumer<Throwable> onError;
+        // Coalesces notifications that arrive while a fetch is queued
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private Timestamp lastDate;
+        private long lastId;
+        // False until the key to tail from is known
+        private boolean started;
+        private volatile boolean stopped;
+
+        TailTask(LogDAO.Filter filter, LogEntry newest, Consumer<List<LogEntry>> onEntries,
+                 Consumer<Throwable> onError) {
+            this.filter = filter;
+            this.onEntries = onEntries;
+            this.onError = onError;
+            if (newest != null) {
+                this.lastDate = newest.getLogDate();
+                this.lastId = newest.getId();
+                this.started = true;
+            }
+        }
+
+        @Override
+        public void onChanges(IntegrationChanges changes) {
+            if (changes.isLogChanged()) {
+                request();
+            }
+        }
+
+        void request() {
+            if (!stopped && queued.compareAndSet(false, true)) {
+                BackgroundExecutor.getInstance().execute(BackgroundExecutor.Pool.INTEGRATION, this);
+            }
+        }
+
+        @Override
+        public synchronized void run() {
+            queued.set(false);
+            if (stopped) {
+                return;
+            }
+            try {
+                if (!started) {
+                    // Seed from the database rather than this machine's clock, which may not match it
+                    LogEntry key = logDAO.getNewestKey();
+                    lastDate = key != null ? key.getLogDate() : null;
+                    lastId = key != null ? key.getId() : 0L;
+                    started = true;
+                }
+                List<LogEntry> entries = logDAO.getLogsAfter(filter, lastDate, lastId, TAIL_BATCH_SIZE);
+                if (!entries.isEmpty() && !stopped) {
+                    LogEntry last = entries.get(entries.size() - 1);
+                    lastDate = last.getLogDate();
+                    lastId = last.getId();
+                    onEntries.accept(entries);
+                    if (entries.size() == TAIL_BATCH_SIZE) {
+                        request();
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                logger.error("Log tail failed", e);
+                stop();
+                onError.accept(e);
+            }
+        }
+
+        @Override
+        public void stop() {
+            stopped = true;
+            tails.remove(this);
+            ChangeNotifier.getInstance().unsubscribe(this);
+        }
+    }
+
+    /**
+     * Stop all tails; queries already running still complete
+     */
+    public void shutdown() {
+        for (TailTask tail : tails) {
+            tail.stop();
+        }
+        synchronized (LogQueryService.class) {
+            if (instance == this) {
+                instance = null;
+            }
+        }
+    }
+
+    private interface SqlSupplier<T> {
+        T get() throws SQLException;
+    }
+
+    private <T> CompletableFuture<T> supply(SqlSupplier<T> query) {
+        return BackgroundExecutor.getInstance().supply(BackgroundExecutor.Pool.INTEGRATION, query::get);
+    }
+}
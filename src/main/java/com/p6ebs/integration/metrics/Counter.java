@@ -0,0 +1,33 @@
+package com.p6ebs.integration.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonically increasing count
+ */
+public class Counter implements Meter {
+    private final MeterId id;
+    private final LongAdder count = new LongAdder();
+
+    Counter(MeterId id) {
+        this.id = id;
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void increment(long amount) {
+        count.add(amount);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public MeterId getId() { return id; }
+
+    @Override
+    public Type getType() { return Type.COUNTER; }
+}
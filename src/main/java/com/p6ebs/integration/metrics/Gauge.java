@@ -0,0 +1,37 @@
+package com.p6ebs.integration.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Current value read from a supplier whenever the gauge is reported
+ */
+public class Gauge implements Meter {
+    private final MeterId id;
+    private volatile DoubleSupplier supplier;
+
+    Gauge(MeterId id, DoubleSupplier supplier) {
+        this.id = id;
+        this.supplier = supplier;
+    }
+
+    void setSupplier(DoubleSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * Read the current value, or NaN if the supplier fails
+     */
+    public double getValue() {
+        try {
+            return supplier.getAsDouble();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+
+    @Override
+    public MeterId getId() { return id; }
+
+    @Override
+    public Type getType() { return Type.GAUGE; }
+}
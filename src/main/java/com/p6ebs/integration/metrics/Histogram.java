@@ -0,0 +1,100 @@
+package com.p6ebs.integration.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of recorded values over fixed bucket boundaries, with count,
+ * sum and maximum. Percentiles are estimated by interpolating within a bucket.
+ */
+public class Histogram implements Meter {
+    private final MeterId id;
+    private final double[] bounds;
+    // One slot per bound plus one for values above the last bound
+    private final AtomicLongArray buckets;
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+    private final DoubleAccumulator max = new DoubleAccumulator(Math::max, 0.0);
+
+    Histogram(MeterId id, double[] bounds) {
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] <= bounds[i - 1]) {
+                throw new IllegalArgumentException("Histogram bounds must increase: " + id);
+            }
+        }
+        this.id = id;
+        this.bounds = bounds.clone();
+        this.buckets = new AtomicLongArray(bounds.length + 1);
+    }
+
+    public void record(double value) {
+        int index = 0;
+        while (index < bounds.length && value > bounds[index]) {
+            index++;
+        }
+        buckets.incrementAndGet(index);
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public long getCount() { return count.sum(); }
+
+    public double getSum() { return sum.sum(); }
+
+    public double getMax() { return max.get(); }
+
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0.0 : getSum() / n;
+    }
+
+    /** Upper bounds of the buckets, excluding the final unbounded one */
+    public double[] getBounds() { return bounds.clone(); }
+
+    /**
+     * Number of values at or below each bound, followed by the total count
+     */
+    public long[] getCumulativeCounts() {
+        long[] cumulative = new long[buckets.length()];
+        long running = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            running += buckets.get(i);
+            cumulative[i] = running;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Estimate the value below which the given fraction of values fall
+     *
+     * @param quantile between 0.0 and 1.0
+     */
+    public double getPercentile(double quantile) {
+        long[] cumulative = getCumulativeCounts();
+        long total = cumulative[cumulative.length - 1];
+        if (total == 0) {
+            return 0.0;
+        }
+        double rank = quantile * total;
+        for (int i = 0; i < cumulative.length; i++) {
+            if (cumulative[i] >= rank) {
+                double upper = i < bounds.length ? Math.min(bounds[i], getMax()) : getMax();
+                double lower = i == 0 ? 0.0 : Math.min(bounds[i - 1], upper);
+                long before = i == 0 ? 0 : cumulative[i - 1];
+                long inBucket = cumulative[i] - before;
+                double fraction = inBucket == 0 ? 1.0 : (rank - before) / inBucket;
+                return lower + (upper - lower) * fraction;
+            }
+        }
+        return getMax();
+    }
+
+    @Override
+    public MeterId getId() { return id; }
+
+    @Override
+    public Type getType() { return Type.HISTOGRAM; }
+}
@@ -0,0 +1,13 @@
+package com.p6ebs.integration.metrics;
+
+/**
+ * A named, tagged measurement held by the {@link MetricsRegistry}
+ */
+public interface Meter {
+
+    enum Type { COUNTER, GAUGE, HISTOGRAM, TIMER }
+
+    MeterId getId();
+
+    Type getType();
+}
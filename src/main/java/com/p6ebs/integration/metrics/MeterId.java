@@ -0,0 +1,73 @@
+package com.p6ebs.integration.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Name and tags identifying a meter. Names are dot separated, for example
+ * {@code dao.query}; tags are kept sorted by key.
+ */
+public final class MeterId implements Comparable<MeterId> {
+    private final String name;
+    private final Map<String, String> tags;
+
+    MeterId(String name, String... keyValues) {
+        if (keyValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Tags must be key/value pairs: " + name);
+        }
+        Map<String, String> sorted = new TreeMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            sorted.put(keyValues[i], String.valueOf(keyValues[i + 1]));
+        }
+        this.name = name;
+        this.tags = Collections.unmodifiableMap(sorted);
+    }
+
+    public String getName() { return name; }
+
+    public Map<String, String> getTags() { return tags; }
+
+    /**
+     * Tags as {@code key=value} pairs separated by commas
+     */
+    public String getTagText() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            if (text.length() > 0) {
+                text.append(',');
+            }
+            text.append(tag.getKey()).append('=').append(tag.getValue());
+        }
+        return text.toString();
+    }
+
+    @Override
+    public int compareTo(MeterId other) {
+        int byName = name.compareTo(other.name);
+        return byName != 0 ? byName : getTagText().compareTo(other.getTagText());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MeterId)) {
+            return false;
+        }
+        MeterId other = (MeterId) o;
+        return name.equals(other.name) && tags.equals(other.tags);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, tags);
+    }
+
+    @Override
+    public String toString() {
+        return tags.isEmpty() ? name : name + "{" + getTagText() + "}";
+    }
+}
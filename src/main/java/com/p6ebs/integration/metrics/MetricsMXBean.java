@@ -0,0 +1,22 @@
+package com.p6ebs.integration.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link MetricsRegistry}, registered as
+ * {@value MetricsRegistry#OBJECT_NAME}
+ */
+public interface MetricsMXBean {
+
+    /** Number of registered meters */
+    int getMeterCount();
+
+    /**
+     * Every meter's current values, keyed by meter ID and statistic,
+     * for example {@code dao.query{dao=TaskDAO,method=streamP6Tasks}.p95}
+     */
+    Map<String, Double> getValues();
+
+    /** The registry in the Prometheus text exposition format */
+    String getPrometheusText();
+}
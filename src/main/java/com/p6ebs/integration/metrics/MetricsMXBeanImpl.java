@@ -0,0 +1,42 @@
+package com.p6ebs.integration.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class MetricsMXBeanImpl implements MetricsMXBean {
+    private final MetricsRegistry registry;
+
+    MetricsMXBeanImpl(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public int getMeterCount() {
+        return registry.getMeters().size();
+    }
+
+    @Override
+    public Map<String, Double> getValues() {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (Meter meter : registry.getMeters()) {
+            String key = meter.getId().toString();
+            if (meter instanceof Counter) {
+                values.put(key + ".count", (double) ((Counter) meter).getCount());
+            } else if (meter instanceof Gauge) {
+                values.put(key + ".value", ((Gauge) meter).getValue());
+            } else if (meter instanceof Histogram) {
+                Histogram histogram = (Histogram) meter;
+                values.put(key + ".count", (double) histogram.getCount());
+                values.put(key + ".mean", histogram.getMean());
+                values.put(key + ".p95", histogram.getPercentile(0.95));
+                values.put(key + ".max", histogram.getMax());
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public String getPrometheusText() {
+        return PrometheusFormat.format(registry);
+    }
+}
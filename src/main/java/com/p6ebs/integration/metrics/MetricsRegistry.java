@@ -0,0 +1,98 @@
+package com.p6ebs.integration.metrics;
+
+import com.p6ebs.integration.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+/**
+ * Process-wide registry of timers, counters, histograms and gauges. Meters are
+ * created on first use and shared by every caller asking for the same name and
+ * tags. The registry is published over JMX as {@link MetricsMXBean}.
+ */
+public final class MetricsRegistry {
+    private static final Logger logger = LoggerUtil.getLogger(MetricsRegistry.class);
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    public static final String OBJECT_NAME = "com.p6ebs.integration:type=Metrics";
+
+    private final ConcurrentMap<MeterId, Meter> meters = new ConcurrentHashMap<>();
+
+    static {
+        INSTANCE.registerMBean();
+    }
+
+    MetricsRegistry() {}
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get or create a timer
+     *
+     * @param tags alternating tag keys and values
+     */
+    public Timer timer(String name, String... tags) {
+        return register(new MeterId(name, tags), Timer.class, id -> new Timer(id));
+    }
+
+    public Counter counter(String name, String... tags) {
+        return register(new MeterId(name, tags), Counter.class, id -> new Counter(id));
+    }
+
+    /**
+     * Get or create a histogram; the bounds of an existing histogram are kept
+     */
+    public Histogram histogram(String name, double[] bounds, String... tags) {
+        return register(new MeterId(name, tags), Histogram.class, id -> new Histogram(id, bounds));
+    }
+
+    /**
+     * Register a gauge, replacing the supplier of an existing gauge with the same
+     * name and tags, for example after the data source behind it is recreated
+     */
+    public Gauge gauge(String name, DoubleSupplier supplier, String... tags) {
+        Gauge gauge = register(new MeterId(name, tags), Gauge.class, id -> new Gauge(id, supplier));
+        gauge.setSupplier(supplier);
+        return gauge;
+    }
+
+    /**
+     * All meters, sorted by name and tags
+     */
+    public List<Meter> getMeters() {
+        List<Meter> list = new ArrayList<>(meters.values());
+        list.sort((a, b) -> a.getId().compareTo(b.getId()));
+        return Collections.unmodifiableList(list);
+    }
+
+    private <M extends Meter> M register(MeterId id, Class<M> type, Function<MeterId, M> factory) {
+        Meter meter = meters.computeIfAbsent(id, factory::apply);
+        if (meter.getClass() != type) {
+            throw new IllegalArgumentException(id + " is already registered as a " + meter.getType());
+        }
+        return type.cast(meter);
+    }
+
+    private void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MetricsMXBeanImpl(this), name);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not register metrics MBean: {}", e.getMessage());
+        }
+    }
+}
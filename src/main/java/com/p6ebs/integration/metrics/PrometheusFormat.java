@@ -0,0 +1,104 @@
+package com.p6ebs.integration.metrics;
+
+import java.util.Map;
+
+/**
+ * Writes a registry in the Prometheus text exposition format. Dots in names
+ * become underscores; timers gain a {@code _seconds} suffix and counters a
+ * {@code _total} suffix.
+ */
+public final class PrometheusFormat {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private PrometheusFormat() {}
+
+    public static String format(MetricsRegistry registry) {
+        StringBuilder out = new StringBuilder();
+        String lastFamily = null;
+        for (Meter meter : registry.getMeters()) {
+            String family = familyName(meter);
+            if (!family.equals(lastFamily)) {
+                out.append("# TYPE ").append(family).append(' ').append(typeName(meter)).append('\n');
+                lastFamily = family;
+            }
+            Map<String, String> tags = meter.getId().getTags();
+            if (meter instanceof Counter) {
+                sample(out, family, tags, null, ((Counter) meter).getCount());
+            } else if (meter instanceof Gauge) {
+                sample(out, family, tags, null, ((Gauge) meter).getValue());
+            } else if (meter instanceof Histogram) {
+                Histogram histogram = (Histogram) meter;
+                double[] bounds = histogram.getBounds();
+                long[] cumulative = histogram.getCumulativeCounts();
+                for (int i = 0; i < cumulative.length; i++) {
+                    String le = i < bounds.length ? number(bounds[i]) : "+Inf";
+                    sample(out, family + "_bucket", tags, le, cumulative[i]);
+                }
+                sample(out, family + "_sum", tags, null, histogram.getSum());
+                sample(out, family + "_count", tags, null, cumulative[cumulative.length - 1]);
+            }
+        }
+        return out.toString();
+    }
+
+    private static String familyName(Meter meter) {
+        String name = sanitize(meter.getId().getName());
+        switch (meter.getType()) {
+            case TIMER:
+                return name.endsWith("_seconds") ? name : name + "_seconds";
+            case COUNTER:
+                return name.endsWith("_total") ? name : name + "_total";
+            default:
+                return name;
+        }
+    }
+
+    private static String typeName(Meter meter) {
+        switch (meter.getType()) {
+            case COUNTER:
+                return "counter";
+            case GAUGE:
+                return "gauge";
+            default:
+                return "histogram";
+        }
+    }
+
+    private static void sample(StringBuilder out, String name, Map<String, String> tags, String le, double value) {
+        out.append(name);
+        if (!tags.isEmpty() || le != null) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<String, String> tag : tags.entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                out.append(sanitize(tag.getKey())).append("=\"").append(escape(tag.getValue())).append('"');
+                first = false;
+            }
+            if (le != null) {
+                out.append(first ? "" : ",").append("le=\"").append(le).append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ').append(number(value)).append('\n');
+    }
+
+    private static String number(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^a-zA-Z0-9_:]", "_");
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
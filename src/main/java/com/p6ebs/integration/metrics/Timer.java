@@ -0,0 +1,32 @@
+package com.p6ebs.integration.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histogram of durations, recorded in nanoseconds and reported in seconds
+ */
+public class Timer extends Histogram {
+    /** Bucket bounds in seconds, from a millisecond to five minutes */
+    static final double[] SECONDS_BOUNDS = {
+            0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5,
+            1, 2.5, 5, 10, 30, 60, 120, 300
+    };
+
+    Timer(MeterId id) {
+        super(id, SECONDS_BOUNDS);
+    }
+
+    public void record(long duration, TimeUnit unit) {
+        record(unit.toNanos(duration) / 1_000_000_000.0);
+    }
+
+    /**
+     * Record the time elapsed since a {@link System#nanoTime()} reading
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public Type getType() { return Type.TIMER; }
+}
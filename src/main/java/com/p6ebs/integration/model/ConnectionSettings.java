@@ -8,6 +8,13 @@ public class ConnectionSettings {
     private String ebsUsername;
     private String ebsPassword;
     private String integrationSchema;
+    private String integrationUrl;
+    private String integrationUsername;
+    private String integrationPassword;
+    private int fetchSize;
+    private PoolSettings p6Pool;
+    private PoolSettings ebsPool;
+    private PoolSettings integrationPool;
 
     // Default constructor
     public ConnectionSettings() {
@@ -19,6 +26,13 @@ public class ConnectionSettings {
         this.ebsUsername = "ebs_user";
         this.ebsPassword = "";
         this.integrationSchema = "p6_ebs_integration";
+        this.integrationUrl = "";      // Blank means the integration schema lives in the P6 database
+        this.integrationUsername = "";
+        this.integrationPassword = "";
+        this.fetchSize = 500;
+        this.p6Pool = new PoolSettings();
+        this.ebsPool = new PoolSettings();
+        this.integrationPool = new PoolSettings();
     }
 
     // Getters and setters
@@ -42,4 +56,50 @@ public class ConnectionSettings {
 
     public String getIntegrationSchema() { return integrationSchema; }
     public void setIntegrationSchema(String integrationSchema) { this.integrationSchema = integrationSchema; }
+
+    public String getIntegrationUrl() { return integrationUrl; }
+    public void setIntegrationUrl(String integrationUrl) { this.integrationUrl = integrationUrl; }
+
+    public String getIntegrationUsername() { return integrationUsername; }
+    public void setIntegrationUsername(String integrationUsername) { this.integrationUsername = integrationUsername; }
+
+    public String getIntegrationPassword() { return integrationPassword; }
+    public void setIntegrationPassword(String integrationPassword) { this.integrationPassword = integrationPassword; }
+
+    public int getFetchSize() { return fetchSize; }
+    public void setFetchSize(int fetchSize) { this.fetchSize = fetchSize; }
+
+    public PoolSettings getP6Pool() { return p6Pool; }
+    public void setP6Pool(PoolSettings p6Pool) { this.p6Pool = p6Pool; }
+
+    public PoolSettings getEbsPool() { return ebsPool; }
+    public void setEbsPool(PoolSettings ebsPool) { this.ebsPool = ebsPool; }
+
+    public PoolSettings getIntegrationPool() { return integrationPool; }
+    public void setIntegrationPool(PoolSettings integrationPool) { this.integrationPool = integrationPool; }
+
+    /**
+     * JDBC URL for the integration schema, defaulting to the P6 database
+     */
+    public String getEffectiveIntegrationUrl() {
+        return isBlank(integrationUrl) ? p6Url : integrationUrl;
+    }
+
+    /**
+     * Username for the integration schema, defaulting to the P6 user
+     */
+    public String getEffectiveIntegrationUsername() {
+        return isBlank(integrationUrl) || isBlank(integrationUsername) ? p6Username : integrationUsername;
+    }
+
+    /**
+     * Password for the integration schema, defaulting to the P6 password
+     */
+    public String getEffectiveIntegrationPassword() {
+        return isBlank(integrationUrl) || isBlank(integrationUsername) ? p6Password : integrationPassword;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.p6ebs.integration.model;
+
+import java.sql.Timestamp;
+import java.util.Objects;
+
+/**
+ * Newest integration log ID and newest staging sync time per table; when one
+ * of them moves, something in the integration schema has changed
+ */
+public class HighWaterMarks {
+    private final long maxLogId;
+    private final Timestamp projectSyncDate;
+    private final Timestamp taskSyncDate;
+    private final Timestamp resourceSyncDate;
+
+    public HighWaterMarks(long maxLogId, Timestamp projectSyncDate, Timestamp taskSyncDate,
+                          Timestamp resourceSyncDate) {
+        this.maxLogId = maxLogId;
+        this.projectSyncDate = projectSyncDate;
+        this.taskSyncDate = taskSyncDate;
+        this.resourceSyncDate = resourceSyncDate;
+    }
+
+    /** Highest log ID, 0 when the log is empty */
+    public long getMaxLogId() { return maxLogId; }
+
+    public Timestamp getProjectSyncDate() { return projectSyncDate; }
+
+    public Timestamp getTaskSyncDate() { return taskSyncDate; }
+
+    public Timestamp getResourceSyncDate() { return resourceSyncDate; }
+
+    /**
+     * Whether a mark differs from its previous value, including going back
+     * (rows deleted or the log cleared)
+     */
+    public static boolean moved(Timestamp previous, Timestamp current) {
+        return !Objects.equals(previous, current);
+    }
+
+    @Override
+    public String toString() {
+        return "log " + maxLogId + ", projects " + projectSyncDate + ", tasks " + taskSyncDate
+                + ", resources " + resourceSyncDate;
+    }
+}
@@ -0,0 +1,42 @@
+package com.p6ebs.integration.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Represents a row of the integration log
+ */
+public class LogEntry {
+    private long id;
+    private Timestamp logDate;
+    private String operation;
+    private String status;
+    private String message;
+    private String userId;
+
+    // Constructors
+    public LogEntry() {}
+
+    // Getters and Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
+    public Timestamp getLogDate() { return logDate; }
+    public void setLogDate(Timestamp logDate) { this.logDate = logDate; }
+
+    public String getOperation() { return operation; }
+    public void setOperation(String operation) { this.operation = operation; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    @Override
+    public String toString() {
+        return logDate + " " + operation + " " + status + ": " + message;
+    }
+}
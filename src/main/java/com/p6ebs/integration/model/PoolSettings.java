@@ -0,0 +1,97 @@
+package com.p6ebs.integration.model;
+
+/**
+ * Connection pool sizing and validation settings for a single data source
+ */
+public class PoolSettings {
+    private int initialSize;
+    private int minIdle;
+    private int maxIdle;
+    private int maxTotal;
+    private long maxWaitMillis;
+    private long evictionIntervalMillis;
+    private long minEvictableIdleMillis;
+    private String validationQuery;
+    private int validationTimeoutSeconds;
+    private boolean testOnBorrow;
+    private boolean testWhileIdle;
+    private boolean poolPreparedStatements;
+    private int maxOpenPreparedStatements;
+
+    // Default constructor
+    public PoolSettings() {
+        // Default values
+        this.initialSize = 1;
+        this.minIdle = 1;
+        this.maxIdle = 5;
+        this.maxTotal = 5;
+        this.maxWaitMillis = 30000;
+        this.evictionIntervalMillis = 60000;
+        this.minEvictableIdleMillis = 300000;
+        this.validationQuery = "SELECT 1 FROM DUAL";
+        this.validationTimeoutSeconds = 5;
+        this.testOnBorrow = true;
+        this.testWhileIdle = true;
+        this.poolPreparedStatements = true;
+        this.maxOpenPreparedStatements = 50;
+    }
+
+    /**
+     * Create a copy of another pool settings instance
+     */
+    public PoolSettings(PoolSettings other) {
+        this.initialSize = other.initialSize;
+        this.minIdle = other.minIdle;
+        this.maxIdle = other.maxIdle;
+        this.maxTotal = other.maxTotal;
+        this.maxWaitMillis = other.maxWaitMillis;
+        this.evictionIntervalMillis = other.evictionIntervalMillis;
+        this.minEvictableIdleMillis = other.minEvictableIdleMillis;
+        this.validationQuery = other.validationQuery;
+        this.validationTimeoutSeconds = other.validationTimeoutSeconds;
+        this.testOnBorrow = other.testOnBorrow;
+        this.testWhileIdle = other.testWhileIdle;
+        this.poolPreparedStatements = other.poolPreparedStatements;
+        this.maxOpenPreparedStatements = other.maxOpenPreparedStatements;
+    }
+
+    // Getters and setters
+    public int getInitialSize() { return initialSize; }
+    public void setInitialSize(int initialSize) { this.initialSize = initialSize; }
+
+    public int getMinIdle() { return minIdle; }
+    public void setMinIdle(int minIdle) { this.minIdle = minIdle; }
+
+    public int getMaxIdle() { return maxIdle; }
+    public void setMaxIdle(int maxIdle) { this.maxIdle = maxIdle; }
+
+    public int getMaxTotal() { return maxTotal; }
+    public void setMaxTotal(int maxTotal) { this.maxTotal = maxTotal; }
+
+    public long getMaxWaitMillis() { return maxWaitMillis; }
+    public void setMaxWaitMillis(long maxWaitMillis) { this.maxWaitMillis = maxWaitMillis; }
+
+    public long getEvictionIntervalMillis() { return evictionIntervalMillis; }
+    public void setEvictionIntervalMillis(long evictionIntervalMillis) { this.evictionIntervalMillis = evictionIntervalMillis; }
+
+    public long getMinEvictableIdleMillis() { return minEvictableIdleMillis; }
+    public void setMinEvictableIdleMillis(long minEvictableIdleMillis) { this.minEvictableIdleMillis = minEvictableIdleMillis; }
+
+    public String getValidationQuery() { return validationQuery; }
+    public void setValidationQuery(String validationQuery) { this.validationQuery = validationQuery; }
+
+    public int getValidationTimeoutSeconds() { return validationTimeoutSeconds; }
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) { this.validationTimeoutSeconds = validationTimeoutSeconds; }
+
+    public boolean isTestOnBorrow() { return testOnBorrow; }
+    public void setTestOnBorrow(boolean testOnBorrow) { this.testOnBorrow = testOnBorrow; }
+
+    public boolean isTestWhileIdle() { return testWhileIdle; }
+    public void setTestWhileIdle(boolean testWhileIdle) { this.testWhileIdle = testWhileIdle; }
+
+    public boolean isPoolPreparedStatements() { return poolPreparedStatements; }
+    public void setPoolPreparedStatements(boolean poolPreparedStatements) { this.poolPreparedStatements = poolPreparedStatements; }
+
+    public int getMaxOpenPreparedStatements() { return maxOpenPreparedStatements; }
+    public void setMaxOpenPreparedStatements(int maxOpenPreparedStatements) { this.maxOpenPreparedStatements = maxOpenPreparedStatements; }
+}
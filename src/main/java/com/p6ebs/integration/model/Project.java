@@ -13,9 +13,12 @@ public class Project {
     private Date endDate;
     private String status;
     private String source; // "P6" or "EBS"
+    private Long ebsId;
     private String syncStatus;
     private String errorMessage;
     private Date lastSyncDate;
+    private Date updateDate;
+    private Date deleteDate;
 
     // Constructors
     public Project() {}
@@ -47,6 +50,9 @@ public class Project {
     public String getSource() { return source; }
     public void setSource(String source) { this.source = source; }
 
+    public Long getEbsId() { return ebsId; }
+    public void setEbsId(Long ebsId) { this.ebsId = ebsId; }
+
     public String getSyncStatus() { return syncStatus; }
     public void setSyncStatus(String syncStatus) { this.syncStatus = syncStatus; }
 
@@ -56,6 +62,17 @@ public class Project {
     public Date getLastSyncDate() { return lastSyncDate; }
     public void setLastSyncDate(Date lastSyncDate) { this.lastSyncDate = lastSyncDate; }
 
+    public Date getUpdateDate() { return updateDate; }
+    public void setUpdateDate(Date updateDate) { this.updateDate = updateDate; }
+
+    public Date getDeleteDate() { return deleteDate; }
+    public void setDeleteDate(Date deleteDate) { this.deleteDate = deleteDate; }
+
+    /**
+     * Whether the row has been soft-deleted in its source system
+     */
+    public boolean isDeleted() { return deleteDate != null; }
+
     @Override
     public String toString() {
         return id + " - " + name;
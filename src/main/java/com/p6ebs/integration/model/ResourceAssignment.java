@@ -0,0 +1,92 @@
+package com.p6ebs.integration.model;
+
+/**
+ * Immutable P6 resource assignment: a resource booked on a task, with its
+ * planned, actual and remaining cost and quantity. Null amounts are 0, as
+ * ResultSet.getDouble reports them.
+ */
+public final class ResourceAssignment {
+    private final long assignmentId;
+    private final long taskId;
+    private final long resourceId;
+    private final String taskName;
+    private final String resourceName;
+    private final double plannedCost;
+    private final double actualCost;
+    private final double remainingCost;
+    private final double plannedQuantity;
+    private final double actualQuantity;
+    private final double remainingQuantity;
+
+    public ResourceAssignment(long assignmentId, long taskId, long resourceId, String taskName, String resourceName,
+                              double plannedCost, double actualCost, double remainingCost,
+                              double plannedQuantity, double actualQuantity, double remainingQuantity) {
+        this.assignmentId = assignmentId;
+        this.taskId = taskId;
+        this.resourceId = resourceId;
+        this.taskName = taskName;
+        this.resourceName = resourceName;
+        this.plannedCost = plannedCost;
+        this.actualCost = actualCost;
+        this.remainingCost = remainingCost;
+        this.plannedQuantity = plannedQuantity;
+        this.actualQuantity = actualQuantity;
+        this.remainingQuantity = remainingQuantity;
+    }
+
+    public long getAssignmentId() { return assignmentId; }
+
+    public long getTaskId() { return taskId; }
+
+    public long getResourceId() { return resourceId; }
+
+    public String getTaskName() { return taskName; }
+
+    public String getResourceName() { return resourceName; }
+
+    public double getPlannedCost() { return plannedCost; }
+
+    public double getActualCost() { return actualCost; }
+
+    public double getRemainingCost() { return remainingCost; }
+
+    public double getPlannedQuantity() { return plannedQuantity; }
+
+    public double getActualQuantity() { return actualQuantity; }
+
+    public double getRemainingQuantity() { return remainingQuantity; }
+
+    /**
+     * Copy into the mutable model used by the UI tables
+     */
+    public Resource toResource() {
+        Resource resource = new Resource();
+        resource.setId(resourceId);
+        resource.setName(resourceName);
+        resource.setAssignmentId(assignmentId);
+        resource.setTaskId(taskId);
+        resource.setTaskName(taskName);
+        resource.setPlannedCost(plannedCost);
+        resource.setActualCost(actualCost);
+        resource.setRemainingCost(remainingCost);
+        resource.setPlannedQuantity(plannedQuantity);
+        resource.setActualQuantity(actualQuantity);
+        resource.setRemainingQuantity(remainingQuantity);
+        resource.setSource("P6");
+        return resource;
+    }
+
+    public static ResourceAssignment fromResource(Resource resource) {
+        return new ResourceAssignment(ResourceRecord.orZero(resource.getAssignmentId()),
+                ResourceRecord.orZero(resource.getTaskId()), ResourceRecord.orZero(resource.getId()),
+                resource.getTaskName(), resource.getName(),
+                ResourceRecord.orZero(resource.getPlannedCost()), ResourceRecord.orZero(resource.getActualCost()),
+                ResourceRecord.orZero(resource.getRemainingCost()), ResourceRecord.orZero(resource.getPlannedQuantity()),
+                ResourceRecord.orZero(resource.getActualQuantity()), ResourceRecord.orZero(resource.getRemainingQuantity()));
+    }
+
+    @Override
+    public String toString() {
+        return resourceName + " on " + taskName;
+    }
+}
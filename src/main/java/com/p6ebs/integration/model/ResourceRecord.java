@@ -0,0 +1,107 @@
+package com.p6ebs.integration.model;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Immutable P6 resource or EBS organization row. IDs of 0 and dates of
+ * {@link #NO_DATE} mean the column was null.
+ */
+public final class ResourceRecord {
+    public static final long NO_DATE = Long.MIN_VALUE;
+
+    private final long id;
+    private final String name;
+    private final String shortName;
+    private final String type;
+    private final String email;
+    private final long parentId;
+    private final boolean internal;
+    private final long startMillis;
+    private final long endMillis;
+    private final String source;
+
+    public ResourceRecord(long id, String name, String shortName, String type, String email, long parentId,
+                          boolean internal, long startMillis, long endMillis, String source) {
+        this.id = id;
+        this.name = name;
+        this.shortName = shortName;
+        this.type = type;
+        this.email = email;
+        this.parentId = parentId;
+        this.internal = internal;
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        this.source = source;
+    }
+
+    public long getId() { return id; }
+
+    public String getName() { return name; }
+
+    public String getShortName() { return shortName; }
+
+    public String getType() { return type; }
+
+    public String getEmail() { return email; }
+
+    public long getParentId() { return parentId; }
+
+    public boolean isInternal() { return internal; }
+
+    public long getStartMillis() { return startMillis; }
+
+    public long getEndMillis() { return endMillis; }
+
+    /** "P6" or "EBS" */
+    public String getSource() { return source; }
+
+    /**
+     * Copy into the mutable model used by the UI tables
+     */
+    public Resource toResource() {
+        Resource resource = new Resource();
+        resource.setId(id);
+        resource.setName(name);
+        resource.setShortName(shortName);
+        resource.setType(type);
+        resource.setEmail(email);
+        resource.setParentId(parentId);
+        resource.setInternal(internal);
+        resource.setStartDate(toDate(startMillis));
+        resource.setEndDate(toDate(endMillis));
+        resource.setSource(source);
+        return resource;
+    }
+
+    public static ResourceRecord fromResource(Resource resource) {
+        return new ResourceRecord(orZero(resource.getId()), resource.getName(), resource.getShortName(),
+                resource.getType(), resource.getEmail(), orZero(resource.getParentId()), resource.isInternal(),
+                toMillis(resource.getStartDate()), toMillis(resource.getEndDate()), resource.getSource());
+    }
+
+    static long orZero(Long value) {
+        return value == null ? 0L : value;
+    }
+
+    static double orZero(Double value) {
+        return value == null ? 0.0 : value;
+    }
+
+    static long toMillis(Date date) {
+        return date == null ? NO_DATE : date.getTime();
+    }
+
+    static java.sql.Date toDate(long millis) {
+        return millis == NO_DATE ? null : new java.sql.Date(millis);
+    }
+
+    static Timestamp toTimestamp(long millis) {
+        return millis == NO_DATE ? null : new Timestamp(millis);
+    }
+
+    @Override
+    public String toString() {
+        return id + " - " + name;
+    }
+}
@@ -0,0 +1,85 @@
+package com.p6ebs.integration.model;
+
+/**
+ * Immutable row of the resource staging table: a P6 resource and the EBS
+ * organization and person it was synced to
+ */
+public final class ResourceStagingRecord {
+    private final long p6ResourceId;
+    private final String name;
+    private final String shortName;
+    private final String type;
+    private final String email;
+    private final long ebsOrganizationId;
+    private final long ebsPersonId;
+    private final String syncStatus;
+    private final String errorMessage;
+    private final long lastSyncMillis;
+
+    public ResourceStagingRecord(long p6ResourceId, String name, String shortName, String type, String email,
+                                 long ebsOrganizationId, long ebsPersonId, String syncStatus, String errorMessage,
+                                 long lastSyncMillis) {
+        this.p6ResourceId = p6ResourceId;
+        this.name = name;
+        this.shortName = shortName;
+        this.type = type;
+        this.email = email;
+        this.ebsOrganizationId = ebsOrganizationId;
+        this.ebsPersonId = ebsPersonId;
+        this.syncStatus = syncStatus;
+        this.errorMessage = errorMessage;
+        this.lastSyncMillis = lastSyncMillis;
+    }
+
+    public long getP6ResourceId() { return p6ResourceId; }
+
+    public String getName() { return name; }
+
+    public String getShortName() { return shortName; }
+
+    public String getType() { return type; }
+
+    public String getEmail() { return email; }
+
+    /** EBS organization the resource was synced to, or 0 if it has not been synced */
+    public long getEbsOrganizationId() { return ebsOrganizationId; }
+
+    public long getEbsPersonId() { return ebsPersonId; }
+
+    public String getSyncStatus() { return syncStatus; }
+
+    public String getErrorMessage() { return errorMessage; }
+
+    /** Time of the last sync, or {@link ResourceRecord#NO_DATE} */
+    public long getLastSyncMillis() { return lastSyncMillis; }
+
+    /**
+     * Copy into the mutable model used by the UI tables
+     */
+    public Resource toResource() {
+        Resource resource = new Resource();
+        resource.setId(p6ResourceId);
+        resource.setName(name);
+        resource.setShortName(shortName);
+        resource.setType(type);
+        resource.setEmail(email);
+        resource.setEbsOrgId(ebsOrganizationId);
+        resource.setEbsPersonId(ebsPersonId);
+        resource.setSyncStatus(syncStatus);
+        resource.setErrorMessage(errorMessage);
+        resource.setLastSyncDate(ResourceRecord.toTimestamp(lastSyncMillis));
+        return resource;
+    }
+
+    public static ResourceStagingRecord fromResource(Resource resource) {
+        return new ResourceStagingRecord(ResourceRecord.orZero(resource.getId()), resource.getName(),
+                resource.getShortName(), resource.getType(), resource.getEmail(),
+                ResourceRecord.orZero(resource.getEbsOrgId()), ResourceRecord.orZero(resource.getEbsPersonId()),
+                resource.getSyncStatus(), resource.getErrorMessage(), ResourceRecord.toMillis(resource.getLastSyncDate()));
+    }
+
+    @Override
+    public String toString() {
+        return p6ResourceId + " - " + name;
+    }
+}
@@ -0,0 +1,140 @@
+package com.p6ebs.integration.model;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Staging table counters shown on the dashboard, per entity type
+ */
+public class SyncStatistics {
+
+    /**
+     * Staging tables summarized
+     */
+    public enum EntityType {
+        PROJECT, TASK, RESOURCE
+    }
+
+    /**
+     * Counters for one staging table
+     */
+    public static class EntityStatistics {
+        private final Map<String, Integer> countsByStatus = new LinkedHashMap<>();
+        private int total;
+        private int succeeded;
+        private int failed;
+        private int pending;
+        private int withErrorMessage;
+        private Timestamp lastSyncDate;
+
+        /**
+         * Add one group of the grouped staging query
+         */
+        public void addGroup(String syncStatus, int count, int errorMessages, Timestamp lastSync) {
+            countsByStatus.merge(syncStatus == null ? "(none)" : syncStatus, count, Integer::sum);
+            total += count;
+            withErrorMessage += errorMessages;
+            switch (classify(syncStatus)) {
+                case 1:
+                    succeeded += count;
+                    break;
+                case -1:
+                    failed += count;
+                    break;
+                default:
+                    pending += count;
+                    break;
+            }
+            if (lastSync != null && (lastSyncDate == null || lastSync.after(lastSyncDate))) {
+                lastSyncDate = lastSync;
+            }
+        }
+
+        public int getTotal() { return total; }
+
+        public int getSucceeded() { return succeeded; }
+
+        public int getFailed() { return failed; }
+
+        /** Rows not yet synced or in a status that is neither success nor error */
+        public int getPending() { return pending; }
+
+        public int getWithErrorMessage() { return withErrorMessage; }
+
+        /** Most recent sync of any row, or null if none has been synced */
+        public Timestamp getLastSyncDate() { return lastSyncDate; }
+
+        public Map<String, Integer> getCountsByStatus() { return Collections.unmodifiableMap(countsByStatus); }
+
+        @Override
+        public String toString() {
+            return total + " rows (" + succeeded + " synced, " + failed + " failed, " + pending + " pending)";
+        }
+    }
+
+    private final Map<EntityType, EntityStatistics> entities = new EnumMap<>(EntityType.class);
+    private final long loadedAt = System.currentTimeMillis();
+
+    public SyncStatistics() {
+        for (EntityType type : EntityType.values()) {
+            entities.put(type, new EntityStatistics());
+        }
+    }
+
+    public EntityStatistics get(EntityType type) {
+        return entities.get(type);
+    }
+
+    /**
+     * Failed rows across all staging tables
+     */
+    public int getTotalFailed() {
+        int failed = 0;
+        for (EntityStatistics statistics : entities.values()) {
+            failed += statistics.getFailed();
+        }
+        return failed;
+    }
+
+    /**
+     * Most recent sync across all staging tables, or null
+     */
+    public Timestamp getLastSyncDate() {
+        Timestamp last = null;
+        for (EntityStatistics statistics : entities.values()) {
+            Timestamp candidate = statistics.getLastSyncDate();
+            if (candidate != null && (last == null || candidate.after(last))) {
+                last = candidate;
+            }
+        }
+        return last;
+    }
+
+    public long getLoadedAt() { return loadedAt; }
+
+    /**
+     * 1 for a successful sync status, -1 for a failed one and 0 otherwise
+     */
+    static int classify(String syncStatus) {
+        if (syncStatus == null) {
+            return 0;
+        }
+        String status = syncStatus.toUpperCase();
+        if (status.contains("ERROR") || status.contains("FAIL")) {
+            return -1;
+        }
+        if (status.contains("SUCCESS") || status.equals("SYNCED")) {
+            return 1;
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Projects " + get(EntityType.PROJECT) + ", tasks " + get(EntityType.TASK)
+                + ", resources " + get(EntityType.RESOURCE);
+    }
+}
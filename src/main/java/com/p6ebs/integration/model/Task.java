@@ -21,6 +21,8 @@ public class Task {
     private String syncStatus;
     private String errorMessage;
     private Date lastSyncDate;
+    private Date updateDate;
+    private Date deleteDate;
 
     // Constructors
     public Task() {}
@@ -71,6 +73,17 @@ public class Task {
     public Date getLastSyncDate() { return lastSyncDate; }
     public void setLastSyncDate(Date lastSyncDate) { this.lastSyncDate = lastSyncDate; }
 
+    public Date getUpdateDate() { return updateDate; }
+    public void setUpdateDate(Date updateDate) { this.updateDate = updateDate; }
+
+    public Date getDeleteDate() { return deleteDate; }
+    public void setDeleteDate(Date deleteDate) { this.deleteDate = deleteDate; }
+
+    /**
+     * Whether the row has been soft-deleted in its source system
+     */
+    public boolean isDeleted() { return deleteDate != null; }
+
     @Override
     public String toString() {
         return code + " - " + name;
@@ -0,0 +1,74 @@
+package com.p6ebs.integration.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Progress of one chunk of a chunked project task sync, as recorded in the
+ * integration schema
+ */
+public class TaskSyncChunk {
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private final long projectId;
+    private final int chunkNo;
+    private final long firstTaskId;
+    private final long lastTaskId;
+    private final int taskCount;
+    private final long taskIdsHash;
+    private final String syncStatus;
+    private final String errorMessage;
+    private final Timestamp lastSyncDate;
+
+    public TaskSyncChunk(long projectId, int chunkNo, long firstTaskId, long lastTaskId, int taskCount,
+                         long taskIdsHash, String syncStatus, String errorMessage, Timestamp lastSyncDate) {
+        this.projectId = projectId;
+        this.chunkNo = chunkNo;
+        this.firstTaskId = firstTaskId;
+        this.lastTaskId = lastTaskId;
+        this.taskCount = taskCount;
+        this.taskIdsHash = taskIdsHash;
+        this.syncStatus = syncStatus;
+        this.errorMessage = errorMessage;
+        this.lastSyncDate = lastSyncDate;
+    }
+
+    public long getProjectId() { return projectId; }
+
+    /** Position of the chunk in the project's sync plan, from 0 */
+    public int getChunkNo() { return chunkNo; }
+
+    public long getFirstTaskId() { return firstTaskId; }
+
+    public long getLastTaskId() { return lastTaskId; }
+
+    public int getTaskCount() { return taskCount; }
+
+    /** Hash of the chunk's task IDs in order, used to tell whether a resumed plan still matches */
+    public long getTaskIdsHash() { return taskIdsHash; }
+
+    public String getSyncStatus() { return syncStatus; }
+
+    public String getErrorMessage() { return errorMessage; }
+
+    public Timestamp getLastSyncDate() { return lastSyncDate; }
+
+    public boolean isCompleted() { return COMPLETED.equals(syncStatus); }
+
+    /**
+     * Hash of task IDs in order
+     */
+    public static long hashTaskIds(long[] taskIds) {
+        long hash = 1125899906842597L;
+        for (long taskId : taskIds) {
+            hash = 31 * hash + (taskId ^ (taskId >>> 32));
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "Chunk " + chunkNo + " of project " + projectId + " (" + taskCount + " tasks, "
+                + firstTaskId + ".." + lastTaskId + "): " + syncStatus;
+    }
+}
@@ -0,0 +1,10 @@
+package com.p6ebs.integration.notify;
+
+/**
+ * Receives changes to the integration schema from the {@link ChangeNotifier}.
+ * Called on the notifier thread; Swing listeners should hand off to the EDT.
+ */
+@FunctionalInterface
+public interface ChangeListener {
+    void onChanges(IntegrationChanges changes);
+}
@@ -0,0 +1,230 @@
+package com.p6ebs.integration.notify;
+
+import com.p6ebs.integration.cache.ReferenceDataCache;
+import com.p6ebs.integration.dao.ProjectDAO;
+import com.p6ebs.integration.dao.StatisticsDAO;
+import com.p6ebs.integration.metrics.MetricsRegistry;
+import com.p6ebs.integration.model.HighWaterMarks;
+import com.p6ebs.integration.model.Project;
+import com.p6ebs.integration.sync.SyncJobExecutor;
+import com.p6ebs.integration.util.ConfigManager;
+import com.p6ebs.integration.util.DatabaseManager;
+import com.p6ebs.integration.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the integration schema for changes on behalf of every open panel.
+ * One thread polls the high-water marks (newest log ID and newest staging sync
+ * time per table) with a single-row query; only when a mark moves does it read
+ * the staging projects synced since the previous poll. Listeners receive just
+ * that delta, so any number of subscribers cost one cheap query per interval.
+ * Polling runs only while there are subscribers.
+ */
+public class ChangeNotifier {
+    private static final Logger logger = LoggerUtil.getLogger(ChangeNotifier.class);
+
+    private static ChangeNotifier instance;
+
+    private final StatisticsDAO statisticsDAO;
+    private final ProjectDAO projectDAO;
+    private final long intervalMillis;
+    private final int maxDeltaRows;
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService executor;
+    private ScheduledFuture<?> polling;
+
+    // Only touched on the notifier thread
+    private HighWaterMarks marks;
+    private final Set<Long> projectIdsAtMark = new HashSet<>();
+    // The baseline mark was read without its rows, so all rows at it count as delivered
+    private boolean allDeliveredAtMark;
+
+    ChangeNotifier(StatisticsDAO statisticsDAO, ProjectDAO projectDAO, long intervalMillis, int maxDeltaRows) {
+        this.statisticsDAO = statisticsDAO;
+        this.projectDAO = projectDAO;
+        this.intervalMillis = intervalMillis;
+        this.maxDeltaRows = maxDeltaRows;
+        ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "change-notifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.setRemoveOnCancelPolicy(true);
+        this.executor = pool;
+    }
+
+    /**
+     * Get the shared notifier, creating it from application properties on first use
+     */
+    public static synchronized ChangeNotifier getInstance() {
+        if (instance == null) {
+            int intervalSeconds = Math.max(1, ConfigManager.getIntProperty("notify.poll.seconds", 5));
+            int maxDeltaRows = Math.max(1, ConfigManager.getIntProperty("notify.max.delta.rows", 500));
+            instance = new ChangeNotifier(new StatisticsDAO(), new ProjectDAO(), intervalSeconds * 1000L, maxDeltaRows);
+            // Syncs started from this client show up at once instead of at the next interval
+            SyncJobExecutor.addCompletionListener(job -> instance.pollNow());
+            logger.info("Change notifier created, polling every {} s while subscribed", intervalSeconds);
+        }
+        return instance;
+    }
+
+    /**
+     * Start receiving changes. The first poll only records the current marks,
+     * so a new subscriber hears about changes made after it subscribed.
+     */
+    public synchronized void subscribe(ChangeListener listener) {
+        listeners.add(listener);
+        if (polling == null) {
+            // Marks left from an earlier subscription are stale; start from a fresh baseline
+            executor.execute(this::resetMarks);
+            polling = executor.scheduleWithFixedDelay(this::poll, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void unsubscribe(ChangeListener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty() && polling != null) {
+            polling.cancel(false);
+            polling = null;
+        }
+    }
+
+    /**
+     * Poll as soon as possible instead of waiting for the next interval
+     */
+    public void pollNow() {
+        synchronized (this) {
+            if (polling == null) {
+                return;
+            }
+        }
+        executor.execute(this::poll);
+    }
+
+    public int getSubscriberCount() {
+        return listeners.size();
+    }
+
+    private void resetMarks() {
+        marks = null;
+        projectIdsAtMark.clear();
+        allDeliveredAtMark = false;
+    }
+
+    /**
+     * Compare the marks with the previous poll and deliver whatever moved
+     */
+    private void poll() {
+        if (listeners.isEmpty() || !DatabaseManager.isInitialized()) {
+            return;
+        }
+        try {
+            MetricsRegistry.getInstance().counter("notify.polls").increment();
+            HighWaterMarks current = statisticsDAO.getHighWaterMarks();
+            if (current == null) {
+                return; // Already logged by the DAO; try again next interval
+            }
+            if (marks == null) {
+                marks = current;
+                allDeliveredAtMark = true;
+                return;
+            }
+
+            HighWaterMarks previous = marks;
+            List<Project> changedProjects = new ArrayList<>();
+            boolean truncated = false;
+            if (HighWaterMarks.moved(previous.getProjectSyncDate(), current.getProjectSyncDate())) {
+                truncated = readChangedProjects(previous.getProjectSyncDate(), current.getProjectSyncDate(),
+                        changedProjects);
+            }
+            marks = current;
+
+            IntegrationChanges changes = new IntegrationChanges(previous, current, changedProjects, truncated);
+            if (changes.isEmpty()) {
+                return;
+            }
+            MetricsRegistry.getInstance().counter("notify.deltas").increment();
+            logger.debug("{}", changes);
+            // Other clients may have synced, so counters cached here are stale
+            ReferenceDataCache.getInstance().invalidateStatistics();
+            for (ChangeListener listener : listeners) {
+                try {
+                    listener.onChanges(changes);
+                } catch (RuntimeException e) {
+                    logger.error("Change listener failed", e);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Change poll failed", e);
+        }
+    }
+
+    /**
+     * Read projects synced since the previous mark, up to the new one so rows
+     * synced after this poll's marks are left for the next poll. The lower bound
+     * is inclusive so rows stamped with the same time as the previous mark are
+     * not missed; those already delivered at that time are skipped. If the mark
+     * went back, rows were deleted and the newest rows up to the new mark are
+     * re-read.
+     *
+     * @return true if listeners cannot rely on the delta alone
+     */
+    private boolean readChangedProjects(Timestamp since, Timestamp until, List<Project> changed) {
+        boolean wentBack = since != null && (until == null || until.before(since));
+        List<Project> rows = projectDAO.getStagingProjectsSyncedBetween(wentBack ? null : since, until, wentBack,
+                maxDeltaRows + 1);
+        boolean truncated = wentBack || rows.size() > maxDeltaRows;
+
+        Set<Long> atNewMark = new HashSet<>();
+        for (Project project : rows) {
+            if (changed.size() == maxDeltaRows) {
+                break;
+            }
+            Date synced = project.getLastSyncDate();
+            if (sameTime(synced, since) && (allDeliveredAtMark || projectIdsAtMark.contains(project.getId()))) {
+                continue;
+            }
+            changed.add(project);
+            if (sameTime(synced, until)) {
+                atNewMark.add(project.getId());
+            }
+        }
+        projectIdsAtMark.clear();
+        projectIdsAtMark.addAll(atNewMark);
+        allDeliveredAtMark = false;
+        return truncated;
+    }
+
+    private static boolean sameTime(Date synced, Timestamp mark) {
+        if (synced == null || mark == null) {
+            return false;
+        }
+        // The DAO maps sync dates as timestamps; compare nanos when both are
+        return synced instanceof Timestamp ? mark.equals((Timestamp) synced) : synced.getTime() == mark.getTime();
+    }
+
+    /**
+     * Stop polling and drop all subscribers
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        listeners.clear();
+        synchronized (ChangeNotifier.class) {
+            if (instance == this) {
+                instance = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.p6ebs.integration.notify;
+
+import com.p6ebs.integration.model.HighWaterMarks;
+import com.p6ebs.integration.model.Project;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What changed in the integration schema between two polls: the staging
+ * projects synced since the previous poll, and which other tables moved
+ */
+public class IntegrationChanges {
+    private final HighWaterMarks previous;
+    private final HighWaterMarks current;
+    private final List<Project> changedProjects;
+    private final boolean projectsTruncated;
+
+    IntegrationChanges(HighWaterMarks previous, HighWaterMarks current, List<Project> changedProjects,
+                       boolean projectsTruncated) {
+        this.previous = previous;
+        this.current = current;
+        this.changedProjects = Collections.unmodifiableList(changedProjects);
+        this.projectsTruncated = projectsTruncated;
+    }
+
+    public HighWaterMarks getPrevious() { return previous; }
+
+    public HighWaterMarks getCurrent() { return current; }
+
+    /**
+     * Staging projects synced since the previous poll, oldest sync first
+     */
+    public List<Project> getChangedProjects() { return changedProjects; }
+
+    /**
+     * True if the project delta is incomplete, because more projects changed
+     * than one poll delivers or staging rows were deleted; listeners that keep
+     * project rows should reload them
+     */
+    public boolean isProjectsTruncated() { return projectsTruncated; }
+
+    public boolean isLogChanged() { return current.getMaxLogId() != previous.getMaxLogId(); }
+
+    /**
+     * True if the log went backwards, e.g. after it was cleared
+     */
+    public boolean isLogReset() { return current.getMaxLogId() < previous.getMaxLogId(); }
+
+    public boolean isProjectsChanged() {
+        return HighWaterMarks.moved(previous.getProjectSyncDate(), current.getProjectSyncDate());
+    }
+
+    public boolean isTasksChanged() {
+        return HighWaterMarks.moved(previous.getTaskSyncDate(), current.getTaskSyncDate());
+    }
+
+    public boolean isResourcesChanged() {
+        return HighWaterMarks.moved(previous.getResourceSyncDate(), current.getResourceSyncDate());
+    }
+
+    public boolean isEmpty() {
+        return !isLogChanged() && !isProjectsChanged() && !isTasksChanged() && !isResourcesChanged();
+    }
+
+    @Override
+    public String toString() {
+        Timestamp projectSync = current.getProjectSyncDate();
+        return "Changes: " + changedProjects.size() + " projects (synced up to " + projectSync + ")"
+                + (isLogChanged() ? ", log " + previous.getMaxLogId() + " -> " + current.getMaxLogId() : "")
+                + (isTasksChanged() ? ", tasks" : "")
+                + (isResourcesChanged() ? ", resources" : "");
+    }
+}
@@ -0,0 +1,104 @@
+package com.p6ebs.integration.rollup;
+
+import com.p6ebs.integration.model.ResourceAssignment;
+import com.p6ebs.integration.snapshot.TaskHierarchy;
+
+import java.util.Arrays;
+
+/**
+ * Running cost and quantity sums for a set of numbered slots, kept in one
+ * primitive array per measure
+ */
+final class CostAccumulator {
+    private int[] counts;
+    private double[] plannedCosts;
+    private double[] actualCosts;
+    private double[] remainingCosts;
+    private double[] plannedQuantities;
+    private double[] actualQuantities;
+    private double[] remainingQuantities;
+
+    CostAccumulator(int capacity) {
+        int size = Math.max(1, capacity);
+        counts = new int[size];
+        plannedCosts = new double[size];
+        actualCosts = new double[size];
+        remainingCosts = new double[size];
+        plannedQuantities = new double[size];
+        actualQuantities = new double[size];
+        remainingQuantities = new double[size];
+    }
+
+    void add(int slot, ResourceAssignment assignment) {
+        ensureCapacity(slot);
+        counts[slot]++;
+        plannedCosts[slot] += assignment.getPlannedCost();
+        actualCosts[slot] += assignment.getActualCost();
+        remainingCosts[slot] += assignment.getRemainingCost();
+        plannedQuantities[slot] += assignment.getPlannedQuantity();
+        actualQuantities[slot] += assignment.getActualQuantity();
+        remainingQuantities[slot] += assignment.getRemainingQuantity();
+    }
+
+    /**
+     * Add another accumulator's slot into one of ours
+     */
+    void add(int slot, CostAccumulator other, int otherSlot) {
+        ensureCapacity(slot);
+        counts[slot] += other.counts[otherSlot];
+        plannedCosts[slot] += other.plannedCosts[otherSlot];
+        actualCosts[slot] += other.actualCosts[otherSlot];
+        remainingCosts[slot] += other.remainingCosts[otherSlot];
+        plannedQuantities[slot] += other.plannedQuantities[otherSlot];
+        actualQuantities[slot] += other.actualQuantities[otherSlot];
+        remainingQuantities[slot] += other.remainingQuantities[otherSlot];
+    }
+
+    /**
+     * Turn per-task sums into subtree sums; slots must be the hierarchy's rows
+     */
+    void rollUp(TaskHierarchy hierarchy) {
+        ensureCapacity(hierarchy.size() - 1);
+        hierarchy.rollUp(counts);
+        hierarchy.rollUp(plannedCosts);
+        hierarchy.rollUp(actualCosts);
+        hierarchy.rollUp(remainingCosts);
+        hierarchy.rollUp(plannedQuantities);
+        hierarchy.rollUp(actualQuantities);
+        hierarchy.rollUp(remainingQuantities);
+    }
+
+    CostTotals totals(int slot) {
+        if (slot >= counts.length) {
+            return CostTotals.EMPTY;
+        }
+        return new CostTotals(counts[slot], plannedCosts[slot], actualCosts[slot], remainingCosts[slot],
+                plannedQuantities[slot], actualQuantities[slot], remainingQuantities[slot]);
+    }
+
+    CostAccumulator copy() {
+        CostAccumulator copy = new CostAccumulator(1);
+        copy.counts = counts.clone();
+        copy.plannedCosts = plannedCosts.clone();
+        copy.actualCosts = actualCosts.clone();
+        copy.remainingCosts = remainingCosts.clone();
+        copy.plannedQuantities = plannedQuantities.clone();
+        copy.actualQuantities = actualQuantities.clone();
+        copy.remainingQuantities = remainingQuantities.clone();
+        return copy;
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot < counts.length) {
+            return;
+        }
+        int capacity = Math.max(slot + 1, counts.length * 2);
+        counts = Arrays.copyOf(counts, capacity);
+        plannedCosts = Arrays.copyOf(plannedCosts, capacity);
+        actualCosts = Arrays.copyOf(actualCosts, capacity);
+        remainingCosts = Arrays.copyOf(remainingCosts, capacity);
+        plannedQuantities = Arrays.copyOf(plannedQuantities, capacity);
+        actualQuantities = Arrays.copyOf(actualQuantities, capacity);
+        remainingQuantities = Arrays.copyOf(remainingQuantities, capacity);
+    }
+}
@@ -0,0 +1,32 @@
+package com.p6ebs.integration.rollup;
+
+/**
+ * Totals for one project, resource or WBS task
+ */
+public class CostLine {
+    private final long id;
+    private final String name;
+    private final int depth;
+    private final CostTotals totals;
+
+    public CostLine(long id, String name, int depth, CostTotals totals) {
+        this.id = id;
+        this.name = name;
+        this.depth = depth;
+        this.totals = totals;
+    }
+
+    public long getId() { return id; }
+
+    public String getName() { return name; }
+
+    /** Level in the WBS for task lines; 0 for projects and resources */
+    public int getDepth() { return depth; }
+
+    public CostTotals getTotals() { return totals; }
+
+    @Override
+    public String toString() {
+        return name + ": " + totals;
+    }
+}
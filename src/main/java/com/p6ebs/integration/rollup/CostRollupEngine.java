@@ -0,0 +1,185 @@
+package com.p6ebs.integration.rollup;
+
+import com.p6ebs.integration.cache.CacheStats;
+import com.p6ebs.integration.cache.ReferenceDataCache;
+import com.p6ebs.integration.cache.TtlLruCache;
+import com.p6ebs.integration.dao.DaoFailures;
+import com.p6ebs.integration.dao.ResourceDAO;
+import com.p6ebs.integration.exec.BackgroundExecutor;
+import com.p6ebs.integration.metrics.MetricsRegistry;
+import com.p6ebs.integration.model.Project;
+import com.p6ebs.integration.snapshot.TaskHierarchy;
+import com.p6ebs.integration.sync.SyncJob;
+import com.p6ebs.integration.sync.SyncJobExecutor;
+import com.p6ebs.integration.util.ConfigManager;
+import com.p6ebs.integration.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Sums the planned, actual and remaining cost and quantity of P6 resource
+ * assignments per project, per resource and per WBS task. Each project is one
+ * streaming pass over its assignments into primitive accumulators; a portfolio
+ * rollup splits the projects across a fork/join pool and merges the
+ * per-resource totals on the way back up. Project rollups are cached until
+ * an assignment or resource sync finishes.
+ */
+public class CostRollupEngine {
+    private static final Logger logger = LoggerUtil.getLogger(CostRollupEngine.class);
+
+    private static CostRollupEngine instance;
+
+    private final ForkJoinPool pool;
+    private final TtlLruCache<Long, ProjectCostRollup> rollups;
+
+    CostRollupEngine(int parallelism, int maxEntries, long ttlMillis) {
+        // Every task holds a P6 connection while it streams and waits for a permit of that pool first
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("cost-rollup-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        this.rollups = new TtlLruCache<>("cost rollups", maxEntries, ttlMillis);
+    }
+
+    /**
+     * Get the shared engine, creating it from application properties on first use
+     */
+    public static synchronized CostRollupEngine getInstance() {
+        if (instance == null) {
+            int parallelism = ConfigManager.getIntProperty("rollup.parallelism", 4);
+            int maxEntries = ConfigManager.getIntProperty("rollup.cache.max.entries", 256);
+            int ttlSeconds = ConfigManager.getIntProperty("rollup.cache.ttl.seconds", 600);
+            instance = new CostRollupEngine(Math.max(1, parallelism), maxEntries, ttlSeconds * 1000L);
+            SyncJobExecutor.addCompletionListener(instance::onSyncFinished);
+            logger.info("Cost rollup engine created with parallelism {}", parallelism);
+        }
+        return instance;
+    }
+
+    /**
+     * Get the cost rollup of one project, computing it on a cache miss
+     */
+    public ProjectCostRollup getProjectRollup(Project project) {
+        return rollups.get(project.getId(), () -> compute(project.getId(), project.getName()));
+    }
+
+    /**
+     * Get the cost rollup of a set of projects, computing missing projects in parallel
+     */
+    public PortfolioCostRollup getPortfolioRollup(List<Project> projects) {
+        long start = System.nanoTime();
+        ProjectCostRollup[] results = new ProjectCostRollup[projects.size()];
+        ResourceCosts resources = projects.isEmpty()
+                ? new ResourceCosts(0)
+                : pool.invoke(new RollupTask(projects, results, 0, projects.size()));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        PortfolioCostRollup rollup = new PortfolioCostRollup(new ArrayList<>(Arrays.asList(results)), resources, elapsedMillis);
+        logger.info("Computed {}", rollup);
+        return rollup;
+    }
+
+    public void invalidate(long projectId) {
+        rollups.invalidate(projectId);
+    }
+
+    public void invalidateAll() {
+        rollups.invalidateAll();
+    }
+
+    public CacheStats getStats() {
+        return rollups.getStats();
+    }
+
+    /**
+     * Stream one project's assignments into project, resource and task totals,
+     * then roll the task totals up the WBS. Throws if the tasks or assignments
+     * could not be read, so a partial rollup is never cached.
+     */
+    private ProjectCostRollup compute(long projectId, String projectName) {
+        return DaoFailures.require("cost rollup of project " + projectId, () -> sum(projectId, projectName));
+    }
+
+    private ProjectCostRollup sum(long projectId, String projectName) {
+        long start = System.nanoTime();
+        TaskHierarchy hierarchy = TaskHierarchy.of(ReferenceDataCache.getInstance().getP6Tasks(projectId));
+
+        CostAccumulator project = new CostAccumulator(1);
+        CostAccumulator wbs = new CostAccumulator(hierarchy.size());
+        ResourceCosts resources = new ResourceCosts(64);
+        int[] unplaced = new int[1];
+
+        new ResourceDAO().streamAssignments(projectId, assignment -> {
+            project.add(0, assignment);
+            resources.add(assignment);
+            int row = hierarchy.rowOf(assignment.getTaskId());
+            if (row >= 0) {
+                wbs.add(row, assignment);
+            } else {
+                unplaced[0]++;
+            }
+        });
+        wbs.rollUp(hierarchy);
+
+        MetricsRegistry.getInstance().timer("rollup.project").recordSince(start);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new ProjectCostRollup(projectId, projectName, project.totals(0), resources,
+                hierarchy, wbs, unplaced[0], elapsedMillis);
+    }
+
+    /**
+     * Drop rollups an assignment or resource sync may have made stale
+     */
+    private void onSyncFinished(SyncJob job) {
+        switch (job.getRequest().getTarget()) {
+            case ASSIGNMENT:
+                for (Long projectId : job.getRequest().getIds()) {
+                    invalidate(projectId);
+                }
+                break;
+            case RESOURCE:
+                invalidateAll();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Rolls up a range of projects, splitting it in half until one project is left
+     */
+    private class RollupTask extends RecursiveTask<ResourceCosts> {
+        private final List<Project> projects;
+        private final ProjectCostRollup[] results;
+        private final int from;
+        private final int to;
+
+        RollupTask(List<Project> projects, ProjectCostRollup[] results, int from, int to) {
+            this.projects = projects;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ResourceCosts compute() {
+            if (to - from == 1) {
+                results[from] = BackgroundExecutor.getInstance().getGated(BackgroundExecutor.Pool.P6,
+                        () -> getProjectRollup(projects.get(from)));
+                return results[from].getResourceCosts();
+            }
+            int middle = (from + to) >>> 1;
+            RollupTask left = new RollupTask(projects, results, from, middle);
+            left.fork();
+            ResourceCosts right = new RollupTask(projects, results, middle, to).compute();
+            return ResourceCosts.merge(left.join(), right);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.p6ebs.integration.rollup;
+
+/**
+ * Planned, actual and remaining cost and quantity summed over a set of resource assignments
+ */
+public class CostTotals {
+    public static final CostTotals EMPTY = new CostTotals(0, 0, 0, 0, 0, 0, 0);
+
+    private final int assignmentCount;
+    private final double plannedCost;
+    private final double actualCost;
+    private final double remainingCost;
+    private final double plannedQuantity;
+    private final double actualQuantity;
+    private final double remainingQuantity;
+
+    public CostTotals(int assignmentCount, double plannedCost, double actualCost, double remainingCost,
+                      double plannedQuantity, double actualQuantity, double remainingQuantity) {
+        this.assignmentCount = assignmentCount;
+        this.plannedCost = plannedCost;
+        this.actualCost = actualCost;
+        this.remainingCost = remainingCost;
+        this.plannedQuantity = plannedQuantity;
+        this.actualQuantity = actualQuantity;
+        this.remainingQuantity = remainingQuantity;
+    }
+
+    public int getAssignmentCount() { return assignmentCount; }
+
+    public double getPlannedCost() { return plannedCost; }
+
+    public double getActualCost() { return actualCost; }
+
+    public double getRemainingCost() { return remainingCost; }
+
+    public double getPlannedQuantity() { return plannedQuantity; }
+
+    public double getActualQuantity() { return actualQuantity; }
+
+    public double getRemainingQuantity() { return remainingQuantity; }
+
+    /** Actual plus remaining cost */
+    public double getAtCompletionCost() { return actualCost + remainingCost; }
+
+    /** Planned cost less the cost at completion; negative when over budget */
+    public double getCostVariance() { return plannedCost - getAtCompletionCost(); }
+
+    @Override
+    public String toString() {
+        return String.format("%d assignments, planned %.2f, actual %.2f, remaining %.2f",
+                assignmentCount, plannedCost, actualCost, remainingCost);
+    }
+}
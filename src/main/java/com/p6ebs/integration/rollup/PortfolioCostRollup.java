@@ -0,0 +1,67 @@
+package com.p6ebs.integration.rollup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cost totals across a set of projects, with per-project and per-resource lines
+ */
+public class PortfolioCostRollup {
+    private final List<ProjectCostRollup> projects;
+    private final ResourceCosts resources;
+    private final CostTotals totals;
+    private final long elapsedMillis;
+
+    PortfolioCostRollup(List<ProjectCostRollup> projects, ResourceCosts resources, long elapsedMillis) {
+        this.projects = Collections.unmodifiableList(projects);
+        this.resources = resources;
+        this.elapsedMillis = elapsedMillis;
+
+        int count = 0;
+        double plannedCost = 0, actualCost = 0, remainingCost = 0;
+        double plannedQuantity = 0, actualQuantity = 0, remainingQuantity = 0;
+        for (ProjectCostRollup project : projects) {
+            CostTotals t = project.getTotals();
+            count += t.getAssignmentCount();
+            plannedCost += t.getPlannedCost();
+            actualCost += t.getActualCost();
+            remainingCost += t.getRemainingCost();
+            plannedQuantity += t.getPlannedQuantity();
+            actualQuantity += t.getActualQuantity();
+            remainingQuantity += t.getRemainingQuantity();
+        }
+        this.totals = new CostTotals(count, plannedCost, actualCost, remainingCost,
+                plannedQuantity, actualQuantity, remainingQuantity);
+    }
+
+    public CostTotals getTotals() { return totals; }
+
+    /**
+     * Per-project rollups, in the order the projects were requested
+     */
+    public List<ProjectCostRollup> getProjects() { return projects; }
+
+    public List<CostLine> getProjectLines() {
+        List<CostLine> lines = new ArrayList<>(projects.size());
+        for (ProjectCostRollup project : projects) {
+            lines.add(new CostLine(project.getProjectId(), project.getProjectName(), 0, project.getTotals()));
+        }
+        return lines;
+    }
+
+    /**
+     * Totals per resource across all the projects, by resource name
+     */
+    public List<CostLine> getResourceLines() {
+        return resources.lines();
+    }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    @Override
+    public String toString() {
+        return "Cost rollup of " + projects.size() + " projects: " + totals + " over "
+                + resources.size() + " resources in " + elapsedMillis + " ms";
+    }
+}
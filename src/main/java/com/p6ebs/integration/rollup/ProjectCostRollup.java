@@ -0,0 +1,97 @@
+package com.p6ebs.integration.rollup;
+
+import com.p6ebs.integration.snapshot.TaskHierarchy;
+import com.p6ebs.integration.snapshot.TaskSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cost totals of one P6 project: for the whole project, per resource, and per
+ * WBS task including everything beneath it
+ */
+public class ProjectCostRollup {
+    private final long projectId;
+    private final String projectName;
+    private final CostTotals totals;
+    private final ResourceCosts resources;
+    private final TaskHierarchy hierarchy;
+    private final CostAccumulator wbs;
+    private final int unplacedAssignments;
+    private final long elapsedMillis;
+
+    ProjectCostRollup(long projectId, String projectName, CostTotals totals, ResourceCosts resources,
+                      TaskHierarchy hierarchy, CostAccumulator wbs, int unplacedAssignments, long elapsedMillis) {
+        this.projectId = projectId;
+        this.projectName = projectName;
+        this.totals = totals;
+        this.resources = resources;
+        this.hierarchy = hierarchy;
+        this.wbs = wbs;
+        this.unplacedAssignments = unplacedAssignments;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getProjectId() { return projectId; }
+
+    public String getProjectName() { return projectName; }
+
+    public CostTotals getTotals() { return totals; }
+
+    /**
+     * Totals per resource, by resource name
+     */
+    public List<CostLine> getResourceLines() {
+        return resources.lines();
+    }
+
+    /**
+     * Totals of one resource on this project, or null if it has no assignments here
+     */
+    public CostTotals getResourceTotals(long resourceId) {
+        return resources.get(resourceId);
+    }
+
+    /**
+     * Totals of a task and all tasks beneath it, or null if the task is not in the project
+     */
+    public CostTotals getWbsTotals(long taskId) {
+        int row = hierarchy.rowOf(taskId);
+        return row < 0 ? null : wbs.totals(row);
+    }
+
+    /**
+     * Subtree totals of the WBS down to a depth, in outline order
+     *
+     * @param maxDepth deepest level to include; 0 lists only the top-level tasks
+     */
+    public List<CostLine> getWbsLines(int maxDepth) {
+        TaskSnapshot tasks = hierarchy.getTasks();
+        List<CostLine> lines = new ArrayList<>();
+        for (int i = 0; i < hierarchy.getRootCount(); i++) {
+            hierarchy.forEachInSubtree(hierarchy.getRoot(i), row -> {
+                int depth = hierarchy.getDepth(row);
+                if (depth <= maxDepth) {
+                    lines.add(new CostLine(tasks.getId(row), tasks.getCode(row) + " - " + tasks.getName(row),
+                            depth, wbs.totals(row)));
+                }
+            });
+        }
+        return lines;
+    }
+
+    /**
+     * Assignments whose task is not in the project's task list; they count
+     * towards the project and resource totals but no WBS line
+     */
+    public int getUnplacedAssignments() { return unplacedAssignments; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    ResourceCosts getResourceCosts() { return resources; }
+
+    @Override
+    public String toString() {
+        return "Cost rollup of " + projectName + ": " + totals + " over " + resources.size() + " resources";
+    }
+}
@@ -0,0 +1,89 @@
+package com.p6ebs.integration.rollup;
+
+import com.p6ebs.integration.model.ResourceAssignment;
+import com.p6ebs.integration.snapshot.LongIntMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cost totals keyed by resource ID. Each resource gets a slot the first time
+ * it is seen, so adding an assignment is a primitive map lookup and seven
+ * array additions.
+ */
+final class ResourceCosts {
+    private final LongIntMap slots;
+    private final CostAccumulator costs;
+    private long[] ids;
+    private String[] names;
+    private int size;
+
+    ResourceCosts(int expectedResources) {
+        slots = new LongIntMap(expectedResources);
+        costs = new CostAccumulator(expectedResources);
+        ids = new long[Math.max(1, expectedResources)];
+        names = new String[ids.length];
+    }
+
+    private ResourceCosts(ResourceCosts source) {
+        slots = new LongIntMap(source.size);
+        for (int slot = 0; slot < source.size; slot++) {
+            slots.put(source.ids[slot], slot);
+        }
+        costs = source.costs.copy();
+        ids = source.ids.clone();
+        names = source.names.clone();
+        size = source.size;
+    }
+
+    void add(ResourceAssignment assignment) {
+        costs.add(slotOf(assignment.getResourceId(), assignment.getResourceName()), assignment);
+    }
+
+    /**
+     * New totals holding both inputs; neither input is modified
+     */
+    static ResourceCosts merge(ResourceCosts left, ResourceCosts right) {
+        ResourceCosts merged = new ResourceCosts(left);
+        for (int slot = 0; slot < right.size; slot++) {
+            merged.costs.add(merged.slotOf(right.ids[slot], right.names[slot]), right.costs, slot);
+        }
+        return merged;
+    }
+
+    int size() { return size; }
+
+    CostTotals get(long resourceId) {
+        int slot = slots.get(resourceId);
+        return slot < 0 ? null : costs.totals(slot);
+    }
+
+    /**
+     * One line per resource, by name
+     */
+    List<CostLine> lines() {
+        List<CostLine> lines = new ArrayList<>(size);
+        for (int slot = 0; slot < size; slot++) {
+            lines.add(new CostLine(ids[slot], names[slot], 0, costs.totals(slot)));
+        }
+        lines.sort(Comparator.comparing(CostLine::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+        return lines;
+    }
+
+    private int slotOf(long resourceId, String name) {
+        int slot = slots.get(resourceId);
+        if (slot < 0) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                names = Arrays.copyOf(names, size * 2);
+            }
+            slot = size++;
+            ids[slot] = resourceId;
+            names[slot] = name;
+            slots.put(resourceId, slot);
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,47 @@
+package com.p6ebs.integration.snapshot;
+
+import com.p6ebs.integration.model.Resource;
+
+/**
+ * View of one row of an {@link AssignmentSnapshot}
+ */
+public final class AssignmentRow {
+    private final AssignmentSnapshot snapshot;
+    private final int index;
+
+    AssignmentRow(AssignmentSnapshot snapshot, int index) {
+        this.snapshot = snapshot;
+        this.index = index;
+    }
+
+    public int getIndex() { return index; }
+
+    public long getAssignmentId() { return snapshot.getAssignmentId(index); }
+
+    public long getTaskId() { return snapshot.getTaskId(index); }
+
+    public long getResourceId() { return snapshot.getResourceId(index); }
+
+    public String getTaskName() { return snapshot.getTaskName(index); }
+
+    public String getResourceName() { return snapshot.getResourceName(index); }
+
+    public double getPlannedCost() { return snapshot.getPlannedCost(index); }
+
+    public double getActualCost() { return snapshot.getActualCost(index); }
+
+    public double getRemainingCost() { return snapshot.getRemainingCost(index); }
+
+    public double getPlannedQuantity() { return snapshot.getPlannedQuantity(index); }
+
+    public double getActualQuantity() { return snapshot.getActualQuantity(index); }
+
+    public double getRemainingQuantity() { return snapshot.getRemainingQuantity(index); }
+
+    public Resource toResource() { return snapshot.toResource(index); }
+
+    @Override
+    public String toString() {
+        return getResourceName() + " on " + getTaskName();
+    }
+}
@@ -0,0 +1,242 @@
+package com.p6ebs.integration.snapshot;
+
+import com.p6ebs.integration.model.Resource;
+import com.p6ebs.integration.model.ResourceAssignment;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * Read-only, column-oriented copy of resource assignments. Only the assignment
+ * fields of {@link Resource} are kept; resource and task names repeat across
+ * assignments, so they are dictionary-encoded.
+ */
+public final class AssignmentSnapshot {
+    private final int size;
+    private final long[] assignmentIds;
+    private final long[] taskIds;
+    private final long[] resourceIds;
+    private final double[] plannedCosts;
+    private final double[] actualCosts;
+    private final double[] remainingCosts;
+    private final double[] plannedQuantities;
+    private final double[] actualQuantities;
+    private final double[] remainingQuantities;
+    private final DictionaryColumn taskNames;
+    private final DictionaryColumn resourceNames;
+    private final DictionaryColumn sources;
+
+    private AssignmentSnapshot(Builder builder) {
+        size = builder.size;
+        assignmentIds = Arrays.copyOf(builder.assignmentIds, size);
+        taskIds = Arrays.copyOf(builder.taskIds, size);
+        resourceIds = Arrays.copyOf(builder.resourceIds, size);
+        plannedCosts = Arrays.copyOf(builder.plannedCosts, size);
+        actualCosts = Arrays.copyOf(builder.actualCosts, size);
+        remainingCosts = Arrays.copyOf(builder.remainingCosts, size);
+        plannedQuantities = Arrays.copyOf(builder.plannedQuantities, size);
+        actualQuantities = Arrays.copyOf(builder.actualQuantities, size);
+        remainingQuantities = Arrays.copyOf(builder.remainingQuantities, size);
+        taskNames = builder.taskNames;
+        resourceNames = builder.resourceNames;
+        sources = builder.sources;
+        taskNames.trim();
+        resourceNames.trim();
+        sources.trim();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public AssignmentRow row(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Row " + index + " of " + size);
+        }
+        return new AssignmentRow(this, index);
+    }
+
+    /**
+     * All rows as a list of views, created as they are read
+     */
+    public List<AssignmentRow> rows() {
+        return new RowList();
+    }
+
+    public long getAssignmentId(int row) { return assignmentIds[row]; }
+
+    public long getTaskId(int row) { return taskIds[row]; }
+
+    public long getResourceId(int row) { return resourceIds[row]; }
+
+    public String getTaskName(int row) { return taskNames.get(row); }
+
+    public String getResourceName(int row) { return resourceNames.get(row); }
+
+    public String getSource(int row) { return sources.get(row); }
+
+    /** Planned cost, or NaN if unknown; the other cost and quantity getters behave the same */
+    public double getPlannedCost(int row) { return plannedCosts[row]; }
+
+    public double getActualCost(int row) { return actualCosts[row]; }
+
+    public double getRemainingCost(int row) { return remainingCosts[row]; }
+
+    public double getPlannedQuantity(int row) { return plannedQuantities[row]; }
+
+    public double getActualQuantity(int row) { return actualQuantities[row]; }
+
+    public double getRemainingQuantity(int row) { return remainingQuantities[row]; }
+
+    /**
+     * Copy a row back into a model object, populating only the assignment fields
+     */
+    public Resource toResource(int row) {
+        Resource resource = new Resource();
+        resource.setId(resourceIds[row]);
+        resource.setName(resourceNames.get(row));
+        resource.setAssignmentId(assignmentIds[row]);
+        resource.setTaskId(taskIds[row]);
+        resource.setTaskName(taskNames.get(row));
+        resource.setPlannedCost(Columns.toBoxed(plannedCosts[row]));
+        resource.setActualCost(Columns.toBoxed(actualCosts[row]));
+        resource.setRemainingCost(Columns.toBoxed(remainingCosts[row]));
+        resource.setPlannedQuantity(Columns.toBoxed(plannedQuantities[row]));
+        resource.setActualQuantity(Columns.toBoxed(actualQuantities[row]));
+        resource.setRemainingQuantity(Columns.toBoxed(remainingQuantities[row]));
+        resource.setSource(sources.get(row));
+        return resource;
+    }
+
+    /**
+     * Copy a row into an immutable assignment record
+     */
+    public ResourceAssignment toAssignment(int row) {
+        return new ResourceAssignment(assignmentIds[row], taskIds[row], resourceIds[row],
+                taskNames.get(row), resourceNames.get(row),
+                plannedCosts[row], actualCosts[row], remainingCosts[row],
+                plannedQuantities[row], actualQuantities[row], remainingQuantities[row]);
+    }
+
+    /**
+     * Approximate heap footprint of the snapshot's arrays
+     */
+    public long estimateHeapBytes() {
+        long arrays = 9 * 16L + size * (8L * 3 + 8L * 6);
+        return arrays + taskNames.heapBytes() + resourceNames.heapBytes() + sources.heapBytes();
+    }
+
+    @Override
+    public String toString() {
+        return "AssignmentSnapshot[" + size + " assignments, ~" + estimateHeapBytes() / 1024 + " KB]";
+    }
+
+    private class RowList extends AbstractList<AssignmentRow> implements RandomAccess {
+        @Override
+        public AssignmentRow get(int index) { return row(index); }
+
+        @Override
+        public int size() { return size; }
+    }
+
+    /**
+     * Accumulates assignments into growing columns; usable as the consumer of
+     * {@code ResourceDAO.streamAssignments}
+     */
+    public static final class Builder implements Consumer<ResourceAssignment> {
+        private int size;
+        private long[] assignmentIds = new long[64];
+        private long[] taskIds = new long[64];
+        private long[] resourceIds = new long[64];
+        private double[] plannedCosts = new double[64];
+        private double[] actualCosts = new double[64];
+        private double[] remainingCosts = new double[64];
+        private double[] plannedQuantities = new double[64];
+        private double[] actualQuantities = new double[64];
+        private double[] remainingQuantities = new double[64];
+        private final DictionaryColumn taskNames = new DictionaryColumn();
+        private final DictionaryColumn resourceNames = new DictionaryColumn();
+        private final DictionaryColumn sources = new DictionaryColumn();
+        private boolean built;
+
+        private Builder() {}
+
+        @Override
+        public void accept(ResourceAssignment assignment) {
+            add(assignment);
+        }
+
+        public Builder add(ResourceAssignment assignment) {
+            if (built) {
+                throw new IllegalStateException("Snapshot already built");
+            }
+            if (size == assignmentIds.length) {
+                grow();
+            }
+            assignmentIds[size] = assignment.getAssignmentId();
+            taskIds[size] = assignment.getTaskId();
+            resourceIds[size] = assignment.getResourceId();
+            plannedCosts[size] = assignment.getPlannedCost();
+            actualCosts[size] = assignment.getActualCost();
+            remainingCosts[size] = assignment.getRemainingCost();
+            plannedQuantities[size] = assignment.getPlannedQuantity();
+            actualQuantities[size] = assignment.getActualQuantity();
+            remainingQuantities[size] = assignment.getRemainingQuantity();
+            taskNames.add(assignment.getTaskName());
+            resourceNames.add(assignment.getResourceName());
+            sources.add("P6");
+            size++;
+            return this;
+        }
+
+        public Builder add(Resource assignment) {
+            if (built) {
+                throw new IllegalStateException("Snapshot already built");
+            }
+            if (size == assignmentIds.length) {
+                grow();
+            }
+            assignmentIds[size] = Columns.toLong(assignment.getAssignmentId());
+            taskIds[size] = Columns.toLong(assignment.getTaskId());
+            resourceIds[size] = Columns.toLong(assignment.getId());
+            plannedCosts[size] = Columns.toDouble(assignment.getPlannedCost());
+            actualCosts[size] = Columns.toDouble(assignment.getActualCost());
+            remainingCosts[size] = Columns.toDouble(assignment.getRemainingCost());
+            plannedQuantities[size] = Columns.toDouble(assignment.getPlannedQuantity());
+            actualQuantities[size] = Columns.toDouble(assignment.getActualQuantity());
+            remainingQuantities[size] = Columns.toDouble(assignment.getRemainingQuantity());
+            taskNames.add(assignment.getTaskName());
+            resourceNames.add(assignment.getName());
+            sources.add(assignment.getSource());
+            size++;
+            return this;
+        }
+
+        public int size() { return size; }
+
+        public AssignmentSnapshot build() {
+            built = true;
+            return new AssignmentSnapshot(this);
+        }
+
+        private void grow() {
+            int capacity = size * 2;
+            assignmentIds = Arrays.copyOf(assignmentIds, capacity);
+            taskIds = Arrays.copyOf(taskIds, capacity);
+            resourceIds = Arrays.copyOf(resourceIds, capacity);
+            plannedCosts = Arrays.copyOf(plannedCosts, capacity);
+            actualCosts = Arrays.copyOf(actualCosts, capacity);
+            remainingCosts = Arrays.copyOf(remainingCosts, capacity);
+            plannedQuantities = Arrays.copyOf(plannedQuantities, capacity);
+            actualQuantities = Arrays.copyOf(actualQuantities, capacity);
+            remainingQuantities = Arrays.copyOf(remainingQuantities, capacity);
+        }
+    }
+}
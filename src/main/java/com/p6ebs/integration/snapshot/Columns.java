@@ -0,0 +1,57 @@
+package com.p6ebs.integration.snapshot;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Conversions between model values and their column encodings. IDs use 0 for
+ * null, as the DAOs already map NULL keys to 0; doubles use NaN.
+ */
+final class Columns {
+    /** Epoch day stored for a null date */
+    static final int NO_DAY = Integer.MIN_VALUE;
+    /** Epoch milliseconds stored for a null timestamp */
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    private Columns() {}
+
+    /**
+     * Local calendar day of a date, counted from 1970-01-01
+     */
+    static int toEpochDay(Date date) {
+        if (date == null) {
+            return NO_DAY;
+        }
+        if (date instanceof java.sql.Date) {
+            return (int) ((java.sql.Date) date).toLocalDate().toEpochDay();
+        }
+        return (int) Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+    }
+
+    static java.sql.Date toDate(int epochDay) {
+        return epochDay == NO_DAY ? null : java.sql.Date.valueOf(LocalDate.ofEpochDay(epochDay));
+    }
+
+    static long toMillis(Date date) {
+        return date == null ? NO_TIME : date.getTime();
+    }
+
+    static Timestamp toTimestamp(long millis) {
+        return millis == NO_TIME ? null : new Timestamp(millis);
+    }
+
+    static long toLong(Long value) {
+        return value == null ? 0L : value;
+    }
+
+    static double toDouble(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    static Double toBoxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -0,0 +1,74 @@
+package com.p6ebs.integration.snapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column of repeating values, such as status codes, stored as a code per row
+ * and one copy of each distinct value. Codes are bytes until the column has
+ * more than {@value #MAX_BYTE_CODE} distinct values. Null is code -1.
+ */
+final class DictionaryColumn {
+    private static final int MAX_BYTE_CODE = 127;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+    private byte[] byteRows = new byte[64];
+    private int[] intRows;
+    private int size;
+
+    void add(String value) {
+        int code = value == null ? -1 : codes.computeIfAbsent(value, key -> {
+            values.add(key);
+            return values.size() - 1;
+        });
+        if (intRows == null && code > MAX_BYTE_CODE) {
+            intRows = new int[Math.max(64, byteRows.length)];
+            for (int i = 0; i < size; i++) {
+                intRows[i] = byteRows[i];
+            }
+            byteRows = null;
+        }
+        if (intRows != null) {
+            if (size == intRows.length) {
+                intRows = Arrays.copyOf(intRows, size * 2);
+            }
+            intRows[size++] = code;
+        } else {
+            if (size == byteRows.length) {
+                byteRows = Arrays.copyOf(byteRows, size * 2);
+            }
+            byteRows[size++] = (byte) code;
+        }
+    }
+
+    String get(int row) {
+        int code = getCode(row);
+        return code < 0 ? null : values.get(code);
+    }
+
+    int getCode(int row) {
+        return intRows != null ? intRows[row] : byteRows[row];
+    }
+
+    int getCardinality() {
+        return values.size();
+    }
+
+    void trim() {
+        if (intRows != null) {
+            intRows = Arrays.copyOf(intRows, size);
+        } else {
+            byteRows = Arrays.copyOf(byteRows, size);
+        }
+    }
+
+    long heapBytes() {
+        long rows = intRows != null ? 16L + 4L * intRows.length : 16L + byteRows.length;
+        // Roughly one map entry and one short string per distinct value
+        return rows + 96L * values.size();
+    }
+}
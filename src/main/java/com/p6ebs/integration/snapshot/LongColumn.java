@@ -0,0 +1,46 @@
+package com.p6ebs.integration.snapshot;
+
+import java.util.Arrays;
+
+/**
+ * Column of longs that often all hold one default value, such as unset
+ * timestamps or the EBS IDs of unsynced rows. No array is allocated until a
+ * row holds something else.
+ */
+final class LongColumn {
+    private final long defaultValue;
+    private long[] values;
+    private int size;
+
+    LongColumn(long defaultValue) {
+        this.defaultValue = defaultValue;
+    }
+
+    void add(long value) {
+        if (values == null) {
+            if (value == defaultValue) {
+                size++;
+                return;
+            }
+            values = new long[Math.max(64, size * 2)];
+            Arrays.fill(values, 0, size, defaultValue);
+        } else if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    long get(int row) {
+        return values == null ? defaultValue : values[row];
+    }
+
+    void trim() {
+        if (values != null) {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    long heapBytes() {
+        return values == null ? 0L : 16L + 8L * values.length;
+    }
+}
@@ -0,0 +1,95 @@
+package com.p6ebs.integration.snapshot;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+
+/**
+ * Writes snapshots as CSV (RFC 4180), reading straight from the columns so an
+ * export never materializes model objects
+ */
+public final class SnapshotCsv {
+    private static final String[] TASK_HEADER = {"task_id", "project_id", "code", "name", "parent_task_id",
+            "start_date", "end_date", "duration", "percent_complete", "status", "source", "ebs_task_id", "sync_status"};
+    private static final String[] ASSIGNMENT_HEADER = {"assignment_id", "task_id", "task_name", "resource_id",
+            "resource_name", "planned_cost", "actual_cost", "remaining_cost", "planned_qty", "actual_qty", "remaining_qty"};
+
+    private SnapshotCsv() {}
+
+    public static void writeTasks(TaskSnapshot tasks, Writer out) throws IOException {
+        writeRow(out, TASK_HEADER);
+        String[] fields = new String[TASK_HEADER.length];
+        for (int i = 0; i < tasks.size(); i++) {
+            fields[0] = Long.toString(tasks.getId(i));
+            fields[1] = id(tasks.getProjectId(i));
+            fields[2] = tasks.getCode(i);
+            fields[3] = tasks.getName(i);
+            fields[4] = id(tasks.getParentTaskId(i));
+            fields[5] = day(tasks.getStartDay(i));
+            fields[6] = day(tasks.getEndDay(i));
+            fields[7] = number(tasks.getDuration(i));
+            fields[8] = number(tasks.getPercentComplete(i));
+            fields[9] = tasks.getStatus(i);
+            fields[10] = tasks.getSource(i);
+            fields[11] = id(tasks.getEbsId(i));
+            fields[12] = tasks.getSyncStatus(i);
+            writeRow(out, fields);
+        }
+        out.flush();
+    }
+
+    public static void writeAssignments(AssignmentSnapshot assignments, Writer out) throws IOException {
+        writeRow(out, ASSIGNMENT_HEADER);
+        String[] fields = new String[ASSIGNMENT_HEADER.length];
+        for (int i = 0; i < assignments.size(); i++) {
+            fields[0] = Long.toString(assignments.getAssignmentId(i));
+            fields[1] = id(assignments.getTaskId(i));
+            fields[2] = assignments.getTaskName(i);
+            fields[3] = id(assignments.getResourceId(i));
+            fields[4] = assignments.getResourceName(i);
+            fields[5] = number(assignments.getPlannedCost(i));
+            fields[6] = number(assignments.getActualCost(i));
+            fields[7] = number(assignments.getRemainingCost(i));
+            fields[8] = number(assignments.getPlannedQuantity(i));
+            fields[9] = number(assignments.getActualQuantity(i));
+            fields[10] = number(assignments.getRemainingQuantity(i));
+            writeRow(out, fields);
+        }
+        out.flush();
+    }
+
+    private static void writeRow(Writer out, String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            String field = fields[i];
+            if (field == null) {
+                continue;
+            }
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(field.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(field);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private static String id(long id) {
+        return id == 0 ? null : Long.toString(id);
+    }
+
+    private static String day(int epochDay) {
+        return epochDay == Columns.NO_DAY ? null : LocalDate.ofEpochDay(epochDay).toString();
+    }
+
+    private static String number(double value) {
+        if (Double.isNaN(value)) {
+            return null;
+        }
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+    }
+}
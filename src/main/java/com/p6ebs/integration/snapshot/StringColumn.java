@@ -0,0 +1,67 @@
+package com.p6ebs.integration.snapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Free-text column stored as UTF-8 bytes in one shared array. Row i spans
+ * from the end of row i - 1 to {@code ends[i]}; a negative end marks a null.
+ * A column holding only nulls allocates nothing.
+ */
+final class StringColumn {
+    private byte[] data;
+    private int[] ends;
+    private int length;
+    private int size;
+
+    void add(String value) {
+        if (ends == null) {
+            if (value == null) {
+                size++;
+                return;
+            }
+            ends = new int[Math.max(64, size * 2)];
+            Arrays.fill(ends, 0, size, -1);
+            data = new byte[1024];
+        } else if (size == ends.length) {
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        if (value == null) {
+            ends[size++] = -length - 1;
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (length + bytes.length > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + bytes.length));
+        }
+        System.arraycopy(bytes, 0, data, length, bytes.length);
+        length += bytes.length;
+        ends[size++] = length;
+    }
+
+    String get(int row) {
+        if (ends == null || ends[row] < 0) {
+            return null;
+        }
+        int start = row == 0 ? 0 : offset(ends[row - 1]);
+        return new String(data, start, ends[row] - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Release the spare capacity left by growing
+     */
+    void trim() {
+        if (ends != null) {
+            data = Arrays.copyOf(data, length);
+            ends = Arrays.copyOf(ends, size);
+        }
+    }
+
+    long heapBytes() {
+        return ends == null ? 0L : 16L + data.length + 16L + 4L * ends.length;
+    }
+
+    private static int offset(int end) {
+        return end < 0 ? -end - 1 : end;
+    }
+}
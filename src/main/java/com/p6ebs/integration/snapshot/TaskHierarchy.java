@@ -0,0 +1,354 @@
+package com.p6ebs.integration.snapshot;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Parent/child index over the rows of a {@link TaskSnapshot}. Children are
+ * stored as one flat array grouped by parent, and every row is numbered in
+ * pre-order with the position of the last row of its subtree, so each subtree
+ * is a contiguous range of the pre-order. That makes "is this task under
+ * that one" a range check and lets subtree totals be read from prefix sums.
+ * <p>
+ * Tasks whose parent is not in the snapshot become roots. A parent cycle is
+ * broken by treating the task where the cycle was detected as a root.
+ */
+public final class TaskHierarchy {
+    private final TaskSnapshot tasks;
+    private final LongIntMap rowsById;
+    private final int[] parents;
+    private final int[] childStart;
+    private final int[] children;
+    private final int[] roots;
+    private final int[] enter;
+    private final int[] exit;
+    private final int[] preorder;
+    private final int[] depths;
+    private final int maxDepth;
+    private final int brokenCycles;
+    private double[] leafDurationSums;
+    private double[] leafWeightedPercentSums;
+    private double[] leafPercentSums;
+    private int[] leafCounts;
+
+    private TaskHierarchy(TaskSnapshot tasks) {
+        this.tasks = tasks;
+        int size = tasks.size();
+
+        rowsById = new LongIntMap(size);
+        for (int row = 0; row < size; row++) {
+            rowsById.put(tasks.getId(row), row);
+        }
+
+        // getLong() reads a NULL parent as 0, which is never a task ID
+        parents = new int[size];
+        for (int row = 0; row < size; row++) {
+            long parentId = tasks.getParentTaskId(row);
+            int parent = parentId == 0 ? -1 : rowsById.get(parentId);
+            parents[row] = parent == row ? -1 : parent;
+        }
+        brokenCycles = breakCycles(parents);
+
+        // Group children by parent, keeping snapshot order within each group
+        childStart = new int[size + 1];
+        int rootCount = 0;
+        for (int row = 0; row < size; row++) {
+            if (parents[row] < 0) {
+                rootCount++;
+            } else {
+                childStart[parents[row] + 1]++;
+            }
+        }
+        for (int row = 0; row < size; row++) {
+            childStart[row + 1] += childStart[row];
+        }
+        children = new int[size - rootCount];
+        roots = new int[rootCount];
+        int[] fill = Arrays.copyOf(childStart, size);
+        int nextRoot = 0;
+        for (int row = 0; row < size; row++) {
+            if (parents[row] < 0) {
+                roots[nextRoot++] = row;
+            } else {
+                children[fill[parents[row]]++] = row;
+            }
+        }
+
+        // Iterative depth-first walk, so deep WBS trees cannot overflow the stack
+        enter = new int[size];
+        exit = new int[size];
+        preorder = new int[size];
+        depths = new int[size];
+        int[] stack = new int[Math.max(1, size)];
+        int top = 0;
+        for (int i = rootCount - 1; i >= 0; i--) {
+            stack[top++] = roots[i];
+        }
+        int position = 0;
+        int deepest = 0;
+        while (top > 0) {
+            int row = stack[--top];
+            enter[row] = position;
+            preorder[position++] = row;
+            int parent = parents[row];
+            depths[row] = parent < 0 ? 0 : depths[parent] + 1;
+            deepest = Math.max(deepest, depths[row]);
+            for (int c = childStart[row + 1] - 1; c >= childStart[row]; c--) {
+                stack[top++] = children[c];
+            }
+        }
+        maxDepth = deepest;
+
+        // Subtree sizes accumulate from the bottom of the pre-order upwards
+        int[] subtreeSizes = new int[size];
+        Arrays.fill(subtreeSizes, 1);
+        for (int p = size - 1; p >= 0; p--) {
+            int row = preorder[p];
+            if (parents[row] >= 0) {
+                subtreeSizes[parents[row]] += subtreeSizes[row];
+            }
+        }
+        for (int row = 0; row < size; row++) {
+            exit[row] = enter[row] + subtreeSizes[row] - 1;
+        }
+    }
+
+    /**
+     * Build the hierarchy of a snapshot's tasks in O(n)
+     */
+    public static TaskHierarchy of(TaskSnapshot tasks) {
+        return new TaskHierarchy(tasks);
+    }
+
+    public TaskSnapshot getTasks() { return tasks; }
+
+    public int size() { return preorder.length; }
+
+    /**
+     * Snapshot row of a task ID, or -1 if the task is not in the hierarchy
+     */
+    public int rowOf(long taskId) {
+        return rowsById.get(taskId);
+    }
+
+    public int getRootCount() { return roots.length; }
+
+    public int getRoot(int index) { return roots[index]; }
+
+    /**
+     * Parent row, or -1 for a top-level task
+     */
+    public int getParent(int row) { return parents[row]; }
+
+    public int getChildCount(int row) { return childStart[row + 1] - childStart[row]; }
+
+    public int getChild(int row, int index) { return children[childStart[row] + index]; }
+
+    public boolean isLeaf(int row) { return childStart[row + 1] == childStart[row]; }
+
+    /**
+     * Position of a child under its parent, or -1 if it is not a child of that row
+     */
+    public int indexOfChild(int row, int child) {
+        if (child < 0 || parents[child] != row) {
+            return -1;
+        }
+        for (int c = childStart[row]; c < childStart[row + 1]; c++) {
+            if (children[c] == child) {
+                return c - childStart[row];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Position of a top-level task among the roots, or -1
+     */
+    public int indexOfRoot(int row) {
+        if (row < 0 || parents[row] >= 0) {
+            return -1;
+        }
+        for (int i = 0; i < roots.length; i++) {
+            if (roots[i] == row) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Distance from the top of the tree; roots are at depth 0 */
+    public int getDepth(int row) { return depths[row]; }
+
+    public int getMaxDepth() { return maxDepth; }
+
+    /** Number of parent links dropped because they formed a cycle */
+    public int getBrokenCycles() { return brokenCycles; }
+
+    /**
+     * Number of tasks in a row's subtree, including the row itself
+     */
+    public int getSubtreeSize(int row) {
+        return exit[row] - enter[row] + 1;
+    }
+
+    /**
+     * Whether {@code row} is {@code ancestor} or lies anywhere beneath it, in O(1)
+     */
+    public boolean isInSubtree(int ancestor, int row) {
+        return enter[ancestor] <= enter[row] && enter[row] <= exit[ancestor];
+    }
+
+    /**
+     * Rows of a subtree in pre-order, starting with the row itself
+     */
+    public int[] subtreeRows(int row) {
+        return Arrays.copyOfRange(preorder, enter[row], exit[row] + 1);
+    }
+
+    /**
+     * Task IDs of a subtree in pre-order, starting with the row's own task
+     */
+    public long[] subtreeTaskIds(int row) {
+        long[] ids = new long[getSubtreeSize(row)];
+        for (int p = enter[row]; p <= exit[row]; p++) {
+            ids[p - enter[row]] = tasks.getId(preorder[p]);
+        }
+        return ids;
+    }
+
+    public void forEachInSubtree(int row, IntConsumer action) {
+        for (int p = enter[row]; p <= exit[row]; p++) {
+            action.accept(preorder[p]);
+        }
+    }
+
+    /**
+     * Sum a per-row value over a subtree, in O(subtree size)
+     */
+    public double sumSubtree(int row, IntToDoubleFunction value) {
+        double sum = 0;
+        for (int p = enter[row]; p <= exit[row]; p++) {
+            sum += value.applyAsDouble(preorder[p]);
+        }
+        return sum;
+    }
+
+    /**
+     * Add each row's value into all of its ancestors, in O(n), so that
+     * {@code values[row]} becomes the total of the row's subtree
+     *
+     * @param values one value per snapshot row
+     */
+    public void rollUp(double[] values) {
+        for (int p = preorder.length - 1; p >= 0; p--) {
+            int row = preorder[p];
+            if (parents[row] >= 0) {
+                values[parents[row]] += values[row];
+            }
+        }
+    }
+
+    public void rollUp(int[] values) {
+        for (int p = preorder.length - 1; p >= 0; p--) {
+            int row = preorder[p];
+            if (parents[row] >= 0) {
+                values[parents[row]] += values[row];
+            }
+        }
+    }
+
+    /**
+     * Percent complete of a subtree: the duration-weighted average over its
+     * leaf tasks, or the plain average when none of them has a duration.
+     * Read from prefix sums in O(1) once they have been built.
+     */
+    public double getRolledUpPercentComplete(int row) {
+        ensureLeafSums();
+        int from = enter[row];
+        int to = exit[row] + 1;
+        double duration = leafDurationSums[to] - leafDurationSums[from];
+        if (duration > 0) {
+            return (leafWeightedPercentSums[to] - leafWeightedPercentSums[from]) / duration;
+        }
+        int leaves = leafCounts[to] - leafCounts[from];
+        return leaves == 0 ? 0 : (leafPercentSums[to] - leafPercentSums[from]) / leaves;
+    }
+
+    /**
+     * Total duration of the leaf tasks of a subtree, in O(1)
+     */
+    public double getRolledUpDuration(int row) {
+        ensureLeafSums();
+        return leafDurationSums[exit[row] + 1] - leafDurationSums[enter[row]];
+    }
+
+    /**
+     * Approximate heap footprint of the index, excluding the snapshot
+     */
+    public long estimateHeapBytes() {
+        long arrays = 9 * 16L + preorder.length * 4L * 8 + childStart.length * 4L;
+        if (leafDurationSums != null) {
+            arrays += 4 * 16L + (preorder.length + 1) * (8L * 3 + 4L);
+        }
+        return arrays + rowsById.heapBytes();
+    }
+
+    @Override
+    public String toString() {
+        return "TaskHierarchy[" + size() + " tasks, " + roots.length + " roots, depth " + maxDepth + "]";
+    }
+
+    private synchronized void ensureLeafSums() {
+        if (leafDurationSums != null) {
+            return;
+        }
+        int size = preorder.length;
+        double[] durations = new double[size + 1];
+        double[] weighted = new double[size + 1];
+        double[] percents = new double[size + 1];
+        int[] counts = new int[size + 1];
+        for (int p = 0; p < size; p++) {
+            int row = preorder[p];
+            boolean leaf = isLeaf(row);
+            double duration = leaf ? tasks.getDuration(row) : 0;
+            double percent = leaf ? tasks.getPercentComplete(row) : 0;
+            durations[p + 1] = durations[p] + duration;
+            weighted[p + 1] = weighted[p] + duration * percent;
+            percents[p + 1] = percents[p] + percent;
+            counts[p + 1] = counts[p] + (leaf ? 1 : 0);
+        }
+        leafWeightedPercentSums = weighted;
+        leafPercentSums = percents;
+        leafCounts = counts;
+        leafDurationSums = durations;
+    }
+
+    /**
+     * Cut one parent link in each cycle, walking each unvisited chain upwards
+     *
+     * @return number of links cut
+     */
+    private static int breakCycles(int[] parents) {
+        byte[] state = new byte[parents.length]; // 0 unseen, 1 on the current chain, 2 done
+        int[] chain = new int[Math.max(1, parents.length)];
+        int cut = 0;
+        for (int start = 0; start < parents.length; start++) {
+            int length = 0;
+            int row = start;
+            while (row >= 0 && state[row] == 0) {
+                state[row] = 1;
+                chain[length++] = row;
+                row = parents[row];
+            }
+            if (row >= 0 && state[row] == 1) {
+                parents[row] = -1;
+                cut++;
+            }
+            for (int i = 0; i < length; i++) {
+                state[chain[i]] = 2;
+            }
+        }
+        return cut;
+    }
+}
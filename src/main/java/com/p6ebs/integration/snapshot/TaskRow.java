@@ -0,0 +1,66 @@
+package com.p6ebs.integration.snapshot;
+
+import com.p6ebs.integration.model.Task;
+
+import java.util.Date;
+
+/**
+ * View of one row of a {@link TaskSnapshot}. It holds only the snapshot and
+ * the row index; every getter reads from the snapshot's columns.
+ */
+public final class TaskRow {
+    private final TaskSnapshot snapshot;
+    private final int index;
+
+    TaskRow(TaskSnapshot snapshot, int index) {
+        this.snapshot = snapshot;
+        this.index = index;
+    }
+
+    public int getIndex() { return index; }
+
+    public long getId() { return snapshot.getId(index); }
+
+    public long getProjectId() { return snapshot.getProjectId(index); }
+
+    public long getParentTaskId() { return snapshot.getParentTaskId(index); }
+
+    public long getEbsId() { return snapshot.getEbsId(index); }
+
+    public String getCode() { return snapshot.getCode(index); }
+
+    public String getName() { return snapshot.getName(index); }
+
+    public int getStartDay() { return snapshot.getStartDay(index); }
+
+    public boolean hasStartDate() { return snapshot.hasStartDate(index); }
+
+    public Date getStartDate() { return Columns.toDate(snapshot.getStartDay(index)); }
+
+    public int getEndDay() { return snapshot.getEndDay(index); }
+
+    public boolean hasEndDate() { return snapshot.hasEndDate(index); }
+
+    public Date getEndDate() { return Columns.toDate(snapshot.getEndDay(index)); }
+
+    public double getDuration() { return snapshot.getDuration(index); }
+
+    public double getPercentComplete() { return snapshot.getPercentComplete(index); }
+
+    public String getStatus() { return snapshot.getStatus(index); }
+
+    public String getSource() { return snapshot.getSource(index); }
+
+    public String getSyncStatus() { return snapshot.getSyncStatus(index); }
+
+    public String getErrorMessage() { return snapshot.getErrorMessage(index); }
+
+    public boolean isDeleted() { return snapshot.isDeleted(index); }
+
+    public Task toTask() { return snapshot.toTask(index); }
+
+    @Override
+    public String toString() {
+        return getCode() + " - " + getName();
+    }
+}
@@ -0,0 +1,271 @@
+package com.p6ebs.integration.snapshot;
+
+import com.p6ebs.integration.model.Task;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * Read-only, column-oriented copy of a set of tasks. IDs, dates (as epoch
+ * days) and numbers live in primitive arrays, status-like codes are
+ * dictionary-encoded and text is packed as UTF-8, so a snapshot takes a
+ * fraction of the heap of the equivalent {@code List<Task>}. Rows are read
+ * through {@link TaskRow} views or materialized with {@link #toTask}.
+ */
+public final class TaskSnapshot {
+    private final int size;
+    private final long[] ids;
+    private final LongColumn projectIds;
+    private final LongColumn parentTaskIds;
+    private final LongColumn ebsIds;
+    private final int[] startDays;
+    private final int[] endDays;
+    private final double[] durations;
+    private final double[] percentsComplete;
+    private final LongColumn lastSyncMillis;
+    private final LongColumn updateMillis;
+    private final LongColumn deleteMillis;
+    private final StringColumn codes;
+    private final StringColumn names;
+    private final StringColumn errorMessages;
+    private final DictionaryColumn statuses;
+    private final DictionaryColumn sources;
+    private final DictionaryColumn syncStatuses;
+
+    private TaskSnapshot(Builder builder) {
+        size = builder.size;
+        ids = Arrays.copyOf(builder.ids, size);
+        projectIds = builder.projectIds;
+        parentTaskIds = builder.parentTaskIds;
+        ebsIds = builder.ebsIds;
+        startDays = Arrays.copyOf(builder.startDays, size);
+        endDays = Arrays.copyOf(builder.endDays, size);
+        durations = Arrays.copyOf(builder.durations, size);
+        percentsComplete = Arrays.copyOf(builder.percentsComplete, size);
+        lastSyncMillis = builder.lastSyncMillis;
+        updateMillis = builder.updateMillis;
+        deleteMillis = builder.deleteMillis;
+        codes = builder.codes;
+        names = builder.names;
+        errorMessages = builder.errorMessages;
+        statuses = builder.statuses;
+        sources = builder.sources;
+        syncStatuses = builder.syncStatuses;
+        projectIds.trim();
+        parentTaskIds.trim();
+        ebsIds.trim();
+        lastSyncMillis.trim();
+        updateMillis.trim();
+        deleteMillis.trim();
+        codes.trim();
+        names.trim();
+        errorMessages.trim();
+        statuses.trim();
+        sources.trim();
+        syncStatuses.trim();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Snapshot of a finite set of tasks, for callers that already hold them in a list
+     */
+    public static TaskSnapshot of(Iterable<Task> tasks) {
+        Builder builder = new Builder();
+        tasks.forEach(builder);
+        return builder.build();
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * View of one row. Views are cheap and read straight from the columns.
+     */
+    public TaskRow row(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Row " + index + " of " + size);
+        }
+        return new TaskRow(this, index);
+    }
+
+    /**
+     * All rows as a list of views, created as they are read
+     */
+    public List<TaskRow> rows() {
+        return new RowList();
+    }
+
+    public long getId(int row) { return ids[row]; }
+
+    public long getProjectId(int row) { return projectIds.get(row); }
+
+    public long getParentTaskId(int row) { return parentTaskIds.get(row); }
+
+    public long getEbsId(int row) { return ebsIds.get(row); }
+
+    public String getCode(int row) { return codes.get(row); }
+
+    public String getName(int row) { return names.get(row); }
+
+    /** Start date as days since 1970-01-01, see {@link #hasStartDate} */
+    public int getStartDay(int row) { return startDays[row]; }
+
+    public boolean hasStartDate(int row) { return startDays[row] != Columns.NO_DAY; }
+
+    public int getEndDay(int row) { return endDays[row]; }
+
+    public boolean hasEndDate(int row) { return endDays[row] != Columns.NO_DAY; }
+
+    /** Duration in hours, or NaN if unknown */
+    public double getDuration(int row) { return durations[row]; }
+
+    /** Percent complete, or NaN if unknown */
+    public double getPercentComplete(int row) { return percentsComplete[row]; }
+
+    public String getStatus(int row) { return statuses.get(row); }
+
+    /**
+     * Dictionary code of a row's status; rows with equal codes have equal statuses
+     */
+    public int getStatusCode(int row) { return statuses.getCode(row); }
+
+    public String getSource(int row) { return sources.get(row); }
+
+    public String getSyncStatus(int row) { return syncStatuses.get(row); }
+
+    public String getErrorMessage(int row) { return errorMessages.get(row); }
+
+    public boolean isDeleted(int row) { return deleteMillis.get(row) != Columns.NO_TIME; }
+
+    /**
+     * Copy a row back into a mutable model object
+     */
+    public Task toTask(int row) {
+        Task task = new Task();
+        task.setId(ids[row]);
+        task.setCode(codes.get(row));
+        task.setName(names.get(row));
+        task.setParentTaskId(parentTaskIds.get(row));
+        task.setStartDate(Columns.toDate(startDays[row]));
+        task.setEndDate(Columns.toDate(endDays[row]));
+        task.setDuration(Columns.toBoxed(durations[row]));
+        task.setPercentComplete(Columns.toBoxed(percentsComplete[row]));
+        task.setStatus(statuses.get(row));
+        task.setProjectId(projectIds.get(row));
+        task.setSource(sources.get(row));
+        task.setEbsId(ebsIds.get(row));
+        task.setSyncStatus(syncStatuses.get(row));
+        task.setErrorMessage(errorMessages.get(row));
+        task.setLastSyncDate(Columns.toTimestamp(lastSyncMillis.get(row)));
+        task.setUpdateDate(Columns.toTimestamp(updateMillis.get(row)));
+        task.setDeleteDate(Columns.toTimestamp(deleteMillis.get(row)));
+        return task;
+    }
+
+    /**
+     * Approximate heap footprint of the snapshot's arrays
+     */
+    public long estimateHeapBytes() {
+        long arrays = 5 * 16L + size * (8L + 4L * 2 + 8L * 2);
+        return arrays + projectIds.heapBytes() + parentTaskIds.heapBytes() + ebsIds.heapBytes()
+                + lastSyncMillis.heapBytes() + updateMillis.heapBytes() + deleteMillis.heapBytes() + codes.heapBytes() + names.heapBytes() + errorMessages.heapBytes()
+                + statuses.heapBytes() + sources.heapBytes() + syncStatuses.heapBytes();
+    }
+
+    @Override
+    public String toString() {
+        return "TaskSnapshot[" + size + " tasks, ~" + estimateHeapBytes() / 1024 + " KB]";
+    }
+
+    private class RowList extends AbstractList<TaskRow> implements RandomAccess {
+        @Override
+        public TaskRow get(int index) { return row(index); }
+
+        @Override
+        public int size() { return size; }
+    }
+
+    /**
+     * Accumulates tasks into growing columns. A builder is a {@code Consumer<Task>},
+     * so the DAO stream methods can fill it without building a list first.
+     */
+    public static final class Builder implements Consumer<Task> {
+        private int size;
+        private long[] ids = new long[64];
+        private final LongColumn projectIds = new LongColumn(0L);
+        private final LongColumn parentTaskIds = new LongColumn(0L);
+        private final LongColumn ebsIds = new LongColumn(0L);
+        private int[] startDays = new int[64];
+        private int[] endDays = new int[64];
+        private double[] durations = new double[64];
+        private double[] percentsComplete = new double[64];
+        private final LongColumn lastSyncMillis = new LongColumn(Columns.NO_TIME);
+        private final LongColumn updateMillis = new LongColumn(Columns.NO_TIME);
+        private final LongColumn deleteMillis = new LongColumn(Columns.NO_TIME);
+        private final StringColumn codes = new StringColumn();
+        private final StringColumn names = new StringColumn();
+        private final StringColumn errorMessages = new StringColumn();
+        private final DictionaryColumn statuses = new DictionaryColumn();
+        private final DictionaryColumn sources = new DictionaryColumn();
+        private final DictionaryColumn syncStatuses = new DictionaryColumn();
+        private boolean built;
+
+        private Builder() {}
+
+        @Override
+        public void accept(Task task) {
+            add(task);
+        }
+
+        public Builder add(Task task) {
+            if (built) {
+                throw new IllegalStateException("Snapshot already built");
+            }
+            if (size == ids.length) {
+                grow();
+            }
+            ids[size] = Columns.toLong(task.getId());
+            projectIds.add(Columns.toLong(task.getProjectId()));
+            parentTaskIds.add(Columns.toLong(task.getParentTaskId()));
+            ebsIds.add(Columns.toLong(task.getEbsId()));
+            startDays[size] = Columns.toEpochDay(task.getStartDate());
+            endDays[size] = Columns.toEpochDay(task.getEndDate());
+            durations[size] = Columns.toDouble(task.getDuration());
+            percentsComplete[size] = Columns.toDouble(task.getPercentComplete());
+            lastSyncMillis.add(Columns.toMillis(task.getLastSyncDate()));
+            updateMillis.add(Columns.toMillis(task.getUpdateDate()));
+            deleteMillis.add(Columns.toMillis(task.getDeleteDate()));
+            codes.add(task.getCode());
+            names.add(task.getName());
+            errorMessages.add(task.getErrorMessage());
+            statuses.add(task.getStatus());
+            sources.add(task.getSource());
+            syncStatuses.add(task.getSyncStatus());
+            size++;
+            return this;
+        }
+
+        public int size() { return size; }
+
+        public TaskSnapshot build() {
+            built = true;
+            return new TaskSnapshot(this);
+        }
+
+        private void grow() {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            startDays = Arrays.copyOf(startDays, capacity);
+            endDays = Arrays.copyOf(endDays, capacity);
+            durations = Arrays.copyOf(durations, capacity);
+            percentsComplete = Arrays.copyOf(percentsComplete, capacity);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.p6ebs.integration.standin;
+
+import com.p6ebs.integration.util.ConfigManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Generates a synthetic P6 portfolio, and the part of it that has already been
+ * synced to EBS, directly in the stand-in database with set-based inserts, so
+ * portfolios of millions of tasks are generated in seconds.
+ *
+ * <p>Every project has the same number of tasks, arranged as a tree with ten
+ * children per parent and a finish-to-start chain of predecessors. Each task
+ * has one resource assignment. Projects, tasks and resources up to the synced
+ * fraction also exist in EBS and the staging tables; one in ten of their EBS
+ * rows differs from P6 so that diffs and incremental syncs have work to do.
+ */
+public class PortfolioGenerator {
+    private final int projects;
+    private final int tasksPerProject;
+    private final int resources;
+    private double syncedFraction = 0.5;
+    private int logEntries;
+
+    public PortfolioGenerator(int projects, int tasksPerProject, int resources) {
+        if (projects < 1 || tasksPerProject < 1 || resources < 1) {
+            throw new IllegalArgumentException("Portfolio sizes must be positive");
+        }
+        this.projects = projects;
+        this.tasksPerProject = tasksPerProject;
+        this.resources = resources;
+    }
+
+    /**
+     * Create a generator from the standin.* application properties
+     */
+    public static PortfolioGenerator fromConfig() {
+        PortfolioGenerator generator = new PortfolioGenerator(
+                ConfigManager.getIntProperty("standin.projects", 50),
+                ConfigManager.getIntProperty("standin.tasks.per.project", 200),
+                ConfigManager.getIntProperty("standin.resources", 100));
+        generator.setSyncedFraction(Double.parseDouble(
+                ConfigManager.getProperty("standin.synced.fraction", "0.5").trim()));
+        return generator;
+    }
+
+    public int getProjects() { return projects; }
+
+    public int getTasksPerProject() { return tasksPerProject; }
+
+    public long getTaskCount() { return (long) projects * tasksPerProject; }
+
+    public int getResources() { return resources; }
+
+    public double getSyncedFraction() { return syncedFraction; }
+
+    /** Fraction of projects, with their tasks, and of resources already present in EBS */
+    public void setSyncedFraction(double syncedFraction) {
+        this.syncedFraction = Math.max(0.0, Math.min(1.0, syncedFraction));
+    }
+
+    public int getLogEntries() { return logEntries; }
+
+    /** Number of historical integration log entries to generate */
+    public void setLogEntries(int logEntries) {
+        this.logEntries = Math.max(0, logEntries);
+    }
+
+    /**
+     * Fill the empty stand-in schemas
+     */
+    void generate(Connection conn) throws SQLException {
+        long tasks = getTaskCount();
+        int syncedProjects = (int) Math.round(projects * syncedFraction);
+        int syncedResources = (int) Math.round(resources * syncedFraction);
+        int organizations = Math.max(1, resources / 10);
+        // Position of a task within its project; tasks are spread round-robin over projects
+        String index = "((X - 1) / " + projects + ")";
+        String project = "(MOD(X - 1, " + projects + ") + 1)";
+
+        try (Statement stmt = conn.createStatement()) {
+            // P6
+            stmt.execute("INSERT INTO p6.project SELECT X, DATEADD('DAY', MOD(X, 365), DATE '2024-01-01'), " +
+                    "DATEADD('DAY', MOD(X, 365) + 400, DATE '2024-01-01'), 'Active', " +
+                    "DATEADD('MINUTE', X, TIMESTAMP '2024-01-01 00:00:00'), NULL FROM SYSTEM_RANGE(1, " + projects + ")");
+            stmt.execute("INSERT INTO p6.projwbs SELECT X, X, 'PRJ-' || LPAD(X, 6, '0'), 'Y' " +
+                    "FROM SYSTEM_RANGE(1, " + projects + ")");
+            stmt.execute("INSERT INTO p6.task SELECT X, " + project + ", 'A' || LPAD(" + index + " + 1, 6, '0'), " +
+                    "'Task ' || X, CASE WHEN " + index + " > 0 THEN ((" + index + " - 1) / 10) * " + projects + " + " + project + " END, " +
+                    "'TT_Task', DATEADD('DAY', MOD(X, 365), DATE '2024-01-01'), " +
+                    "DATEADD('DAY', MOD(X, 365) + MOD(X, 60) + 1, DATE '2024-01-01'), (MOD(X, 60) + 1) * 8, MOD(X, 101), " +
+                    "CASE MOD(X, 3) WHEN 0 THEN 'TK_NotStart' WHEN 1 THEN 'TK_Active' ELSE 'TK_Complete' END, " +
+                    "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00'), NULL FROM SYSTEM_RANGE(1, " + tasks + ")");
+            stmt.execute("INSERT INTO p6.taskpred SELECT X, X, X - " + projects + ", " + project + ", 'PR_FS' " +
+                    "FROM SYSTEM_RANGE(" + (projects + 1) + ", " + tasks + ")");
+            stmt.execute("INSERT INTO p6.rsrc SELECT X, 'Resource ' || LPAD(X, 6, '0'), 'R' || X, " +
+                    "CASE MOD(X, 3) WHEN 0 THEN 'RT_Equip' WHEN 1 THEN 'RT_Labor' ELSE 'RT_Mat' END, " +
+                    "'r' || X || '@example.com', NULL, NULL FROM SYSTEM_RANGE(1, " + resources + ")");
+            stmt.execute("INSERT INTO p6.taskrsrc SELECT X, X, MOD(X - 1, " + resources + ") + 1, " +
+                    "MOD(X, 1000) * 10.5, MOD(X, 500) * 10.5, MOD(X, 500) * 10.5, MOD(X, 80), MOD(X, 40), MOD(X, 40), NULL " +
+                    "FROM SYSTEM_RANGE(1, " + tasks + ")");
+
+            // EBS copies of the synced part, keeping P6 IDs as EBS IDs
+            stmt.execute("INSERT INTO ebs.hr_all_organization_units SELECT X, 'Organization ' || X, 'DEPT', 'I', " +
+                    "DATE '2020-01-01', NULL FROM SYSTEM_RANGE(1, " + organizations + ")");
+            stmt.execute("INSERT INTO ebs.pa_projects_all SELECT p.proj_id, w.proj_short_name, 'Project ' || p.proj_id, " +
+                    "p.anticipated_start_date, CASE WHEN MOD(p.proj_id, 10) = 0 THEN DATEADD('DAY', 7, p.anticipated_finish_date) " +
+                    "ELSE p.anticipated_finish_date END, 'APPROVED', 'N', 'Y' " +
+                    "FROM p6.project p JOIN p6.projwbs w ON w.proj_id = p.proj_id WHERE p.proj_id <= " + syncedProjects);
+            stmt.execute("INSERT INTO ebs.pa_tasks SELECT t.task_id, t.proj_id, t.task_code, t.task_name, t.parent_task_id, " +
+                    "t.target_start_date, t.target_end_date, t.target_drtn_hr_cnt / 8, " +
+                    "CASE WHEN MOD(t.task_id, 10) = 0 THEN MOD(t.phys_complete_pct + 10, 101) ELSE t.phys_complete_pct END, " +
+                    StandInProcedures.EBS_TASK_STATUS + " FROM p6.task t WHERE t.proj_id <= " + syncedProjects);
+
+            // Staging rows recording the existing mappings
+            stmt.execute("INSERT INTO p6_ebs_integration.project_staging SELECT p.proj_id, w.proj_short_name, " +
+                    "p.anticipated_start_date, p.anticipated_finish_date, p.proj_id, 'SYNCED', NULL, " +
+                    "TIMESTAMP '2024-06-01 00:00:00' FROM p6.project p JOIN p6.projwbs w ON w.proj_id = p.proj_id " +
+                    "WHERE p.proj_id <= " + syncedProjects);
+            stmt.execute("INSERT INTO p6_ebs_integration.task_staging SELECT t.task_id, t.proj_id, t.task_code, " +
+                    "t.task_name, t.parent_task_id, t.target_start_date, t.target_end_date, t.target_drtn_hr_cnt / 8, " +
+                    "t.phys_complete_pct, t.task_id, 'SYNCED', NULL, TIMESTAMP '2024-06-01 00:00:00' " +
+                    "FROM p6.task t WHERE t.proj_id <= " + syncedProjects);
+            stmt.execute("INSERT INTO p6_ebs_integration.resource_staging SELECT r.rsrc_id, r.rsrc_name, " +
+                    "r.rsrc_short_name, r.rsrc_type, r.email_addr, MOD(r.rsrc_id - 1, " + organizations + ") + 1, " +
+                    "r.rsrc_id, 'SYNCED', NULL, TIMESTAMP '2024-06-01 00:00:00' " +
+                    "FROM p6.rsrc r WHERE r.rsrc_id <= " + syncedResources);
+            stmt.execute("INSERT INTO p6_ebs_integration.integration_log SELECT X, " +
+                    "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00'), " +
+                    "CASE MOD(X, 3) WHEN 0 THEN 'SYNC_PROJECT' WHEN 1 THEN 'SYNC_TASK' ELSE 'SYNC_RESOURCE' END, " +
+                    "CASE WHEN MOD(X, 50) = 0 THEN 'ERROR' ELSE 'SUCCESS' END, 'Generated entry ' || X, 'STANDIN' " +
+                    "FROM SYSTEM_RANGE(1, " + logEntries + ")");
+
+            // New EBS rows are numbered after everything generated
+            stmt.execute("ALTER SEQUENCE ebs.pa_projects_s RESTART WITH " + (projects + 1));
+            stmt.execute("ALTER SEQUENCE ebs.pa_tasks_s RESTART WITH " + (tasks + 1));
+            stmt.execute("ALTER SEQUENCE p6_ebs_integration.integration_log_s RESTART WITH " + (logEntries + 1));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return projects + " projects x " + tasksPerProject + " tasks, " + resources + " resources, "
+                + Math.round(syncedFraction * 100) + "% synced, " + logEntries + " log entries";
+    }
+}
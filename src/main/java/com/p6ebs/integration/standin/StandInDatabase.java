@@ -0,0 +1,294 @@
+package com.p6ebs.integration.standin;
+
+import com.p6ebs.integration.model.ConnectionSettings;
+import com.p6ebs.integration.util.ConfigManager;
+import com.p6ebs.integration.util.DatabaseManager;
+import com.p6ebs.integration.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Embedded H2 database, in Oracle compatibility mode, standing in for P6, EBS
+ * and the integration schema so the application can run offline.
+ *
+ * <p>The three live in one database named p6_ebs_integration, as schemas P6,
+ * EBS and P6_EBS_INTEGRATION, so that the sync procedures in
+ * {@link StandInProcedures} can read one side and write the other, and so that
+ * the three-part procedure names the DAOs call resolve. Each connection pool
+ * gets a URL whose default schema makes the DAOs' unqualified table names
+ * resolve as they do on the real servers.
+ */
+public class StandInDatabase {
+    private static final Logger logger = LoggerUtil.getLogger(StandInDatabase.class);
+
+    public static final String INTEGRATION_SCHEMA = "p6_ebs_integration";
+    // The procedures prepare their statements on every call, so keep more parsed queries per session
+    private static final String OPTIONS = ";MODE=Oracle;DEFAULT_NULL_ORDERING=HIGH;QUERY_CACHE_SIZE=64";
+    private static final String USERNAME = "sa";
+    private static final String PASSWORD = "";
+
+    private final String baseUrl;
+
+    private StandInDatabase(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * A database that lives as long as the JVM
+     */
+    public static StandInDatabase inMemory() {
+        return new StandInDatabase("jdbc:h2:mem:" + INTEGRATION_SCHEMA + ";DB_CLOSE_DELAY=-1");
+    }
+
+    /**
+     * A database kept in files under a directory, so a large portfolio is generated only once
+     */
+    public static StandInDatabase inDirectory(File directory) {
+        return new StandInDatabase("jdbc:h2:file:" + new File(directory, INTEGRATION_SCHEMA).getAbsolutePath());
+    }
+
+    /**
+     * The database configured by standin.data.dir, in memory when it is blank
+     */
+    public static StandInDatabase fromConfig() {
+        String directory = ConfigManager.getProperty("standin.data.dir", "").trim();
+        return directory.isEmpty() ? inMemory() : inDirectory(new File(directory));
+    }
+
+    /**
+     * Create the stand-in from configuration, generate the configured portfolio
+     * unless it is already there, and point DatabaseManager at it
+     */
+    public static StandInDatabase startFromConfig() throws SQLException {
+        StandInDatabase database = fromConfig();
+        database.createIfNeeded(PortfolioGenerator.fromConfig());
+        database.start();
+        return database;
+    }
+
+    /**
+     * Generate the portfolio unless the database already holds one generated with
+     * the same settings, replacing anything else it contains
+     *
+     * @return true if the portfolio was generated
+     */
+    public boolean createIfNeeded(PortfolioGenerator generator) throws SQLException {
+        try (Connection conn = connect()) {
+            String existing = getDescription(conn);
+            if (generator.toString().equals(existing)) {
+                logger.info("Using existing stand-in portfolio: {}", existing);
+                // Portfolios generated before the table and indexes existed lack them
+                try (Statement stmt = conn.createStatement()) {
+                    createTaskSyncProgress(stmt);
+                    createSyncDateIndexes(stmt);
+                }
+                return false;
+            }
+
+            long start = System.currentTimeMillis();
+            logger.info("Generating stand-in portfolio: {}", generator);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP ALL OBJECTS");
+            }
+            createSchemas(conn);
+            generator.generate(conn);
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO p6_ebs_integration.standin_info (description) VALUES (?)")) {
+                stmt.setString(1, generator.toString());
+                stmt.executeUpdate();
+            }
+            logger.info("Generated stand-in portfolio in {} ms", System.currentTimeMillis() - start);
+            return true;
+        }
+    }
+
+    /**
+     * Initialize DatabaseManager with connections to the stand-in
+     */
+    public void start() {
+        DatabaseManager.initialize(getConnectionSettings());
+    }
+
+    public void stop() {
+        DatabaseManager.shutdown();
+    }
+
+    /**
+     * Connection settings for the three pools, with validation adapted to H2
+     */
+    public ConnectionSettings getConnectionSettings() {
+        ConnectionSettings settings = new ConnectionSettings();
+        settings.setP6Url(getUrl("P6"));
+        settings.setP6Username(USERNAME);
+        settings.setP6Password(PASSWORD);
+        settings.setEbsUrl(getUrl("EBS"));
+        settings.setEbsUsername(USERNAME);
+        settings.setEbsPassword(PASSWORD);
+        settings.setIntegrationUrl(getUrl(INTEGRATION_SCHEMA.toUpperCase()));
+        settings.setIntegrationUsername(USERNAME);
+        settings.setIntegrationPassword(PASSWORD);
+        settings.setIntegrationSchema(INTEGRATION_SCHEMA);
+        return settings;
+    }
+
+    /**
+     * JDBC URL with the given default schema
+     */
+    public String getUrl(String schema) {
+        return baseUrl + OPTIONS + ";SCHEMA=" + schema;
+    }
+
+    /**
+     * Open a connection outside the pools, for setup and inspection
+     */
+    public Connection connect() throws SQLException {
+        return DriverManager.getConnection(getUrl("PUBLIC"), USERNAME, PASSWORD);
+    }
+
+    /**
+     * The generator settings of the current portfolio, or null if none has been generated
+     */
+    public String getDescription() throws SQLException {
+        try (Connection conn = connect()) {
+            return getDescription(conn);
+        }
+    }
+
+    private static String getDescription(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM information_schema.tables " +
+                "WHERE table_schema = 'P6_EBS_INTEGRATION' AND table_name = 'STANDIN_INFO'");
+             ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next() || rs.getInt(1) == 0) {
+                return null;
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT description FROM p6_ebs_integration.standin_info");
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private static void createSchemas(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE SCHEMA p6");
+            stmt.execute("CREATE TABLE p6.project (proj_id BIGINT PRIMARY KEY, anticipated_start_date DATE, " +
+                    "anticipated_finish_date DATE, status_code VARCHAR(20), update_date TIMESTAMP, delete_date TIMESTAMP)");
+            stmt.execute("CREATE INDEX p6.project_update ON p6.project (update_date)");
+            stmt.execute("CREATE TABLE p6.projwbs (wbs_id BIGINT PRIMARY KEY, proj_id BIGINT, " +
+                    "proj_short_name VARCHAR(40), proj_node_flag CHAR(1))");
+            stmt.execute("CREATE INDEX p6.projwbs_proj ON p6.projwbs (proj_id)");
+            stmt.execute("CREATE TABLE p6.task (task_id BIGINT PRIMARY KEY, proj_id BIGINT, task_code VARCHAR(40), " +
+                    "task_name VARCHAR(120), parent_task_id BIGINT, task_type VARCHAR(20), target_start_date DATE, " +
+                    "target_end_date DATE, target_drtn_hr_cnt NUMBER, phys_complete_pct NUMBER, " +
+                    "status_code VARCHAR(20), update_date TIMESTAMP, delete_date TIMESTAMP)");
+            stmt.execute("CREATE INDEX p6.task_proj_code ON p6.task (proj_id, task_code, task_id)");
+            stmt.execute("CREATE INDEX p6.task_update ON p6.task (update_date)");
+            stmt.execute("CREATE TABLE p6.taskpred (task_pred_id BIGINT PRIMARY KEY, task_id BIGINT, " +
+                    "pred_task_id BIGINT, proj_id BIGINT, pred_type VARCHAR(20))");
+            stmt.execute("CREATE INDEX p6.taskpred_proj ON p6.taskpred (proj_id)");
+            stmt.execute("CREATE TABLE p6.rsrc (rsrc_id BIGINT PRIMARY KEY, rsrc_name VARCHAR(100), " +
+                    "rsrc_short_name VARCHAR(40), rsrc_type VARCHAR(20), email_addr VARCHAR(120), " +
+                    "parent_rsrc_id BIGINT, delete_date TIMESTAMP)");
+            stmt.execute("CREATE TABLE p6.taskrsrc (taskrsrc_id BIGINT PRIMARY KEY, task_id BIGINT, rsrc_id BIGINT, " +
+                    "target_cost NUMBER, act_cost NUMBER, remain_cost NUMBER, target_qty NUMBER, act_qty NUMBER, " +
+                    "remain_qty NUMBER, delete_date TIMESTAMP)");
+            stmt.execute("CREATE INDEX p6.taskrsrc_task ON p6.taskrsrc (task_id)");
+
+            stmt.execute("CREATE SCHEMA ebs");
+            stmt.execute("CREATE TABLE ebs.pa_projects_all (project_id BIGINT PRIMARY KEY, name VARCHAR(40), " +
+                    "description VARCHAR(250), start_date DATE, completion_date DATE, project_status_code VARCHAR(30), " +
+                    "template_flag CHAR(1), enabled_flag CHAR(1))");
+            stmt.execute("CREATE TABLE ebs.pa_tasks (task_id BIGINT PRIMARY KEY, project_id BIGINT, " +
+                    "task_number VARCHAR(40), task_name VARCHAR(120), parent_task_id BIGINT, start_date DATE, " +
+                    "finish_date DATE, planned_duration NUMBER, actual_percent_complete NUMBER, " +
+                    "task_status_code VARCHAR(30))");
+            stmt.execute("CREATE INDEX ebs.pa_tasks_proj_number ON ebs.pa_tasks (project_id, task_number, task_id)");
+            stmt.execute("CREATE TABLE ebs.hr_all_organization_units (organization_id BIGINT PRIMARY KEY, " +
+                    "name VARCHAR(240), type VARCHAR(30), internal_external_flag VARCHAR(30), date_from DATE, date_to DATE)");
+            stmt.execute("CREATE SEQUENCE ebs.pa_projects_s");
+            stmt.execute("CREATE SEQUENCE ebs.pa_tasks_s");
+
+            stmt.execute("CREATE SCHEMA p6_ebs_integration");
+            stmt.execute("CREATE TABLE p6_ebs_integration.project_staging (p6_project_id BIGINT PRIMARY KEY, " +
+                    "p6_project_name VARCHAR(100), p6_start_date DATE, p6_finish_date DATE, ebs_project_id BIGINT, " +
+                    "sync_status VARCHAR(20), error_message VARCHAR(4000), last_sync_date TIMESTAMP)");
+            stmt.execute("CREATE TABLE p6_ebs_integration.task_staging (p6_task_id BIGINT PRIMARY KEY, " +
+                    "p6_project_id BIGINT, p6_task_code VARCHAR(40), p6_task_name VARCHAR(120), p6_parent_task_id BIGINT, " +
+                    "p6_start_date DATE, p6_finish_date DATE, p6_duration NUMBER, p6_percent_complete NUMBER, " +
+                    "ebs_task_id BIGINT, sync_status VARCHAR(20), error_message VARCHAR(4000), last_sync_date TIMESTAMP)");
+            stmt.execute("CREATE INDEX p6_ebs_integration.task_staging_proj " +
+                    "ON p6_ebs_integration.task_staging (p6_project_id)");
+            stmt.execute("CREATE TABLE p6_ebs_integration.resource_staging (p6_resource_id BIGINT PRIMARY KEY, " +
+                    "p6_resource_name VARCHAR(100), p6_resource_short_name VARCHAR(40), p6_resource_type VARCHAR(20), " +
+                    "p6_email VARCHAR(120), ebs_organization_id BIGINT, ebs_person_id BIGINT, sync_status VARCHAR(20), " +
+                    "error_message VARCHAR(4000), last_sync_date TIMESTAMP)");
+            stmt.execute("CREATE TABLE p6_ebs_integration.integration_log (log_id BIGINT PRIMARY KEY, " +
+                    "log_date TIMESTAMP, operation VARCHAR(100), status VARCHAR(20), message VARCHAR(4000), " +
+                    "user_id VARCHAR(100))");
+            stmt.execute("CREATE INDEX p6_ebs_integration.integration_log_date " +
+                    "ON p6_ebs_integration.integration_log (log_date, log_id)");
+            stmt.execute("CREATE SEQUENCE p6_ebs_integration.integration_log_s");
+            createTaskSyncProgress(stmt);
+            createSyncDateIndexes(stmt);
+            stmt.execute("CREATE TABLE p6_ebs_integration.standin_info (description VARCHAR(400))");
+
+            // Package names become schemas holding the procedures
+            String procedures = StandInProcedures.class.getName();
+            createProcedures(stmt, procedures, "project_sync",
+                    "sync_project", "syncProject",
+                    "sync_projects_p6_to_ebs", "syncProjectsP6ToEbs",
+                    "sync_projects_ebs_to_p6", "syncProjectsEbsToP6");
+            createProcedures(stmt, procedures, "task_sync",
+                    "sync_tasks_p6_to_ebs", "syncTasksP6ToEbs",
+                    "sync_task", "syncTask",
+                    "sync_task_dependencies", "syncTaskDependencies");
+            createProcedures(stmt, procedures, "resource_sync",
+                    "sync_resources", "syncResources",
+                    "sync_resource", "syncResource",
+                    "sync_resource_assignments", "syncResourceAssignments");
+        }
+    }
+
+    /**
+     * The indexes StatisticsDAO.getHighWaterMarks relies on to read each MAX(last_sync_date) cheaply
+     */
+    private static void createSyncDateIndexes(Statement stmt) throws SQLException {
+        for (String table : new String[] {"project_staging", "task_staging", "resource_staging"}) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS p6_ebs_integration." + table + "_sync_date " +
+                    "ON p6_ebs_integration." + table + " (last_sync_date)");
+        }
+    }
+
+    private static void createTaskSyncProgress(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS p6_ebs_integration.task_sync_progress (p6_project_id BIGINT, " +
+                "chunk_no INT, first_task_id BIGINT, last_task_id BIGINT, task_count INT, task_ids_hash BIGINT, " +
+                "sync_status VARCHAR(20), error_message VARCHAR(4000), last_sync_date TIMESTAMP, " +
+                "PRIMARY KEY (p6_project_id, chunk_no))");
+    }
+
+    /**
+     * Create a package schema and alias each procedure name to a method
+     *
+     * @param names pairs of procedure name and method name
+     */
+    private static void createProcedures(Statement stmt, String className, String packageName, String... names)
+            throws SQLException {
+        stmt.execute("CREATE SCHEMA " + packageName);
+        for (int i = 0; i < names.length; i += 2) {
+            stmt.execute("CREATE ALIAS " + packageName + "." + names[i]
+                    + " FOR \"" + className + "." + names[i + 1] + "\"");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return baseUrl;
+    }
+}
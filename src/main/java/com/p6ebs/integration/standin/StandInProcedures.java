@@ -0,0 +1,221 @@
+package com.p6ebs.integration.standin;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Java implementations of the project_sync, task_sync and resource_sync
+ * packages, registered in the stand-in database as H2 aliases. They move data
+ * between the P6 and EBS schemas through the staging tables and write to
+ * integration_log much as the PL/SQL packages do, so sync strategies can be
+ * load tested end to end without Oracle.
+ */
+public final class StandInProcedures {
+    private static final String SUCCESS = "SUCCESS";
+    private static final String ERROR = "ERROR";
+
+    /** P6 task status of the row aliased t, as an EBS task status code */
+    static final String EBS_TASK_STATUS = "CASE t.status_code WHEN 'TK_Complete' THEN 'COMPLETED' " +
+            "WHEN 'TK_Active' THEN 'ACTIVE' ELSE 'NOT_STARTED' END";
+
+    private StandInProcedures() {}
+
+    // project_sync
+
+    /**
+     * Copy one P6 project to EBS, creating the EBS project on its first sync
+     */
+    public static void syncProject(Connection conn, long projectId) throws SQLException {
+        long ebsProjectId = queryLong(conn, "SELECT ebs_project_id FROM p6_ebs_integration.project_staging " +
+                "WHERE p6_project_id = ?", projectId);
+        if (ebsProjectId == 0) {
+            ebsProjectId = queryLong(conn, "SELECT NEXT VALUE FOR ebs.pa_projects_s");
+        }
+
+        int found = update(conn, "MERGE INTO p6_ebs_integration.project_staging (p6_project_id, p6_project_name, " +
+                "p6_start_date, p6_finish_date, ebs_project_id, sync_status, error_message, last_sync_date) " +
+                "KEY (p6_project_id) SELECT p.proj_id, w.proj_short_name, p.anticipated_start_date, " +
+                "p.anticipated_finish_date, ?, 'SYNCED', NULL, CURRENT_TIMESTAMP " +
+                "FROM p6.project p JOIN p6.projwbs w ON w.proj_id = p.proj_id " +
+                "WHERE p.proj_id = ? AND w.proj_node_flag = 'Y'", ebsProjectId, projectId);
+        if (found == 0) {
+            log(conn, "SYNC_PROJECT", ERROR, "P6 project " + projectId + " not found");
+            return;
+        }
+
+        update(conn, "MERGE INTO ebs.pa_projects_all (project_id, name, description, start_date, completion_date, " +
+                "project_status_code, template_flag, enabled_flag) KEY (project_id) " +
+                "SELECT ebs_project_id, p6_project_name, 'Project ' || p6_project_id, p6_start_date, p6_finish_date, " +
+                "'APPROVED', 'N', 'Y' FROM p6_ebs_integration.project_staging WHERE p6_project_id = ?", projectId);
+        log(conn, "SYNC_PROJECT", SUCCESS, "Project " + projectId + " synced to EBS project " + ebsProjectId);
+    }
+
+    public static void syncProjectsP6ToEbs(Connection conn) throws SQLException {
+        int count = 0;
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT proj_id FROM p6.project " +
+                "WHERE delete_date IS NULL ORDER BY proj_id");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                syncProject(conn, rs.getLong(1));
+                count++;
+            }
+        }
+        log(conn, "SYNC_PROJECTS_P6_TO_EBS", SUCCESS, count + " projects synced");
+    }
+
+    /**
+     * Copy EBS project dates back to the P6 projects they are mapped to, touching
+     * only projects whose dates differ
+     */
+    public static void syncProjectsEbsToP6(Connection conn) throws SQLException {
+        int count = update(conn, "MERGE INTO p6.project (proj_id, anticipated_start_date, anticipated_finish_date, " +
+                "update_date) KEY (proj_id) SELECT p.proj_id, e.start_date, e.completion_date, CURRENT_TIMESTAMP " +
+                "FROM p6.project p " +
+                "JOIN p6_ebs_integration.project_staging s ON s.p6_project_id = p.proj_id " +
+                "JOIN ebs.pa_projects_all e ON e.project_id = s.ebs_project_id " +
+                "WHERE e.start_date <> p.anticipated_start_date OR e.completion_date <> p.anticipated_finish_date");
+        log(conn, "SYNC_PROJECTS_EBS_TO_P6", SUCCESS, count + " P6 projects updated from EBS");
+    }
+
+    // task_sync
+
+    public static void syncTasksP6ToEbs(Connection conn, long projectId) throws SQLException {
+        syncTasks(conn, projectId, "t.proj_id = ?", projectId);
+    }
+
+    public static void syncTask(Connection conn, long taskId) throws SQLException {
+        long projectId = queryLong(conn, "SELECT proj_id FROM p6.task WHERE task_id = ?", taskId);
+        if (projectId == 0) {
+            log(conn, "SYNC_TASK", ERROR, "P6 task " + taskId + " not found");
+            return;
+        }
+        syncTasks(conn, projectId, "t.task_id = ?", taskId);
+    }
+
+    /**
+     * Check the predecessors of a project's tasks against the synced tasks
+     */
+    public static void syncTaskDependencies(Connection conn, long projectId) throws SQLException {
+        long synced = queryLong(conn, "SELECT COUNT(*) FROM p6.taskpred d " +
+                "JOIN p6_ebs_integration.task_staging s ON s.p6_task_id = d.task_id " +
+                "JOIN p6_ebs_integration.task_staging ps ON ps.p6_task_id = d.pred_task_id " +
+                "WHERE d.proj_id = ?", projectId);
+        long total = queryLong(conn, "SELECT COUNT(*) FROM p6.taskpred WHERE proj_id = ?", projectId);
+        String status = synced == total ? SUCCESS : ERROR;
+        log(conn, "SYNC_TASK_DEPENDENCIES", status, synced + " of " + total
+                + " dependencies of project " + projectId + " have both tasks synced");
+    }
+
+    /**
+     * Stage the matching tasks of a project, allocating EBS IDs for new ones,
+     * and copy them into pa_tasks. The project is synced first if it has not been.
+     */
+    private static void syncTasks(Connection conn, long projectId, String condition, long parameter)
+            throws SQLException {
+        long ebsProjectId = queryLong(conn, "SELECT ebs_project_id FROM p6_ebs_integration.project_staging " +
+                "WHERE p6_project_id = ?", projectId);
+        if (ebsProjectId == 0) {
+            syncProject(conn, projectId);
+            ebsProjectId = queryLong(conn, "SELECT ebs_project_id FROM p6_ebs_integration.project_staging " +
+                    "WHERE p6_project_id = ?", projectId);
+            if (ebsProjectId == 0) {
+                return;
+            }
+        }
+
+        int count = update(conn, "MERGE INTO p6_ebs_integration.task_staging (p6_task_id, p6_project_id, " +
+                "p6_task_code, p6_task_name, p6_parent_task_id, p6_start_date, p6_finish_date, p6_duration, " +
+                "p6_percent_complete, ebs_task_id, sync_status, error_message, last_sync_date) KEY (p6_task_id) " +
+                "SELECT t.task_id, t.proj_id, t.task_code, t.task_name, t.parent_task_id, t.target_start_date, " +
+                "t.target_end_date, t.target_drtn_hr_cnt / 8, t.phys_complete_pct, " +
+                "CASE WHEN s.ebs_task_id IS NULL THEN NEXT VALUE FOR ebs.pa_tasks_s ELSE s.ebs_task_id END, " +
+                "'SYNCED', NULL, CURRENT_TIMESTAMP FROM p6.task t " +
+                "LEFT JOIN p6_ebs_integration.task_staging s ON s.p6_task_id = t.task_id " +
+                "WHERE " + condition + " AND t.task_type <> 'WBS' AND t.delete_date IS NULL", parameter);
+
+        update(conn, "MERGE INTO ebs.pa_tasks (task_id, project_id, task_number, task_name, parent_task_id, " +
+                "start_date, finish_date, planned_duration, actual_percent_complete, task_status_code) KEY (task_id) " +
+                "SELECT s.ebs_task_id, " + ebsProjectId + ", s.p6_task_code, s.p6_task_name, ps.ebs_task_id, " +
+                "s.p6_start_date, s.p6_finish_date, s.p6_duration, s.p6_percent_complete, " + EBS_TASK_STATUS + " " +
+                "FROM p6.task t JOIN p6_ebs_integration.task_staging s ON s.p6_task_id = t.task_id " +
+                "LEFT JOIN p6_ebs_integration.task_staging ps ON ps.p6_task_id = t.parent_task_id " +
+                "WHERE " + condition + " AND t.task_type <> 'WBS' AND t.delete_date IS NULL", parameter);
+        log(conn, "SYNC_TASKS_P6_TO_EBS", SUCCESS, count + " tasks of project " + projectId + " synced");
+    }
+
+    // resource_sync
+
+    public static void syncResources(Connection conn) throws SQLException {
+        int count = stageResources(conn, "r.delete_date IS NULL", null);
+        log(conn, "SYNC_RESOURCES", SUCCESS, count + " resources synced");
+    }
+
+    public static void syncResource(Connection conn, long resourceId) throws SQLException {
+        int count = stageResources(conn, "r.rsrc_id = ?", resourceId);
+        log(conn, "SYNC_RESOURCE", count > 0 ? SUCCESS : ERROR, count > 0
+                ? "Resource " + resourceId + " synced" : "P6 resource " + resourceId + " not found");
+    }
+
+    /**
+     * Mark the synced resources assigned in a project as synced again
+     */
+    public static void syncResourceAssignments(Connection conn, long projectId) throws SQLException {
+        int count = update(conn, "UPDATE p6_ebs_integration.resource_staging SET last_sync_date = CURRENT_TIMESTAMP " +
+                "WHERE p6_resource_id IN (SELECT tr.rsrc_id FROM p6.taskrsrc tr " +
+                "JOIN p6.task t ON t.task_id = tr.task_id WHERE t.proj_id = ? AND tr.delete_date IS NULL)", projectId);
+        log(conn, "SYNC_RESOURCE_ASSIGNMENTS", SUCCESS, "Assignments of project " + projectId
+                + " synced for " + count + " resources");
+    }
+
+    /**
+     * Map P6 resources to EBS people, spreading new ones over the organizations
+     */
+    private static int stageResources(Connection conn, String condition, Long parameter) throws SQLException {
+        String sql = "MERGE INTO p6_ebs_integration.resource_staging (p6_resource_id, p6_resource_name, " +
+                "p6_resource_short_name, p6_resource_type, p6_email, ebs_organization_id, ebs_person_id, " +
+                "sync_status, error_message, last_sync_date) KEY (p6_resource_id) " +
+                "SELECT r.rsrc_id, r.rsrc_name, r.rsrc_short_name, r.rsrc_type, r.email_addr, " +
+                "COALESCE(s.ebs_organization_id, MOD(r.rsrc_id - 1, " +
+                "(SELECT COUNT(*) FROM ebs.hr_all_organization_units)) + 1), COALESCE(s.ebs_person_id, r.rsrc_id), " +
+                "'SYNCED', NULL, CURRENT_TIMESTAMP FROM p6.rsrc r " +
+                "LEFT JOIN p6_ebs_integration.resource_staging s ON s.p6_resource_id = r.rsrc_id " +
+                "WHERE " + condition;
+        return parameter != null ? update(conn, sql, parameter) : update(conn, sql);
+    }
+
+    private static void log(Connection conn, String operation, String status, String message) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO p6_ebs_integration.integration_log " +
+                "(log_id, log_date, operation, status, message, user_id) " +
+                "VALUES (NEXT VALUE FOR p6_ebs_integration.integration_log_s, CURRENT_TIMESTAMP, ?, ?, ?, 'STANDIN')")) {
+            stmt.setString(1, operation);
+            stmt.setString(2, status);
+            stmt.setString(3, message);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static int update(Connection conn, String sql, long... parameters) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                stmt.setLong(i + 1, parameters[i]);
+            }
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Run a single-value query, returning 0 when there is no row or the value is NULL
+     */
+    private static long queryLong(Connection conn, String sql, long... parameters) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                stmt.setLong(i + 1, parameters[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.p6ebs.integration.sync;
+
+import com.p6ebs.integration.dao.DaoFailures;
+import com.p6ebs.integration.dao.TaskDAO;
+import com.p6ebs.integration.dao.TaskSyncProgressDAO;
+import com.p6ebs.integration.model.TaskSyncChunk;
+import com.p6ebs.integration.snapshot.TaskHierarchy;
+import com.p6ebs.integration.snapshot.TaskSnapshot;
+import com.p6ebs.integration.util.ConfigManager;
+import com.p6ebs.integration.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Syncs a project's tasks in chunks instead of one task_sync.sync_tasks_p6_to_ebs
+ * call. Tasks are packed down the WBS in pre-order into chunks of at most
+ * {@code task.sync.chunk.size}: a subtree that fits in the current chunk goes
+ * there whole, one that fits in a chunk of its own starts a new chunk, and a
+ * larger one is split below its root, so a parent is always synced before its
+ * children. Each chunk commits on its own with its progress row in
+ * task_sync_progress; after a failure the next run skips the chunks already
+ * completed, as long as they still hold the same tasks. Once every chunk is
+ * in, the task dependencies are synced, as sync_tasks_p6_to_ebs does.
+ */
+public class ChunkedTaskSync {
+    private static final Logger logger = LoggerUtil.getLogger(ChunkedTaskSync.class);
+
+    private final TaskDAO taskDAO;
+    private final TaskSyncProgressDAO progressDAO;
+    private final int chunkSize;
+
+    public ChunkedTaskSync() {
+        this(new TaskDAO(), new TaskSyncProgressDAO(), ConfigManager.getIntProperty("task.sync.chunk.size", 1000));
+    }
+
+    public ChunkedTaskSync(TaskDAO taskDAO, TaskSyncProgressDAO progressDAO, int chunkSize) {
+        this.taskDAO = taskDAO;
+        this.progressDAO = progressDAO;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Split a project's P6 tasks into chunks, parents before children and
+     * keeping subtrees whole where they fit. Throws if the tasks could not be
+     * read in full, since a partial plan would look like a finished sync.
+     */
+    public List<long[]> planChunks(long projectId) {
+        TaskSnapshot tasks = DaoFailures.require("P6 tasks of project " + projectId, () -> {
+            TaskSnapshot.Builder builder = TaskSnapshot.builder();
+            taskDAO.streamP6Tasks(projectId, builder);
+            return builder.build();
+        });
+        TaskHierarchy hierarchy = TaskHierarchy.of(tasks);
+
+        List<long[]> chunks = new ArrayList<>();
+        long[] chunk = new long[chunkSize];
+        int filled = 0;
+        Deque<Integer> pending = new ArrayDeque<>();
+        for (int i = hierarchy.getRootCount() - 1; i >= 0; i--) {
+            pending.push(hierarchy.getRoot(i));
+        }
+        while (!pending.isEmpty()) {
+            int row = pending.pop();
+            int size = hierarchy.getSubtreeSize(row);
+            if (size > chunkSize - filled && size <= chunkSize) {
+                // Fits in a chunk of its own, so do not split it across this one and the next
+                chunks.add(Arrays.copyOf(chunk, filled));
+                filled = 0;
+            }
+            if (size <= chunkSize - filled) {
+                long[] subtree = hierarchy.subtreeTaskIds(row);
+                System.arraycopy(subtree, 0, chunk, filled, subtree.length);
+                filled += subtree.length;
+                continue;
+            }
+
+            // Too big for any chunk: place the root here and pack its children after it
+            if (filled == chunkSize) {
+                chunks.add(Arrays.copyOf(chunk, filled));
+                filled = 0;
+            }
+            chunk[filled++] = hierarchy.getTasks().getId(row);
+            for (int c = hierarchy.getChildCount(row) - 1; c >= 0; c--) {
+                pending.push(hierarchy.getChild(row, c));
+            }
+        }
+        if (filled > 0) {
+            chunks.add(Arrays.copyOf(chunk, filled));
+        }
+        return chunks;
+    }
+
+    /**
+     * Sync a project's tasks chunk by chunk, resuming after the last completed
+     * chunk of an earlier failed run, then their dependencies. Stops at the
+     * first failed chunk; if only the dependencies fail, the next run skips
+     * every chunk and retries them. Throws, leaving any progress in place, if
+     * the tasks cannot be read.
+     *
+     * @param progress receives the fraction of chunks done after each chunk
+     * @return true if every chunk is synced
+     */
+    public boolean sync(long projectId, DoubleConsumer progress) {
+        long start = System.currentTimeMillis();
+        List<long[]> chunks = planChunks(projectId);
+        if (chunks.isEmpty()) {
+            // Nothing to split; the procedure copes with a project without tasks
+            logger.info("No tasks to chunk for project {}, syncing it in one call", projectId);
+            return taskDAO.triggerTasksSync(projectId);
+        }
+
+        Map<Integer, TaskSyncChunk> recorded = new HashMap<>();
+        for (TaskSyncChunk chunk : progressDAO.getChunks(projectId)) {
+            recorded.put(chunk.getChunkNo(), chunk);
+        }
+
+        int skipped = 0;
+        for (int chunkNo = 0; chunkNo < chunks.size(); chunkNo++) {
+            long[] taskIds = chunks.get(chunkNo);
+            if (isDone(recorded.get(chunkNo), taskIds)) {
+                skipped++;
+            } else if (!progressDAO.syncChunk(projectId, chunkNo, taskIds)) {
+                logger.error("Chunked task sync of project {} stopped at chunk {} of {}; the next run resumes there",
+                        projectId, chunkNo + 1, chunks.size());
+                return false;
+            }
+            progress.accept((chunkNo + 1) / (double) chunks.size());
+        }
+
+        if (!taskDAO.triggerTaskDependenciesSync(projectId)) {
+            logger.error("Synced every task chunk of project {} but not its task dependencies; "
+                    + "the next run retries them", projectId);
+            return false;
+        }
+
+        // A finished run leaves nothing to resume
+        progressDAO.clearProgress(projectId);
+        logger.info("Synced {} tasks of project {} in {} chunks ({} already done) in {} ms",
+                chunks.stream().mapToInt(chunk -> chunk.length).sum(), projectId, chunks.size(), skipped,
+                System.currentTimeMillis() - start);
+        return true;
+    }
+
+    /**
+     * Whether a recorded chunk completed with exactly the tasks now planned for it
+     */
+    private static boolean isDone(TaskSyncChunk recorded, long[] taskIds) {
+        return recorded != null
+                && recorded.isCompleted()
+                && recorded.getTaskCount() == taskIds.length
+                && recorded.getTaskIdsHash() == TaskSyncChunk.hashTaskIds(taskIds);
+    }
+}
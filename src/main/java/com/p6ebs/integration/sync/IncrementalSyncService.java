@@ -0,0 +1,224 @@
+package com.p6ebs.integration.sync;
+
+import com.p6ebs.integration.dao.DaoFailures;
+import com.p6ebs.integration.dao.ProjectDAO;
+import com.p6ebs.integration.dao.StatisticsDAO;
+import com.p6ebs.integration.dao.TaskDAO;
+import com.p6ebs.integration.exec.BackgroundExecutor;
+import com.p6ebs.integration.model.HighWaterMarks;
+import com.p6ebs.integration.util.ConfigManager;
+import com.p6ebs.integration.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Syncs only the P6 projects and tasks that changed since the last run. Changes
+ * are read with the DAO "changed since" queries, pushed through the
+ * {@link SyncJobExecutor} as batched requests, and the watermarks are advanced
+ * only after the sync procedures succeed, so a failed run is retried next time.
+ *
+ * <p>Without a stored watermark the first run starts from
+ * {@code sync.incremental.start} if set, otherwise from the newest
+ * last_sync_date in the staging table, that is from the last full sync. If
+ * neither exists the run fails instead of syncing everything.
+ *
+ * <p>Rows soft-deleted in P6 are skipped: the integration packages have no
+ * delete procedure and sync_project / sync_task would push them as updates.
+ * They are logged and the watermark moves past them.
+ */
+public class IncrementalSyncService {
+    private static final Logger logger = LoggerUtil.getLogger(IncrementalSyncService.class);
+
+    public static final String PROJECTS = "projects";
+    public static final String TASKS = "tasks";
+
+    private final ProjectDAO projectDAO;
+    private final TaskDAO taskDAO;
+    private final StatisticsDAO statisticsDAO;
+    private final WatermarkStore watermarks;
+
+    public IncrementalSyncService() {
+        this(new ProjectDAO(), new TaskDAO(), new StatisticsDAO(), new WatermarkStore());
+    }
+
+    public IncrementalSyncService(ProjectDAO projectDAO, TaskDAO taskDAO, StatisticsDAO statisticsDAO,
+                                  WatermarkStore watermarks) {
+        this.projectDAO = projectDAO;
+        this.taskDAO = taskDAO;
+        this.statisticsDAO = statisticsDAO;
+        this.watermarks = watermarks;
+    }
+
+    /**
+     * Outcome of one incremental run
+     */
+    public static class Result {
+        private final int changedProjects;
+        private final int changedTasks;
+        private final boolean success;
+        private final long elapsedMillis;
+
+        Result(int changedProjects, int changedTasks, boolean success, long elapsedMillis) {
+            this.changedProjects = changedProjects;
+            this.changedTasks = changedTasks;
+            this.success = success;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getChangedProjects() { return changedProjects; }
+
+        public int getChangedTasks() { return changedTasks; }
+
+        public boolean isSuccess() { return success; }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        @Override
+        public String toString() {
+            return "Incremental sync " + (success ? "succeeded" : "failed") + ": "
+                    + changedProjects + " projects, " + changedTasks + " tasks in " + elapsedMillis + " ms";
+        }
+    }
+
+    /**
+     * Sync everything changed in P6 since the stored watermarks and advance them.
+     * Blocks until the submitted sync jobs finish; call it off the EDT.
+     */
+    public Result runIncrementalSync() {
+        long start = System.currentTimeMillis();
+
+        Timestamp[] projectMark = {startMark(PROJECTS)};
+        Timestamp[] taskMark = {startMark(TASKS)};
+        if (projectMark[0] == null || taskMark[0] == null) {
+            logger.error("Incremental sync has no watermark and nothing has been synced yet; "
+                    + "run a full sync first or set sync.incremental.start");
+            return new Result(0, 0, false, System.currentTimeMillis() - start);
+        }
+
+        Timestamp projectsSince = since(projectMark[0]);
+        Set<Long> projectIds = new LinkedHashSet<>();
+        List<Long> deletedProjectIds = new ArrayList<>();
+        Timestamp tasksSince = since(taskMark[0]);
+        Set<Long> taskIds = new LinkedHashSet<>();
+        List<Long> deletedTaskIds = new ArrayList<>();
+        BackgroundExecutor executor = BackgroundExecutor.getInstance();
+        try {
+            // A read that fails partway has moved the marks past rows it never read, so nothing is kept
+            executor.getGated(BackgroundExecutor.Pool.P6, () -> DaoFailures.require("changed P6 projects",
+                    () -> projectDAO.streamP6ProjectsChangedSince(projectsSince, project -> {
+                        (project.getDeleteDate() != null ? deletedProjectIds : projectIds).add(project.getId());
+                        projectMark[0] = latest(projectMark[0], project.getUpdateDate(), project.getDeleteDate());
+                    })));
+            executor.getGated(BackgroundExecutor.Pool.P6, () -> DaoFailures.require("changed P6 tasks",
+                    () -> taskDAO.streamP6TasksChangedSince(tasksSince, task -> {
+                        (task.getDeleteDate() != null ? deletedTaskIds : taskIds).add(task.getId());
+                        taskMark[0] = latest(taskMark[0], task.getUpdateDate(), task.getDeleteDate());
+                    })));
+        } catch (IllegalStateException e) {
+            logger.error("Incremental sync could not read the P6 changes, watermarks were not advanced", e);
+            return new Result(0, 0, false, System.currentTimeMillis() - start);
+        }
+
+        logger.info("Incremental sync found {} changed projects since {} and {} changed tasks since {}",
+                projectIds.size(), projectsSince, taskIds.size(), tasksSince);
+        if (!deletedProjectIds.isEmpty() || !deletedTaskIds.isEmpty()) {
+            logger.warn("Skipping projects {} and tasks {} deleted in P6; deletions are not synced to EBS",
+                    deletedProjectIds, deletedTaskIds);
+        }
+
+        // Projects first, so that new tasks have a parent project in EBS
+        boolean projectsOk = projectIds.isEmpty() || await(SyncRequest.projects(new ArrayList<>(projectIds)));
+        if (projectsOk && !projectMark[0].equals(watermarks.get(PROJECTS))) {
+            watermarks.set(PROJECTS, projectMark[0]);
+        }
+
+        boolean tasksOk = projectsOk && (taskIds.isEmpty() || await(SyncRequest.tasks(new ArrayList<>(taskIds))));
+        if (tasksOk && !taskMark[0].equals(watermarks.get(TASKS))) {
+            watermarks.set(TASKS, taskMark[0]);
+        }
+
+        Result result = new Result(projectIds.size(), taskIds.size(), projectsOk && tasksOk,
+                System.currentTimeMillis() - start);
+        logger.info("{}", result);
+        return result;
+    }
+
+    /**
+     * Drop the stored watermarks so that the next run starts over as a first run
+     */
+    public void resetWatermarks() {
+        watermarks.reset(PROJECTS);
+        watermarks.reset(TASKS);
+    }
+
+    /**
+     * The stored watermark, or where a first run starts: the configured start
+     * time, else the newest sync time in the staging table. Null if there is none.
+     */
+    private Timestamp startMark(String entity) {
+        Timestamp mark = watermarks.get(entity);
+        if (mark != null) {
+            return mark;
+        }
+        String configured = ConfigManager.getProperty("sync.incremental.start", "").trim();
+        if (!configured.isEmpty()) {
+            try {
+                return Timestamp.valueOf(configured);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring invalid sync.incremental.start {}, expected yyyy-mm-dd hh:mm:ss", configured);
+            }
+        }
+        HighWaterMarks staging = BackgroundExecutor.getInstance().getGated(BackgroundExecutor.Pool.INTEGRATION,
+                statisticsDAO::getHighWaterMarks);
+        if (staging == null) {
+            return null;
+        }
+        mark = PROJECTS.equals(entity) ? staging.getProjectSyncDate() : staging.getTaskSyncDate();
+        if (mark != null) {
+            logger.info("No {} watermark yet, starting from the last staging sync at {}", entity, mark);
+        }
+        return mark;
+    }
+
+    /**
+     * Lower bound for the change query. The mark is moved back by a small
+     * overlap to catch rows committed late with an earlier update_date; rows seen
+     * twice are simply synced again.
+     */
+    private static Timestamp since(Timestamp mark) {
+        long overlapMillis = overlapSeconds() * 1000L;
+        return new Timestamp(Math.max(0L, mark.getTime() - overlapMillis));
+    }
+
+    private static Timestamp latest(Timestamp current, Date updateDate, Date deleteDate) {
+        Timestamp result = current;
+        for (Date candidate : new Date[] {updateDate, deleteDate}) {
+            if (candidate != null && (result == null || candidate.getTime() > result.getTime())) {
+                result = new Timestamp(candidate.getTime());
+            }
+        }
+        return result;
+    }
+
+    private static boolean await(SyncRequest request) {
+        SyncJob job = SyncJobExecutor.getInstance().submit(request);
+        try {
+            return Boolean.TRUE.equals(job.getFuture().join());
+        } catch (CompletionException | CancellationException e) {
+            logger.error("Incremental sync job " + job.getJobId() + " did not complete", e);
+            return false;
+        }
+    }
+
+    private static int overlapSeconds() {
+        return ConfigManager.getIntProperty("sync.incremental.overlap.seconds", 60);
+    }
+}
@@ -0,0 +1,106 @@
+package com.p6ebs.integration.sync;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Handle for a sync request submitted to the {@link SyncJobExecutor}.
+ * The future completes with the result reported by the sync procedure.
+ */
+public class SyncJob {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final long jobId;
+    private final SyncRequest request;
+    private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+    private final long submittedAt;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile SyncJobStatus status = SyncJobStatus.QUEUED;
+    private volatile double progress;
+    private volatile String message;
+
+    SyncJob(SyncRequest request) {
+        this.jobId = SEQUENCE.incrementAndGet();
+        this.request = request;
+        this.submittedAt = System.currentTimeMillis();
+    }
+
+    void markRunning() {
+        startedAt = System.currentTimeMillis();
+        status = SyncJobStatus.RUNNING;
+    }
+
+    void updateProgress(double progress) {
+        this.progress = Math.max(0.0, Math.min(1.0, progress));
+    }
+
+    void complete(boolean success, String message) {
+        finishedAt = System.currentTimeMillis();
+        this.message = message;
+        progress = 1.0;
+        status = success ? SyncJobStatus.SUCCEEDED : SyncJobStatus.FAILED;
+        future.complete(success);
+    }
+
+    void fail(Throwable error) {
+        finishedAt = System.currentTimeMillis();
+        message = error.getMessage();
+        status = SyncJobStatus.FAILED;
+        future.completeExceptionally(error);
+    }
+
+    void cancelled() {
+        finishedAt = System.currentTimeMillis();
+        message = "Cancelled before it started";
+        status = SyncJobStatus.CANCELLED;
+        future.cancel(false);
+    }
+
+    public long getJobId() { return jobId; }
+
+    public SyncRequest getRequest() { return request; }
+
+    /**
+     * Future that completes with {@code true} if the sync procedure succeeded
+     */
+    public CompletableFuture<Boolean> getFuture() { return future; }
+
+    public SyncJobStatus getStatus() { return status; }
+
+    /** Fraction of the job completed, from 0.0 to 1.0 */
+    public double getProgress() { return progress; }
+
+    public String getMessage() { return message; }
+
+    public long getSubmittedAt() { return submittedAt; }
+
+    public long getStartedAt() { return startedAt; }
+
+    public long getFinishedAt() { return finishedAt; }
+
+    /**
+     * Time spent waiting for a worker and a per-target slot, in milliseconds
+     */
+    public long getQueueMillis() {
+        long start = startedAt != 0 ? startedAt : (finishedAt != 0 ? finishedAt : System.currentTimeMillis());
+        return start - submittedAt;
+    }
+
+    /**
+     * Time spent running the sync procedure, in milliseconds
+     */
+    public long getRunMillis() {
+        if (startedAt == 0) {
+            return 0;
+        }
+        long end = finishedAt != 0 ? finishedAt : System.currentTimeMillis();
+        return end - startedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Job " + jobId + " " + request + " " + status
+                + " (queued " + getQueueMillis() + " ms, ran " + getRunMillis() + " ms)";
+    }
+}
@@ -0,0 +1,334 @@
+package com.p6ebs.integration.sync;
+
+import com.p6ebs.integration.dao.ProjectDAO;
+import com.p6ebs.integration.dao.ResourceDAO;
+import com.p6ebs.integration.dao.TaskDAO;
+import com.p6ebs.integration.exec.BackgroundExecutor;
+import com.p6ebs.integration.metrics.MetricsRegistry;
+import com.p6ebs.integration.util.ConfigManager;
+import com.p6ebs.integration.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs sync procedures on workers from the {@link BackgroundExecutor}. Each
+ * {@link SyncTarget} has its own concurrency limit; requests over the limit wait
+ * in a per-target queue without tying up a worker thread, and a started job
+ * waits for a free integration schema connection before it counts as running.
+ */
+public class SyncJobExecutor {
+    private static final Logger logger = LoggerUtil.getLogger(SyncJobExecutor.class);
+
+    private static SyncJobExecutor instance;
+    private static final List<Consumer<SyncJob>> completionListeners = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService workers;
+    private final Map<SyncTarget, Lane> lanes = new EnumMap<>(SyncTarget.class);
+    private final int queueCapacity;
+    private final Object lock = new Object();
+    private int pendingCount;
+    private boolean shutdown;
+
+    /**
+     * Per-target running count and waiting jobs
+     */
+    private static class Lane {
+        final int limit;
+        final ArrayDeque<SyncJob> pending = new ArrayDeque<>();
+        int running;
+
+        Lane(int limit) {
+            this.limit = limit;
+        }
+    }
+
+    SyncJobExecutor(int workerCount, int queueCapacity, Map<SyncTarget, Integer> limits) {
+        this.queueCapacity = queueCapacity;
+        // Virtual threads when available, otherwise workerCount platform threads
+        this.workers = BackgroundExecutor.getInstance().newExecutor("sync-worker", workerCount);
+        for (SyncTarget target : SyncTarget.values()) {
+            lanes.put(target, new Lane(Math.max(1, limits.getOrDefault(target, 1))));
+        }
+        MetricsRegistry.getInstance().gauge("sync.executor.queued", this::getQueuedCount);
+        MetricsRegistry.getInstance().gauge("sync.executor.running", this::getRunningCount);
+    }
+
+    /**
+     * Get the shared executor, creating it from application properties on first use
+     */
+    public static synchronized SyncJobExecutor getInstance() {
+        if (instance == null) {
+            int workerCount = ConfigManager.getIntProperty("sync.workers", 4);
+            int queueCapacity = ConfigManager.getIntProperty("sync.queue.capacity", 100);
+            Map<SyncTarget, Integer> limits = new EnumMap<>(SyncTarget.class);
+            limits.put(SyncTarget.PROJECT, ConfigManager.getIntProperty("sync.limit.project", 2));
+            limits.put(SyncTarget.TASK, ConfigManager.getIntProperty("sync.limit.task", 2));
+            limits.put(SyncTarget.RESOURCE, ConfigManager.getIntProperty("sync.limit.resource", 1));
+            limits.put(SyncTarget.ASSIGNMENT, ConfigManager.getIntProperty("sync.limit.assignment", 2));
+            limits.put(SyncTarget.DEPENDENCY, ConfigManager.getIntProperty("sync.limit.dependency", 2));
+            instance = new SyncJobExecutor(workerCount, queueCapacity, limits);
+            logger.info("Sync executor started with {} workers", workerCount);
+        }
+        return instance;
+    }
+
+    /**
+     * Shut down the shared executor if it was ever started, without creating one
+     */
+    public static void shutdownInstance() {
+        SyncJobExecutor existing;
+        synchronized (SyncJobExecutor.class) {
+            existing = instance;
+        }
+        if (existing != null) {
+            existing.shutdown();
+        }
+    }
+
+    /**
+     * Register a callback run on the worker thread once a job's sync procedure has
+     * returned, successfully or not, and before its future completes. Listeners
+     * survive executor restarts.
+     */
+    public static void addCompletionListener(Consumer<SyncJob> listener) {
+        completionListeners.add(listener);
+    }
+
+    public static void removeCompletionListener(Consumer<SyncJob> listener) {
+        completionListeners.remove(listener);
+    }
+
+    /**
+     * Submit a sync request. The returned job's future completes once the procedure has run.
+     */
+    public SyncJob submit(SyncRequest request) {
+        SyncJob job = new SyncJob(request);
+        synchronized (lock) {
+            if (shutdown) {
+                job.fail(new RejectedExecutionException("Sync executor has been shut down"));
+                return job;
+            }
+
+            Lane lane = lanes.get(request.getTarget());
+            if (lane.running < lane.limit) {
+                lane.running++;
+                dispatch(job);
+            } else if (pendingCount >= queueCapacity) {
+                job.fail(new RejectedExecutionException("Sync queue is full (" + queueCapacity + " jobs waiting)"));
+                return job;
+            } else {
+                lane.pending.add(job);
+                pendingCount++;
+            }
+        }
+        logger.info("Submitted {}", job);
+        return job;
+    }
+
+    /**
+     * Cancel a job that has not started yet
+     *
+     * @return true if the job was removed from the queue
+     */
+    public boolean cancel(SyncJob job) {
+        synchronized (lock) {
+            Lane lane = lanes.get(job.getRequest().getTarget());
+            if (lane.pending.remove(job)) {
+                pendingCount--;
+                job.cancelled();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of jobs waiting for a per-target slot
+     */
+    public int getQueuedCount() {
+        synchronized (lock) {
+            return pendingCount;
+        }
+    }
+
+    /**
+     * Number of jobs currently dispatched to workers
+     */
+    public int getRunningCount() {
+        synchronized (lock) {
+            int running = 0;
+            for (Lane lane : lanes.values()) {
+                running += lane.running;
+            }
+            return running;
+        }
+    }
+
+    /**
+     * Stop accepting jobs, cancel queued jobs and wait briefly for running ones
+     */
+    public void shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+            for (Lane lane : lanes.values()) {
+                SyncJob job;
+                while ((job = lane.pending.poll()) != null) {
+                    job.cancelled();
+                }
+            }
+            pendingCount = 0;
+        }
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Sync workers still running after shutdown timeout");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (SyncJobExecutor.class) {
+            if (instance == this) {
+                instance = null;
+            }
+        }
+    }
+
+    private void dispatch(SyncJob job) {
+        workers.execute(() -> {
+            try {
+                BackgroundExecutor.getInstance().callGated(BackgroundExecutor.Pool.INTEGRATION, () -> {
+                    run(job);
+                    return null;
+                });
+            } catch (Exception e) {
+                // Only waiting for a connection can throw here; run() handles its own failures
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                logger.error("Sync job " + job.getJobId() + " could not start", e);
+                job.fail(e);
+                release(job.getRequest().getTarget());
+            }
+        });
+    }
+
+    private void run(SyncJob job) {
+        job.markRunning();
+        String operation = job.getRequest().getOperation().name();
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        registry.timer("sync.job.queue", "operation", operation).record(job.getQueueMillis(), TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        try {
+            boolean success = perform(job);
+            registry.timer("sync.job", "operation", operation, "outcome", success ? "success" : "error").recordSince(start);
+            notifyListeners(job);
+            job.complete(success, success ? "Completed" : "Sync procedure reported an error, see the application log");
+            logger.info("Finished {}", job);
+        } catch (RuntimeException e) {
+            registry.timer("sync.job", "operation", operation, "outcome", "error").recordSince(start);
+            logger.error("Sync job " + job.getJobId() + " failed", e);
+            notifyListeners(job);
+            job.fail(e);
+        } finally {
+            release(job.getRequest().getTarget());
+        }
+    }
+
+    private static void notifyListeners(SyncJob job) {
+        for (Consumer<SyncJob> listener : completionListeners) {
+            try {
+                listener.accept(job);
+            } catch (RuntimeException e) {
+                logger.error("Sync completion listener failed for job " + job.getJobId(), e);
+            }
+        }
+    }
+
+    /**
+     * Free a slot for the target and start the next waiting job, if any
+     */
+    private void release(SyncTarget target) {
+        synchronized (lock) {
+            Lane lane = lanes.get(target);
+            lane.running--;
+            if (shutdown) {
+                return;
+            }
+            SyncJob next = lane.pending.poll();
+            if (next != null) {
+                pendingCount--;
+                lane.running++;
+                dispatch(next);
+            }
+        }
+    }
+
+    /**
+     * Invoke the DAO call behind a job's request
+     */
+    private boolean perform(SyncJob job) {
+        SyncRequest request = job.getRequest();
+        switch (request.getOperation()) {
+            case PROJECT:
+                return request.isBatch()
+                        ? new ProjectDAO().triggerProjectSync(request.getIds())
+                        : new ProjectDAO().triggerProjectSync(request.getId());
+            case ALL_PROJECTS:
+                return new ProjectDAO().triggerAllProjectsSync();
+            case REVERSE_PROJECTS:
+                return new ProjectDAO().triggerReverseProjectSync();
+            case PROJECT_TASKS:
+                return request.isBatch()
+                        ? new TaskDAO().triggerTasksSync(request.getIds())
+                        : new TaskDAO().triggerTasksSync(request.getId());
+            case CHUNKED_PROJECT_TASKS:
+                return syncChunked(job);
+            case TASK:
+                return request.isBatch()
+                        ? new TaskDAO().triggerTaskSync(request.getIds())
+                        : new TaskDAO().triggerTaskSync(request.getId());
+            case RESOURCE:
+                return request.isBatch()
+                        ? new ResourceDAO().triggerResourceSync(request.getIds())
+                        : new ResourceDAO().triggerResourceSync(request.getId());
+            case ALL_RESOURCES:
+                return new ResourceDAO().triggerResourcesSync();
+            case ASSIGNMENTS:
+                return request.isBatch()
+                        ? new ResourceDAO().triggerResourceAssignmentsSync(request.getIds())
+                        : new ResourceDAO().triggerResourceAssignmentsSync(request.getId());
+            case DEPENDENCIES:
+                return request.isBatch()
+                        ? new TaskDAO().triggerTaskDependenciesSync(request.getIds())
+                        : new TaskDAO().triggerTaskDependenciesSync(request.getId());
+            default:
+                throw new IllegalArgumentException("Unsupported sync operation: " + request.getOperation());
+        }
+    }
+
+    /**
+     * Run a chunked task sync for each project in turn, reporting chunk progress
+     * across all of them. Stops at the first project that fails.
+     */
+    private static boolean syncChunked(SyncJob job) {
+        List<Long> projectIds = job.getRequest().getIds();
+        ChunkedTaskSync chunkedSync = new ChunkedTaskSync();
+        for (int i = 0; i < projectIds.size(); i++) {
+            int done = i;
+            if (!chunkedSync.sync(projectIds.get(i),
+                    fraction -> job.updateProgress((done + fraction) / projectIds.size()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,16 @@
+package com.p6ebs.integration.sync;
+
+/**
+ * Lifecycle states of a submitted sync job
+ */
+public enum SyncJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,34 @@
+package com.p6ebs.integration.sync;
+
+/**
+ * Sync procedures that can be submitted to the {@link SyncJobExecutor}
+ */
+public enum SyncOperation {
+    PROJECT(SyncTarget.PROJECT, true, "Project sync"),
+    ALL_PROJECTS(SyncTarget.PROJECT, false, "All projects sync"),
+    REVERSE_PROJECTS(SyncTarget.PROJECT, false, "Reverse project sync (EBS to P6)"),
+    PROJECT_TASKS(SyncTarget.TASK, true, "Project tasks sync"),
+    CHUNKED_PROJECT_TASKS(SyncTarget.TASK, true, "Chunked project tasks sync"),
+    TASK(SyncTarget.TASK, true, "Task sync"),
+    RESOURCE(SyncTarget.RESOURCE, true, "Resource sync"),
+    ALL_RESOURCES(SyncTarget.RESOURCE, false, "All resources sync"),
+    ASSIGNMENTS(SyncTarget.ASSIGNMENT, true, "Resource assignments sync"),
+    DEPENDENCIES(SyncTarget.DEPENDENCY, true, "Task dependencies sync");
+
+    private final SyncTarget target;
+    private final boolean requiresId;
+    private final String label;
+
+    SyncOperation(SyncTarget target, boolean requiresId, String label) {
+        this.target = target;
+        this.requiresId = requiresId;
+        this.label = label;
+    }
+
+    public SyncTarget getTarget() { return target; }
+
+    /** Whether the operation needs a project, task or resource ID */
+    public boolean requiresId() { return requiresId; }
+
+    public String getLabel() { return label; }
+}
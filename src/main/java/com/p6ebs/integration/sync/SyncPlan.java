@@ -0,0 +1,152 @@
+package com.p6ebs.integration.sync;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sync steps forming a DAG, in dependency order, and once run by the
+ * {@link SyncPlanner}, how long they took and which chain of steps bounded
+ * the total time
+ */
+public class SyncPlan {
+    private final List<SyncStep> steps = new ArrayList<>();
+    private long startedAt;
+    private long finishedAt;
+
+    /**
+     * Add a step that may start once all the given steps have succeeded
+     */
+    public SyncStep add(SyncRequest request, SyncStep... dependencies) {
+        List<SyncStep> required = new ArrayList<>();
+        for (SyncStep dependency : dependencies) {
+            if (dependency != null) {
+                required.add(dependency);
+            }
+        }
+        SyncStep step = new SyncStep(steps.size(), request, required);
+        steps.add(step);
+        return step;
+    }
+
+    public List<SyncStep> getSteps() { return Collections.unmodifiableList(steps); }
+
+    public int size() { return steps.size(); }
+
+    void markStarted() {
+        startedAt = System.currentTimeMillis();
+    }
+
+    void markFinished() {
+        finishedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Work out each step's height, the longest chain from it to the end of the
+     * plan, so the planner can start the longest chains first
+     */
+    void computeHeights() {
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            SyncStep step = steps.get(i);
+            step.height = 1;
+            for (SyncStep dependent : step.dependents) {
+                step.height = Math.max(step.height, dependent.height + 1);
+            }
+        }
+    }
+
+    public int count(SyncStep.State state) {
+        int count = 0;
+        for (SyncStep step : steps) {
+            if (step.getState() == state) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** Whether every step succeeded */
+    public boolean isSuccess() {
+        return count(SyncStep.State.SUCCEEDED) == steps.size();
+    }
+
+    /** Wall-clock time of the whole run */
+    public long getElapsedMillis() {
+        return finishedAt - startedAt;
+    }
+
+    /** Time the steps would have taken one after another */
+    public long getSerialMillis() {
+        long total = 0;
+        for (SyncStep step : steps) {
+            total += step.getRunMillis();
+        }
+        return total;
+    }
+
+    /**
+     * The chain of steps that finished last: starting from the last step to
+     * finish, each step's predecessor is the dependency that finished last and
+     * so held it back. Listed from the first step to the last.
+     */
+    public List<SyncStep> getCriticalPath() {
+        SyncStep last = null;
+        for (SyncStep step : steps) {
+            if (step.getJob() != null && (last == null || step.getFinishedAt() > last.getFinishedAt())) {
+                last = step;
+            }
+        }
+
+        List<SyncStep> path = new ArrayList<>();
+        while (last != null) {
+            path.add(last);
+            SyncStep gate = null;
+            for (SyncStep dependency : last.getDependencies()) {
+                if (gate == null || dependency.getFinishedAt() > gate.getFinishedAt()) {
+                    gate = dependency;
+                }
+            }
+            last = gate;
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /** Time spent running the steps of the critical path */
+    public long getCriticalPathMillis() {
+        long total = 0;
+        for (SyncStep step : getCriticalPath()) {
+            total += step.getRunMillis();
+        }
+        return total;
+    }
+
+    /**
+     * Multi-line summary of the outcome and the critical path
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%d of %d steps succeeded, %d failed, %d skipped%n",
+                count(SyncStep.State.SUCCEEDED), steps.size(), count(SyncStep.State.FAILED),
+                count(SyncStep.State.SKIPPED)));
+        long elapsed = getElapsedMillis();
+        long serial = getSerialMillis();
+        report.append(String.format("Elapsed %d ms, %d ms if run one at a time (%.1fx)%n",
+                elapsed, serial, elapsed > 0 ? serial / (double) elapsed : 1.0));
+
+        List<SyncStep> path = getCriticalPath();
+        long pathMillis = getCriticalPathMillis();
+        // Whatever the critical path did not spend running, it spent waiting for a free slot
+        report.append(String.format("Critical path: %d steps, %d ms running, %d ms waiting for slots%n",
+                path.size(), pathMillis, Math.max(0L, elapsed - pathMillis)));
+        for (SyncStep step : path) {
+            report.append("  ").append(step).append(String.format("%n"));
+        }
+        return report.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "Sync plan of " + steps.size() + " steps";
+    }
+}
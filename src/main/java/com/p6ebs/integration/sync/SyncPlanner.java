@@ -0,0 +1,177 @@
+package com.p6ebs.integration.sync;
+
+import com.p6ebs.integration.dao.DaoFailures;
+import com.p6ebs.integration.dao.ProjectDAO;
+import com.p6ebs.integration.exec.BackgroundExecutor;
+import com.p6ebs.integration.metrics.MetricsRegistry;
+import com.p6ebs.integration.model.ConnectionSettings;
+import com.p6ebs.integration.model.PoolSettings;
+import com.p6ebs.integration.model.Project;
+import com.p6ebs.integration.util.ConfigManager;
+import com.p6ebs.integration.util.DatabaseManager;
+import com.p6ebs.integration.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Plans and runs a full sync in dependency order. Resources come first, then
+ * for each project its project record, its tasks, and once the tasks are in
+ * EBS its dependencies and resource assignments (the latter also waiting for
+ * the resources). Independent steps of different projects run in parallel
+ * through the {@link SyncJobExecutor}, whose per-target limits still apply;
+ * the planner also caps the steps in flight, since every sync procedure holds
+ * an integration schema connection. The longest chains are started first.
+ */
+public class SyncPlanner {
+    private static final Logger logger = LoggerUtil.getLogger(SyncPlanner.class);
+
+    private final SyncJobExecutor executor;
+    private final int maxInFlight;
+    private final boolean chunkedTasks;
+
+    public SyncPlanner() {
+        this(SyncJobExecutor.getInstance(),
+                ConfigManager.getIntProperty("sync.plan.max.in.flight", integrationPoolSize()),
+                Boolean.parseBoolean(ConfigManager.getProperty("sync.plan.chunked.tasks", "false").trim()));
+    }
+
+    public SyncPlanner(SyncJobExecutor executor, int maxInFlight, boolean chunkedTasks) {
+        this.executor = executor;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.chunkedTasks = chunkedTasks;
+    }
+
+    /**
+     * Connections in the integration pool, which every sync procedure draws on;
+     * 4 before any connection is configured
+     */
+    private static int integrationPoolSize() {
+        ConnectionSettings settings = DatabaseManager.getConnectionSettings();
+        PoolSettings pool = settings != null ? settings.getIntegrationPool() : null;
+        return pool != null && pool.getMaxTotal() > 0 ? pool.getMaxTotal() : 4;
+    }
+
+    /**
+     * Plan a sync of every P6 project. Throws if the projects cannot be read,
+     * rather than planning a portfolio sync of no projects.
+     */
+    public SyncPlan planPortfolio() {
+        List<Long> projectIds = new ArrayList<>();
+        List<Project> projects = BackgroundExecutor.getInstance().getGated(BackgroundExecutor.Pool.P6,
+                () -> DaoFailures.require("P6 projects", () -> new ProjectDAO().getP6Projects()));
+        for (Project project : projects) {
+            projectIds.add(project.getId());
+        }
+        return plan(projectIds);
+    }
+
+    /**
+     * Plan a sync of the resources and the given projects
+     */
+    public SyncPlan plan(List<Long> projectIds) {
+        SyncPlan plan = new SyncPlan();
+        SyncStep resources = plan.add(SyncRequest.allResources());
+        for (Long projectId : projectIds) {
+            SyncStep project = plan.add(SyncRequest.project(projectId));
+            SyncStep tasks = plan.add(chunkedTasks
+                    ? SyncRequest.chunkedProjectTasks(projectId)
+                    : SyncRequest.projectTasks(projectId), project);
+            if (!chunkedTasks) {
+                // Chunked task sync ends with the dependencies itself
+                plan.add(SyncRequest.dependencies(projectId), tasks);
+            }
+            plan.add(SyncRequest.assignments(projectId), tasks, resources);
+        }
+        return plan;
+    }
+
+    /**
+     * Run a plan to the end. A failed step skips everything that depends on
+     * it, while the other branches carry on. Blocks until the last step
+     * finishes; call it off the EDT.
+     */
+    public SyncPlan run(SyncPlan plan) {
+        long start = System.nanoTime();
+        plan.computeHeights();
+        plan.markStarted();
+        logger.info("Running {} with up to {} steps in flight", plan, maxInFlight);
+
+        PriorityQueue<SyncStep> ready = new PriorityQueue<>(
+                Comparator.comparingInt((SyncStep step) -> -step.height).thenComparingInt(SyncStep::getIndex));
+        for (SyncStep step : plan.getSteps()) {
+            if (step.unfinishedDependencies == 0) {
+                ready.add(step);
+            }
+        }
+
+        BlockingQueue<SyncStep> finished = new LinkedBlockingQueue<>();
+        int remaining = plan.size();
+        int inFlight = 0;
+        try {
+            while (remaining > 0) {
+                while (inFlight < maxInFlight && !ready.isEmpty()) {
+                    SyncStep step = ready.poll();
+                    step.setState(SyncStep.State.RUNNING);
+                    SyncJob job = executor.submit(step.getRequest());
+                    step.setJob(job);
+                    job.getFuture().whenComplete((success, error) -> {
+                        step.setState(error == null && Boolean.TRUE.equals(success)
+                                ? SyncStep.State.SUCCEEDED : SyncStep.State.FAILED);
+                        finished.add(step);
+                    });
+                    inFlight++;
+                }
+
+                SyncStep step = finished.take();
+                inFlight--;
+                remaining--;
+                if (step.getState() == SyncStep.State.SUCCEEDED) {
+                    for (SyncStep dependent : step.dependents) {
+                        if (--dependent.unfinishedDependencies == 0 && dependent.getState() == SyncStep.State.WAITING) {
+                            ready.add(dependent);
+                        }
+                    }
+                } else {
+                    logger.error("Sync step failed, skipping what depends on it: {}", step.getJob());
+                    remaining -= skipDependents(step);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Sync plan interrupted with {} steps unfinished", remaining);
+        }
+
+        plan.markFinished();
+        MetricsRegistry.getInstance().timer("sync.plan", "outcome", plan.isSuccess() ? "success" : "error")
+                .recordSince(start);
+        logger.info("Sync plan finished: {}", plan.getReport());
+        return plan;
+    }
+
+    /**
+     * Mark every step downstream of a failed one as skipped
+     *
+     * @return the number of steps newly skipped
+     */
+    private static int skipDependents(SyncStep failed) {
+        int skipped = 0;
+        Deque<SyncStep> stack = new ArrayDeque<>(failed.dependents);
+        while (!stack.isEmpty()) {
+            SyncStep step = stack.pop();
+            if (step.getState() == SyncStep.State.WAITING) {
+                step.setState(SyncStep.State.SKIPPED);
+                skipped++;
+                stack.addAll(step.dependents);
+            }
+        }
+        return skipped;
+    }
+}
@@ -0,0 +1,125 @@
+package com.p6ebs.integration.sync;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * A request to run a sync procedure for zero, one or many IDs. Requests with
+ * several IDs are executed as one batched round trip.
+ */
+public class SyncRequest {
+    private final SyncOperation operation;
+    private final List<Long> ids;
+
+    public SyncRequest(SyncOperation operation, Long id) {
+        this(operation, id == null ? Collections.<Long>emptyList() : Collections.singletonList(id));
+    }
+
+    public SyncRequest(SyncOperation operation, Collection<Long> ids) {
+        if (operation.requiresId() && ids.isEmpty()) {
+            throw new IllegalArgumentException(operation.getLabel() + " requires at least one ID");
+        }
+        if (!operation.requiresId() && !ids.isEmpty()) {
+            throw new IllegalArgumentException(operation.getLabel() + " does not take IDs");
+        }
+        this.operation = operation;
+        // Drop duplicates but keep the caller's ordering
+        this.ids = Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(ids)));
+    }
+
+    public static SyncRequest project(long projectId) {
+        return new SyncRequest(SyncOperation.PROJECT, projectId);
+    }
+
+    public static SyncRequest projects(Collection<Long> projectIds) {
+        return new SyncRequest(SyncOperation.PROJECT, projectIds);
+    }
+
+    public static SyncRequest allProjects() {
+        return new SyncRequest(SyncOperation.ALL_PROJECTS, Collections.<Long>emptyList());
+    }
+
+    public static SyncRequest reverseProjects() {
+        return new SyncRequest(SyncOperation.REVERSE_PROJECTS, Collections.<Long>emptyList());
+    }
+
+    public static SyncRequest projectTasks(long projectId) {
+        return new SyncRequest(SyncOperation.PROJECT_TASKS, projectId);
+    }
+
+    public static SyncRequest projectTasks(Collection<Long> projectIds) {
+        return new SyncRequest(SyncOperation.PROJECT_TASKS, projectIds);
+    }
+
+    /**
+     * Sync a project's tasks chunk by chunk, resuming an earlier failed run
+     */
+    public static SyncRequest chunkedProjectTasks(long projectId) {
+        return new SyncRequest(SyncOperation.CHUNKED_PROJECT_TASKS, projectId);
+    }
+
+    public static SyncRequest chunkedProjectTasks(Collection<Long> projectIds) {
+        return new SyncRequest(SyncOperation.CHUNKED_PROJECT_TASKS, projectIds);
+    }
+
+    public static SyncRequest task(long taskId) {
+        return new SyncRequest(SyncOperation.TASK, taskId);
+    }
+
+    public static SyncRequest tasks(Collection<Long> taskIds) {
+        return new SyncRequest(SyncOperation.TASK, taskIds);
+    }
+
+    public static SyncRequest resource(long resourceId) {
+        return new SyncRequest(SyncOperation.RESOURCE, resourceId);
+    }
+
+    public static SyncRequest resources(Collection<Long> resourceIds) {
+        return new SyncRequest(SyncOperation.RESOURCE, resourceIds);
+    }
+
+    public static SyncRequest allResources() {
+        return new SyncRequest(SyncOperation.ALL_RESOURCES, Collections.<Long>emptyList());
+    }
+
+    public static SyncRequest assignments(long projectId) {
+        return new SyncRequest(SyncOperation.ASSIGNMENTS, projectId);
+    }
+
+    public static SyncRequest assignments(Collection<Long> projectIds) {
+        return new SyncRequest(SyncOperation.ASSIGNMENTS, projectIds);
+    }
+
+    public static SyncRequest dependencies(long projectId) {
+        return new SyncRequest(SyncOperation.DEPENDENCIES, projectId);
+    }
+
+    public static SyncRequest dependencies(Collection<Long> projectIds) {
+        return new SyncRequest(SyncOperation.DEPENDENCIES, projectIds);
+    }
+
+    public SyncOperation getOperation() { return operation; }
+
+    public SyncTarget getTarget() { return operation.getTarget(); }
+
+    /**
+     * The first (usually only) ID, or null for operations that take none
+     */
+    public Long getId() { return ids.isEmpty() ? null : ids.get(0); }
+
+    public List<Long> getIds() { return ids; }
+
+    /** Whether the request covers more than one ID */
+    public boolean isBatch() { return ids.size() > 1; }
+
+    @Override
+    public String toString() {
+        if (ids.isEmpty()) {
+            return operation.getLabel();
+        }
+        return operation.getLabel() + (isBatch() ? " [" + ids.size() + " IDs]" : " [" + ids.get(0) + "]");
+    }
+}
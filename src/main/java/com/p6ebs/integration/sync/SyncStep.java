@@ -0,0 +1,66 @@
+package com.p6ebs.integration.sync;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One sync request in a {@link SyncPlan}, with the steps that must succeed
+ * before it may start
+ */
+public class SyncStep {
+
+    /**
+     * Where a step stands while its plan runs
+     */
+    public enum State {
+        WAITING, RUNNING, SUCCEEDED, FAILED, SKIPPED
+    }
+
+    private final int index;
+    private final SyncRequest request;
+    private final List<SyncStep> dependencies = new ArrayList<>();
+    final List<SyncStep> dependents = new ArrayList<>();
+    // Longest chain of steps from this one to the end of the plan, itself included
+    int height = 1;
+    int unfinishedDependencies;
+    private volatile State state = State.WAITING;
+    private volatile SyncJob job;
+
+    SyncStep(int index, SyncRequest request, List<SyncStep> dependencies) {
+        this.index = index;
+        this.request = request;
+        for (SyncStep dependency : dependencies) {
+            this.dependencies.add(dependency);
+            dependency.dependents.add(this);
+        }
+        this.unfinishedDependencies = dependencies.size();
+    }
+
+    /** Position in the plan, dependencies always come first */
+    public int getIndex() { return index; }
+
+    public SyncRequest getRequest() { return request; }
+
+    public List<SyncStep> getDependencies() { return Collections.unmodifiableList(dependencies); }
+
+    public State getState() { return state; }
+
+    void setState(State state) { this.state = state; }
+
+    /** The submitted job, or null if the step never started */
+    public SyncJob getJob() { return job; }
+
+    void setJob(SyncJob job) { this.job = job; }
+
+    /** Time spent in the procedure, 0 if the step never ran */
+    public long getRunMillis() { return job != null ? job.getRunMillis() : 0L; }
+
+    /** Wall-clock finish time, 0 if the step never ran */
+    public long getFinishedAt() { return job != null ? job.getFinishedAt() : 0L; }
+
+    @Override
+    public String toString() {
+        return request + " " + state + (job != null ? " (" + getRunMillis() + " ms)" : "");
+    }
+}
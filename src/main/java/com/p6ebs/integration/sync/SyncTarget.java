@@ -0,0 +1,12 @@
+package com.p6ebs.integration.sync;
+
+/**
+ * Kinds of entity that can be synchronized between P6 and EBS
+ */
+public enum SyncTarget {
+    PROJECT,
+    TASK,
+    RESOURCE,
+    ASSIGNMENT,
+    DEPENDENCY
+}
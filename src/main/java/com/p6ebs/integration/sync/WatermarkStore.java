@@ -0,0 +1,99 @@
+package com.p6ebs.integration.sync;
+
+import com.p6ebs.integration.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.util.Properties;
+
+/**
+ * Persists the per-entity high-water marks used by incremental sync in a local
+ * properties file. A missing mark means the entity has never been synced
+ * incrementally and a full read is needed.
+ */
+public class WatermarkStore {
+    private static final Logger logger = LoggerUtil.getLogger(WatermarkStore.class);
+
+    static final String DEFAULT_FILE = "config/watermarks.properties";
+
+    private final File file;
+
+    public WatermarkStore() {
+        this(new File(DEFAULT_FILE));
+    }
+
+    public WatermarkStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Get the last change time synced for an entity, or null if there is none
+     */
+    public synchronized Timestamp get(String entity) {
+        String value = load().getProperty(key(entity));
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return new Timestamp(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring invalid watermark for {}: {}", entity, value);
+            return null;
+        }
+    }
+
+    /**
+     * Record the last change time synced for an entity
+     */
+    public synchronized void set(String entity, Timestamp watermark) {
+        Properties props = load();
+        props.setProperty(key(entity), String.valueOf(watermark.getTime()));
+        store(props);
+        logger.info("Watermark for {} advanced to {}", entity, watermark);
+    }
+
+    /**
+     * Forget the mark for an entity so that the next incremental sync reads everything
+     */
+    public synchronized void reset(String entity) {
+        Properties props = load();
+        if (props.remove(key(entity)) != null) {
+            store(props);
+            logger.info("Watermark for {} reset", entity);
+        }
+    }
+
+    private static String key(String entity) {
+        return "watermark." + entity.toLowerCase();
+    }
+
+    private Properties load() {
+        Properties props = new Properties();
+        if (file.exists()) {
+            try (InputStream input = new FileInputStream(file)) {
+                props.load(input);
+            } catch (IOException e) {
+                logger.error("Error loading watermarks from " + file, e);
+            }
+        }
+        return props;
+    }
+
+    private void store(Properties props) {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists()) {
+            dir.mkdirs();
+        }
+        try (OutputStream output = new FileOutputStream(file)) {
+            props.store(output, "P6-EBS Integration incremental sync watermarks (epoch millis)");
+        } catch (IOException e) {
+            logger.error("Error saving watermarks to " + file, e);
+        }
+    }
+}
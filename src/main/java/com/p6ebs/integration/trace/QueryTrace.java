@@ -0,0 +1,99 @@
+package com.p6ebs.integration.trace;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * One traced statement execution: the SQL and bind values, and where its time
+ * went. Execute time is the driver call itself, fetch time is spent inside
+ * ResultSet.next(), and mapping time is the rest of the time the result set
+ * was open, spent by the caller turning rows into objects.
+ */
+public class QueryTrace {
+    private final String pool;
+    private final String sql;
+    private final String binds;
+    private final long startedAt;
+    private final String thread;
+    private final long executeNanos;
+    private final long fetchNanos;
+    private final long mappingNanos;
+    private final long rows;
+    private final int fetchSize;
+    private final int batchSize;
+    private final String error;
+
+    QueryTrace(String pool, String sql, String binds, long startedAt, String thread, long executeNanos,
+               long fetchNanos, long mappingNanos, long rows, int fetchSize, int batchSize, String error) {
+        this.pool = pool;
+        this.sql = sql;
+        this.binds = binds;
+        this.startedAt = startedAt;
+        this.thread = thread;
+        this.executeNanos = executeNanos;
+        this.fetchNanos = fetchNanos;
+        this.mappingNanos = mappingNanos;
+        this.rows = rows;
+        this.fetchSize = fetchSize;
+        this.batchSize = batchSize;
+        this.error = error;
+    }
+
+    public String getPool() { return pool; }
+
+    public String getSql() { return sql; }
+
+    /** Bind values in parameter order, for example {@code 1=1042, 2='TK_Active'} */
+    public String getBinds() { return binds; }
+
+    public long getStartedAt() { return startedAt; }
+
+    public String getThread() { return thread; }
+
+    public long getExecuteNanos() { return executeNanos; }
+
+    public long getFetchNanos() { return fetchNanos; }
+
+    public long getMappingNanos() { return mappingNanos; }
+
+    public long getTotalNanos() { return executeNanos + fetchNanos + mappingNanos; }
+
+    public double getTotalMillis() { return getTotalNanos() / 1_000_000.0; }
+
+    /** Rows read through the result set, or the update count of an update */
+    public long getRows() { return rows; }
+
+    public int getFetchSize() { return fetchSize; }
+
+    /** Number of parameter sets sent by executeBatch, or 0 for a single execution */
+    public int getBatchSize() { return batchSize; }
+
+    /** Message of the SQLException the statement failed with, or null */
+    public String getError() { return error; }
+
+    /**
+     * Single-line form written to the slow query log
+     */
+    public String toLogLine() {
+        StringBuilder line = new StringBuilder();
+        line.append(String.format("%.1f ms [execute %.1f, fetch %.1f, mapping %.1f] pool=%s rows=%d fetchSize=%d",
+                getTotalMillis(), executeNanos / 1e6, fetchNanos / 1e6, mappingNanos / 1e6, pool, rows, fetchSize));
+        if (batchSize > 0) {
+            line.append(" batch=").append(batchSize);
+        }
+        line.append(" thread=").append(thread);
+        if (error != null) {
+            line.append(" error=\"").append(error).append('"');
+        }
+        line.append(" sql=\"").append(sql.replaceAll("\\s+", " ").trim()).append('"');
+        if (!binds.isEmpty()) {
+            line.append(" binds=[").append(binds).append(']');
+        }
+        return line.toString();
+    }
+
+    @Override
+    public String toString() {
+        return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date(startedAt)) + " " + toLogLine();
+    }
+}
@@ -0,0 +1,93 @@
+package com.p6ebs.integration.trace;
+
+import com.p6ebs.integration.metrics.MetricsRegistry;
+import com.p6ebs.integration.util.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Records statements slower than a threshold. Connections handed out by
+ * DatabaseManager are wrapped so that every statement is timed; those at or
+ * above {@code trace.slow.query.millis}, and any that fail, are kept in a
+ * bounded in-memory buffer and written to the slow query log
+ * (logs/slow-queries.log).
+ */
+public final class QueryTracer {
+    private static final Logger slowQueryLog = LogManager.getLogger("com.p6ebs.integration.trace.SlowQueries");
+    private static final QueryTracer INSTANCE = new QueryTracer();
+
+    private final Object lock = new Object();
+    private final ArrayDeque<QueryTrace> buffer = new ArrayDeque<>();
+    private final int capacity;
+    private volatile boolean enabled;
+    private volatile long thresholdNanos;
+
+    private QueryTracer() {
+        this.enabled = Boolean.parseBoolean(ConfigManager.getProperty("trace.enabled", "true").trim());
+        this.capacity = Math.max(1, ConfigManager.getIntProperty("trace.buffer.size", 200));
+        this.thresholdNanos = ConfigManager.getIntProperty("trace.slow.query.millis", 1000) * 1_000_000L;
+    }
+
+    public static QueryTracer getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Wrap a connection so its statements are traced, or return it unchanged when tracing is off
+     */
+    public Connection wrap(String pool, Connection connection) {
+        return enabled ? TracingProxies.wrap(connection, pool, this) : connection;
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /** Connections borrowed after this call are affected; open ones keep their current behavior */
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long getThresholdMillis() { return thresholdNanos / 1_000_000L; }
+
+    public void setThresholdMillis(long thresholdMillis) {
+        this.thresholdNanos = Math.max(0, thresholdMillis) * 1_000_000L;
+    }
+
+    /**
+     * Traced statements currently in the buffer, slowest first
+     */
+    public List<QueryTrace> getTraces() {
+        List<QueryTrace> traces;
+        synchronized (lock) {
+            traces = new ArrayList<>(buffer);
+        }
+        traces.sort(Comparator.comparingLong(QueryTrace::getTotalNanos).reversed());
+        return traces;
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            buffer.clear();
+        }
+    }
+
+    void record(String pool, String sql, String binds, long startedAt, long executeNanos, long fetchNanos,
+                long mappingNanos, long rows, int fetchSize, int batchSize, String error) {
+        if (error == null && executeNanos + fetchNanos + mappingNanos < thresholdNanos) {
+            return;
+        }
+        QueryTrace trace = new QueryTrace(pool, sql, binds, startedAt, Thread.currentThread().getName(),
+                executeNanos, fetchNanos, mappingNanos, rows, fetchSize, batchSize, error);
+        synchronized (lock) {
+            if (buffer.size() == capacity) {
+                buffer.removeFirst();
+            }
+            buffer.addLast(trace);
+        }
+        MetricsRegistry.getInstance().counter("db.slow.queries", "pool", pool).increment();
+        slowQueryLog.warn(trace.toLogLine());
+    }
+}
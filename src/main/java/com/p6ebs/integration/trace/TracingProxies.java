@@ -0,0 +1,209 @@
+package com.p6ebs.integration.trace;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Dynamic proxies for Connection, Statement and ResultSet that time execution
+ * and row fetching and capture bind values, handing finished executions to a
+ * {@link QueryTracer}
+ */
+final class TracingProxies {
+    private static final int MAX_BIND_LENGTH = 100;
+
+    private TracingProxies() {}
+
+    static Connection wrap(Connection connection, String pool, QueryTracer tracer) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection, pool, tracer));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final String pool;
+        private final QueryTracer tracer;
+
+        ConnectionHandler(Connection target, String pool, QueryTracer tracer) {
+            this.target = target;
+            this.pool = pool;
+            this.tracer = tracer;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = TracingProxies.invoke(target, method, args);
+            String name = method.getName();
+            if (result instanceof Statement
+                    && (name.equals("prepareStatement") || name.equals("prepareCall") || name.equals("createStatement"))) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                        : result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{type},
+                        new StatementHandler((Statement) result, sql, pool, tracer));
+            }
+            return result;
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String pool;
+        private final QueryTracer tracer;
+        private final Map<String, String> binds = new TreeMap<>(StatementHandler::compareKeys);
+        private String sql;
+        private int batchSize;
+
+        StatementHandler(Statement target, String sql, String pool, QueryTracer tracer) {
+            this.target = target;
+            this.sql = sql;
+            this.pool = pool;
+            this.tracer = tracer;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2
+                    && (args[0] instanceof Integer || args[0] instanceof String)) {
+                binds.put(String.valueOf(args[0]), name.equals("setNull") ? "NULL" : format(args[1]));
+            } else if (name.equals("clearParameters")) {
+                binds.clear();
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+            } else if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            return TracingProxies.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            if (args != null && args.length > 0 && args[0] instanceof String) {
+                sql = (String) args[0];
+            }
+            long startedAt = System.currentTimeMillis();
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = TracingProxies.invoke(target, method, args);
+            } catch (Throwable e) {
+                finish(startedAt, System.nanoTime() - start, 0, 0, 0, e.getMessage());
+                throw e;
+            }
+            long executeNanos = System.nanoTime() - start;
+
+            if (result instanceof ResultSet) {
+                ResultSetHandler handler = new ResultSetHandler((ResultSet) result, this, startedAt, executeNanos);
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[]{ResultSet.class}, handler);
+            }
+            long rows = result instanceof Integer ? (Integer) result
+                    : result instanceof Long ? (Long) result
+                    : result instanceof int[] ? ((int[]) result).length : 0;
+            finish(startedAt, executeNanos, 0, 0, rows, null);
+            batchSize = 0;
+            return result;
+        }
+
+        void finish(long startedAt, long executeNanos, long fetchNanos, long mappingNanos, long rows, String error) {
+            int fetchSize;
+            try {
+                fetchSize = target.getFetchSize();
+            } catch (Exception e) {
+                fetchSize = 0;
+            }
+            tracer.record(pool, sql != null ? sql : "", binds.isEmpty() ? "" : bindText(), startedAt,
+                    executeNanos, fetchNanos, mappingNanos, rows, fetchSize, batchSize, error);
+        }
+
+        private String bindText() {
+            StringBuilder text = new StringBuilder();
+            for (Map.Entry<String, String> bind : binds.entrySet()) {
+                if (text.length() > 0) {
+                    text.append(", ");
+                }
+                text.append(bind.getKey()).append('=').append(bind.getValue());
+            }
+            return text.toString();
+        }
+
+        /**
+         * Order numeric parameter indexes numerically and named parameters by name
+         */
+        private static int compareKeys(String a, String b) {
+            boolean aNumeric = !a.isEmpty() && Character.isDigit(a.charAt(0));
+            boolean bNumeric = !b.isEmpty() && Character.isDigit(b.charAt(0));
+            if (aNumeric && bNumeric) {
+                return Integer.compare(Integer.parseInt(a), Integer.parseInt(b));
+            }
+            return aNumeric != bNumeric ? (aNumeric ? -1 : 1) : a.compareTo(b);
+        }
+
+        private static String format(Object value) {
+            if (value == null) {
+                return "NULL";
+            }
+            String text = String.valueOf(value);
+            if (text.length() > MAX_BIND_LENGTH) {
+                text = text.substring(0, MAX_BIND_LENGTH) + "...";
+            }
+            return value instanceof Number ? text : "'" + text + "'";
+        }
+    }
+
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final StatementHandler statement;
+        private final long startedAt;
+        private final long executeNanos;
+        private final long openedAt = System.nanoTime();
+        private long fetchNanos;
+        private long rows;
+        private boolean finished;
+
+        ResultSetHandler(ResultSet target, StatementHandler statement, long startedAt, long executeNanos) {
+            this.target = target;
+            this.statement = statement;
+            this.startedAt = startedAt;
+            this.executeNanos = executeNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("next")) {
+                long start = System.nanoTime();
+                Object result = TracingProxies.invoke(target, method, args);
+                fetchNanos += System.nanoTime() - start;
+                if (Boolean.TRUE.equals(result)) {
+                    rows++;
+                }
+                return result;
+            }
+            if (name.equals("close") && !finished) {
+                finished = true;
+                long openNanos = System.nanoTime() - openedAt;
+                statement.finish(startedAt, executeNanos, fetchNanos, Math.max(0, openNanos - fetchNanos), rows, null);
+            }
+            return TracingProxies.invoke(target, method, args);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.p6ebs.integration.ui;
+
+import com.p6ebs.integration.diff.ComparedRow;
+import com.p6ebs.integration.diff.Comparison;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Side-by-side view of P6 and EBS rows. Fields that differ between matched
+ * rows are highlighted, as are rows that exist on one side only.
+ */
+public class ComparisonDialog extends JDialog {
+    private static final Color MISMATCH_COLOR = new Color(255, 205, 205);
+    private static final Color ONE_SIDED_COLOR = new Color(255, 240, 190);
+
+    private final Supplier<CompletableFuture<Comparison>> loader;
+    private final ComparisonTableModel tableModel = new ComparisonTableModel();
+    private final JTable table;
+    private final JCheckBox mismatchesOnlyCheckBox;
+    private final JButton refreshButton;
+    private final JLabel statusLabel;
+    private Comparison comparison;
+
+    /**
+     * @param loader starts the comparison without blocking; called on the Event Dispatch Thread
+     */
+    public ComparisonDialog(Window owner, String title, Supplier<CompletableFuture<Comparison>> loader) {
+        super(owner, title, ModalityType.MODELESS);
+        this.loader = loader;
+        setSize(1100, 600);
+        setLocationRelativeTo(owner);
+        setLayout(new BorderLayout());
+
+        JPanel toolbarPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        mismatchesOnlyCheckBox = new JCheckBox("Show differences only");
+        mismatchesOnlyCheckBox.addActionListener(e -> showRows());
+        toolbarPanel.add(mismatchesOnlyCheckBox);
+
+        refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> load());
+        toolbarPanel.add(refreshButton);
+        add(toolbarPanel, BorderLayout.NORTH);
+
+        table = new JTable(tableModel);
+        table.setAutoCreateRowSorter(true);
+        table.setDefaultRenderer(Object.class, new ComparisonCellRenderer());
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        JPanel statusPanel = new JPanel(new BorderLayout());
+        statusPanel.setBorder(BorderFactory.createEtchedBorder());
+        statusLabel = new JLabel("Ready");
+        statusPanel.add(statusLabel, BorderLayout.WEST);
+        add(statusPanel, BorderLayout.SOUTH);
+
+        load();
+    }
+
+    private void load() {
+        refreshButton.setEnabled(false);
+        statusLabel.setText("Loading P6, EBS and staging data...");
+
+        // The sources load on the background executor; only the result comes back to the EDT
+        loader.get().whenComplete((result, error) -> SwingUtilities.invokeLater(() -> loaded(result, error)));
+    }
+
+    private void loaded(Comparison result, Throwable error) {
+        refreshButton.setEnabled(true);
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            cause.printStackTrace();
+            statusLabel.setText("Error loading comparison");
+            JOptionPane.showMessageDialog(
+                    ComparisonDialog.this,
+                    "Error loading comparison: " + cause.getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE
+            );
+            return;
+        }
+        comparison = result;
+        tableModel.setFieldNames(comparison.getFieldNames());
+        showRows();
+    }
+
+    private void showRows() {
+        if (comparison == null) {
+            return;
+        }
+        List<ComparedRow> rows = new ArrayList<>();
+        for (ComparedRow row : comparison.getRows()) {
+            if (!mismatchesOnlyCheckBox.isSelected() || row.hasMismatch()) {
+                rows.add(row);
+            }
+        }
+        tableModel.setRows(rows);
+        statusLabel.setText(comparison.getRows().size() + " rows, " + comparison.getMismatchCount()
+                + " with differences. Loaded in " + comparison.getElapsedMillis() + " ms (P6 "
+                + comparison.getP6Millis() + " ms, EBS " + comparison.getEbsMillis() + " ms, staging "
+                + comparison.getStagingMillis() + " ms, in parallel)");
+    }
+
+    /**
+     * Columns: P6 ID, EBS ID, then a P6 and an EBS column per compared field, then the staging sync status
+     */
+    private static class ComparisonTableModel extends AbstractTableModel {
+        private String[] fieldNames = new String[0];
+        private List<ComparedRow> rows = new ArrayList<>();
+
+        void setFieldNames(String[] fieldNames) {
+            this.fieldNames = fieldNames;
+            fireTableStructureChanged();
+        }
+
+        void setRows(List<ComparedRow> rows) {
+            this.rows = rows;
+            fireTableDataChanged();
+        }
+
+        ComparedRow getRow(int row) {
+            return rows.get(row);
+        }
+
+        /**
+         * Compared field shown in a column, or -1 for the ID and status columns
+         */
+        int fieldOf(int column) {
+            return column >= 2 && column < 2 + fieldNames.length * 2 ? (column - 2) / 2 : -1;
+        }
+
+        @Override
+        public int getRowCount() { return rows.size(); }
+
+        @Override
+        public int getColumnCount() { return 3 + fieldNames.length * 2; }
+
+        @Override
+        public String getColumnName(int column) {
+            if (column == 0) {
+                return "P6 ID";
+            } else if (column == 1) {
+                return "EBS ID";
+            } else if (column == getColumnCount() - 1) {
+                return "Sync Status";
+            }
+            return ((column - 2) % 2 == 0 ? "P6 " : "EBS ") + fieldNames[fieldOf(column)];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column < 2 ? Long.class : String.class;
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int column) {
+            ComparedRow row = rows.get(rowIndex);
+            if (column == 0) {
+                return row.getP6Id();
+            } else if (column == 1) {
+                return row.getEbsId();
+            } else if (column == getColumnCount() - 1) {
+                return row.getSyncStatus();
+            }
+            int field = fieldOf(column);
+            return (column - 2) % 2 == 0 ? row.getP6Value(field) : row.getEbsValue(field);
+        }
+    }
+
+    private class ComparisonCellRenderer extends DefaultTableCellRenderer {
+        private final DefaultTableCellRenderer numberRenderer = new DefaultTableCellRenderer();
+
+        ComparisonCellRenderer() {
+            numberRenderer.setHorizontalAlignment(SwingConstants.RIGHT);
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            DefaultTableCellRenderer renderer = value instanceof Number ? numberRenderer : this;
+            renderer.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            if (!isSelected) {
+                ComparedRow comparedRow = tableModel.getRow(table.convertRowIndexToModel(row));
+                int field = tableModel.fieldOf(table.convertColumnIndexToModel(column));
+                if (comparedRow.isP6Only() || comparedRow.isEbsOnly()) {
+                    renderer.setBackground(ONE_SIDED_COLOR);
+                } else if (field >= 0 && comparedRow.isMismatch(field)) {
+                    renderer.setBackground(MISMATCH_COLOR);
+                } else {
+                    renderer.setBackground(table.getBackground());
+                }
+            }
+            return renderer;
+        }
+    }
+}
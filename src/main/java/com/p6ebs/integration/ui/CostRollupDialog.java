@@ -0,0 +1,219 @@
+package com.p6ebs.integration.ui;
+
+import com.p6ebs.integration.cache.ReferenceDataCache;
+import com.p6ebs.integration.exec.BackgroundExecutor;
+import com.p6ebs.integration.model.Project;
+import com.p6ebs.integration.rollup.CostLine;
+import com.p6ebs.integration.rollup.CostRollupEngine;
+import com.p6ebs.integration.rollup.CostTotals;
+import com.p6ebs.integration.rollup.PortfolioCostRollup;
+import com.p6ebs.integration.rollup.ProjectCostRollup;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Planned, actual and remaining cost of P6 resource assignments across all
+ * projects, by project, by resource and down the WBS of a selected project
+ */
+public class CostRollupDialog extends JDialog {
+    private final CostTableModel projectModel = new CostTableModel("Project");
+    private final CostTableModel resourceModel = new CostTableModel("Resource");
+    private final CostTableModel wbsModel = new CostTableModel("WBS");
+    private final JTable projectTable;
+    private final JComboBox<Integer> levelsComboBox;
+    private final JButton refreshButton;
+    private final JLabel statusLabel;
+    private final JLabel wbsLabel;
+    private PortfolioCostRollup rollup;
+
+    public CostRollupDialog(Window owner) {
+        super(owner, "Resource Cost Rollup", ModalityType.MODELESS);
+        setSize(1100, 600);
+        setLocationRelativeTo(owner);
+        setLayout(new BorderLayout());
+
+        JPanel toolbarPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> {
+            CostRollupEngine.getInstance().invalidateAll();
+            ReferenceDataCache.getInstance().invalidateTasks();
+            load();
+        });
+        toolbarPanel.add(refreshButton);
+
+        toolbarPanel.add(new JLabel("WBS levels:"));
+        levelsComboBox = new JComboBox<>(new Integer[]{1, 2, 3, 4, 5, 10});
+        levelsComboBox.setSelectedItem(2);
+        levelsComboBox.addActionListener(e -> showWbs());
+        toolbarPanel.add(levelsComboBox);
+        add(toolbarPanel, BorderLayout.NORTH);
+
+        projectTable = costTable(projectModel);
+        projectTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        projectTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                showWbs();
+            }
+        });
+
+        JPanel wbsPanel = new JPanel(new BorderLayout());
+        wbsLabel = new JLabel("Select a project on the By Project tab");
+        wbsPanel.add(wbsLabel, BorderLayout.NORTH);
+        wbsPanel.add(new JScrollPane(costTable(wbsModel)), BorderLayout.CENTER);
+
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("By Project", new JScrollPane(projectTable));
+        tabs.addTab("By Resource", new JScrollPane(costTable(resourceModel)));
+        tabs.addTab("By WBS", wbsPanel);
+        add(tabs, BorderLayout.CENTER);
+
+        JPanel statusPanel = new JPanel(new BorderLayout());
+        statusPanel.setBorder(BorderFactory.createEtchedBorder());
+        statusLabel = new JLabel("Ready");
+        statusPanel.add(statusLabel, BorderLayout.WEST);
+        add(statusPanel, BorderLayout.SOUTH);
+
+        load();
+    }
+
+    private void load() {
+        refreshButton.setEnabled(false);
+        statusLabel.setText("Summing resource assignments...");
+
+        SwingWorker<PortfolioCostRollup, Void> worker = new SwingWorker<>() {
+            @Override
+            protected PortfolioCostRollup doInBackground() throws Exception {
+                List<Project> projects = BackgroundExecutor.getInstance().callGated(BackgroundExecutor.Pool.P6,
+                        () -> ReferenceDataCache.getInstance().getP6Projects());
+                return CostRollupEngine.getInstance().getPortfolioRollup(projects);
+            }
+
+            @Override
+            protected void done() {
+                refreshButton.setEnabled(true);
+                try {
+                    rollup = get();
+                    projectModel.setLines(rollup.getProjectLines());
+                    resourceModel.setLines(rollup.getResourceLines());
+                    wbsModel.setLines(new ArrayList<>());
+                    CostTotals totals = rollup.getTotals();
+                    statusLabel.setText(String.format("%d projects, %d assignments: planned %,.2f, actual %,.2f, "
+                                    + "remaining %,.2f. Computed in %d ms",
+                            rollup.getProjects().size(), totals.getAssignmentCount(), totals.getPlannedCost(),
+                            totals.getActualCost(), totals.getRemainingCost(), rollup.getElapsedMillis()));
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    statusLabel.setText("Error computing cost rollup");
+                    JOptionPane.showMessageDialog(
+                            CostRollupDialog.this,
+                            "Error computing cost rollup: " + e.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE
+                    );
+                }
+            }
+        };
+
+        // The rollup tasks wait for P6 connections themselves, so the worker holds none while they run
+        BackgroundExecutor.getInstance().execute(BackgroundExecutor.Pool.NONE, worker);
+    }
+
+    private void showWbs() {
+        int selectedRow = projectTable.getSelectedRow();
+        if (rollup == null || selectedRow < 0) {
+            return;
+        }
+        ProjectCostRollup project = rollup.getProjects().get(projectTable.convertRowIndexToModel(selectedRow));
+        int levels = (Integer) levelsComboBox.getSelectedItem();
+        wbsModel.setLines(project.getWbsLines(levels - 1));
+        String label = project.getProjectName() + ": totals include every task beneath each line";
+        if (project.getUnplacedAssignments() > 0) {
+            label += " (" + project.getUnplacedAssignments() + " assignments on tasks outside the project)";
+        }
+        wbsLabel.setText(label);
+    }
+
+    private static JTable costTable(CostTableModel model) {
+        JTable table = new JTable(model);
+        table.setAutoCreateRowSorter(true);
+        DefaultTableCellRenderer amountRenderer = new DefaultTableCellRenderer() {
+            @Override
+            protected void setValue(Object value) {
+                setText(value instanceof Double ? String.format("%,.2f", (Double) value) : String.valueOf(value));
+            }
+        };
+        amountRenderer.setHorizontalAlignment(SwingConstants.RIGHT);
+        table.setDefaultRenderer(Double.class, amountRenderer);
+        return table;
+    }
+
+    /**
+     * Columns: name, assignment count, then the cost and quantity totals
+     */
+    private static class CostTableModel extends AbstractTableModel {
+        private static final String[] TOTAL_COLUMNS = {"Assignments", "Planned Cost", "Actual Cost",
+                "Remaining Cost", "At Completion", "Variance", "Planned Qty", "Actual Qty", "Remaining Qty"};
+
+        private final String nameColumn;
+        private List<CostLine> lines = new ArrayList<>();
+
+        CostTableModel(String nameColumn) {
+            this.nameColumn = nameColumn;
+        }
+
+        void setLines(List<CostLine> lines) {
+            this.lines = lines;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() { return lines.size(); }
+
+        @Override
+        public int getColumnCount() { return 1 + TOTAL_COLUMNS.length; }
+
+        @Override
+        public String getColumnName(int column) {
+            return column == 0 ? nameColumn : TOTAL_COLUMNS[column - 1];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            if (column == 0) {
+                return String.class;
+            }
+            return column == 1 ? Integer.class : Double.class;
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int column) {
+            CostLine line = lines.get(rowIndex);
+            CostTotals totals = line.getTotals();
+            switch (column) {
+                case 0: return indent(line.getDepth()) + line.getName();
+                case 1: return totals.getAssignmentCount();
+                case 2: return totals.getPlannedCost();
+                case 3: return totals.getActualCost();
+                case 4: return totals.getRemainingCost();
+                case 5: return totals.getAtCompletionCost();
+                case 6: return totals.getCostVariance();
+                case 7: return totals.getPlannedQuantity();
+                case 8: return totals.getActualQuantity();
+                default: return totals.getRemainingQuantity();
+            }
+        }
+
+        private static String indent(int depth) {
+            StringBuilder indent = new StringBuilder();
+            for (int i = 0; i < depth; i++) {
+                indent.append("    ");
+            }
+            return indent.toString();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.p6ebs.integration.ui;
+
+import com.p6ebs.integration.exec.BackgroundExecutor;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Asks for a target file and writes a CSV export to it off the Event Dispatch Thread
+ */
+final class CsvExport {
+
+    /**
+     * Produces the export; runs on a background thread
+     */
+    interface Content {
+        /**
+         * @return number of data rows written
+         */
+        int write(Writer out) throws IOException;
+    }
+
+    private CsvExport() {}
+
+    /**
+     * @param pool connection pool the content reads from
+     */
+    static void export(Component parent, String suggestedName, BackgroundExecutor.Pool pool, Content content) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File(suggestedName));
+        if (chooser.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+
+        SwingWorker<Integer, Void> worker = new SwingWorker<>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                try (BufferedWriter out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                    return content.write(out);
+                }
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    int rows = get();
+                    JOptionPane.showMessageDialog(
+                            parent,
+                            "Exported " + rows + " rows to " + file.getName() + ".",
+                            "Export Complete",
+                            JOptionPane.INFORMATION_MESSAGE
+                    );
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(
+                            parent,
+                            "Error exporting to " + file.getName() + ": " + e.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE
+                    );
+                }
+            }
+        };
+
+        BackgroundExecutor.getInstance().execute(pool, worker);
+    }
+}
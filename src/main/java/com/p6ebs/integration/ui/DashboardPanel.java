@@ -1,12 +1,23 @@
 package com.p6ebs.integration.ui;
 
+import com.p6ebs.integration.cache.ReferenceDataCache;
 import com.p6ebs.integration.dao.ProjectDAO;
+import com.p6ebs.integration.exec.BackgroundExecutor;
 import com.p6ebs.integration.model.Project;
+import com.p6ebs.integration.model.SyncStatistics;
+import com.p6ebs.integration.notify.ChangeListener;
+import com.p6ebs.integration.notify.ChangeNotifier;
+import com.p6ebs.integration.notify.IntegrationChanges;
+import com.p6ebs.integration.sync.SyncJob;
+import com.p6ebs.integration.sync.SyncJobExecutor;
+import com.p6ebs.integration.sync.SyncRequest;
+import com.p6ebs.integration.util.ConfigManager;
 import com.p6ebs.integration.util.LoggerUtil;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.sql.Timestamp;
 import java.util.List;
 import org.apache.logging.log4j.Logger;
 
@@ -18,6 +29,8 @@ public class DashboardPanel extends JPanel {
     private JButton refreshButton;
     private JButton syncAllButton;
     private JLabel statusLabel;
+    private final ChangeListener changeListener =
+            changes -> SwingUtilities.invokeLater(() -> applyChanges(changes));
 
     public DashboardPanel() {
         setLayout(new BorderLayout());
@@ -31,7 +44,10 @@ public class DashboardPanel extends JPanel {
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         refreshButton = new JButton("Refresh");
-        refreshButton.addActionListener(e -> refreshData());
+        refreshButton.addActionListener(e -> {
+            ReferenceDataCache.getInstance().invalidateStatistics();
+            refreshData();
+        });
         buttonPanel.add(refreshButton);
 
         syncAllButton = new JButton("Sync All Projects");
@@ -113,88 +129,34 @@ public class DashboardPanel extends JPanel {
         statusLabel.setText("Loading data...");
         tableModel.setRowCount(0);
 
-        SwingWorker<List<Project>, Void> worker = new SwingWorker<>() {
+        SwingWorker<DashboardData, Void> worker = new SwingWorker<>() {
             @Override
-            protected List<Project> doInBackground() throws Exception {
-                return new ProjectDAO().getStagingProjects();
+            protected DashboardData doInBackground() throws Exception {
+                // Counters come pre-aggregated from the database; only the latest syncs are listed
+                SyncStatistics statistics = ReferenceDataCache.getInstance().getSyncStatistics();
+                List<Project> recent = new ProjectDAO().getRecentStagingProjects(recentLimit());
+                return new DashboardData(statistics, recent);
             }
 
             @Override
             protected void done() {
                 try {
-                    List<Project> projects = get();
-                    int successCount = 0;
-                    int pendingCount = 0;
-                    int errorCount = 0;
-
-                    for (Project project : projects) {
+                    DashboardData data = get();
+                    for (Project project : data.recent) {
                         Object[] row = {
                                 project.getId(),
                                 project.getName(),
                                 project.getSyncStatus(),
-                                project.getStartDate(), // Using start date as proxy for last sync date
+                                project.getLastSyncDate(),
                                 project.getErrorMessage()
                         };
                         tableModel.addRow(row);
-
-                        // Count by status
-                        if (project.getSyncStatus() != null) {
-                            if (project.getSyncStatus().contains("SUCCESS")) {
-                                successCount++;
-                            } else if (project.getSyncStatus().contains("ERROR")) {
-                                errorCount++;
-                            } else {
-                                pendingCount++;
-                            }
-                        }
                     }
 
-                    // Update stats panels
-                    updateStatsPanel(0, String.valueOf(projects.size()));
-                    updateStatsPanel(3, String.valueOf(errorCount));
-
-                    // Fetch task count (simplified - would need a real method in your DAO)
-                    SwingWorker<Integer, Void> taskWorker = new SwingWorker<>() {
-                        @Override
-                        protected Integer doInBackground() throws Exception {
-                            return 42; // Placeholder - implement actual count in DAO
-                        }
+                    showStatistics(data.statistics);
+                    logger.info("Dashboard data refreshed successfully: {}", data.statistics);
 
-                        @Override
-                        protected void done() {
-                            try {
-                                updateStatsPanel(1, get().toString());
-                            } catch (Exception e) {
-                                logger.error("Error getting task count", e);
-                                updateStatsPanel(1, "Error");
-                            }
-                        }
-                    };
-                    taskWorker.execute();
-
-                    // Fetch resource count (simplified)
-                    SwingWorker<Integer, Void> resourceWorker = new SwingWorker<>() {
-                        @Override
-                        protected Integer doInBackground() throws Exception {
-                            return 17; // Placeholder - implement actual count in DAO
-                        }
-
-                        @Override
-                        protected void done() {
-                            try {
-                                updateStatsPanel(2, get().toString());
-                            } catch (Exception e) {
-                                logger.error("Error getting resource count", e);
-                                updateStatsPanel(2, "Error");
-                            }
-                        }
-                    };
-                    resourceWorker.execute();
-
-                    statusLabel.setText("Ready - Last refresh: " + new java.util.Date());
-                    logger.info("Dashboard data refreshed successfully");
-
-                    if (projects.isEmpty()) {
+                    if (data.recent.isEmpty()) {
                         JOptionPane.showMessageDialog(
                                 DashboardPanel.this,
                                 "No recent synchronizations found.",
@@ -221,7 +183,100 @@ public class DashboardPanel extends JPanel {
             }
         };
 
-        worker.execute();
+        BackgroundExecutor.getInstance().execute(BackgroundExecutor.Pool.INTEGRATION, worker);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        ChangeNotifier.getInstance().subscribe(changeListener);
+    }
+
+    @Override
+    public void removeNotify() {
+        // Stop receiving changes once the panel is gone, e.g. after reconnecting
+        ChangeNotifier.getInstance().unsubscribe(changeListener);
+        super.removeNotify();
+    }
+
+    /**
+     * Merge a delta from the change notifier: move re-synced projects to the top
+     * of the recent list and reload the counters, which were invalidated with it
+     */
+    private void applyChanges(IntegrationChanges changes) {
+        if (changes.isProjectsTruncated()) {
+            refreshData();
+            return;
+        }
+        if (!changes.isProjectsChanged() && !changes.isTasksChanged() && !changes.isResourcesChanged()) {
+            return; // Log entries only
+        }
+
+        for (Project project : changes.getChangedProjects()) {
+            for (int row = 0; row < tableModel.getRowCount(); row++) {
+                if (project.getId().equals(tableModel.getValueAt(row, 0))) {
+                    tableModel.removeRow(row);
+                    break;
+                }
+            }
+            tableModel.insertRow(0, new Object[]{
+                    project.getId(),
+                    project.getName(),
+                    project.getSyncStatus(),
+                    project.getLastSyncDate(),
+                    project.getErrorMessage()
+            });
+        }
+        int limit = recentLimit();
+        while (tableModel.getRowCount() > limit) {
+            tableModel.removeRow(tableModel.getRowCount() - 1);
+        }
+
+        SwingWorker<SyncStatistics, Void> worker = new SwingWorker<>() {
+            @Override
+            protected SyncStatistics doInBackground() throws Exception {
+                return ReferenceDataCache.getInstance().getSyncStatistics();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    showStatistics(get());
+                } catch (Exception e) {
+                    logger.error("Error refreshing dashboard counters", e);
+                }
+            }
+        };
+
+        BackgroundExecutor.getInstance().execute(BackgroundExecutor.Pool.INTEGRATION, worker);
+    }
+
+    private void showStatistics(SyncStatistics statistics) {
+        updateStatsPanel(0, String.valueOf(statistics.get(SyncStatistics.EntityType.PROJECT).getTotal()));
+        updateStatsPanel(1, String.valueOf(statistics.get(SyncStatistics.EntityType.TASK).getTotal()));
+        updateStatsPanel(2, String.valueOf(statistics.get(SyncStatistics.EntityType.RESOURCE).getTotal()));
+        updateStatsPanel(3, String.valueOf(statistics.getTotalFailed()));
+
+        Timestamp lastSync = statistics.getLastSyncDate();
+        statusLabel.setText("Ready - Last sync: " + (lastSync != null ? lastSync : "never")
+                + " - Last refresh: " + new java.util.Date());
+    }
+
+    /**
+     * Counters and recent syncs loaded together off the EDT
+     */
+    private static class DashboardData {
+        final SyncStatistics statistics;
+        final List<Project> recent;
+
+        DashboardData(SyncStatistics statistics, List<Project> recent) {
+            this.statistics = statistics;
+            this.recent = recent;
+        }
+    }
+
+    private static int recentLimit() {
+        return ConfigManager.getIntProperty("dashboard.recent.limit", 50);
     }
 
     private void updateStatsPanel(int index, String value) {
@@ -296,60 +351,44 @@ public class DashboardPanel extends JPanel {
         );
 
         if (choice == JOptionPane.YES_OPTION) {
-            statusLabel.setText("Starting full synchronization...");
+            statusLabel.setText("Full synchronization queued...");
             syncAllButton.setEnabled(false);
 
-            SwingWorker<Boolean, Void> worker = new SwingWorker<>() {
-                @Override
-                protected Boolean doInBackground() throws Exception {
-                    return new ProjectDAO().triggerAllProjectsSync();
-                }
-
-                @Override
-                protected void done() {
-                    try {
-                        if (get()) {
-                            logger.info("Full synchronization started successfully");
-                            statusLabel.setText("Full synchronization started");
-                            JOptionPane.showMessageDialog(
-                                    DashboardPanel.this,
-                                    "Full synchronization started successfully.",
-                                    "Success",
-                                    JOptionPane.INFORMATION_MESSAGE
-                            );
-                            // Refresh after a short delay to show updated status
-                            Timer timer = new Timer(3000, e -> {
-                                refreshData();
-                                syncAllButton.setEnabled(true);
-                            });
-                            timer.setRepeats(false);
-                            timer.start();
-                        } else {
-                            logger.error("Failed to start full synchronization");
-                            statusLabel.setText("Failed to start full synchronization");
-                            syncAllButton.setEnabled(true);
-                            JOptionPane.showMessageDialog(
-                                    DashboardPanel.this,
-                                    "Failed to start full synchronization.",
-                                    "Error",
-                                    JOptionPane.ERROR_MESSAGE
-                            );
-                        }
-                    } catch (Exception e) {
-                        logger.error("Error in full synchronization", e);
-                        statusLabel.setText("Error: " + e.getMessage());
-                        syncAllButton.setEnabled(true);
-                        JOptionPane.showMessageDialog(
-                                DashboardPanel.this,
-                                "Error: " + e.getMessage(),
-                                "Error",
-                                JOptionPane.ERROR_MESSAGE
-                        );
-                    }
+            SyncJob job = SyncJobExecutor.getInstance().submit(SyncRequest.allProjects());
+            job.getFuture().whenComplete((success, error) -> SwingUtilities.invokeLater(() -> {
+                if (error != null) {
+                    logger.error("Error in full synchronization", error);
+                    statusLabel.setText("Error: " + error.getMessage());
+                    syncAllButton.setEnabled(true);
+                    JOptionPane.showMessageDialog(
+                            DashboardPanel.this,
+                            "Error: " + error.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE
+                    );
+                } else if (success) {
+                    logger.info("Full synchronization completed in {} ms", job.getRunMillis());
+                    statusLabel.setText("Full synchronization completed in " + job.getRunMillis() + " ms");
+                    syncAllButton.setEnabled(true);
+                    // The change notifier pushes the re-synced projects, no reload needed
+                    JOptionPane.showMessageDialog(
+                            DashboardPanel.this,
+                            "Full synchronization completed successfully.",
+                            "Success",
+                            JOptionPane.INFORMATION_MESSAGE
+                    );
+                } else {
+                    logger.error("Full synchronization failed");
+                    statusLabel.setText("Full synchronization failed");
+                    syncAllButton.setEnabled(true);
+                    JOptionPane.showMessageDialog(
+                            DashboardPanel.this,
+                            "Full synchronization failed.",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE
+                    );
                 }
-            };
-
-            worker.execute();
+            }));
         }
     }
 }
\ No newline at end of file
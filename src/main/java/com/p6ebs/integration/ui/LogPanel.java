@@ -1,21 +1,35 @@
 package com.p6ebs.integration.ui;
 
-import com.p6ebs.integration.util.DatabaseManager;
+import com.p6ebs.integration.dao.LogDAO;
+import com.p6ebs.integration.logs.LogQueryService;
+import com.p6ebs.integration.model.LogEntry;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.AbstractTableModel;
 import java.awt.*;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
 
 public class LogPanel extends JPanel {
+    // Load the next page when the view is this many rows from the bottom
+    private static final int SCROLL_THRESHOLD_ROWS = 20;
+
     private JTable logTable;
-    private DefaultTableModel tableModel;
-    private JComboBox<String> logTypeComboBox;
-    private JSpinner rowLimitSpinner;
+    private LogTableModel tableModel;
+    private JComboBox<LogDAO.Filter> logTypeComboBox;
+    private JSpinner pageSizeSpinner;
     private JButton refreshButton;
+    private JCheckBox liveCheckBox;
     private JButton clearButton;
+    private JLabel statusLabel;
+
+    // Incremented on every refresh so that late results for an old filter are dropped
+    private int generation;
+    private boolean loading;
+    private boolean hasMore;
+    private LogQueryService.Tail tail;
 
     public LogPanel() {
         setLayout(new BorderLayout());
@@ -26,20 +40,32 @@ public class LogPanel extends JPanel {
         JLabel typeLabel = new JLabel("Log Type:");
         toolbarPanel.add(typeLabel);
 
-        logTypeComboBox = new JComboBox<>(new String[]{"All Logs", "Errors Only", "Projects", "Tasks", "Resources"});
+        logTypeComboBox = new JComboBox<>(LogDAO.Filter.values());
+        logTypeComboBox.addActionListener(e -> refreshLogs());
         toolbarPanel.add(logTypeComboBox);
 
-        JLabel limitLabel = new JLabel("Row Limit:");
-        toolbarPanel.add(limitLabel);
+        JLabel pageSizeLabel = new JLabel("Page Size:");
+        toolbarPanel.add(pageSizeLabel);
 
         SpinnerNumberModel spinnerModel = new SpinnerNumberModel(100, 10, 1000, 10);
-        rowLimitSpinner = new JSpinner(spinnerModel);
-        toolbarPanel.add(rowLimitSpinner);
+        pageSizeSpinner = new JSpinner(spinnerModel);
+        toolbarPanel.add(pageSizeSpinner);
 
         refreshButton = new JButton("Refresh");
         refreshButton.addActionListener(e -> refreshLogs());
         toolbarPanel.add(refreshButton);
 
+        liveCheckBox = new JCheckBox("Live");
+        liveCheckBox.setToolTipText("Show new log entries as they are written");
+        liveCheckBox.addActionListener(e -> {
+            if (liveCheckBox.isSelected()) {
+                startTail();
+            } else {
+                stopTail();
+            }
+        });
+        toolbarPanel.add(liveCheckBox);
+
         clearButton = new JButton("Clear Logs");
         clearButton.addActionListener(e -> clearLogs());
         toolbarPanel.add(clearButton);
@@ -47,89 +73,142 @@ public class LogPanel extends JPanel {
         add(toolbarPanel, BorderLayout.NORTH);
 
         // Create table
-        String[] columnNames = {"Log ID", "Date/Time", "Operation", "Status", "Message", "User"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new LogTableModel();
         logTable = new JTable(tableModel);
 
         JScrollPane scrollPane = new JScrollPane(logTable);
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                loadMoreIfNearEnd();
+            }
+        });
         add(scrollPane, BorderLayout.CENTER);
 
+        // Add a status panel at the bottom
+        JPanel statusPanel = new JPanel(new BorderLayout());
+        statusPanel.setBorder(BorderFactory.createEtchedBorder());
+        statusLabel = new JLabel("Ready");
+        statusPanel.add(statusLabel, BorderLayout.WEST);
+        add(statusPanel, BorderLayout.SOUTH);
+
         // Load initial data
         refreshLogs();
     }
 
+    @Override
+    public void removeNotify() {
+        // Do not keep polling once the panel is gone, e.g. after reconnecting
+        stopTail();
+        super.removeNotify();
+    }
+
     private void refreshLogs() {
-        tableModel.setRowCount(0);
-        String logType = (String) logTypeComboBox.getSelectedItem();
-        int rowLimit = (Integer) rowLimitSpinner.getValue();
-
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-
-        try {
-            conn = com.p6ebs.integration.util.DatabaseManager.getP6Connection();  // Assuming integration schema is in P6 database
-
-            StringBuilder sqlBuilder = new StringBuilder();
-            sqlBuilder.append("SELECT log_id, log_date, operation, status, message, user_id ")
-                    .append("FROM p6_ebs_integration.integration_log ");
-
-            // Add filter based on log type
-            if (!"All Logs".equals(logType)) {
-                sqlBuilder.append("WHERE ");
-                if ("Errors Only".equals(logType)) {
-                    sqlBuilder.append("status = 'ERROR' ");
-                } else if ("Projects".equals(logType)) {
-                    sqlBuilder.append("operation LIKE '%PROJECT%' ");
-                } else if ("Tasks".equals(logType)) {
-                    sqlBuilder.append("operation LIKE '%TASK%' ");
-                } else if ("Resources".equals(logType)) {
-                    sqlBuilder.append("operation LIKE '%RESOURCE%' ");
-                }
-            }
+        generation++;
+        stopTail();
+        tableModel.clear();
+        hasMore = true;
+        loading = false;
+        loadNextPage();
+    }
 
-            sqlBuilder.append("ORDER BY log_date DESC ");
-            sqlBuilder.append("FETCH FIRST ").append(rowLimit).append(" ROWS ONLY");
-
-            stmt = conn.prepareStatement(sqlBuilder.toString());
-            rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                Object[] row = {
-                        rs.getLong("log_id"),
-                        rs.getTimestamp("log_date"),
-                        rs.getString("operation"),
-                        rs.getString("status"),
-                        rs.getString("message"),
-                        rs.getString("user_id")
-                };
-                tableModel.addRow(row);
-            }
+    /**
+     * Load the next page of older entries
+     */
+    private void loadNextPage() {
+        if (loading || !hasMore) {
+            return;
+        }
+        loading = true;
+        int gen = generation;
+        LogDAO.Filter filter = (LogDAO.Filter) logTypeComboBox.getSelectedItem();
+        int pageSize = (Integer) pageSizeSpinner.getValue();
+        statusLabel.setText("Loading...");
 
-            if (tableModel.getRowCount() == 0) {
-                JOptionPane.showMessageDialog(
-                        this,
-                        "No log entries found with the selected filter.",
-                        "Information",
-                        JOptionPane.INFORMATION_MESSAGE
-                );
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(
-                    this,
-                    "Error loading logs: " + e.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE
-            );
-        } finally {
-            DatabaseManager.closeResources(rs, stmt, conn);
+        LogQueryService.getInstance()
+                .fetchOlder(filter, tableModel.getOldest(), pageSize)
+                .whenComplete((entries, error) -> SwingUtilities.invokeLater(() -> {
+                    if (gen != generation) {
+                        return;
+                    }
+                    loading = false;
+                    if (error != null) {
+                        hasMore = false;
+                        showError("Error loading logs", error);
+                        return;
+                    }
+
+                    boolean firstPage = tableModel.getRowCount() == 0;
+                    tableModel.append(entries);
+                    hasMore = entries.size() == pageSize;
+                    updateStatus();
+
+                    if (firstPage) {
+                        if (entries.isEmpty()) {
+                            JOptionPane.showMessageDialog(
+                                    this,
+                                    "No log entries found with the selected filter.",
+                                    "Information",
+                                    JOptionPane.INFORMATION_MESSAGE
+                            );
+                        }
+                        if (liveCheckBox.isSelected()) {
+                            startTail();
+                        }
+                    }
+                    // A short first page may not fill the view, so keep going until it scrolls
+                    loadMoreIfNearEnd();
+                }));
+    }
+
+    private void loadMoreIfNearEnd() {
+        if (loading || !hasMore) {
+            return;
+        }
+        Rectangle visible = logTable.getVisibleRect();
+        if (visible.height == 0) {
+            return; // Not on screen yet, the scroll listener takes over once it is
         }
+        int lastVisibleRow = logTable.rowAtPoint(new Point(0, visible.y + visible.height - 1));
+        if (lastVisibleRow < 0 || lastVisibleRow >= tableModel.getRowCount() - SCROLL_THRESHOLD_ROWS) {
+            loadNextPage();
+        }
+    }
+
+    private void startTail() {
+        stopTail();
+        int gen = generation;
+        LogDAO.Filter filter = (LogDAO.Filter) logTypeComboBox.getSelectedItem();
+
+        tail = LogQueryService.getInstance().tail(filter, tableModel.getNewest(),
+                entries -> SwingUtilities.invokeLater(() -> {
+                    if (gen == generation) {
+                        tableModel.prepend(entries);
+                        updateStatus();
+                    }
+                }),
+                error -> SwingUtilities.invokeLater(() -> {
+                    if (gen == generation) {
+                        liveCheckBox.setSelected(false);
+                        showError("Live log update stopped", error);
+                    }
+                }));
+        updateStatus();
+    }
+
+    private void stopTail() {
+        if (tail != null) {
+            tail.stop();
+            tail = null;
+        }
+        if (statusLabel != null) {
+            updateStatus();
+        }
+    }
+
+    private void updateStatus() {
+        statusLabel.setText(tableModel.getRowCount() + " entries loaded"
+                + (hasMore ? ", scroll for more" : "")
+                + (tail != null ? " - live" : ""));
     }
 
     private void clearLogs() {
@@ -142,15 +221,11 @@ public class LogPanel extends JPanel {
         );
 
         if (choice == JOptionPane.YES_OPTION) {
-            Connection conn = null;
-            PreparedStatement stmt = null;
-
-            try {
-                conn = DatabaseManager.getP6Connection();  // Assuming integration schema is in P6 database
-
-                String sql = "TRUNCATE TABLE p6_ebs_integration.integration_log";
-                stmt = conn.prepareStatement(sql);
-                stmt.executeUpdate();
+            LogQueryService.getInstance().clearLogs().whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
+                if (error != null) {
+                    showError("Error clearing logs", error);
+                    return;
+                }
 
                 JOptionPane.showMessageDialog(
                         this,
@@ -160,17 +235,93 @@ public class LogPanel extends JPanel {
                 );
 
                 refreshLogs();
-            } catch (Exception e) {
-                e.printStackTrace();
-                JOptionPane.showMessageDialog(
-                        this,
-                        "Error clearing logs: " + e.getMessage(),
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE
-                );
-            } finally {
-                DatabaseManager.closeResources(stmt, conn);
+            }));
+        }
+    }
+
+    private void showError(String title, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+        cause.printStackTrace();
+        statusLabel.setText(title);
+        JOptionPane.showMessageDialog(
+                this,
+                title + ": " + cause.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE
+        );
+    }
+
+    /**
+     * Log entries newest first. New entries from the tail are inserted at the top
+     * and older pages are appended at the bottom.
+     */
+    private static class LogTableModel extends AbstractTableModel {
+        private static final String[] COLUMN_NAMES = {"Log ID", "Date/Time", "Operation", "Status", "Message", "User"};
+
+        private final List<LogEntry> entries = new ArrayList<>();
+
+        LogEntry getOldest() {
+            return entries.isEmpty() ? null : entries.get(entries.size() - 1);
+        }
+
+        LogEntry getNewest() {
+            return entries.isEmpty() ? null : entries.get(0);
+        }
+
+        void append(List<LogEntry> olderEntries) {
+            if (olderEntries.isEmpty()) {
+                return;
+            }
+            int first = entries.size();
+            entries.addAll(olderEntries);
+            fireTableRowsInserted(first, entries.size() - 1);
+        }
+
+        /**
+         * Insert entries delivered oldest first at the top
+         */
+        void prepend(List<LogEntry> newerEntries) {
+            if (newerEntries.isEmpty()) {
+                return;
+            }
+            List<LogEntry> newestFirst = new ArrayList<>(newerEntries);
+            Collections.reverse(newestFirst);
+            entries.addAll(0, newestFirst);
+            fireTableRowsInserted(0, newestFirst.size() - 1);
+        }
+
+        void clear() {
+            entries.clear();
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return entries.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMN_NAMES.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMN_NAMES[column];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            LogEntry entry = entries.get(rowIndex);
+            switch (columnIndex) {
+                case 0: return entry.getId();
+                case 1: return entry.getLogDate();
+                case 2: return entry.getOperation();
+                case 3: return entry.getStatus();
+                case 4: return entry.getMessage();
+                default: return entry.getUserId();
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,13 @@
 package com.p6ebs.integration.ui;
 
+import com.p6ebs.integration.cache.CacheStats;
+import com.p6ebs.integration.cache.ReferenceDataCache;
+import com.p6ebs.integration.exec.BackgroundExecutor;
+import com.p6ebs.integration.sync.IncrementalSyncService;
+import com.p6ebs.integration.sync.SyncJobExecutor;
+import com.p6ebs.integration.sync.SyncPlan;
+import com.p6ebs.integration.sync.SyncPlanner;
+import com.p6ebs.integration.sync.SyncRequest;
 import com.p6ebs.integration.util.DatabaseManager;
 
 import javax.swing.*;
@@ -31,6 +39,8 @@ public class MainFrame extends JFrame {
         tabbedPane.addTab("Tasks", placeholderPanel);
         tabbedPane.addTab("Resources", placeholderPanel);
         tabbedPane.addTab("Logs", placeholderPanel);
+        tabbedPane.addTab("Metrics", placeholderPanel);
+        tabbedPane.addTab("Slow Queries", placeholderPanel);
 
         // Add to frame
         getContentPane().add(tabbedPane, BorderLayout.CENTER);
@@ -65,10 +75,7 @@ public class MainFrame extends JFrame {
         fileMenu.addSeparator();
 
         JMenuItem exitItem = new JMenuItem("Exit");
-        exitItem.addActionListener(e -> {
-            DatabaseManager.shutdown();
-            System.exit(0);
-        });
+        exitItem.addActionListener(e -> exit());
         fileMenu.add(exitItem);
         menuBar.add(fileMenu);
 
@@ -79,10 +86,24 @@ public class MainFrame extends JFrame {
         syncItem.setEnabled(false); // Disable until connection is established
         toolsMenu.add(syncItem);
 
+        JMenuItem incrementalSyncItem = new JMenuItem("Incremental Sync");
+        incrementalSyncItem.addActionListener(e -> startIncrementalSync());
+        incrementalSyncItem.setEnabled(false); // Disable until connection is established
+        toolsMenu.add(incrementalSyncItem);
+
+        JMenuItem plannedSyncItem = new JMenuItem("Planned Portfolio Sync");
+        plannedSyncItem.addActionListener(e -> startPlannedSync());
+        plannedSyncItem.setEnabled(false); // Disable until connection is established
+        toolsMenu.add(plannedSyncItem);
+
         JMenuItem configItem = new JMenuItem("Configuration");
         configItem.addActionListener(e -> openConfigDialog());
         configItem.setEnabled(false); // Disable until connection is established
         toolsMenu.add(configItem);
+
+        JMenuItem cacheItem = new JMenuItem("Cache Statistics");
+        cacheItem.addActionListener(e -> showCacheStatistics());
+        toolsMenu.add(cacheItem);
         menuBar.add(toolsMenu);
 
         // Help menu
@@ -100,28 +121,7 @@ public class MainFrame extends JFrame {
         dialog.setVisible(true);
 
         if (dialog.isConfirmed()) {
-            // Update status and enable tabs/menu items
-            statusLabel.setText("Connected to database");
-            statusLabel.setForeground(Color.BLACK);
-
-            // Replace placeholder panels with actual panels
-            tabbedPane.removeAll();
-            tabbedPane.addTab("Dashboard", createIcon("dashboard.png"), new DashboardPanel());
-            tabbedPane.addTab("Projects", createIcon("project.png"), new ProjectPanel());
-            tabbedPane.addTab("Tasks", createIcon("task.png"), new TaskPanel());
-            tabbedPane.addTab("Resources", createIcon("resource.png"), new ResourcePanel());
-            tabbedPane.addTab("Logs", createIcon("log.png"), new LogPanel());
-
-            // Enable other menu items
-            JMenuBar menuBar = getJMenuBar();
-            if (menuBar != null) {
-                // Enable sync and config items in Tools menu
-                JMenu toolsMenu = menuBar.getMenu(1); // Assuming Tools menu is second
-                if (toolsMenu != null) {
-                    toolsMenu.getItem(0).setEnabled(true); // Sync item
-                    toolsMenu.getItem(1).setEnabled(true); // Config item
-                }
-            }
+            showConnected("Connected to database");
 
             JOptionPane.showMessageDialog(
                     this,
@@ -132,6 +132,41 @@ public class MainFrame extends JFrame {
         }
     }
 
+    /**
+     * Replace the placeholders with the working panels once DatabaseManager is initialized
+     */
+    public void showConnected(String status) {
+        // Update status and enable tabs/menu items
+        statusLabel.setText(status);
+        statusLabel.setForeground(Color.BLACK);
+
+        // Cached reference data may come from the previous connection
+        ReferenceDataCache.getInstance().invalidateAll();
+
+        // Replace placeholder panels with actual panels
+        tabbedPane.removeAll();
+        tabbedPane.addTab("Dashboard", createIcon("dashboard.png"), new DashboardPanel());
+        tabbedPane.addTab("Projects", createIcon("project.png"), new ProjectPanel());
+        tabbedPane.addTab("Tasks", createIcon("task.png"), new TaskPanel());
+        tabbedPane.addTab("Resources", createIcon("resource.png"), new ResourcePanel());
+        tabbedPane.addTab("Logs", createIcon("log.png"), new LogPanel());
+        tabbedPane.addTab("Metrics", createIcon("metrics.png"), new MetricsPanel());
+        tabbedPane.addTab("Slow Queries", createIcon("slow-query.png"), new SlowQueryPanel());
+
+        // Enable other menu items
+        JMenuBar menuBar = getJMenuBar();
+        if (menuBar != null) {
+            // Enable sync and config items in Tools menu
+            JMenu toolsMenu = menuBar.getMenu(1); // Assuming Tools menu is second
+            if (toolsMenu != null) {
+                toolsMenu.getItem(0).setEnabled(true); // Sync item
+                toolsMenu.getItem(1).setEnabled(true); // Incremental sync item
+                toolsMenu.getItem(2).setEnabled(true); // Planned sync item
+                toolsMenu.getItem(3).setEnabled(true); // Config item
+            }
+        }
+    }
+
     private ImageIcon createIcon(String iconName) {
         // In a real app, you would load icons from resources
         return null;
@@ -146,43 +181,149 @@ public class MainFrame extends JFrame {
         );
 
         if (choice == JOptionPane.YES_OPTION) {
-            // Code to start full sync
-            SwingWorker<Boolean, Void> worker = new SwingWorker<>() {
-                @Override
-                protected Boolean doInBackground() throws Exception {
-                    return new com.p6ebs.integration.dao.ProjectDAO().triggerAllProjectsSync();
+            SyncFeedback.submit(
+                    this,
+                    SyncRequest.allProjects(),
+                    "Full synchronization completed successfully.",
+                    "Full synchronization failed.",
+                    null
+            );
+        }
+    }
+
+    private void exit() {
+        setEnabled(false);
+        statusLabel.setText("Waiting for running syncs to finish...");
+
+        SwingWorker<Void, Void> worker = new SwingWorker<>() {
+            @Override
+            protected Void doInBackground() {
+                SyncJobExecutor.shutdownInstance();
+                DatabaseManager.shutdown();
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                System.exit(0);
+            }
+        };
+
+        // Running syncs get up to 30 seconds to finish, so wait off the EDT; the shutdown holds no connection
+        BackgroundExecutor.getInstance().execute(BackgroundExecutor.Pool.NONE, worker);
+    }
+
+    private void startIncrementalSync() {
+        statusLabel.setText("Incremental sync running...");
+
+        SwingWorker<IncrementalSyncService.Result, Void> worker = new SwingWorker<>() {
+            @Override
+            protected IncrementalSyncService.Result doInBackground() {
+                return new IncrementalSyncService().runIncrementalSync();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    IncrementalSyncService.Result result = get();
+                    statusLabel.setText("Connected to database");
+                    JOptionPane.showMessageDialog(
+                            MainFrame.this,
+                            String.format("%s\n%d changed projects, %d changed tasks (%d ms)",
+                                    result.isSuccess() ? "Incremental sync completed successfully."
+                                            : "Incremental sync failed, watermarks were not advanced.",
+                                    result.getChangedProjects(), result.getChangedTasks(),
+                                    result.getElapsedMillis()),
+                            result.isSuccess() ? "Success" : "Error",
+                            result.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE
+                    );
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    statusLabel.setText("Connected to database");
+                    JOptionPane.showMessageDialog(
+                            MainFrame.this,
+                            "Error: " + e.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE
+                    );
                 }
+            }
+        };
+
+        // The service gates its P6 reads and the sync jobs gate their own calls
+        BackgroundExecutor.getInstance().execute(BackgroundExecutor.Pool.NONE, worker);
+    }
+
+    private void startPlannedSync() {
+        int choice = JOptionPane.showConfirmDialog(
+                this,
+                "Synchronize resources and every project with its tasks, dependencies and assignments,\n"
+                        + "in dependency order with independent projects in parallel?",
+                "Confirm Planned Sync",
+                JOptionPane.YES_NO_OPTION
+        );
+        if (choice != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        statusLabel.setText("Planned portfolio sync running...");
 
-                @Override
-                protected void done() {
-                    try {
-                        if (get()) {
-                            JOptionPane.showMessageDialog(
-                                    MainFrame.this,
-                                    "Full synchronization started successfully.",
-                                    "Success",
-                                    JOptionPane.INFORMATION_MESSAGE
-                            );
-                        } else {
-                            JOptionPane.showMessageDialog(
-                                    MainFrame.this,
-                                    "Failed to start full synchronization.",
-                                    "Error",
-                                    JOptionPane.ERROR_MESSAGE
-                            );
-                        }
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        JOptionPane.showMessageDialog(
-                                MainFrame.this,
-                                "Error: " + e.getMessage(),
-                                "Error",
-                                JOptionPane.ERROR_MESSAGE
-                        );
-                    }
+        SwingWorker<SyncPlan, Void> worker = new SwingWorker<>() {
+            @Override
+            protected SyncPlan doInBackground() {
+                SyncPlanner planner = new SyncPlanner();
+                return planner.run(planner.planPortfolio());
+            }
+
+            @Override
+            protected void done() {
+                statusLabel.setText("Connected to database");
+                try {
+                    SyncPlan plan = get();
+                    JTextArea report = new JTextArea(plan.getReport(), 15, 80);
+                    report.setEditable(false);
+                    JOptionPane.showMessageDialog(
+                            MainFrame.this,
+                            new JScrollPane(report),
+                            plan.isSuccess() ? "Planned Sync Completed" : "Planned Sync Finished With Errors",
+                            plan.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE
+                    );
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(
+                            MainFrame.this,
+                            "Error: " + e.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE
+                    );
                 }
-            };
-            worker.execute();
+            }
+        };
+
+        // Planning gates its P6 read and the sync jobs gate their own calls
+        BackgroundExecutor.getInstance().execute(BackgroundExecutor.Pool.NONE, worker);
+    }
+
+    private void showCacheStatistics() {
+        StringBuilder message = new StringBuilder();
+        for (CacheStats stats : ReferenceDataCache.getInstance().getStats()) {
+            message.append(stats).append("\n");
+        }
+
+        Object[] options = {"Clear Cache", "Close"};
+        int choice = JOptionPane.showOptionDialog(
+                this,
+                message.toString(),
+                "Cache Statistics",
+                JOptionPane.DEFAULT_OPTION,
+                JOptionPane.INFORMATION_MESSAGE,
+                null,
+                options,
+                options[1]
+        );
+
+        if (choice == 0) {
+            ReferenceDataCache.getInstance().invalidateAll();
         }
     }
 
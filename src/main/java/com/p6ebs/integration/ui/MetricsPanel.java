@@ -0,0 +1,143 @@
+package com.p6ebs.integration.ui;
+
+import com.p6ebs.integration.metrics.Counter;
+import com.p6ebs.integration.metrics.Gauge;
+import com.p6ebs.integration.metrics.Histogram;
+import com.p6ebs.integration.metrics.Meter;
+import com.p6ebs.integration.metrics.MetricsRegistry;
+import com.p6ebs.integration.metrics.Timer;
+import com.p6ebs.integration.util.ConfigManager;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Live view of the metrics registry: DAO and sync procedure timings, rows
+ * fetched, connection borrow times and pool gauges. Timer values are shown
+ * in milliseconds.
+ */
+public class MetricsPanel extends JPanel {
+    private final MetricsTableModel tableModel = new MetricsTableModel();
+    private final JTextField filterField;
+    private final JLabel statusLabel;
+    private final javax.swing.Timer refreshTimer;
+
+    public MetricsPanel() {
+        setLayout(new BorderLayout());
+
+        JPanel toolbarPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        toolbarPanel.add(new JLabel("Filter:"));
+        filterField = new JTextField(20);
+        filterField.addActionListener(e -> refresh());
+        toolbarPanel.add(filterField);
+
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> refresh());
+        toolbarPanel.add(refreshButton);
+        add(toolbarPanel, BorderLayout.NORTH);
+
+        JTable table = new JTable(tableModel);
+        table.setAutoCreateRowSorter(true);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        JPanel statusPanel = new JPanel(new BorderLayout());
+        statusPanel.setBorder(BorderFactory.createEtchedBorder());
+        statusLabel = new JLabel("Ready");
+        statusPanel.add(statusLabel, BorderLayout.WEST);
+        add(statusPanel, BorderLayout.SOUTH);
+
+        int seconds = Math.max(1, ConfigManager.getIntProperty("ui.metrics.refresh.seconds", 5));
+        refreshTimer = new javax.swing.Timer(seconds * 1000, e -> refresh());
+        refresh();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        refreshTimer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        refreshTimer.stop();
+        super.removeNotify();
+    }
+
+    private void refresh() {
+        String filter = filterField.getText().trim().toLowerCase(Locale.ROOT);
+        List<Object[]> rows = new ArrayList<>();
+        for (Meter meter : MetricsRegistry.getInstance().getMeters()) {
+            String id = meter.getId().toString().toLowerCase(Locale.ROOT);
+            if (filter.isEmpty() || id.contains(filter)) {
+                rows.add(toRow(meter));
+            }
+        }
+        tableModel.setRows(rows);
+        statusLabel.setText(rows.size() + " meters");
+    }
+
+    private static Object[] toRow(Meter meter) {
+        Object[] row = new Object[MetricsTableModel.COLUMNS.length];
+        row[0] = meter.getId().getName();
+        row[1] = meter.getId().getTagText();
+        row[2] = meter.getType().name().toLowerCase(Locale.ROOT);
+        if (meter instanceof Counter) {
+            row[3] = ((Counter) meter).getCount();
+        } else if (meter instanceof Gauge) {
+            row[4] = ((Gauge) meter).getValue();
+        } else if (meter instanceof Histogram) {
+            Histogram histogram = (Histogram) meter;
+            // Timers record seconds; show milliseconds
+            double scale = meter instanceof Timer ? 1000.0 : 1.0;
+            row[3] = histogram.getCount();
+            row[4] = round(histogram.getMean() * scale);
+            row[5] = round(histogram.getPercentile(0.95) * scale);
+            row[6] = round(histogram.getMax() * scale);
+        }
+        return row;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static class MetricsTableModel extends AbstractTableModel {
+        static final String[] COLUMNS = {"Meter", "Tags", "Type", "Count", "Value / Mean", "p95", "Max"};
+        private List<Object[]> rows = new ArrayList<>();
+
+        void setRows(List<Object[]> rows) {
+            this.rows = rows;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() { return rows.size(); }
+
+        @Override
+        public int getColumnCount() { return COLUMNS.length; }
+
+        @Override
+        public String getColumnName(int column) { return COLUMNS[column]; }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            switch (column) {
+                case 3:
+                    return Long.class;
+                case 4:
+                case 5:
+                case 6:
+                    return Double.class;
+                default:
+                    return String.class;
+            }
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) { return rows.get(row)[column]; }
+    }
+}
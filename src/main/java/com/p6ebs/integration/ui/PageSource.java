@@ -0,0 +1,32 @@
+package com.p6ebs.integration.ui;
+
+import com.p6ebs.integration.exec.BackgroundExecutor;
+
+import java.util.List;
+
+/**
+ * Supplies rows to a {@link PagedTableModel} one page at a time. Methods are
+ * called on a background thread. A method that fails throws, or reads through
+ * DAOs whose failures the model detects; a failed page is not kept and is
+ * read again the next time its rows are shown.
+ */
+interface PageSource<T> {
+
+    /**
+     * Connection pool the queries run on; loads wait for one of its connections
+     */
+    BackgroundExecutor.Pool pool();
+
+    /**
+     * Total number of rows
+     */
+    int count();
+
+    /**
+     * Get up to {@code limit} rows following {@code previous}, the last row of the
+     * preceding page. When the preceding page has not been read, {@code previous}
+     * is null and the page starts {@code offset} rows in, so keyset sources seek
+     * there with one offset query and continue by key from the page it returns.
+     */
+    List<T> fetchPage(T previous, int offset, int limit);
+}
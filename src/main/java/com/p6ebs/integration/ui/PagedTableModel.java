@@ -0,0 +1,247 @@
+package com.p6ebs.integration.ui;
+
+import com.p6ebs.integration.dao.DaoFailures;
+import com.p6ebs.integration.exec.BackgroundExecutor;
+import com.p6ebs.integration.util.ConfigManager;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * Read-only table model that loads rows from a {@link PageSource} as the table
+ * asks for them and keeps only a bounded window of recently used pages. Rows
+ * that are not loaded yet render as empty cells until their page arrives.
+ * All methods must be called on the Event Dispatch Thread.
+ */
+public class PagedTableModel<T> extends AbstractTableModel {
+
+    /**
+     * Extracts a cell value from a row object
+     */
+    public interface ColumnMapper<T> {
+        Object valueAt(T row, int column);
+    }
+
+    private final int pageSize;
+    private final int maxPages;
+
+    private String[] columnNames;
+    private ColumnMapper<T> mapper;
+
+    private PageSource<T> source;
+    private List<T> rows = Collections.emptyList();
+    private int rowCount;
+    private volatile int generation;
+
+    private final LinkedHashMap<Integer, List<T>> pages;
+    // Last row of every page seen so far, the keyset start of the following page
+    private final Map<Integer, T> pageEnds = new HashMap<>();
+    private final Set<Integer> requested = new HashSet<>();
+
+    /**
+     * Create a model with the page size and window from application properties
+     */
+    public PagedTableModel(String[] columnNames, ColumnMapper<T> mapper) {
+        this(columnNames, mapper, ConfigManager.getIntProperty("ui.table.page.size", 200), ConfigManager.getIntProperty("ui.table.max.pages", 10));
+    }
+
+    public PagedTableModel(String[] columnNames, ColumnMapper<T> mapper, int pageSize, int maxPages) {
+        this.columnNames = columnNames;
+        this.mapper = mapper;
+        this.pageSize = Math.max(1, pageSize);
+        this.maxPages = Math.max(2, maxPages);
+        this.pages = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > PagedTableModel.this.maxPages;
+            }
+        };
+    }
+
+    /**
+     * Change the columns, for views that show the same row type in different ways
+     */
+    public void setColumns(String[] columnNames, ColumnMapper<T> mapper) {
+        this.columnNames = columnNames;
+        this.mapper = mapper;
+        fireTableStructureChanged();
+    }
+
+    /**
+     * Page rows from a source. The row count is fetched in the background and
+     * reported to {@code onCounted} on the EDT, or -1 if the count failed.
+     */
+    public void setSource(PageSource<T> source, IntConsumer onCounted) {
+        reset();
+        this.source = source;
+        int gen = generation;
+        BackgroundExecutor.getInstance().execute(source.pool(), () -> {
+            int count;
+            List<T> firstPage;
+            try {
+                count = DaoFailures.require("the row count", source::count);
+                firstPage = count > 0 ? fetch(source, null, 0) : Collections.emptyList();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                SwingUtilities.invokeLater(() -> {
+                    if (gen == generation && onCounted != null) {
+                        onCounted.accept(-1);
+                    }
+                });
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (gen != generation) {
+                    return;
+                }
+                rowCount = count;
+                storePage(0, firstPage);
+                fireTableDataChanged();
+                if (onCounted != null) {
+                    onCounted.accept(count);
+                }
+            });
+        });
+    }
+
+    /**
+     * Show rows that are already in memory, such as cached reference data
+     */
+    public void setRows(List<T> rows) {
+        reset();
+        this.rows = rows;
+        this.rowCount = rows.size();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Remove all rows
+     */
+    public void clear() {
+        reset();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Get the row object at an index, or null if its page is not loaded
+     */
+    public T getRow(int rowIndex) {
+        if (source == null) {
+            return rowIndex >= 0 && rowIndex < rows.size() ? rows.get(rowIndex) : null;
+        }
+        int page = rowIndex / pageSize;
+        List<T> pageRows = pages.get(page);
+        if (pageRows == null) {
+            requestPage(page);
+            return null;
+        }
+        int offset = rowIndex % pageSize;
+        return offset < pageRows.size() ? pageRows.get(offset) : null;
+    }
+
+    /**
+     * Number of pages currently held in memory
+     */
+    public int getLoadedPageCount() {
+        return source == null ? (rows.isEmpty() ? 0 : 1) : pages.size();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        T row = getRow(rowIndex);
+        return row == null ? null : mapper.valueAt(row, columnIndex);
+    }
+
+    private void reset() {
+        generation++;
+        source = null;
+        rows = Collections.emptyList();
+        rowCount = 0;
+        pages.clear();
+        pageEnds.clear();
+        requested.clear();
+    }
+
+    private void storePage(int page, List<T> pageRows) {
+        pages.put(page, pageRows);
+        if (!pageRows.isEmpty()) {
+            pageEnds.put(page, pageRows.get(pageRows.size() - 1));
+        }
+    }
+
+    /**
+     * Fetch a page, throwing if a DAO read behind it failed rather than
+     * returning the empty page the DAOs fall back to
+     */
+    private List<T> fetch(PageSource<T> pageSource, T previous, int offset) {
+        return DaoFailures.require("a page of rows", () -> pageSource.fetchPage(previous, offset, pageSize));
+    }
+
+    /**
+     * Load a page in the background with one query: by key after the previous
+     * page's last row when that is known, otherwise by offset, as when the
+     * table jumps far ahead. Pages after it then continue by key.
+     */
+    private void requestPage(int page) {
+        if (!requested.add(page)) {
+            return;
+        }
+
+        T previous = page > 0 ? pageEnds.get(page - 1) : null;
+        PageSource<T> pageSource = source;
+        int gen = generation;
+
+        BackgroundExecutor.getInstance().execute(pageSource.pool(), () -> {
+            if (gen != generation) {
+                return;
+            }
+            List<T> pageRows;
+            try {
+                pageRows = fetch(pageSource, previous, page * pageSize);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                pageRows = null;
+            }
+            List<T> loaded = pageRows;
+            SwingUtilities.invokeLater(() -> {
+                if (gen != generation) {
+                    return;
+                }
+                requested.remove(page);
+                if (loaded == null) {
+                    // Not stored, so the next paint of these rows asks for the page again
+                    return;
+                }
+                storePage(page, loaded);
+                int first = page * pageSize;
+                int lastRow = Math.min(rowCount, first + pageSize) - 1;
+                if (lastRow >= first) {
+                    fireTableRowsUpdated(first, lastRow);
+                }
+            });
+        });
+    }
+}
@@ -1,19 +1,29 @@
 package com.p6ebs.integration.ui;
 
+import com.p6ebs.integration.cache.ReferenceDataCache;
 import com.p6ebs.integration.dao.ProjectDAO;
+import com.p6ebs.integration.diff.Changeset;
+import com.p6ebs.integration.diff.ComparisonLoader;
+import com.p6ebs.integration.diff.DiffEngine;
+import com.p6ebs.integration.diff.EntityChange;
+import com.p6ebs.integration.exec.BackgroundExecutor;
 import com.p6ebs.integration.model.Project;
+import com.p6ebs.integration.sync.SyncRequest;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 
 public class ProjectPanel extends JPanel {
     private JTable projectTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<Project> tableModel;
     private JComboBox<String> sourceComboBox;
     private JButton refreshButton;
     private JButton syncButton;
+    private JButton previewButton;
+    private JButton compareButton;
+    private JButton costRollupButton;
 
     public ProjectPanel() {
         setLayout(new BorderLayout());
@@ -29,25 +39,39 @@ public class ProjectPanel extends JPanel {
         toolbarPanel.add(sourceComboBox);
 
         refreshButton = new JButton("Refresh");
-        refreshButton.addActionListener(e -> refreshProjects());
+        refreshButton.addActionListener(e -> {
+            ReferenceDataCache.getInstance().invalidateProjects();
+            refreshProjects();
+        });
         toolbarPanel.add(refreshButton);
 
         syncButton = new JButton("Sync Selected");
         syncButton.addActionListener(e -> syncSelectedProject());
         toolbarPanel.add(syncButton);
 
+        previewButton = new JButton("Preview Changes");
+        previewButton.addActionListener(e -> previewChanges());
+        toolbarPanel.add(previewButton);
+
+        compareButton = new JButton("Compare P6/EBS");
+        compareButton.addActionListener(e -> new ComparisonDialog(
+                SwingUtilities.getWindowAncestor(this),
+                "Project Comparison",
+                () -> new ComparisonLoader().compareProjects()
+        ).setVisible(true));
+        toolbarPanel.add(compareButton);
+
+        costRollupButton = new JButton("Cost Rollup");
+        costRollupButton.addActionListener(e -> new CostRollupDialog(SwingUtilities.getWindowAncestor(this)).setVisible(true));
+        toolbarPanel.add(costRollupButton);
+
         add(toolbarPanel, BorderLayout.NORTH);
 
         // Create table
         String[] columnNames = {"ID", "Name", "Start Date", "End Date", "Status", "Source"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new PagedTableModel<>(columnNames, ProjectPanel::columnValue);
         projectTable = new JTable(tableModel);
-        projectTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        projectTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
 
         JScrollPane scrollPane = new JScrollPane(projectTable);
         add(scrollPane, BorderLayout.CENTER);
@@ -57,18 +81,18 @@ public class ProjectPanel extends JPanel {
     }
 
     private void refreshProjects() {
-        tableModel.setRowCount(0);
+        tableModel.clear();
+        String source = (String) sourceComboBox.getSelectedItem();
 
         SwingWorker<List<Project>, Void> worker = new SwingWorker<>() {
             @Override
             protected List<Project> doInBackground() throws Exception {
                 ProjectDAO dao = new ProjectDAO();
-                String source = (String) sourceComboBox.getSelectedItem();
 
                 if ("P6".equals(source)) {
-                    return dao.getP6Projects();
+                    return ReferenceDataCache.getInstance().getP6Projects();
                 } else if ("EBS".equals(source)) {
-                    return dao.getEBSProjects();
+                    return ReferenceDataCache.getInstance().getEBSProjects();
                 } else {
                     return dao.getStagingProjects();
                 }
@@ -78,17 +102,8 @@ public class ProjectPanel extends JPanel {
             protected void done() {
                 try {
                     List<Project> projects = get();
-                    for (Project project : projects) {
-                        Object[] row = {
-                                project.getId(),
-                                project.getName(),
-                                project.getStartDate(),
-                                project.getEndDate(),
-                                project.getStatus(),
-                                project.getSource()
-                        };
-                        tableModel.addRow(row);
-                    }
+                    // The project lists are already in memory, so show them without copying
+                    tableModel.setRows(projects);
 
                     if (projects.isEmpty()) {
                         JOptionPane.showMessageDialog(
@@ -110,69 +125,142 @@ public class ProjectPanel extends JPanel {
             }
         };
 
-        worker.execute();
+        BackgroundExecutor.getInstance().execute(BackgroundExecutor.Pool.ofSource(source), worker);
+    }
+
+    private static Object columnValue(Project project, int column) {
+        switch (column) {
+            case 0: return project.getId();
+            case 1: return project.getName();
+            case 2: return project.getStartDate();
+            case 3: return project.getEndDate();
+            case 4: return project.getStatus();
+            default: return project.getSource();
+        }
     }
 
     private void syncSelectedProject() {
-        int selectedRow = projectTable.getSelectedRow();
-        if (selectedRow == -1) {
+        int[] selectedRows = projectTable.getSelectedRows();
+        if (selectedRows.length == 0) {
             JOptionPane.showMessageDialog(
                     this,
-                    "Please select a project to synchronize.",
+                    "Please select one or more projects to synchronize.",
                     "No Selection",
                     JOptionPane.WARNING_MESSAGE
             );
             return;
         }
 
-        Long projectId = (Long) tableModel.getValueAt(selectedRow, 0);
-        String projectName = (String) tableModel.getValueAt(selectedRow, 1);
+        if (selectedRows.length == 1) {
+            Project project = tableModel.getRow(selectedRows[0]);
+            Long projectId = project.getId();
+            String projectName = project.getName();
+
+            int choice = JOptionPane.showConfirmDialog(
+                    this,
+                    "Synchronize project: " + projectName + "?",
+                    "Confirm Sync",
+                    JOptionPane.YES_NO_OPTION
+            );
+
+            if (choice == JOptionPane.YES_OPTION) {
+                SyncFeedback.submit(
+                        this,
+                        SyncRequest.project(projectId),
+                        "Project synchronization completed successfully.",
+                        "Project synchronization failed.",
+                        null
+                );
+            }
+            return;
+        }
+
+        List<Long> projectIds = new ArrayList<>();
+        for (int row : selectedRows) {
+            projectIds.add(tableModel.getRow(row).getId());
+        }
 
         int choice = JOptionPane.showConfirmDialog(
                 this,
-                "Synchronize project: " + projectName + "?",
+                "Synchronize " + projectIds.size() + " selected projects?",
                 "Confirm Sync",
                 JOptionPane.YES_NO_OPTION
         );
 
         if (choice == JOptionPane.YES_OPTION) {
-            SwingWorker<Boolean, Void> worker = new SwingWorker<>() {
-                @Override
-                protected Boolean doInBackground() throws Exception {
-                    return new ProjectDAO().triggerProjectSync(projectId);
-                }
+            // All selected projects go through one connection and one batched call
+            SyncFeedback.submit(
+                    this,
+                    SyncRequest.projects(projectIds),
+                    projectIds.size() + " projects synchronized successfully.",
+                    "Batch project synchronization failed.",
+                    null
+            );
+        }
+    }
 
-                @Override
-                protected void done() {
-                    try {
-                        if (get()) {
-                            JOptionPane.showMessageDialog(
-                                    ProjectPanel.this,
-                                    "Project synchronization started successfully.",
-                                    "Success",
-                                    JOptionPane.INFORMATION_MESSAGE
-                            );
-                        } else {
-                            JOptionPane.showMessageDialog(
-                                    ProjectPanel.this,
-                                    "Failed to start project synchronization.",
-                                    "Error",
-                                    JOptionPane.ERROR_MESSAGE
-                            );
-                        }
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        JOptionPane.showMessageDialog(
-                                ProjectPanel.this,
-                                "Error: " + e.getMessage(),
-                                "Error",
-                                JOptionPane.ERROR_MESSAGE
-                        );
-                    }
+    private void previewChanges() {
+        previewButton.setEnabled(false);
+
+        SwingWorker<Changeset, Void> worker = new SwingWorker<>() {
+            @Override
+            protected Changeset doInBackground() throws Exception {
+                return new DiffEngine().diffProjects();
+            }
+
+            @Override
+            protected void done() {
+                previewButton.setEnabled(true);
+                try {
+                    showChangeset(get());
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(
+                            ProjectPanel.this,
+                            "Error computing changes: " + e.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE
+                    );
                 }
-            };
+            }
+        };
 
-            worker.execute();
+        // DiffEngine waits for a connection of each pool it reads in turn
+        BackgroundExecutor.getInstance().execute(BackgroundExecutor.Pool.NONE, worker);
+    }
+
+    private void showChangeset(Changeset changeset) {
+        StringBuilder text = new StringBuilder();
+        text.append(changeset).append("\n\n");
+        for (EntityChange change : changeset.getChanges()) {
+            text.append(change).append("\n");
+        }
+
+        JTextArea textArea = new JTextArea(text.toString(), 20, 70);
+        textArea.setEditable(false);
+
+        int toPush = changeset.getP6IdsToSync().size();
+        if (toPush == 0) {
+            JOptionPane.showMessageDialog(this, new JScrollPane(textArea), "Project Changes", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        int choice = JOptionPane.showConfirmDialog(
+                this,
+                new JScrollPane(textArea),
+                "Project Changes - push " + toPush + " changed projects?",
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.PLAIN_MESSAGE
+        );
+
+        if (choice == JOptionPane.YES_OPTION) {
+            SyncFeedback.submit(
+                    this,
+                    SyncRequest.projects(changeset.getP6IdsToSync()),
+                    toPush + " changed projects synchronized successfully.",
+                    "Synchronization of changed projects failed.",
+                    null
+            );
         }
     }
 }
\ No newline at end of file
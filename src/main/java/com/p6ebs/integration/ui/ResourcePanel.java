@@ -1,12 +1,15 @@
 package com.p6ebs.integration.ui;
 
-import com.p6ebs.integration.dao.ProjectDAO;
+import com.p6ebs.integration.cache.ReferenceDataCache;
 import com.p6ebs.integration.dao.ResourceDAO;
+import com.p6ebs.integration.exec.BackgroundExecutor;
 import com.p6ebs.integration.model.Project;
 import com.p6ebs.integration.model.Resource;
+import com.p6ebs.integration.snapshot.AssignmentSnapshot;
+import com.p6ebs.integration.snapshot.SnapshotCsv;
+import com.p6ebs.integration.sync.SyncRequest;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.util.List;
 
@@ -14,10 +17,12 @@ public class ResourcePanel extends JPanel {
     private JComboBox<String> viewTypeComboBox;
     private JComboBox<Project> projectComboBox;
     private JTable resourceTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<Resource> tableModel;
+    private JLabel statusLabel;
     private JButton refreshButton;
     private JButton syncButton;
     private JButton syncAssignmentsButton;
+    private JButton exportButton;
 
     public ResourcePanel() {
         setLayout(new BorderLayout());
@@ -44,7 +49,11 @@ public class ResourcePanel extends JPanel {
         toolbarPanel.add(projectComboBox);
 
         refreshButton = new JButton("Refresh");
-        refreshButton.addActionListener(e -> refreshResources());
+        refreshButton.addActionListener(e -> {
+            ReferenceDataCache.getInstance().invalidateResources();
+            ReferenceDataCache.getInstance().invalidateAssignments();
+            refreshResources();
+        });
         toolbarPanel.add(refreshButton);
 
         syncButton = new JButton("Sync Resources");
@@ -55,15 +64,14 @@ public class ResourcePanel extends JPanel {
         syncAssignmentsButton.addActionListener(e -> syncAssignments());
         toolbarPanel.add(syncAssignmentsButton);
 
+        exportButton = new JButton("Export CSV");
+        exportButton.addActionListener(e -> exportAssignments());
+        toolbarPanel.add(exportButton);
+
         add(toolbarPanel, BorderLayout.NORTH);
 
         // Create table with default columns (will be updated based on view)
-        tableModel = new DefaultTableModel() {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new PagedTableModel<>(new String[0], ResourcePanel::resourceValue);
         resourceTable = new JTable(tableModel);
         resourceTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 
@@ -73,7 +81,7 @@ public class ResourcePanel extends JPanel {
         // Add a status panel at the bottom
         JPanel statusPanel = new JPanel(new BorderLayout());
         statusPanel.setBorder(BorderFactory.createEtchedBorder());
-        JLabel statusLabel = new JLabel("Ready");
+        statusLabel = new JLabel("Ready");
         statusPanel.add(statusLabel, BorderLayout.WEST);
         add(statusPanel, BorderLayout.SOUTH);
 
@@ -91,7 +99,7 @@ public class ResourcePanel extends JPanel {
         SwingWorker<List<Project>, Void> worker = new SwingWorker<>() {
             @Override
             protected List<Project> doInBackground() throws Exception {
-                return new ProjectDAO().getP6Projects();
+                return ReferenceDataCache.getInstance().getP6Projects();
             }
 
             @Override
@@ -117,7 +125,7 @@ public class ResourcePanel extends JPanel {
             }
         };
 
-        worker.execute();
+        BackgroundExecutor.getInstance().execute(BackgroundExecutor.Pool.P6, worker);
     }
 
     private void updateProjectVisibility() {
@@ -134,26 +142,26 @@ public class ResourcePanel extends JPanel {
         }
 
         syncAssignmentsButton.setVisible(showProject);
+        exportButton.setVisible(showProject);
         updateTableColumns();
     }
 
     private void updateTableColumns() {
-        tableModel.setRowCount(0);
         String viewType = (String) viewTypeComboBox.getSelectedItem();
 
         if ("Resources".equals(viewType)) {
-            tableModel.setColumnIdentifiers(new String[]{
+            tableModel.setColumns(new String[]{
                     "ID", "Name", "Short Name", "Type", "Email", "Source"
-            });
+            }, ResourcePanel::resourceValue);
         } else if ("Resource Assignments".equals(viewType)) {
-            tableModel.setColumnIdentifiers(new String[]{
+            tableModel.setColumns(new String[]{
                     "Assignment ID", "Resource ID", "Resource Name", "Task ID", "Task Name",
                     "Planned Cost", "Actual Cost", "Remaining Cost"
-            });
+            }, ResourcePanel::assignmentValue);
         } else if ("Staging".equals(viewType)) {
-            tableModel.setColumnIdentifiers(new String[]{
+            tableModel.setColumns(new String[]{
                     "P6 ID", "Name", "Type", "EBS Org ID", "EBS Person ID", "Sync Status", "Error Message"
-            });
+            }, ResourcePanel::stagingValue);
         }
     }
 
@@ -161,19 +169,46 @@ public class ResourcePanel extends JPanel {
         String viewType = (String) viewTypeComboBox.getSelectedItem();
         Project selectedProject = (Project) projectComboBox.getSelectedItem();
 
-        tableModel.setRowCount(0);
+        tableModel.clear();
+        statusLabel.setText("Loading...");
+
+        if ("Resource Assignments".equals(viewType)) {
+            if (selectedProject == null) {
+                statusLabel.setText("Ready");
+                return;
+            }
+            // Assignment lists can be very large, so page them from the database
+            long projectId = selectedProject.getId();
+            ResourceDAO dao = new ResourceDAO();
+            tableModel.setSource(new PageSource<Resource>() {
+                @Override
+                public BackgroundExecutor.Pool pool() {
+                    return BackgroundExecutor.Pool.P6;
+                }
+
+                @Override
+                public int count() {
+                    return dao.countResourceAssignments(projectId);
+                }
+
+                @Override
+                public List<Resource> fetchPage(Resource previous, int offset, int limit) {
+                    return previous == null
+                            ? dao.getResourceAssignmentsPageAt(projectId, offset, limit)
+                            : dao.getResourceAssignmentsPage(projectId, previous.getTaskName(),
+                                    previous.getName(), previous.getAssignmentId(), limit);
+                }
+            }, this::resourcesLoaded);
+            return;
+        }
 
         SwingWorker<List<Resource>, Void> worker = new SwingWorker<>() {
             @Override
             protected List<Resource> doInBackground() throws Exception {
-                ResourceDAO dao = new ResourceDAO();
-
                 if ("Resources".equals(viewType)) {
-                    return dao.getP6Resources();
-                } else if ("Resource Assignments".equals(viewType) && selectedProject != null) {
-                    return dao.getResourceAssignments(selectedProject.getId());
+                    return ReferenceDataCache.getInstance().getP6Resources();
                 } else if ("Staging".equals(viewType)) {
-                    return dao.getStagingResources();
+                    return new ResourceDAO().getStagingResources();
                 } else {
                     return java.util.Collections.emptyList();
                 }
@@ -183,65 +218,75 @@ public class ResourcePanel extends JPanel {
             protected void done() {
                 try {
                     List<Resource> resources = get();
-                    for (Resource resource : resources) {
-                        Object[] row;
-
-                        if ("Resources".equals(viewType)) {
-                            row = new Object[]{
-                                    resource.getId(),
-                                    resource.getName(),
-                                    resource.getShortName(),
-                                    resource.getType(),
-                                    resource.getEmail(),
-                                    resource.getSource()
-                            };
-                        } else if ("Resource Assignments".equals(viewType)) {
-                            row = new Object[]{
-                                    resource.getAssignmentId(),
-                                    resource.getId(),
-                                    resource.getName(),
-                                    resource.getTaskId(),
-                                    resource.getTaskName(),
-                                    resource.getPlannedCost(),
-                                    resource.getActualCost(),
-                                    resource.getRemainingCost()
-                            };
-                        } else { // Staging
-                            row = new Object[]{
-                                    resource.getId(),
-                                    resource.getName(),
-                                    resource.getType(),
-                                    resource.getEbsOrgId(),
-                                    resource.getEbsPersonId(),
-                                    resource.getSyncStatus(),
-                                    resource.getErrorMessage()
-                            };
-                        }
-
-                        tableModel.addRow(row);
-                    }
-
-                    if (resources.isEmpty()) {
-                        JOptionPane.showMessageDialog(
-                                ResourcePanel.this,
-                                "No resources found for the selected view.",
-                                "Information",
-                                JOptionPane.INFORMATION_MESSAGE
-                        );
-                    }
+                    tableModel.setRows(resources);
+                    resourcesLoaded(resources.size());
                 } catch (Exception e) {
                     e.printStackTrace();
-                    JOptionPane.showMessageDialog(
-                            ResourcePanel.this,
-                            "Error loading resources: " + e.getMessage(),
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE
-                    );
+                    resourcesLoaded(-1);
                 }
             }
         };
 
-        worker.execute();
+        BackgroundExecutor.getInstance().execute("Staging".equals(viewType)
+                ? BackgroundExecutor.Pool.INTEGRATION : BackgroundExecutor.Pool.P6, worker);
+    }
+
+    private void resourcesLoaded(int count) {
+        if (count < 0) {
+            statusLabel.setText("Error loading resources");
+            JOptionPane.showMessageDialog(
+                    ResourcePanel.this,
+                    "Error loading resources, see the application log for details.",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE
+            );
+        } else if (count == 0) {
+            statusLabel.setText("No rows");
+            JOptionPane.showMessageDialog(
+                    ResourcePanel.this,
+                    "No resources found for the selected view.",
+                    "Information",
+                    JOptionPane.INFORMATION_MESSAGE
+            );
+        } else {
+            statusLabel.setText(count + " rows");
+        }
+    }
+
+    private static Object resourceValue(Resource resource, int column) {
+        switch (column) {
+            case 0: return resource.getId();
+            case 1: return resource.getName();
+            case 2: return resource.getShortName();
+            case 3: return resource.getType();
+            case 4: return resource.getEmail();
+            default: return resource.getSource();
+        }
+    }
+
+    private static Object assignmentValue(Resource resource, int column) {
+        switch (column) {
+            case 0: return resource.getAssignmentId();
+            case 1: return resource.getId();
+            case 2: return resource.getName();
+            case 3: return resource.getTaskId();
+            case 4: return resource.getTaskName();
+            case 5: return resource.getPlannedCost();
+            case 6: return resource.getActualCost();
+            default: return resource.getRemainingCost();
+        }
+    }
+
+    private static Object stagingValue(Resource resource, int column) {
+        switch (column) {
+            case 0: return resource.getId();
+            case 1: return resource.getName();
+            case 2: return resource.getType();
+            case 3: return resource.getEbsOrgId();
+            case 4: return resource.getEbsPersonId();
+            case 5: return resource.getSyncStatus();
+            default: return resource.getErrorMessage();
+        }
     }
 
     private void syncResources() {
@@ -250,8 +295,12 @@ public class ResourcePanel extends JPanel {
         if ("Resources".equals(viewType)) {
             int selectedRow = resourceTable.getSelectedRow();
             if (selectedRow != -1) {
-                Long resourceId = (Long) tableModel.getValueAt(selectedRow, 0);
-                String resourceName = (String) tableModel.getValueAt(selectedRow, 1);
+                Resource resource = tableModel.getRow(selectedRow);
+                if (resource == null) {
+                    return; // Page still loading
+                }
+                Long resourceId = resource.getId();
+                String resourceName = resource.getName();
 
                 int choice = JOptionPane.showConfirmDialog(
                         this,
@@ -286,83 +335,43 @@ public class ResourcePanel extends JPanel {
     }
 
     private void syncSpecificResource(Long resourceId) {
-        SwingWorker<Boolean, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Boolean doInBackground() throws Exception {
-                return new ResourceDAO().triggerResourceSync(resourceId);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    if (get()) {
-                        JOptionPane.showMessageDialog(
-                                ResourcePanel.this,
-                                "Resource synchronization started successfully.",
-                                "Success",
-                                JOptionPane.INFORMATION_MESSAGE
-                        );
-                    } else {
-                        JOptionPane.showMessageDialog(
-                                ResourcePanel.this,
-                                "Failed to start resource synchronization.",
-                                "Error",
-                                JOptionPane.ERROR_MESSAGE
-                        );
-                    }
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    JOptionPane.showMessageDialog(
-                            ResourcePanel.this,
-                            "Error: " + e.getMessage(),
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE
-                    );
-                }
-            }
-        };
-
-        worker.execute();
+        SyncFeedback.submit(
+                this,
+                SyncRequest.resource(resourceId),
+                "Resource synchronization completed successfully.",
+                "Resource synchronization failed.",
+                null
+        );
     }
 
     private void syncAllResources() {
-        SwingWorker<Boolean, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Boolean doInBackground() throws Exception {
-                return new ResourceDAO().triggerResourcesSync();
-            }
+        SyncFeedback.submit(
+                this,
+                SyncRequest.allResources(),
+                "Resources synchronization completed successfully.",
+                "Resources synchronization failed.",
+                null
+        );
+    }
 
-            @Override
-            protected void done() {
-                try {
-                    if (get()) {
-                        JOptionPane.showMessageDialog(
-                                ResourcePanel.this,
-                                "Resources synchronization started successfully.",
-                                "Success",
-                                JOptionPane.INFORMATION_MESSAGE
-                        );
-                    } else {
-                        JOptionPane.showMessageDialog(
-                                ResourcePanel.this,
-                                "Failed to start resources synchronization.",
-                                "Error",
-                                JOptionPane.ERROR_MESSAGE
-                        );
-                    }
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    JOptionPane.showMessageDialog(
-                            ResourcePanel.this,
-                            "Error: " + e.getMessage(),
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE
-                    );
-                }
-            }
-        };
+    private void exportAssignments() {
+        Project selectedProject = (Project) projectComboBox.getSelectedItem();
+        if (selectedProject == null) {
+            JOptionPane.showMessageDialog(
+                    this,
+                    "Please select a project first.",
+                    "No Project Selected",
+                    JOptionPane.WARNING_MESSAGE
+            );
+            return;
+        }
 
-        worker.execute();
+        long projectId = selectedProject.getId();
+        CsvExport.export(this, "assignments-" + projectId + ".csv", BackgroundExecutor.Pool.P6, out -> {
+            AssignmentSnapshot assignments = ReferenceDataCache.getInstance().getResourceAssignments(projectId);
+            SnapshotCsv.writeAssignments(assignments, out);
+            return assignments.size();
+        });
     }
 
     private void syncAssignments() {
@@ -388,43 +397,13 @@ public class ResourcePanel extends JPanel {
             );
 
             if (choice == JOptionPane.YES_OPTION) {
-                SwingWorker<Boolean, Void> worker = new SwingWorker<>() {
-                    @Override
-                    protected Boolean doInBackground() throws Exception {
-                        return new ResourceDAO().triggerResourceAssignmentsSync(selectedProject.getId());
-                    }
-
-                    @Override
-                    protected void done() {
-                        try {
-                            if (get()) {
-                                JOptionPane.showMessageDialog(
-                                        ResourcePanel.this,
-                                        "Resource assignments synchronization started successfully.",
-                                        "Success",
-                                        JOptionPane.INFORMATION_MESSAGE
-                                );
-                            } else {
-                                JOptionPane.showMessageDialog(
-                                        ResourcePanel.this,
-                                        "Failed to start resource assignments synchronization.",
-                                        "Error",
-                                        JOptionPane.ERROR_MESSAGE
-                                );
-                            }
-                        } catch (Exception e) {
-                            e.printStackTrace();
-                            JOptionPane.showMessageDialog(
-                                    ResourcePanel.this,
-                                    "Error: " + e.getMessage(),
-                                    "Error",
-                                    JOptionPane.ERROR_MESSAGE
-                            );
-                        }
-                    }
-                };
-
-                worker.execute();
+                SyncFeedback.submit(
+                        this,
+                        SyncRequest.assignments(selectedProject.getId()),
+                        "Resource assignments synchronization completed successfully.",
+                        "Resource assignments synchronization failed.",
+                        null
+                );
             }
         } else {
             JOptionPane.showMessageDialog(
@@ -0,0 +1,186 @@
+package com.p6ebs.integration.ui;
+
+import com.p6ebs.integration.trace.QueryTrace;
+import com.p6ebs.integration.trace.QueryTracer;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Statements captured by the {@link QueryTracer}, slowest first. Selecting a
+ * row shows its full SQL, bind values and timing breakdown.
+ */
+public class SlowQueryPanel extends JPanel {
+    private final TraceTableModel tableModel = new TraceTableModel();
+    private final JTable table;
+    private final JTextArea detailArea;
+    private final JSpinner thresholdSpinner;
+    private final JLabel statusLabel;
+
+    public SlowQueryPanel() {
+        setLayout(new BorderLayout());
+        QueryTracer tracer = QueryTracer.getInstance();
+
+        JPanel toolbarPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        toolbarPanel.add(new JLabel("Threshold (ms):"));
+        thresholdSpinner = new JSpinner(new SpinnerNumberModel(
+                (int) Math.min(Integer.MAX_VALUE, tracer.getThresholdMillis()), 0, Integer.MAX_VALUE, 100));
+        thresholdSpinner.addChangeListener(e ->
+                tracer.setThresholdMillis(((Number) thresholdSpinner.getValue()).longValue()));
+        toolbarPanel.add(thresholdSpinner);
+
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> refresh());
+        toolbarPanel.add(refreshButton);
+
+        JButton clearButton = new JButton("Clear");
+        clearButton.addActionListener(e -> {
+            tracer.clear();
+            refresh();
+        });
+        toolbarPanel.add(clearButton);
+        add(toolbarPanel, BorderLayout.NORTH);
+
+        table = new JTable(tableModel);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.setAutoCreateRowSorter(true);
+        table.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                showSelected();
+            }
+        });
+
+        detailArea = new JTextArea(8, 80);
+        detailArea.setEditable(false);
+        detailArea.setLineWrap(true);
+        detailArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(table), new JScrollPane(detailArea));
+        splitPane.setResizeWeight(0.7);
+        add(splitPane, BorderLayout.CENTER);
+
+        JPanel statusPanel = new JPanel(new BorderLayout());
+        statusPanel.setBorder(BorderFactory.createEtchedBorder());
+        statusLabel = new JLabel("Ready");
+        statusPanel.add(statusLabel, BorderLayout.WEST);
+        add(statusPanel, BorderLayout.SOUTH);
+
+        refresh();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        refresh();
+    }
+
+    private void refresh() {
+        QueryTracer tracer = QueryTracer.getInstance();
+        tableModel.setTraces(tracer.getTraces());
+        detailArea.setText("");
+        statusLabel.setText(tracer.isEnabled()
+                ? tableModel.getRowCount() + " statements at or above " + tracer.getThresholdMillis() + " ms"
+                : "Tracing is disabled (trace.enabled=false)");
+    }
+
+    private void showSelected() {
+        int viewRow = table.getSelectedRow();
+        if (viewRow < 0) {
+            detailArea.setText("");
+            return;
+        }
+        QueryTrace trace = tableModel.getTrace(table.convertRowIndexToModel(viewRow));
+        StringBuilder text = new StringBuilder();
+        text.append(trace.getSql().trim()).append("\n\n");
+        text.append("Binds:    ").append(trace.getBinds().isEmpty() ? "(none)" : trace.getBinds()).append('\n');
+        text.append(String.format("Timing:   %.2f ms total, %.2f execute, %.2f fetch, %.2f mapping%n",
+                trace.getTotalMillis(), trace.getExecuteNanos() / 1e6,
+                trace.getFetchNanos() / 1e6, trace.getMappingNanos() / 1e6));
+        text.append("Rows:     ").append(trace.getRows()).append(" (fetch size ").append(trace.getFetchSize());
+        if (trace.getBatchSize() > 0) {
+            text.append(", batch of ").append(trace.getBatchSize());
+        }
+        text.append(")\n");
+        text.append("Thread:   ").append(trace.getThread()).append('\n');
+        if (trace.getError() != null) {
+            text.append("Error:    ").append(trace.getError()).append('\n');
+        }
+        detailArea.setText(text.toString());
+        detailArea.setCaretPosition(0);
+    }
+
+    private static class TraceTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Started", "Pool", "Total (ms)", "Execute (ms)",
+                "Fetch (ms)", "Mapping (ms)", "Rows", "SQL"};
+        private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss.SSS");
+        private List<QueryTrace> traces = new ArrayList<>();
+
+        void setTraces(List<QueryTrace> traces) {
+            this.traces = traces;
+            fireTableDataChanged();
+        }
+
+        QueryTrace getTrace(int row) {
+            return traces.get(row);
+        }
+
+        @Override
+        public int getRowCount() { return traces.size(); }
+
+        @Override
+        public int getColumnCount() { return COLUMNS.length; }
+
+        @Override
+        public String getColumnName(int column) { return COLUMNS[column]; }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            switch (column) {
+                case 2:
+                case 3:
+                case 4:
+                case 5:
+                    return Double.class;
+                case 6:
+                    return Long.class;
+                default:
+                    return String.class;
+            }
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            QueryTrace trace = traces.get(row);
+            switch (column) {
+                case 0:
+                    return timeFormat.format(new Date(trace.getStartedAt()));
+                case 1:
+                    return trace.getPool();
+                case 2:
+                    return round(trace.getTotalMillis());
+                case 3:
+                    return round(trace.getExecuteNanos() / 1e6);
+                case 4:
+                    return round(trace.getFetchNanos() / 1e6);
+                case 5:
+                    return round(trace.getMappingNanos() / 1e6);
+                case 6:
+                    return trace.getRows();
+                case 7:
+                    return trace.getSql().replaceAll("\\s+", " ").trim();
+                default:
+                    return null;
+            }
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100.0) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.p6ebs.integration.ui;
+
+import com.p6ebs.integration.sync.SyncJob;
+import com.p6ebs.integration.sync.SyncJobExecutor;
+import com.p6ebs.integration.sync.SyncRequest;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Submits sync requests to the shared {@link SyncJobExecutor} and reports the
+ * outcome to the user on the Event Dispatch Thread
+ */
+final class SyncFeedback {
+
+    private SyncFeedback() {}
+
+    /**
+     * Submit a request and show a success or error dialog when it finishes
+     *
+     * @param onFinished optional callback run on the EDT after the dialog, whatever the outcome
+     */
+    static SyncJob submit(Component parent, SyncRequest request, String successMessage,
+                          String failureMessage, Runnable onFinished) {
+        SyncJob job = SyncJobExecutor.getInstance().submit(request);
+        job.getFuture().whenComplete((success, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                if (!(cause instanceof CancellationException)) {
+                    cause.printStackTrace();
+                    JOptionPane.showMessageDialog(
+                            parent,
+                            "Error: " + cause.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE
+                    );
+                }
+            } else if (Boolean.TRUE.equals(success)) {
+                JOptionPane.showMessageDialog(
+                        parent,
+                        successMessage + "\n(" + job.getRunMillis() + " ms)",
+                        "Success",
+                        JOptionPane.INFORMATION_MESSAGE
+                );
+            } else {
+                JOptionPane.showMessageDialog(
+                        parent,
+                        failureMessage,
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE
+                );
+            }
+
+            if (onFinished != null) {
+                onFinished.run();
+            }
+        }));
+        return job;
+    }
+}
@@ -1,23 +1,41 @@
 package com.p6ebs.integration.ui;
 
-import com.p6ebs.integration.dao.ProjectDAO;
+import com.p6ebs.integration.cache.ReferenceDataCache;
 import com.p6ebs.integration.dao.TaskDAO;
+import com.p6ebs.integration.diff.ComparisonLoader;
+import com.p6ebs.integration.exec.BackgroundExecutor;
 import com.p6ebs.integration.model.Project;
 import com.p6ebs.integration.model.Task;
+import com.p6ebs.integration.snapshot.SnapshotCsv;
+import com.p6ebs.integration.snapshot.TaskHierarchy;
+import com.p6ebs.integration.snapshot.TaskSnapshot;
+import com.p6ebs.integration.sync.SyncRequest;
+import com.p6ebs.integration.util.ConfigManager;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreeSelectionModel;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 
 public class TaskPanel extends JPanel {
     private JComboBox<Project> projectComboBox;
     private JComboBox<String> sourceComboBox;
     private JTable taskTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<Task> tableModel;
+    private JLabel statusLabel;
     private JButton refreshButton;
     private JButton syncButton;
     private JButton syncDependenciesButton;
+    private JButton syncAllTasksButton;
+    private JButton compareButton;
+    private JButton exportButton;
+    private JButton syncBranchButton;
+    private JCheckBox treeViewCheckBox;
+    private JTree taskTree;
+    private CardLayout viewLayout;
+    private JPanel viewPanel;
 
     public TaskPanel() {
         setLayout(new BorderLayout());
@@ -40,38 +58,64 @@ public class TaskPanel extends JPanel {
         sourceComboBox.addActionListener(e -> refreshTasks());
         toolbarPanel.add(sourceComboBox);
 
+        treeViewCheckBox = new JCheckBox("Tree View");
+        treeViewCheckBox.addActionListener(e -> refreshTasks());
+        toolbarPanel.add(treeViewCheckBox);
+
         refreshButton = new JButton("Refresh");
-        refreshButton.addActionListener(e -> refreshTasks());
+        refreshButton.addActionListener(e -> {
+            ReferenceDataCache.getInstance().invalidateTasks();
+            refreshTasks();
+        });
         toolbarPanel.add(refreshButton);
 
         syncButton = new JButton("Sync Selected Task");
         syncButton.addActionListener(e -> syncSelectedTask());
         toolbarPanel.add(syncButton);
 
+        syncBranchButton = new JButton("Sync Branch");
+        syncBranchButton.addActionListener(e -> syncSelectedBranch());
+        syncBranchButton.setVisible(false);
+        toolbarPanel.add(syncBranchButton);
+
+        syncAllTasksButton = new JButton("Sync All Tasks");
+        syncAllTasksButton.addActionListener(e -> syncAllTasks());
+        toolbarPanel.add(syncAllTasksButton);
+
         syncDependenciesButton = new JButton("Sync Dependencies");
         syncDependenciesButton.addActionListener(e -> syncDependencies());
         toolbarPanel.add(syncDependenciesButton);
 
+        compareButton = new JButton("Compare P6/EBS");
+        compareButton.addActionListener(e -> compareTasks());
+        toolbarPanel.add(compareButton);
+
+        exportButton = new JButton("Export CSV");
+        exportButton.addActionListener(e -> exportTasks());
+        toolbarPanel.add(exportButton);
+
         add(toolbarPanel, BorderLayout.NORTH);
 
         // Create table
         String[] columnNames = {"ID", "Code", "Name", "Start Date", "End Date", "Duration", "% Complete", "Status"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new PagedTableModel<>(columnNames, TaskPanel::columnValue);
         taskTable = new JTable(tableModel);
         taskTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 
-        JScrollPane scrollPane = new JScrollPane(taskTable);
-        add(scrollPane, BorderLayout.CENTER);
+        // Tree of the same tasks by parent, shown instead of the table in tree view
+        taskTree = new JTree(new DefaultTreeModel(null));
+        taskTree.getSelectionModel().setSelectionMode(TreeSelectionModel.SINGLE_TREE_SELECTION);
+
+        viewLayout = new CardLayout();
+        viewPanel = new JPanel(viewLayout);
+        viewPanel.add(new JScrollPane(taskTable), "table");
+        viewPanel.add(new JScrollPane(taskTree), "tree");
+        add(viewPanel, BorderLayout.CENTER);
 
         // Add a status panel at the bottom
         JPanel statusPanel = new JPanel(new BorderLayout());
         statusPanel.setBorder(BorderFactory.createEtchedBorder());
-        JLabel statusLabel = new JLabel("Ready");
+        statusLabel = new JLabel("Ready");
         statusPanel.add(statusLabel, BorderLayout.WEST);
         add(statusPanel, BorderLayout.SOUTH);
 
@@ -85,7 +129,7 @@ public class TaskPanel extends JPanel {
         SwingWorker<List<Project>, Void> worker = new SwingWorker<>() {
             @Override
             protected List<Project> doInBackground() throws Exception {
-                return new ProjectDAO().getP6Projects();
+                return ReferenceDataCache.getInstance().getP6Projects();
             }
 
             @Override
@@ -112,7 +156,7 @@ public class TaskPanel extends JPanel {
             }
         };
 
-        worker.execute();
+        BackgroundExecutor.getInstance().execute(BackgroundExecutor.Pool.P6, worker);
     }
 
     private void refreshTasks() {
@@ -121,62 +165,147 @@ public class TaskPanel extends JPanel {
             return;
         }
 
-        tableModel.setRowCount(0);
+        long projectId = selectedProject.getId();
+        String source = (String) sourceComboBox.getSelectedItem();
+        TaskDAO dao = new TaskDAO();
+        statusLabel.setText("Loading tasks...");
+
+        boolean treeView = treeViewCheckBox.isSelected();
+        viewLayout.show(viewPanel, treeView ? "tree" : "table");
+        syncButton.setVisible(!treeView);
+        // Branch sync pushes P6 task IDs, so it is only offered on the P6 tree
+        syncBranchButton.setVisible(treeView && "P6".equals(source));
+        if (treeView) {
+            refreshTree(selectedProject, source);
+            return;
+        }
+
+        if ("P6".equals(source)) {
+            tableModel.setSource(new PageSource<Task>() {
+                @Override
+                public BackgroundExecutor.Pool pool() {
+                    return BackgroundExecutor.Pool.P6;
+                }
 
-        SwingWorker<List<Task>, Void> worker = new SwingWorker<>() {
-            @Override
-            protected List<Task> doInBackground() throws Exception {
-                TaskDAO dao = new TaskDAO();
-                String source = (String) sourceComboBox.getSelectedItem();
-
-                if ("P6".equals(source)) {
-                    return dao.getP6Tasks(selectedProject.getId());
-                } else if ("EBS".equals(source)) {
-                    return dao.getEBSTasks(selectedProject.getId());
-                } else {
-                    return dao.getStagingTasks(selectedProject.getId());
+                @Override
+                public int count() {
+                    return dao.countP6Tasks(projectId);
+                }
+
+                @Override
+                public List<Task> fetchPage(Task previous, int offset, int limit) {
+                    return previous == null
+                            ? dao.getP6TasksPageAt(projectId, offset, limit)
+                            : dao.getP6TasksPage(projectId, previous.getCode(), previous.getId(), limit);
+                }
+            }, this::tasksLoaded);
+        } else if ("EBS".equals(source)) {
+            tableModel.setSource(new PageSource<Task>() {
+                @Override
+                public BackgroundExecutor.Pool pool() {
+                    return BackgroundExecutor.Pool.EBS;
+                }
+
+                @Override
+                public int count() {
+                    return dao.countEBSTasks(projectId);
+                }
+
+                @Override
+                public List<Task> fetchPage(Task previous, int offset, int limit) {
+                    return previous == null
+                            ? dao.getEBSTasksPageAt(projectId, offset, limit)
+                            : dao.getEBSTasksPage(projectId, previous.getCode(), previous.getId(), limit);
+                }
+            }, this::tasksLoaded);
+        } else {
+            // Staging rows for one project are few, so load them in one go
+            tableModel.clear();
+            SwingWorker<List<Task>, Void> worker = new SwingWorker<>() {
+                @Override
+                protected List<Task> doInBackground() throws Exception {
+                    return dao.getStagingTasks(projectId);
+                }
+
+                @Override
+                protected void done() {
+                    try {
+                        List<Task> tasks = get();
+                        tableModel.setRows(tasks);
+                        tasksLoaded(tasks.size());
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                        tasksLoaded(-1);
+                    }
                 }
+            };
+
+            BackgroundExecutor.getInstance().execute(BackgroundExecutor.Pool.INTEGRATION, worker);
+        }
+    }
+
+    private void refreshTree(Project project, String source) {
+        taskTree.setModel(new DefaultTreeModel(null));
+        SwingWorker<TaskHierarchy, Void> worker = new SwingWorker<>() {
+            @Override
+            protected TaskHierarchy doInBackground() throws Exception {
+                return TaskHierarchy.of(loadSnapshot(project.getId(), source));
             }
 
             @Override
             protected void done() {
                 try {
-                    List<Task> tasks = get();
-                    for (Task task : tasks) {
-                        Object[] row = {
-                                task.getId(),
-                                task.getCode(),
-                                task.getName(),
-                                task.getStartDate(),
-                                task.getEndDate(),
-                                task.getDuration(),
-                                task.getPercentComplete(),
-                                task.getStatus()
-                        };
-                        tableModel.addRow(row);
-                    }
-
-                    if (tasks.isEmpty()) {
-                        JOptionPane.showMessageDialog(
-                                TaskPanel.this,
-                                "No tasks found for the selected project.",
-                                "Information",
-                                JOptionPane.INFORMATION_MESSAGE
-                        );
+                    TaskHierarchy hierarchy = get();
+                    taskTree.setModel(new TaskTreeModel(hierarchy, project.getName()));
+                    if (hierarchy.size() > 0) {
+                        statusLabel.setText(hierarchy.size() + " tasks, " + hierarchy.getRootCount()
+                                + " top-level, " + (hierarchy.getMaxDepth() + 1) + " levels deep");
+                    } else {
+                        tasksLoaded(0);
                     }
                 } catch (Exception e) {
                     e.printStackTrace();
-                    JOptionPane.showMessageDialog(
-                            TaskPanel.this,
-                            "Error loading tasks: " + e.getMessage(),
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE
-                    );
+                    tasksLoaded(-1);
                 }
             }
         };
 
-        worker.execute();
+        BackgroundExecutor.getInstance().execute(BackgroundExecutor.Pool.ofSource(source), worker);
+    }
+
+    private void tasksLoaded(int count) {
+        if (count < 0) {
+            statusLabel.setText("Error loading tasks");
+            JOptionPane.showMessageDialog(
+                    TaskPanel.this,
+                    "Error loading tasks, see the application log for details.",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE
+            );
+        } else if (count == 0) {
+            statusLabel.setText("No tasks");
+            JOptionPane.showMessageDialog(
+                    TaskPanel.this,
+                    "No tasks found for the selected project.",
+                    "Information",
+                    JOptionPane.INFORMATION_MESSAGE
+            );
+        } else {
+            statusLabel.setText(count + " tasks");
+        }
+    }
+
+    private static Object columnValue(Task task, int column) {
+        switch (column) {
+            case 0: return task.getId();
+            case 1: return task.getCode();
+            case 2: return task.getName();
+            case 3: return task.getStartDate();
+            case 4: return task.getEndDate();
+            case 5: return task.getDuration();
+            case 6: return task.getPercentComplete();
+            default: return task.getStatus();
+        }
     }
 
     private void syncSelectedTask() {
@@ -191,8 +320,12 @@ public class TaskPanel extends JPanel {
             return;
         }
 
-        Long taskId = (Long) tableModel.getValueAt(selectedRow, 0);
-        String taskName = (String) tableModel.getValueAt(selectedRow, 2);
+        Task task = tableModel.getRow(selectedRow);
+        if (task == null) {
+            return; // Page still loading
+        }
+        Long taskId = task.getId();
+        String taskName = task.getName();
 
         int choice = JOptionPane.showConfirmDialog(
                 this,
@@ -202,47 +335,73 @@ public class TaskPanel extends JPanel {
         );
 
         if (choice == JOptionPane.YES_OPTION) {
-            SwingWorker<Boolean, Void> worker = new SwingWorker<>() {
-                @Override
-                protected Boolean doInBackground() throws Exception {
-                    return new TaskDAO().triggerTaskSync(taskId);
-                }
+            SyncFeedback.submit(
+                    this,
+                    SyncRequest.task(taskId),
+                    "Task synchronization completed successfully.",
+                    "Task synchronization failed.",
+                    null
+            );
+        }
+    }
 
-                @Override
-                protected void done() {
-                    try {
-                        if (get()) {
-                            JOptionPane.showMessageDialog(
-                                    TaskPanel.this,
-                                    "Task synchronization started successfully.",
-                                    "Success",
-                                    JOptionPane.INFORMATION_MESSAGE
-                            );
-                        } else {
-                            JOptionPane.showMessageDialog(
-                                    TaskPanel.this,
-                                    "Failed to start task synchronization.",
-                                    "Error",
-                                    JOptionPane.ERROR_MESSAGE
-                            );
-                        }
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        JOptionPane.showMessageDialog(
-                                TaskPanel.this,
-                                "Error: " + e.getMessage(),
-                                "Error",
-                                JOptionPane.ERROR_MESSAGE
-                        );
-                    }
-                }
-            };
+    private void syncSelectedBranch() {
+        Object selected = taskTree.getLastSelectedPathComponent();
+        if (!(selected instanceof TaskTreeModel.Node)) {
+            JOptionPane.showMessageDialog(
+                    this,
+                    "Please select a task in the tree to synchronize it and everything beneath it.",
+                    "No Selection",
+                    JOptionPane.WARNING_MESSAGE
+            );
+            return;
+        }
+
+        TaskTreeModel.Node node = (TaskTreeModel.Node) selected;
+        int choice = JOptionPane.showConfirmDialog(
+                this,
+                "Synchronize " + node.getName() + " and the " + (node.getSubtreeSize() - 1)
+                        + " tasks beneath it?",
+                "Confirm Sync",
+                JOptionPane.YES_NO_OPTION
+        );
 
-            worker.execute();
+        if (choice == JOptionPane.YES_OPTION) {
+            List<Long> taskIds = new ArrayList<>();
+            for (long taskId : node.getSubtreeTaskIds()) {
+                taskIds.add(taskId);
+            }
+            SyncFeedback.submit(
+                    this,
+                    SyncRequest.tasks(taskIds),
+                    "Branch synchronization completed successfully (" + taskIds.size() + " tasks).",
+                    "Branch synchronization failed.",
+                    null
+            );
         }
     }
 
-    private void syncDependencies() {
+    private void compareTasks() {
+        Project selectedProject = (Project) projectComboBox.getSelectedItem();
+        if (selectedProject == null) {
+            JOptionPane.showMessageDialog(
+                    this,
+                    "Please select a project first.",
+                    "No Project Selected",
+                    JOptionPane.WARNING_MESSAGE
+            );
+            return;
+        }
+
+        long projectId = selectedProject.getId();
+        new ComparisonDialog(
+                SwingUtilities.getWindowAncestor(this),
+                "Task Comparison - " + selectedProject.getName(),
+                () -> new ComparisonLoader().compareTasks(projectId)
+        ).setVisible(true);
+    }
+
+    private void exportTasks() {
         Project selectedProject = (Project) projectComboBox.getSelectedItem();
         if (selectedProject == null) {
             JOptionPane.showMessageDialog(
@@ -254,51 +413,97 @@ public class TaskPanel extends JPanel {
             return;
         }
 
+        long projectId = selectedProject.getId();
+        String source = (String) sourceComboBox.getSelectedItem();
+        CsvExport.export(this, "tasks-" + source.toLowerCase() + "-" + projectId + ".csv",
+                BackgroundExecutor.Pool.ofSource(source), out -> {
+            TaskSnapshot tasks = loadSnapshot(projectId, source);
+            SnapshotCsv.writeTasks(tasks, out);
+            return tasks.size();
+        });
+    }
+
+    /**
+     * Read all of a project's tasks from one source; call off the EDT
+     */
+    private static TaskSnapshot loadSnapshot(long projectId, String source) {
+        if ("P6".equals(source)) {
+            return ReferenceDataCache.getInstance().getP6Tasks(projectId);
+        }
+        TaskSnapshot.Builder builder = TaskSnapshot.builder();
+        if ("EBS".equals(source)) {
+            new TaskDAO().streamEBSTasks(projectId, builder);
+        } else {
+            new TaskDAO().streamStagingTasks(projectId, builder);
+        }
+        return builder.build();
+    }
+
+    private void syncAllTasks() {
+        Project selectedProject = (Project) projectComboBox.getSelectedItem();
+        if (selectedProject == null) {
+            JOptionPane.showMessageDialog(
+                    this,
+                    "Please select a project first.",
+                    "No Project Selected",
+                    JOptionPane.WARNING_MESSAGE
+            );
+            return;
+        }
+
+        // The same switch as the planned sync, so both paths sync tasks the same way
+        boolean chunked = Boolean.parseBoolean(ConfigManager.getProperty("sync.plan.chunked.tasks", "false").trim());
         int choice = JOptionPane.showConfirmDialog(
                 this,
-                "Synchronize all task dependencies for project: " + selectedProject.getName() + "?",
+                "Synchronize all tasks for project: " + selectedProject.getName() + "?"
+                        + (chunked ? "\nTasks are committed in chunks; if the sync fails, running it again resumes "
+                        + "where it stopped." : ""),
                 "Confirm Sync",
                 JOptionPane.YES_NO_OPTION
         );
 
         if (choice == JOptionPane.YES_OPTION) {
-            SwingWorker<Boolean, Void> worker = new SwingWorker<>() {
-                @Override
-                protected Boolean doInBackground() throws Exception {
-                    return new TaskDAO().triggerTaskDependenciesSync(selectedProject.getId());
-                }
+            SyncFeedback.submit(
+                    this,
+                    chunked
+                            ? SyncRequest.chunkedProjectTasks(selectedProject.getId())
+                            : SyncRequest.projectTasks(selectedProject.getId()),
+                    "Task synchronization completed successfully.",
+                    chunked
+                            ? "Task synchronization stopped at a failed chunk. Run it again to resume."
+                            : "Task synchronization failed.",
+                    null
+            );
+        }
+    }
 
-                @Override
-                protected void done() {
-                    try {
-                        if (get()) {
-                            JOptionPane.showMessageDialog(
-                                    TaskPanel.this,
-                                    "Task dependencies synchronization started successfully.",
-                                    "Success",
-                                    JOptionPane.INFORMATION_MESSAGE
-                            );
-                        } else {
-                            JOptionPane.showMessageDialog(
-                                    TaskPanel.this,
-                                    "Failed to start task dependencies synchronization.",
-                                    "Error",
-                                    JOptionPane.ERROR_MESSAGE
-                            );
-                        }
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        JOptionPane.showMessageDialog(
-                                TaskPanel.this,
-                                "Error: " + e.getMessage(),
-                                "Error",
-                                JOptionPane.ERROR_MESSAGE
-                        );
-                    }
-                }
-            };
+    private void syncDependencies() {
+        Project selectedProject = (Project) projectComboBox.getSelectedItem();
+        if (selectedProject == null) {
+            JOptionPane.showMessageDialog(
+                    this,
+                    "Please select a project first.",
+                    "No Project Selected",
+                    JOptionPane.WARNING_MESSAGE
+            );
+            return;
+        }
 
-            worker.execute();
+        int choice = JOptionPane.showConfirmDialog(
+                this,
+                "Synchronize all task dependencies for project: " + selectedProject.getName() + "?",
+                "Confirm Sync",
+                JOptionPane.YES_NO_OPTION
+        );
+
+        if (choice == JOptionPane.YES_OPTION) {
+            SyncFeedback.submit(
+                    this,
+                    SyncRequest.dependencies(selectedProject.getId()),
+                    "Task dependencies synchronization completed successfully.",
+                    "Task dependencies synchronization failed.",
+                    null
+            );
         }
     }
 }
\ No newline at end of file
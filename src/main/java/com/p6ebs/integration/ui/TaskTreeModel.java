@@ -0,0 +1,120 @@
+package com.p6ebs.integration.ui;
+
+import com.p6ebs.integration.snapshot.TaskHierarchy;
+import com.p6ebs.integration.snapshot.TaskSnapshot;
+
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.TreeModel;
+import javax.swing.tree.TreePath;
+
+/**
+ * Read-only tree model over a {@link TaskHierarchy}. Nodes are created as the
+ * tree asks for them, so only expanded branches cost anything.
+ */
+final class TaskTreeModel implements TreeModel {
+    private final TaskHierarchy hierarchy;
+    private final String rootLabel;
+
+    /**
+     * One task in the tree
+     */
+    static final class Node {
+        private final TaskHierarchy hierarchy;
+        private final int row;
+
+        private Node(TaskHierarchy hierarchy, int row) {
+            this.hierarchy = hierarchy;
+            this.row = row;
+        }
+
+        int getRow() { return row; }
+
+        long getTaskId() { return hierarchy.getTasks().getId(row); }
+
+        String getName() { return hierarchy.getTasks().getName(row); }
+
+        int getSubtreeSize() { return hierarchy.getSubtreeSize(row); }
+
+        long[] getSubtreeTaskIds() { return hierarchy.subtreeTaskIds(row); }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Node && ((Node) other).row == row && ((Node) other).hierarchy == hierarchy;
+        }
+
+        @Override
+        public int hashCode() {
+            return row;
+        }
+
+        @Override
+        public String toString() {
+            TaskSnapshot tasks = hierarchy.getTasks();
+            String label = tasks.getCode(row) + " - " + tasks.getName(row);
+            if (hierarchy.isLeaf(row)) {
+                return label + " (" + Math.round(tasks.getPercentComplete(row)) + "%)";
+            }
+            return label + " (" + Math.round(hierarchy.getRolledUpPercentComplete(row)) + "% of "
+                    + (hierarchy.getSubtreeSize(row) - 1) + " tasks)";
+        }
+    }
+
+    TaskTreeModel(TaskHierarchy hierarchy, String rootLabel) {
+        this.hierarchy = hierarchy;
+        this.rootLabel = rootLabel;
+    }
+
+    TaskHierarchy getHierarchy() { return hierarchy; }
+
+    @Override
+    public Object getRoot() {
+        return rootLabel;
+    }
+
+    @Override
+    public Object getChild(Object parent, int index) {
+        if (parent instanceof Node) {
+            return new Node(hierarchy, hierarchy.getChild(((Node) parent).row, index));
+        }
+        return new Node(hierarchy, hierarchy.getRoot(index));
+    }
+
+    @Override
+    public int getChildCount(Object parent) {
+        if (parent instanceof Node) {
+            return hierarchy.getChildCount(((Node) parent).row);
+        }
+        return hierarchy.getRootCount();
+    }
+
+    @Override
+    public boolean isLeaf(Object node) {
+        return node instanceof Node && hierarchy.isLeaf(((Node) node).row);
+    }
+
+    @Override
+    public int getIndexOfChild(Object parent, Object child) {
+        if (!(child instanceof Node)) {
+            return -1;
+        }
+        int childRow = ((Node) child).row;
+        if (parent instanceof Node) {
+            return hierarchy.indexOfChild(((Node) parent).row, childRow);
+        }
+        return hierarchy.indexOfRoot(childRow);
+    }
+
+    @Override
+    public void valueForPathChanged(TreePath path, Object newValue) {
+        // Read-only
+    }
+
+    @Override
+    public void addTreeModelListener(TreeModelListener listener) {
+        // The model never changes; a reload replaces it
+    }
+
+    @Override
+    public void removeTreeModelListener(TreeModelListener listener) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.p6ebs.integration.util;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Properties;
@@ -19,6 +21,23 @@ public class ConfigManager {
         }
     }
 
+    /**
+     * Load properties from a file on disk, overriding values from application.properties.
+     * A missing file is ignored.
+     */
+    public static void loadOverrides(String path) {
+        File file = new File(path);
+        if (!file.exists()) {
+            return;
+        }
+        try (InputStream input = new FileInputStream(file)) {
+            properties.load(input);
+            System.out.println("Configuration loaded from " + path);
+        } catch (IOException e) {
+            System.err.println("Error loading configuration from " + path + ": " + e.getMessage());
+        }
+    }
+
     public static String getProperty(String key) {
         return properties.getProperty(key);
     }
@@ -26,4 +45,21 @@ public class ConfigManager {
     public static String getProperty(String key, String defaultValue) {
         return properties.getProperty(key, defaultValue);
     }
+
+    /**
+     * Read an integer property, falling back to the default when it is missing
+     * or not a number
+     */
+    public static int getIntProperty(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
 }
\ No newline at end of file
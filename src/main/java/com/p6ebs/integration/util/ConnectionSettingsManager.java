@@ -1,6 +1,7 @@
 package com.p6ebs.integration.util;
 
 import com.p6ebs.integration.model.ConnectionSettings;
+import com.p6ebs.integration.model.PoolSettings;
 
 import java.io.*;
 import java.util.Properties;
@@ -23,6 +24,13 @@ public class ConnectionSettingsManager {
         props.setProperty("ebs.db.username", settings.getEbsUsername());
         props.setProperty("ebs.db.password", settings.getEbsPassword());
         props.setProperty("integration.schema", settings.getIntegrationSchema());
+        props.setProperty("integration.db.url", settings.getIntegrationUrl());
+        props.setProperty("integration.db.username", settings.getIntegrationUsername());
+        props.setProperty("integration.db.password", settings.getIntegrationPassword());
+        props.setProperty("jdbc.fetch.size", String.valueOf(settings.getFetchSize()));
+        savePoolSettings(props, "p6.pool.", settings.getP6Pool());
+        savePoolSettings(props, "ebs.pool.", settings.getEbsPool());
+        savePoolSettings(props, "integration.pool.", settings.getIntegrationPool());
 
         File configDir = new File("config");
         if (!configDir.exists()) {
@@ -61,6 +69,13 @@ public class ConnectionSettingsManager {
             settings.setEbsUsername(props.getProperty("ebs.db.username", settings.getEbsUsername()));
             settings.setEbsPassword(props.getProperty("ebs.db.password", settings.getEbsPassword()));
             settings.setIntegrationSchema(props.getProperty("integration.schema", settings.getIntegrationSchema()));
+            settings.setIntegrationUrl(props.getProperty("integration.db.url", settings.getIntegrationUrl()));
+            settings.setIntegrationUsername(props.getProperty("integration.db.username", settings.getIntegrationUsername()));
+            settings.setIntegrationPassword(props.getProperty("integration.db.password", settings.getIntegrationPassword()));
+            settings.setFetchSize(getIntProperty(props, "jdbc.fetch.size", settings.getFetchSize()));
+            loadPoolSettings(props, "p6.pool.", settings.getP6Pool());
+            loadPoolSettings(props, "ebs.pool.", settings.getEbsPool());
+            loadPoolSettings(props, "integration.pool.", settings.getIntegrationPool());
 
             System.out.println("Settings loaded from " + SETTINGS_FILE);
         } catch (IOException e) {
@@ -70,4 +85,85 @@ public class ConnectionSettingsManager {
 
         return settings;
     }
+
+    /**
+     * Write pool settings under the given key prefix
+     */
+    private static void savePoolSettings(Properties props, String prefix, PoolSettings pool) {
+        props.setProperty(prefix + "initial.size", String.valueOf(pool.getInitialSize()));
+        props.setProperty(prefix + "min.idle", String.valueOf(pool.getMinIdle()));
+        props.setProperty(prefix + "max.idle", String.valueOf(pool.getMaxIdle()));
+        props.setProperty(prefix + "max.total", String.valueOf(pool.getMaxTotal()));
+        props.setProperty(prefix + "max.wait.millis", String.valueOf(pool.getMaxWaitMillis()));
+        props.setProperty(prefix + "eviction.interval.millis", String.valueOf(pool.getEvictionIntervalMillis()));
+        props.setProperty(prefix + "min.evictable.idle.millis", String.valueOf(pool.getMinEvictableIdleMillis()));
+        props.setProperty(prefix + "validation.query", pool.getValidationQuery() != null ? pool.getValidationQuery() : "");
+        props.setProperty(prefix + "validation.timeout.seconds", String.valueOf(pool.getValidationTimeoutSeconds()));
+        props.setProperty(prefix + "test.on.borrow", String.valueOf(pool.isTestOnBorrow()));
+        props.setProperty(prefix + "test.while.idle", String.valueOf(pool.isTestWhileIdle()));
+        props.setProperty(prefix + "pool.prepared.statements", String.valueOf(pool.isPoolPreparedStatements()));
+        props.setProperty(prefix + "max.open.prepared.statements", String.valueOf(pool.getMaxOpenPreparedStatements()));
+    }
+
+    /**
+     * Read pool settings under the given key prefix, keeping current values for missing keys
+     */
+    private static void loadPoolSettings(Properties props, String prefix, PoolSettings pool) {
+        pool.setInitialSize(getIntProperty(props, prefix + "initial.size", pool.getInitialSize()));
+        pool.setMinIdle(getIntProperty(props, prefix + "min.idle", pool.getMinIdle()));
+        pool.setMaxIdle(getIntProperty(props, prefix + "max.idle", pool.getMaxIdle()));
+        pool.setMaxTotal(getIntProperty(props, prefix + "max.total", pool.getMaxTotal()));
+        pool.setMaxWaitMillis(getLongProperty(props, prefix + "max.wait.millis", pool.getMaxWaitMillis()));
+        pool.setEvictionIntervalMillis(getLongProperty(props, prefix + "eviction.interval.millis", pool.getEvictionIntervalMillis()));
+        pool.setMinEvictableIdleMillis(getLongProperty(props, prefix + "min.evictable.idle.millis", pool.getMinEvictableIdleMillis()));
+        pool.setValidationQuery(props.getProperty(prefix + "validation.query", pool.getValidationQuery()));
+        pool.setValidationTimeoutSeconds(getIntProperty(props, prefix + "validation.timeout.seconds", pool.getValidationTimeoutSeconds()));
+        pool.setTestOnBorrow(getBooleanProperty(props, prefix + "test.on.borrow", pool.isTestOnBorrow()));
+        pool.setTestWhileIdle(getBooleanProperty(props, prefix + "test.while.idle", pool.isTestWhileIdle()));
+        pool.setPoolPreparedStatements(getBooleanProperty(props, prefix + "pool.prepared.statements", pool.isPoolPreparedStatements()));
+        pool.setMaxOpenPreparedStatements(getIntProperty(props, prefix + "max.open.prepared.statements", pool.getMaxOpenPreparedStatements()));
+    }
+
+    /**
+     * Read an integer property, falling back to the default if missing or malformed
+     */
+    static int getIntProperty(Properties props, String key, int defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Read a long property, falling back to the default if missing or malformed
+     */
+    static long getLongProperty(Properties props, String key, long defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Read a boolean property, falling back to the default if missing
+     */
+    static boolean getBooleanProperty(Properties props, String key, boolean defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
 }
\ No newline at end of file
@@ -1,17 +1,22 @@
 package com.p6ebs.integration.util;
 
 import com.p6ebs.integration.model.ConnectionSettings;
-import org.apache.commons.dbcp2.BasicDataSource;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Manages database connections to P6 and EBS databases
  */
 public class DatabaseManager {
-    private static BasicDataSource p6DataSource;
-    private static BasicDataSource ebsDataSource;
+    private static final int DEFAULT_FETCH_SIZE = 500;
+    private static final String DEFAULT_INTEGRATION_SCHEMA = "p6_ebs_integration";
+
+    private static MonitoredDataSource p6DataSource;
+    private static MonitoredDataSource ebsDataSource;
+    private static MonitoredDataSource integrationDataSource;
     private static ConnectionSettings connectionSettings;
     private static boolean isInitialized = false;
 
@@ -28,24 +33,20 @@ public class DatabaseManager {
         // Close existing data sources if they exist
         closeDataSource(p6DataSource);
         closeDataSource(ebsDataSource);
+        closeDataSource(integrationDataSource);
 
         // Initialize P6 data source
-        p6DataSource = new BasicDataSource();
-        p6DataSource.setDriverClassName("oracle.jdbc.OracleDriver");
-        p6DataSource.setUrl(settings.getP6Url());
-        p6DataSource.setUsername(settings.getP6Username());
-        p6DataSource.setPassword(settings.getP6Password());
-        p6DataSource.setInitialSize(1);
-        p6DataSource.setMaxTotal(5);
+        p6DataSource = new MonitoredDataSource("P6", settings.getP6Url(),
+                settings.getP6Username(), settings.getP6Password(), settings.getP6Pool());
 
         // Initialize EBS data source
-        ebsDataSource = new BasicDataSource();
-        ebsDataSource.setDriverClassName("oracle.jdbc.OracleDriver");
-        ebsDataSource.setUrl(settings.getEbsUrl());
-        ebsDataSource.setUsername(settings.getEbsUsername());
-        ebsDataSource.setPassword(settings.getEbsPassword());
-        ebsDataSource.setInitialSize(1);
-        ebsDataSource.setMaxTotal(5);
+        ebsDataSource = new MonitoredDataSource("EBS", settings.getEbsUrl(),
+                settings.getEbsUsername(), settings.getEbsPassword(), settings.getEbsPool());
+
+        // Initialize integration schema data source, sized independently of the P6 pool
+        integrationDataSource = new MonitoredDataSource("Integration", settings.getEffectiveIntegrationUrl(),
+                settings.getEffectiveIntegrationUsername(), settings.getEffectiveIntegrationPassword(),
+                settings.getIntegrationPool());
 
         isInitialized = true;
         System.out.println("Database connections initialized");
@@ -71,6 +72,34 @@ public class DatabaseManager {
         return ebsDataSource.getConnection();
     }
 
+    /**
+     * Get a connection to the integration schema (staging tables, logs and sync packages)
+     */
+    public static Connection getIntegrationConnection() throws SQLException {
+        if (!isInitialized) {
+            throw new SQLException("Database connection not initialized. Please set up connection settings first.");
+        }
+        return integrationDataSource.getConnection();
+    }
+
+    /**
+     * Get the name of the integration schema
+     */
+    public static String getIntegrationSchema() {
+        if (connectionSettings == null || connectionSettings.getIntegrationSchema() == null
+                || connectionSettings.getIntegrationSchema().trim().isEmpty()) {
+            return DEFAULT_INTEGRATION_SCHEMA;
+        }
+        return connectionSettings.getIntegrationSchema().trim();
+    }
+
+    /**
+     * Qualify a table or package name with the integration schema
+     */
+    public static String integrationObject(String name) {
+        return getIntegrationSchema() + "." + name;
+    }
+
     /**
      * Close database resources
      */
@@ -90,7 +119,7 @@ public class DatabaseManager {
     /**
      * Close a data source
      */
-    private static void closeDataSource(BasicDataSource dataSource) {
+    private static void closeDataSource(MonitoredDataSource dataSource) {
         if (dataSource != null) {
             try {
                 dataSource.close();
@@ -101,6 +130,20 @@ public class DatabaseManager {
         }
     }
 
+    /**
+     * Get live statistics for every connection pool
+     */
+    public static List<PoolStats> getPoolStats() {
+        List<PoolStats> stats = new ArrayList<>();
+        if (!isInitialized) {
+            return stats;
+        }
+        stats.add(p6DataSource.snapshot());
+        stats.add(ebsDataSource.snapshot());
+        stats.add(integrationDataSource.snapshot());
+        return stats;
+    }
+
     /**
      * Check if database connections are initialized
      */
@@ -115,6 +158,16 @@ public class DatabaseManager {
         return connectionSettings;
     }
 
+    /**
+     * Get the JDBC fetch size to use for streaming reads
+     */
+    public static int getFetchSize() {
+        if (connectionSettings == null || connectionSettings.getFetchSize() <= 0) {
+            return DEFAULT_FETCH_SIZE;
+        }
+        return connectionSettings.getFetchSize();
+    }
+
     /**
      * Shutdown all database connections
      */
@@ -122,6 +175,7 @@ public class DatabaseManager {
         System.out.println("Shutting down database connections");
         closeDataSource(p6DataSource);
         closeDataSource(ebsDataSource);
+        closeDataSource(integrationDataSource);
         isInitialized = false;
     }
 
@@ -0,0 +1,123 @@
+package com.p6ebs.integration.util;
+
+import com.p6ebs.integration.metrics.MetricsRegistry;
+import com.p6ebs.integration.metrics.Timer;
+import com.p6ebs.integration.model.PoolSettings;
+import com.p6ebs.integration.trace.QueryTracer;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pooled data source that records borrow latency and contention, both in its own
+ * counters and as db.pool.* meters in the {@link MetricsRegistry}
+ */
+class MonitoredDataSource {
+
+    /**
+     * Exposes the number of threads blocked in the underlying object pool
+     */
+    private static class WaiterCountingDataSource extends BasicDataSource {
+        int getNumWaiters() {
+            GenericObjectPool<?> pool = getConnectionPool();
+            return pool != null ? pool.getNumWaiters() : 0;
+        }
+    }
+
+    private final String name;
+    private final WaiterCountingDataSource dataSource;
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong waitCount = new AtomicLong();
+    private final AtomicLong totalBorrowNanos = new AtomicLong();
+    private final AtomicLong maxBorrowNanos = new AtomicLong();
+    private final Timer borrowTimer;
+
+    MonitoredDataSource(String name, String url, String username, String password, PoolSettings pool) {
+        this.name = name;
+        this.dataSource = new WaiterCountingDataSource();
+        // Other URLs, such as an embedded H2 database, are resolved through DriverManager
+        if (url != null && url.startsWith("jdbc:oracle:")) {
+            dataSource.setDriverClassName("oracle.jdbc.OracleDriver");
+        }
+        dataSource.setUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+
+        dataSource.setInitialSize(pool.getInitialSize());
+        dataSource.setMinIdle(pool.getMinIdle());
+        dataSource.setMaxIdle(pool.getMaxIdle());
+        dataSource.setMaxTotal(pool.getMaxTotal());
+        dataSource.setMaxWaitMillis(pool.getMaxWaitMillis());
+        dataSource.setTimeBetweenEvictionRunsMillis(pool.getEvictionIntervalMillis());
+        dataSource.setMinEvictableIdleTimeMillis(pool.getMinEvictableIdleMillis());
+
+        String validationQuery = pool.getValidationQuery();
+        if (validationQuery != null && !validationQuery.trim().isEmpty()) {
+            dataSource.setValidationQuery(validationQuery);
+        }
+        dataSource.setValidationQueryTimeout(pool.getValidationTimeoutSeconds());
+        dataSource.setTestOnBorrow(pool.isTestOnBorrow());
+        dataSource.setTestWhileIdle(pool.isTestWhileIdle());
+
+        dataSource.setPoolPreparedStatements(pool.isPoolPreparedStatements());
+        dataSource.setMaxOpenPreparedStatements(pool.getMaxOpenPreparedStatements());
+
+        // Gauges of a recreated pool replace those of the pool it replaces
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        borrowTimer = registry.timer("db.pool.borrow", "pool", name);
+        registry.gauge("db.pool.active", dataSource::getNumActive, "pool", name);
+        registry.gauge("db.pool.idle", dataSource::getNumIdle, "pool", name);
+        registry.gauge("db.pool.max", dataSource::getMaxTotal, "pool", name);
+        registry.gauge("db.pool.waiting", dataSource::getNumWaiters, "pool", name);
+    }
+
+    /**
+     * Borrow a connection, recording how long the borrow took. The connection is
+     * wrapped for slow query tracing when that is enabled.
+     */
+    Connection getConnection() throws SQLException {
+        if (dataSource.getNumIdle() == 0 && dataSource.getNumActive() >= dataSource.getMaxTotal()) {
+            waitCount.incrementAndGet();
+        }
+
+        long start = System.nanoTime();
+        Connection conn = dataSource.getConnection();
+        long elapsed = System.nanoTime() - start;
+        borrowCount.incrementAndGet();
+        totalBorrowNanos.addAndGet(elapsed);
+        maxBorrowNanos.accumulateAndGet(elapsed, Math::max);
+        borrowTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        return QueryTracer.getInstance().wrap(name, conn);
+    }
+
+    /**
+     * Take a snapshot of the pool's current state
+     */
+    PoolStats snapshot() {
+        long borrows = borrowCount.get();
+        double meanMillis = borrows == 0 ? 0.0 : totalBorrowNanos.get() / (double) borrows / 1_000_000.0;
+        return new PoolStats(
+                name,
+                dataSource.getNumActive(),
+                dataSource.getNumIdle(),
+                dataSource.getMaxTotal(),
+                dataSource.getNumWaiters(),
+                borrows,
+                waitCount.get(),
+                meanMillis,
+                maxBorrowNanos.get() / 1_000_000.0
+        );
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void close() throws SQLException {
+        dataSource.close();
+    }
+}
@@ -0,0 +1,58 @@
+package com.p6ebs.integration.util;
+
+/**
+ * Point-in-time snapshot of a connection pool's state and borrow statistics
+ */
+public class PoolStats {
+    private final String poolName;
+    private final int active;
+    private final int idle;
+    private final int maxTotal;
+    private final int waiting;
+    private final long borrowCount;
+    private final long waitCount;
+    private final double meanBorrowMillis;
+    private final double maxBorrowMillis;
+
+    public PoolStats(String poolName, int active, int idle, int maxTotal, int waiting,
+                     long borrowCount, long waitCount, double meanBorrowMillis, double maxBorrowMillis) {
+        this.poolName = poolName;
+        this.active = active;
+        this.idle = idle;
+        this.maxTotal = maxTotal;
+        this.waiting = waiting;
+        this.borrowCount = borrowCount;
+        this.waitCount = waitCount;
+        this.meanBorrowMillis = meanBorrowMillis;
+        this.maxBorrowMillis = maxBorrowMillis;
+    }
+
+    public String getPoolName() { return poolName; }
+
+    /** Connections currently borrowed */
+    public int getActive() { return active; }
+
+    /** Connections sitting idle in the pool */
+    public int getIdle() { return idle; }
+
+    public int getMaxTotal() { return maxTotal; }
+
+    /** Threads currently blocked waiting for a connection */
+    public int getWaiting() { return waiting; }
+
+    /** Total successful borrows since the pool was created */
+    public long getBorrowCount() { return borrowCount; }
+
+    /** Borrows that found the pool exhausted and had to wait */
+    public long getWaitCount() { return waitCount; }
+
+    public double getMeanBorrowMillis() { return meanBorrowMillis; }
+
+    public double getMaxBorrowMillis() { return maxBorrowMillis; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: active=%d idle=%d max=%d waiting=%d borrows=%d waits=%d borrowMs(mean=%.2f max=%.2f)",
+                poolName, active, idle, maxTotal, waiting, borrowCount, waitCount, meanBorrowMillis, maxBorrowMillis);
+    }
+}